@@ -0,0 +1,46 @@
+#!/bin/sh
+# 测量转换单个文件的冷启动耗时
+# 对比直接运行jar（默认JVM参数，只有JDK自带的类共享）与bin/js2j（AppCDS归档和启动优化参数）
+#
+# 用法: scripts/measure-startup.sh [JavaScript文件] [运行次数]
+# 需要先执行 mvn package
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+INPUT=${1:-$ROOT/example.js}
+RUNS=${2:-10}
+JAR=$(ls "$ROOT"/target/js2j-j-*.jar 2>/dev/null | head -n 1)
+OUT=$(mktemp -d)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ -z "$JAR" ]; then
+    echo "找不到js2j的jar，请先运行 mvn package" >&2
+    exit 1
+fi
+
+# 运行给定命令RUNS次，输出平均耗时和最小耗时（毫秒）
+measure() {
+    total=0
+    min=0
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        start=$(date +%s%N)
+        "$@" "$INPUT" "$OUT" >/dev/null 2>&1
+        end=$(date +%s%N)
+        elapsed=$(( (end - start) / 1000000 ))
+        total=$((total + elapsed))
+        if [ $min -eq 0 ] || [ $elapsed -lt $min ]; then
+            min=$elapsed
+        fi
+        i=$((i + 1))
+    done
+    echo "平均 $((total / RUNS)) ms, 最小 $min ms"
+}
+
+# 预先生成归档，不计入测量
+rm -f "$ROOT/target/js2j.jsa"
+"$ROOT/bin/js2j" --train >/dev/null 2>&1
+
+echo "输入: $INPUT, 每种方式运行 $RUNS 次"
+echo "优化前 (java -jar):      $(measure "$JAVA" -jar "$JAR")"
+echo "优化后 (bin/js2j + CDS): $(measure "$ROOT/bin/js2j")"
+rm -rf "$OUT"
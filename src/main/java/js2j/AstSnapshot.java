@@ -0,0 +1,1309 @@
+package js2j;
+
+import org.mozilla.javascript.Node;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.ArrayLiteral;
+import org.mozilla.javascript.ast.Assignment;
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.Block;
+import org.mozilla.javascript.ast.BreakStatement;
+import org.mozilla.javascript.ast.CatchClause;
+import org.mozilla.javascript.ast.Comment;
+import org.mozilla.javascript.ast.ConditionalExpression;
+import org.mozilla.javascript.ast.ContinueStatement;
+import org.mozilla.javascript.ast.DoLoop;
+import org.mozilla.javascript.ast.ElementGet;
+import org.mozilla.javascript.ast.EmptyExpression;
+import org.mozilla.javascript.ast.EmptyStatement;
+import org.mozilla.javascript.ast.ExpressionStatement;
+import org.mozilla.javascript.ast.ForInLoop;
+import org.mozilla.javascript.ast.ForLoop;
+import org.mozilla.javascript.ast.FunctionCall;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.IfStatement;
+import org.mozilla.javascript.ast.InfixExpression;
+import org.mozilla.javascript.ast.KeywordLiteral;
+import org.mozilla.javascript.ast.Label;
+import org.mozilla.javascript.ast.LabeledStatement;
+import org.mozilla.javascript.ast.Name;
+import org.mozilla.javascript.ast.NewExpression;
+import org.mozilla.javascript.ast.NumberLiteral;
+import org.mozilla.javascript.ast.ObjectLiteral;
+import org.mozilla.javascript.ast.ObjectProperty;
+import org.mozilla.javascript.ast.ParenthesizedExpression;
+import org.mozilla.javascript.ast.PropertyGet;
+import org.mozilla.javascript.ast.RegExpLiteral;
+import org.mozilla.javascript.ast.ReturnStatement;
+import org.mozilla.javascript.ast.Scope;
+import org.mozilla.javascript.ast.ScriptNode;
+import org.mozilla.javascript.ast.StringLiteral;
+import org.mozilla.javascript.ast.SwitchCase;
+import org.mozilla.javascript.ast.SwitchStatement;
+import org.mozilla.javascript.ast.ThrowStatement;
+import org.mozilla.javascript.ast.TryStatement;
+import org.mozilla.javascript.ast.UnaryExpression;
+import org.mozilla.javascript.ast.UpdateExpression;
+import org.mozilla.javascript.ast.VariableDeclaration;
+import org.mozilla.javascript.ast.VariableInitializer;
+import org.mozilla.javascript.ast.WhileLoop;
+import org.mozilla.javascript.ast.WithStatement;
+import org.mozilla.javascript.ast.Yield;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * AST快照的二进制格式
+ * 按前序写出每个节点的种类、相对位置、长度、行号、记号类型、属性和各子节点，整数使用变长编码，
+ * 字符串第一次出现时写出内容，之后只写编号。注释先集中写成一张表，语句列表中的注释和JsDoc属性只引用表中的编号。
+ * 解码得到的树与解析器生成的树结构、位置和toSource()都相同，不保存转换器不使用的派生信息，
+ * 如作用域的符号表、break/continue的跳转目标和函数内记录的子函数列表
+ *
+ * 只支持两个解析器前端实际生成的节点种类，遇到其他节点时不生成快照
+ */
+final class AstSnapshot {
+
+    /** 文件开头的魔数 */
+    static final int MAGIC = 0x4A324153;
+    /** 格式版本，格式或写出的字段变化时增加，旧版本的快照按未命中处理 */
+    static final int FORMAT_VERSION = 1;
+    /** 魔数、版本和内容长度 */
+    static final int HEADER_BYTES = 12;
+
+    private static final int NULL = 0;
+    private static final int COMMENT = 1;
+    private static final int BLOCK = 2;
+    private static final int SCOPE = 3;
+    private static final int EXPRESSION_STATEMENT = 4;
+    private static final int VARIABLE_DECLARATION = 5;
+    private static final int VARIABLE_INITIALIZER = 6;
+    private static final int FUNCTION = 7;
+    private static final int NAME = 8;
+    private static final int STRING = 9;
+    private static final int NUMBER = 10;
+    private static final int KEYWORD = 11;
+    private static final int REGEXP = 12;
+    private static final int ARRAY = 13;
+    private static final int OBJECT = 14;
+    private static final int OBJECT_PROPERTY = 15;
+    private static final int ASSIGNMENT = 16;
+    private static final int INFIX = 17;
+    private static final int PROPERTY_GET = 18;
+    private static final int ELEMENT_GET = 19;
+    private static final int CALL = 20;
+    private static final int NEW = 21;
+    private static final int UNARY = 22;
+    private static final int UPDATE = 23;
+    private static final int CONDITIONAL = 24;
+    private static final int PARENTHESIZED = 25;
+    private static final int IF = 26;
+    private static final int FOR = 27;
+    private static final int FOR_IN = 28;
+    private static final int WHILE = 29;
+    private static final int DO = 30;
+    private static final int SWITCH = 31;
+    private static final int SWITCH_CASE = 32;
+    private static final int RETURN = 33;
+    private static final int THROW = 34;
+    private static final int TRY = 35;
+    private static final int CATCH = 36;
+    private static final int BREAK = 37;
+    private static final int CONTINUE = 38;
+    private static final int LABELED = 39;
+    private static final int LABEL = 40;
+    private static final int EMPTY_STATEMENT = 41;
+    private static final int EMPTY_EXPRESSION = 42;
+    private static final int YIELD = 43;
+    private static final int WITH = 44;
+
+    /** 节点类到种类编号，只按确切的类查找，子类不会被当作父类写出 */
+    private static final Map<Class<?>, Integer> KINDS = new HashMap<>();
+
+    static {
+        KINDS.put(Block.class, BLOCK);
+        KINDS.put(Scope.class, SCOPE);
+        KINDS.put(ExpressionStatement.class, EXPRESSION_STATEMENT);
+        KINDS.put(VariableDeclaration.class, VARIABLE_DECLARATION);
+        KINDS.put(VariableInitializer.class, VARIABLE_INITIALIZER);
+        KINDS.put(FunctionNode.class, FUNCTION);
+        KINDS.put(Name.class, NAME);
+        KINDS.put(StringLiteral.class, STRING);
+        KINDS.put(NumberLiteral.class, NUMBER);
+        KINDS.put(KeywordLiteral.class, KEYWORD);
+        KINDS.put(RegExpLiteral.class, REGEXP);
+        KINDS.put(ArrayLiteral.class, ARRAY);
+        KINDS.put(ObjectLiteral.class, OBJECT);
+        KINDS.put(ObjectProperty.class, OBJECT_PROPERTY);
+        KINDS.put(Assignment.class, ASSIGNMENT);
+        KINDS.put(InfixExpression.class, INFIX);
+        KINDS.put(PropertyGet.class, PROPERTY_GET);
+        KINDS.put(ElementGet.class, ELEMENT_GET);
+        KINDS.put(FunctionCall.class, CALL);
+        KINDS.put(NewExpression.class, NEW);
+        KINDS.put(UnaryExpression.class, UNARY);
+        KINDS.put(UpdateExpression.class, UPDATE);
+        KINDS.put(ConditionalExpression.class, CONDITIONAL);
+        KINDS.put(ParenthesizedExpression.class, PARENTHESIZED);
+        KINDS.put(IfStatement.class, IF);
+        KINDS.put(ForLoop.class, FOR);
+        KINDS.put(ForInLoop.class, FOR_IN);
+        KINDS.put(WhileLoop.class, WHILE);
+        KINDS.put(DoLoop.class, DO);
+        KINDS.put(SwitchStatement.class, SWITCH);
+        KINDS.put(SwitchCase.class, SWITCH_CASE);
+        KINDS.put(ReturnStatement.class, RETURN);
+        KINDS.put(ThrowStatement.class, THROW);
+        KINDS.put(TryStatement.class, TRY);
+        KINDS.put(CatchClause.class, CATCH);
+        KINDS.put(BreakStatement.class, BREAK);
+        KINDS.put(ContinueStatement.class, CONTINUE);
+        KINDS.put(LabeledStatement.class, LABELED);
+        KINDS.put(Label.class, LABEL);
+        KINDS.put(EmptyStatement.class, EMPTY_STATEMENT);
+        KINDS.put(EmptyExpression.class, EMPTY_EXPRESSION);
+        KINDS.put(Yield.class, YIELD);
+        KINDS.put(WithStatement.class, WITH);
+    }
+
+    /** 节点属性值的种类 */
+    private static final int PROP_INT = 0;
+    private static final int PROP_BOOLEAN = 1;
+    private static final int PROP_INTEGER = 2;
+    private static final int PROP_STRING = 3;
+    private static final int PROP_COMMENT = 4;
+
+    /** 节点头部的标志位，省略与缺省值相同的字段 */
+    private static final int HAS_LINE = 1;
+    private static final int HAS_TYPE = 2;
+    private static final int HAS_PROPS = 4;
+    private static final int HAS_INLINE_COMMENT = 8;
+
+    /** 函数的标志位 */
+    private static final int FUNCTION_EXPRESSION_CLOSURE = 1;
+    private static final int FUNCTION_GENERATOR = 2;
+    private static final int FUNCTION_ES6_GENERATOR = 4;
+    private static final int FUNCTION_GETTER = 8;
+    private static final int FUNCTION_SETTER = 16;
+    private static final int FUNCTION_METHOD = 32;
+    private static final int FUNCTION_REQUIRES_ACTIVATION = 64;
+
+    /** 各种类的节点新建时的记号类型，与之相同时不写出 */
+    private static final int[] DEFAULT_TYPES = new int[WITH + 1];
+    private static final int ROOT_TYPE = new AstRoot().getType();
+    private static final int COMMENT_TYPE = Token.COMMENT;
+
+    static {
+        for (int kind = BLOCK; kind <= WITH; kind++) {
+            DEFAULT_TYPES[kind] = kind == FUNCTION ? new FunctionNode().getType() : create(kind).getType();
+        }
+    }
+
+    private AstSnapshot() {
+    }
+
+    /**
+     * 将AST编码为快照
+     *
+     * @param root 解析器刚生成、尚未被优化修改的AST
+     * @return 快照内容，AST中有不支持的节点时返回null
+     */
+    static byte[] encode(AstRoot root) {
+        try {
+            return new Encoder(root).encode();
+        } catch (UnsupportedNodeException e) {
+            JSLogger.debug("AST快照不支持 " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 从快照解码AST
+     *
+     * @param buffer 快照内容，通常是内存映射的文件
+     * @param sourceName 源文件名，设置到解码得到的AST上
+     * @return AST根节点
+     * @throws IOException 如果版本不匹配或内容已损坏
+     */
+    static AstRoot decode(ByteBuffer buffer, String sourceName) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("不是AST快照");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("快照格式版本 " + version + " 与当前版本 " + FORMAT_VERSION + " 不同");
+        }
+        int length = buffer.getInt();
+        if (length != buffer.remaining()) {
+            throw new IOException("快照长度不正确");
+        }
+        try {
+            return new Decoder(buffer, sourceName).decode();
+        } catch (RuntimeException e) {
+            throw new IOException("快照内容已损坏: " + e, e);
+        }
+    }
+
+    private static AstNode create(int kind) {
+        switch (kind) {
+            case BLOCK: return new Block();
+            case SCOPE: return new Scope();
+            case EXPRESSION_STATEMENT: return new ExpressionStatement();
+            case VARIABLE_DECLARATION: return new VariableDeclaration();
+            case VARIABLE_INITIALIZER: return new VariableInitializer();
+            case NAME: return new Name();
+            case STRING: return new StringLiteral();
+            case NUMBER: return new NumberLiteral();
+            case KEYWORD: return new KeywordLiteral();
+            case REGEXP: return new RegExpLiteral();
+            case ARRAY: return new ArrayLiteral();
+            case OBJECT: return new ObjectLiteral();
+            case OBJECT_PROPERTY: return new ObjectProperty();
+            case ASSIGNMENT: return new Assignment();
+            case INFIX: return new InfixExpression();
+            case PROPERTY_GET: return new PropertyGet();
+            case ELEMENT_GET: return new ElementGet();
+            case CALL: return new FunctionCall();
+            case NEW: return new NewExpression();
+            case UNARY: return new UnaryExpression();
+            case UPDATE: return new UpdateExpression();
+            case CONDITIONAL: return new ConditionalExpression();
+            case PARENTHESIZED: return new ParenthesizedExpression();
+            case IF: return new IfStatement();
+            case FOR: return new ForLoop();
+            case FOR_IN: return new ForInLoop();
+            case WHILE: return new WhileLoop();
+            case DO: return new DoLoop();
+            case SWITCH: return new SwitchStatement();
+            case SWITCH_CASE: return new SwitchCase();
+            case RETURN: return new ReturnStatement();
+            case THROW: return new ThrowStatement();
+            case TRY: return new TryStatement();
+            case CATCH: return new CatchClause();
+            case BREAK: return new BreakStatement();
+            case CONTINUE: return new ContinueStatement();
+            case LABELED: return new LabeledStatement();
+            case LABEL: return new Label();
+            case EMPTY_STATEMENT: return new EmptyStatement();
+            case EMPTY_EXPRESSION: return new EmptyExpression();
+            case YIELD: return new Yield();
+            case WITH: return new WithStatement();
+            default: throw new IllegalStateException("未知的节点种类 " + kind);
+        }
+    }
+
+    /**
+     * 遇到不支持的节点或不符合预期的父子关系
+     */
+    private static final class UnsupportedNodeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedNodeException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final AstRoot root;
+        private byte[] bytes = new byte[4096];
+        private int size = HEADER_BYTES;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Comment, Integer> comments = new IdentityHashMap<>();
+
+        Encoder(AstRoot root) {
+            this.root = root;
+        }
+
+        byte[] encode() {
+            if (root.getParent() != null) {
+                throw new UnsupportedNodeException("不是独立的AST");
+            }
+            int rootFlags = writeHeader(root, 0, ROOT_TYPE);
+
+            // 注释表：绝对位置用于按原来的顺序放入根节点的注释集合，之后再恢复相对位置。
+            // 解析结束时所有注释都被放入根节点的注释集合，父节点都是根节点，包括出现在函数体语句列表中的注释
+            List<Comment> table = root.getComments() == null ? new ArrayList<>() : new ArrayList<>(root.getComments());
+            writeUnsigned(table.size());
+            for (Comment comment : table) {
+                if (comment.getClass() != Comment.class || comment.getParent() != root
+                    || comment.getInlineComment() != null || countProps(comment, new int[Node.LAST_PROP + 1]) > 0) {
+                    throw new UnsupportedNodeException("注释 " + comment.getClass().getSimpleName());
+                }
+                comments.put(comment, comments.size());
+                writeSigned(comment.getAbsolutePosition());
+                writeHeader(comment, root.getLineno(), COMMENT_TYPE);
+                writeUnsigned(comment.getCommentType().ordinal());
+                writeString(comment.getValue());
+            }
+            writeScript(root, rootFlags);
+            writeChildren(root);
+
+            ByteBuffer header = ByteBuffer.wrap(bytes, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(size - HEADER_BYTES);
+            return Arrays.copyOf(bytes, size);
+        }
+
+        /**
+         * 每个节点共有的字段：标志位、相对位置、长度，与缺省值不同时还有相对于父节点的行号和记号类型
+         *
+         * @return 标志位，随后由writeExtras写出属性和行内注释
+         */
+        private int writeHeader(AstNode node, int parentLine, int defaultType) {
+            int line = node.getLineno() - parentLine;
+            int flags = (line != 0 ? HAS_LINE : 0)
+                        | (node.getType() != defaultType ? HAS_TYPE : 0)
+                        | (countProps(node, new int[Node.LAST_PROP + 1]) > 0 ? HAS_PROPS : 0)
+                        | (node.getInlineComment() != null ? HAS_INLINE_COMMENT : 0);
+            writeUnsigned(flags);
+            writeSigned(node.getPosition());
+            writeSigned(node.getLength());
+            if ((flags & HAS_LINE) != 0) {
+                writeSigned(line);
+            }
+            if ((flags & HAS_TYPE) != 0) {
+                writeSigned(node.getType());
+            }
+            return flags;
+        }
+
+        /**
+         * 找出节点上的属性及其值的种类
+         *
+         * @return 属性个数
+         */
+        private int countProps(AstNode node, int[] kinds) {
+            int count = 0;
+            for (int prop = 1; prop <= Node.LAST_PROP; prop++) {
+                Object value = node.getProp(prop);
+                if (value == null) {
+                    // 整数属性没有对象值，用两个不同的缺省值区分是否存在
+                    kinds[prop] = node.getIntProp(prop, 0) == node.getIntProp(prop, -1) ? PROP_INT : -1;
+                } else if (value instanceof Boolean) {
+                    kinds[prop] = PROP_BOOLEAN;
+                } else if (value instanceof Integer) {
+                    kinds[prop] = PROP_INTEGER;
+                } else if (value instanceof String) {
+                    kinds[prop] = PROP_STRING;
+                } else if (value instanceof Comment) {
+                    kinds[prop] = PROP_COMMENT;
+                } else {
+                    throw new UnsupportedNodeException(Token.typeToName(node.getType()) + " 的属性 " + prop);
+                }
+                if (kinds[prop] >= 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private void writeExtras(AstNode node, int flags) {
+            if ((flags & HAS_PROPS) != 0) {
+                writeProps(node);
+            }
+            if ((flags & HAS_INLINE_COMMENT) != 0) {
+                writeCommentRef(node.getInlineComment());
+            }
+        }
+
+        private void writeProps(AstNode node) {
+            int[] kinds = new int[Node.LAST_PROP + 1];
+            int count = countProps(node, kinds);
+            writeUnsigned(count);
+            for (int prop = 1; prop <= Node.LAST_PROP && count > 0; prop++) {
+                switch (kinds[prop]) {
+                    case PROP_INT:
+                        writeUnsigned(prop);
+                        writeUnsigned(PROP_INT);
+                        writeSigned(node.getIntProp(prop, 0));
+                        break;
+                    case PROP_BOOLEAN:
+                        writeUnsigned(prop);
+                        writeUnsigned(PROP_BOOLEAN);
+                        writeUnsigned((Boolean) node.getProp(prop) ? 1 : 0);
+                        break;
+                    case PROP_INTEGER:
+                        writeUnsigned(prop);
+                        writeUnsigned(PROP_INTEGER);
+                        writeSigned((Integer) node.getProp(prop));
+                        break;
+                    case PROP_STRING:
+                        writeUnsigned(prop);
+                        writeUnsigned(PROP_STRING);
+                        writeString((String) node.getProp(prop));
+                        break;
+                    case PROP_COMMENT:
+                        writeUnsigned(prop);
+                        writeUnsigned(PROP_COMMENT);
+                        writeCommentRef((Comment) node.getProp(prop));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        /**
+         * 根节点和函数共有的字段
+         */
+        private void writeScript(ScriptNode script, int flags) {
+            writeSigned(script.getBaseLineno());
+            writeSigned(script.getEndLineno());
+            writeUnsigned(script.isInStrictMode() ? 1 : 0);
+            writeExtras(script, flags);
+        }
+
+        private int commentIndex(Comment comment) {
+            Integer index = comments.get(comment);
+            if (index == null) {
+                throw new UnsupportedNodeException("不在注释表中的注释");
+            }
+            return index;
+        }
+
+        /**
+         * 0表示null，1表示随后是不在注释表中的独立注释（JsDoc属性引用的注释是单独的对象，没有父节点），
+         * 其他值是注释表中的编号加2
+         */
+        private void writeCommentRef(AstNode comment) {
+            if (comment == null) {
+                writeUnsigned(0);
+                return;
+            }
+            if (comment.getClass() != Comment.class) {
+                throw new UnsupportedNodeException("不是注释的行内注释");
+            }
+            Integer index = comments.get(comment);
+            if (index != null) {
+                writeUnsigned(index + 2);
+                return;
+            }
+            if (comment.getParent() != null || comment.getInlineComment() != null) {
+                throw new UnsupportedNodeException("不在注释表中的注释");
+            }
+            writeUnsigned(1);
+            writeSigned(comment.getPosition());
+            writeSigned(comment.getLength());
+            writeSigned(comment.getLineno());
+            writeUnsigned(((Comment) comment).getCommentType().ordinal());
+            writeString(((Comment) comment).getValue());
+        }
+
+        private void writeChildren(AstNode parent) {
+            int count = 0;
+            for (Node child = parent.getFirstChild(); child != null; child = child.getNext()) {
+                count++;
+            }
+            writeUnsigned(count);
+            for (Node child = parent.getFirstChild(); child != null; child = child.getNext()) {
+                if (!(child instanceof AstNode)) {
+                    throw new UnsupportedNodeException(Token.typeToName(child.getType()) + " 子节点");
+                }
+                writeNode((AstNode) child, parent);
+            }
+        }
+
+        private void writeList(List<? extends AstNode> nodes, AstNode parent) {
+            if (nodes == null) {
+                writeUnsigned(0);
+                return;
+            }
+            writeUnsigned(nodes.size() + 1);
+            for (AstNode node : nodes) {
+                writeNode(node, parent);
+            }
+        }
+
+        private void writeNode(AstNode node, AstNode parent) {
+            if (node == null) {
+                writeUnsigned(NULL);
+                return;
+            }
+            if (node.getClass() == Comment.class) {
+                writeUnsigned(COMMENT);
+                writeUnsigned(commentIndex((Comment) node));
+                return;
+            }
+            if (node.getParent() != parent) {
+                throw new UnsupportedNodeException(node.getClass().getSimpleName() + " 的父节点");
+            }
+            Integer kind = KINDS.get(node.getClass());
+            if (kind == null) {
+                throw new UnsupportedNodeException(node.getClass().getSimpleName());
+            }
+            if (node.getFirstChild() != null && kind != BLOCK && kind != SCOPE) {
+                throw new UnsupportedNodeException(node.getClass().getSimpleName() + " 的子节点列表");
+            }
+            writeUnsigned(kind);
+            int flags = writeHeader(node, parent.getLineno(), DEFAULT_TYPES[kind]);
+            if (kind == FUNCTION) {
+                writeScript((ScriptNode) node, flags);
+            } else {
+                writeExtras(node, flags);
+            }
+
+            switch (kind) {
+                case BLOCK:
+                case SCOPE:
+                    writeChildren(node);
+                    break;
+                case EXPRESSION_STATEMENT:
+                    writeNode(((ExpressionStatement) node).getExpression(), node);
+                    break;
+                case VARIABLE_DECLARATION: {
+                    VariableDeclaration declaration = (VariableDeclaration) node;
+                    writeUnsigned(declaration.isStatement() ? 1 : 0);
+                    writeList(declaration.getVariables(), node);
+                    break;
+                }
+                case VARIABLE_INITIALIZER: {
+                    VariableInitializer initializer = (VariableInitializer) node;
+                    writeNode(initializer.getTarget(), node);
+                    writeNode(initializer.getInitializer(), node);
+                    break;
+                }
+                case FUNCTION: {
+                    FunctionNode function = (FunctionNode) node;
+                    int functionFlags = (function.isExpressionClosure() ? FUNCTION_EXPRESSION_CLOSURE : 0)
+                                        | (function.isGenerator() ? FUNCTION_GENERATOR : 0)
+                                        | (function.isES6Generator() ? FUNCTION_ES6_GENERATOR : 0)
+                                        | (function.isGetterMethod() ? FUNCTION_GETTER : 0)
+                                        | (function.isSetterMethod() ? FUNCTION_SETTER : 0)
+                                        | (function.isNormalMethod() ? FUNCTION_METHOD : 0)
+                                        | (function.requiresActivation() ? FUNCTION_REQUIRES_ACTIVATION : 0);
+                    writeUnsigned(functionFlags);
+                    writeUnsigned(function.getFunctionType());
+                    writeNode(function.getFunctionName(), node);
+                    writeList(function.getParams(), node);
+                    writeNode(function.getBody(), node);
+                    break;
+                }
+                case NAME:
+                    writeString(((Name) node).getIdentifier());
+                    break;
+                case STRING: {
+                    StringLiteral string = (StringLiteral) node;
+                    writeString(string.getValue());
+                    writeUnsigned(string.getQuoteCharacter());
+                    break;
+                }
+                case NUMBER: {
+                    NumberLiteral number = (NumberLiteral) node;
+                    writeString(number.getValue());
+                    writeLong(Double.doubleToRawLongBits(number.getNumber()));
+                    break;
+                }
+                case KEYWORD:
+                case EMPTY_STATEMENT:
+                case EMPTY_EXPRESSION:
+                    break;
+                case REGEXP: {
+                    RegExpLiteral regexp = (RegExpLiteral) node;
+                    writeString(regexp.getValue());
+                    writeString(regexp.getFlags());
+                    break;
+                }
+                case ARRAY: {
+                    ArrayLiteral array = (ArrayLiteral) node;
+                    writeUnsigned(array.isDestructuring() ? 1 : 0);
+                    writeSigned(array.getDestructuringLength());
+                    writeSigned(array.getSkipCount());
+                    writeList(array.getElements(), node);
+                    break;
+                }
+                case OBJECT: {
+                    ObjectLiteral object = (ObjectLiteral) node;
+                    writeUnsigned(object.isDestructuring() ? 1 : 0);
+                    writeList(object.getElements(), node);
+                    break;
+                }
+                case OBJECT_PROPERTY:
+                case ASSIGNMENT:
+                case INFIX:
+                case PROPERTY_GET: {
+                    InfixExpression infix = (InfixExpression) node;
+                    writeNode(infix.getLeft(), node);
+                    writeNode(infix.getRight(), node);
+                    break;
+                }
+                case ELEMENT_GET: {
+                    ElementGet get = (ElementGet) node;
+                    writeNode(get.getTarget(), node);
+                    writeNode(get.getElement(), node);
+                    break;
+                }
+                case CALL:
+                case NEW: {
+                    FunctionCall call = (FunctionCall) node;
+                    writeNode(call.getTarget(), node);
+                    writeList(call.getArguments(), node);
+                    if (kind == NEW) {
+                        writeNode(((NewExpression) node).getInitializer(), node);
+                    }
+                    break;
+                }
+                case UNARY:
+                    writeNode(((UnaryExpression) node).getOperand(), node);
+                    break;
+                case UPDATE: {
+                    UpdateExpression update = (UpdateExpression) node;
+                    writeUnsigned(update.isPostfix() ? 1 : 0);
+                    writeNode(update.getOperand(), node);
+                    break;
+                }
+                case CONDITIONAL: {
+                    ConditionalExpression conditional = (ConditionalExpression) node;
+                    writeNode(conditional.getTestExpression(), node);
+                    writeNode(conditional.getTrueExpression(), node);
+                    writeNode(conditional.getFalseExpression(), node);
+                    break;
+                }
+                case PARENTHESIZED:
+                    writeNode(((ParenthesizedExpression) node).getExpression(), node);
+                    break;
+                case IF: {
+                    IfStatement statement = (IfStatement) node;
+                    writeNode(statement.getCondition(), node);
+                    writeNode(statement.getThenPart(), node);
+                    writeNode(statement.getElsePart(), node);
+                    writeCommentRef(statement.getElseKeyWordInlineComment());
+                    break;
+                }
+                case FOR: {
+                    ForLoop loop = (ForLoop) node;
+                    writeNode(loop.getInitializer(), node);
+                    writeNode(loop.getCondition(), node);
+                    writeNode(loop.getIncrement(), node);
+                    writeNode(loop.getBody(), node);
+                    break;
+                }
+                case FOR_IN: {
+                    ForInLoop loop = (ForInLoop) node;
+                    writeUnsigned((loop.isForEach() ? 1 : 0) | (loop.isForOf() ? 2 : 0));
+                    writeNode(loop.getIterator(), node);
+                    writeNode(loop.getIteratedObject(), node);
+                    writeNode(loop.getBody(), node);
+                    break;
+                }
+                case WHILE: {
+                    WhileLoop loop = (WhileLoop) node;
+                    writeNode(loop.getCondition(), node);
+                    writeNode(loop.getBody(), node);
+                    break;
+                }
+                case DO: {
+                    DoLoop loop = (DoLoop) node;
+                    writeNode(loop.getBody(), node);
+                    writeNode(loop.getCondition(), node);
+                    break;
+                }
+                case SWITCH: {
+                    SwitchStatement statement = (SwitchStatement) node;
+                    writeNode(statement.getExpression(), node);
+                    writeList(statement.getCases(), node);
+                    break;
+                }
+                case SWITCH_CASE: {
+                    SwitchCase switchCase = (SwitchCase) node;
+                    writeNode(switchCase.getExpression(), node);
+                    writeList(switchCase.getStatements(), node);
+                    break;
+                }
+                case RETURN:
+                    writeNode(((ReturnStatement) node).getReturnValue(), node);
+                    break;
+                case THROW:
+                    writeNode(((ThrowStatement) node).getExpression(), node);
+                    break;
+                case TRY: {
+                    TryStatement statement = (TryStatement) node;
+                    writeNode(statement.getTryBlock(), node);
+                    writeList(statement.getCatchClauses(), node);
+                    writeNode(statement.getFinallyBlock(), node);
+                    break;
+                }
+                case CATCH: {
+                    CatchClause clause = (CatchClause) node;
+                    writeNode(clause.getVarName(), node);
+                    writeNode(clause.getCatchCondition(), node);
+                    writeNode(clause.getBody(), node);
+                    break;
+                }
+                case BREAK:
+                    writeNode(((BreakStatement) node).getBreakLabel(), node);
+                    break;
+                case CONTINUE:
+                    writeNode(((ContinueStatement) node).getLabel(), node);
+                    break;
+                case LABELED: {
+                    LabeledStatement statement = (LabeledStatement) node;
+                    writeList(statement.getLabels(), node);
+                    writeNode(statement.getStatement(), node);
+                    break;
+                }
+                case LABEL:
+                    writeString(((Label) node).getName());
+                    break;
+                case YIELD:
+                    writeNode(((Yield) node).getValue(), node);
+                    break;
+                case WITH: {
+                    WithStatement statement = (WithStatement) node;
+                    writeNode(statement.getExpression(), node);
+                    writeNode(statement.getStatement(), node);
+                    break;
+                }
+                default:
+                    throw new UnsupportedNodeException(node.getClass().getSimpleName());
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void writeUnsigned(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeSigned(int value) {
+            writeUnsigned((value << 1) ^ (value >> 31));
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        /**
+         * 0表示null，1表示随后是新字符串的UTF-8内容，其他值是已写出字符串的编号加2
+         */
+        private void writeString(String value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeUnsigned(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(1);
+            writeUnsigned(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final String sourceName;
+        private final List<String> strings = new ArrayList<>();
+        private Comment[] comments = new Comment[0];
+        /** 解码出的节点及其原始的相对位置、长度和行号，全部连接好之后再统一设置 */
+        private final List<AstNode> nodes = new ArrayList<>();
+        private int[] layout = new int[3 * 256];
+        /** 正在读取的节点的父节点的行号 */
+        private int parentLine;
+
+        Decoder(ByteBuffer buffer, String sourceName) {
+            this.buffer = buffer;
+            this.sourceName = sourceName;
+        }
+
+        AstRoot decode() {
+            AstRoot root = new AstRoot();
+            int rootFlags = readHeader(root);
+            // 注释按原来的绝对位置放入有序集合之前，根节点需要先有原来的位置
+            root.setPosition(layout[0]);
+
+            Token.CommentType[] commentTypes = Token.CommentType.values();
+            comments = new Comment[readCount()];
+            for (int i = 0; i < comments.length; i++) {
+                int absolutePosition = readSigned();
+                int flags = readUnsigned();
+                int position = readSigned();
+                int length = readSigned();
+                int lineno = parentLine + ((flags & HAS_LINE) != 0 ? readSigned() : 0);
+                int type = (flags & HAS_TYPE) != 0 ? readSigned() : COMMENT_TYPE;
+                Token.CommentType commentType = commentTypes[readUnsigned()];
+                Comment comment = new Comment(absolutePosition, length, commentType, readString());
+                comment.setType(type);
+                register(comment, position, length, lineno);
+                root.addComment(comment);
+                comments[i] = comment;
+            }
+            readScript(root, rootFlags);
+            readChildren(root);
+            if (buffer.hasRemaining()) {
+                throw new IllegalStateException("快照末尾有多余的内容");
+            }
+            // 语句列表中的注释在连接时改变了父节点，与解析器一样都改回根节点
+            for (Comment comment : comments) {
+                comment.setParent(root);
+            }
+
+            // 连接父子节点时会改写位置和长度，最后恢复原来的值
+            for (int i = 0; i < nodes.size(); i++) {
+                AstNode node = nodes.get(i);
+                node.setPosition(layout[3 * i]);
+                node.setLength(layout[3 * i + 1]);
+                node.setLineno(layout[3 * i + 2]);
+            }
+            return root;
+        }
+
+        /**
+         * 读取节点共有的字段，之后读取的子节点的行号相对于该节点
+         *
+         * @return 标志位
+         */
+        private int readHeader(AstNode node) {
+            int flags = readUnsigned();
+            int position = readSigned();
+            int length = readSigned();
+            int lineno = parentLine + ((flags & HAS_LINE) != 0 ? readSigned() : 0);
+            register(node, position, length, lineno);
+            if ((flags & HAS_TYPE) != 0) {
+                node.setType(readSigned());
+            }
+            parentLine = lineno;
+            return flags;
+        }
+
+        private void register(AstNode node, int position, int length, int lineno) {
+            int index = nodes.size();
+            if (layout.length < 3 * (index + 1)) {
+                layout = Arrays.copyOf(layout, layout.length * 2);
+            }
+            layout[3 * index] = position;
+            layout[3 * index + 1] = length;
+            layout[3 * index + 2] = lineno;
+            nodes.add(node);
+        }
+
+        private void readExtras(AstNode node, int flags) {
+            if ((flags & HAS_PROPS) != 0) {
+                readProps(node);
+            }
+            if ((flags & HAS_INLINE_COMMENT) != 0) {
+                node.setInlineComment(readCommentRef());
+            }
+        }
+
+        private void readProps(AstNode node) {
+            int count = readUnsigned();
+            for (int i = 0; i < count; i++) {
+                int prop = readUnsigned();
+                switch (readUnsigned()) {
+                    case PROP_INT:
+                        node.putIntProp(prop, readSigned());
+                        break;
+                    case PROP_BOOLEAN:
+                        node.putProp(prop, readUnsigned() != 0);
+                        break;
+                    case PROP_INTEGER:
+                        node.putProp(prop, readSigned());
+                        break;
+                    case PROP_STRING:
+                        node.putProp(prop, readString());
+                        break;
+                    case PROP_COMMENT:
+                        node.putProp(prop, readCommentRef());
+                        break;
+                    default:
+                        throw new IllegalStateException("未知的属性种类");
+                }
+            }
+        }
+
+        private void readScript(ScriptNode script, int flags) {
+            int baseLineno = readSigned();
+            int endLineno = readSigned();
+            // 只能设置一次，未设置时保持-1
+            if (baseLineno >= 0) {
+                script.setBaseLineno(baseLineno);
+            }
+            if (endLineno >= 0) {
+                script.setEndLineno(endLineno);
+            }
+            script.setInStrictMode(readUnsigned() != 0);
+            script.setSourceName(sourceName);
+            readExtras(script, flags);
+        }
+
+        private Comment readCommentRef() {
+            int ref = readUnsigned();
+            if (ref == 0) {
+                return null;
+            }
+            if (ref > 1) {
+                return comments[ref - 2];
+            }
+            int position = readSigned();
+            int length = readSigned();
+            int lineno = readSigned();
+            Token.CommentType commentType = Token.CommentType.values()[readUnsigned()];
+            Comment comment = new Comment(position, length, commentType, readString());
+            comment.setLineno(lineno);
+            return comment;
+        }
+
+        private void readChildren(AstNode parent) {
+            int count = readCount();
+            for (int i = 0; i < count; i++) {
+                AstNode child = readNode();
+                if (child == null) {
+                    throw new IllegalStateException("空的子节点");
+                }
+                parent.addChild(child);
+            }
+        }
+
+        /**
+         * 读取一个子节点，不为null时交给setter
+         */
+        private <T extends AstNode> void read(Class<T> type, Consumer<? super T> setter) {
+            AstNode node = readNode();
+            if (node != null) {
+                setter.accept(type.cast(node));
+            }
+        }
+
+        private void read(Consumer<AstNode> setter) {
+            read(AstNode.class, setter);
+        }
+
+        private <T extends AstNode> void readList(Class<T> type, Consumer<? super T> adder) {
+            // 0表示null，与空列表的toSource()相同，解码后都是空列表
+            int count = readCount();
+            for (int i = 1; i < count; i++) {
+                AstNode node = readNode();
+                if (node == null) {
+                    throw new IllegalStateException("列表中的空节点");
+                }
+                adder.accept(type.cast(node));
+            }
+        }
+
+        private AstNode readNode() {
+            int kind = readUnsigned();
+            if (kind == NULL) {
+                return null;
+            }
+            if (kind == COMMENT) {
+                return comments[readUnsigned()];
+            }
+            int line = parentLine;
+            AstNode node = readNode(kind);
+            parentLine = line;
+            return node;
+        }
+
+        private AstNode readNode(int kind) {
+            switch (kind) {
+                case FUNCTION: {
+                    FunctionNode function = new FunctionNode();
+                    readScript(function, readHeader(function));
+                    int flags = readUnsigned();
+                    function.setIsExpressionClosure((flags & FUNCTION_EXPRESSION_CLOSURE) != 0);
+                    if ((flags & FUNCTION_GENERATOR) != 0) {
+                        function.setIsGenerator();
+                    }
+                    if ((flags & FUNCTION_ES6_GENERATOR) != 0) {
+                        function.setIsES6Generator();
+                    }
+                    if ((flags & FUNCTION_GETTER) != 0) {
+                        function.setFunctionIsGetterMethod();
+                    } else if ((flags & FUNCTION_SETTER) != 0) {
+                        function.setFunctionIsSetterMethod();
+                    } else if ((flags & FUNCTION_METHOD) != 0) {
+                        function.setFunctionIsNormalMethod();
+                    }
+                    if ((flags & FUNCTION_REQUIRES_ACTIVATION) != 0) {
+                        function.setRequiresActivation();
+                    }
+                    function.setFunctionType(readUnsigned());
+                    read(Name.class, function::setFunctionName);
+                    readList(AstNode.class, function::addParam);
+                    read(function::setBody);
+                    return function;
+                }
+                default:
+                    break;
+            }
+
+            AstNode node = create(kind);
+            readExtras(node, readHeader(node));
+            switch (kind) {
+                case BLOCK:
+                case SCOPE:
+                    readChildren(node);
+                    break;
+                case EXPRESSION_STATEMENT:
+                    read(((ExpressionStatement) node)::setExpression);
+                    break;
+                case VARIABLE_DECLARATION: {
+                    VariableDeclaration declaration = (VariableDeclaration) node;
+                    declaration.setIsStatement(readUnsigned() != 0);
+                    readList(VariableInitializer.class, declaration::addVariable);
+                    break;
+                }
+                case VARIABLE_INITIALIZER: {
+                    VariableInitializer initializer = (VariableInitializer) node;
+                    read(initializer::setTarget);
+                    read(initializer::setInitializer);
+                    break;
+                }
+                case NAME:
+                    ((Name) node).setIdentifier(readString());
+                    break;
+                case STRING: {
+                    StringLiteral string = (StringLiteral) node;
+                    string.setValue(readString());
+                    string.setQuoteCharacter((char) readUnsigned());
+                    break;
+                }
+                case NUMBER: {
+                    NumberLiteral number = (NumberLiteral) node;
+                    number.setValue(readString());
+                    number.setNumber(Double.longBitsToDouble(buffer.getLong()));
+                    break;
+                }
+                case KEYWORD:
+                case EMPTY_STATEMENT:
+                case EMPTY_EXPRESSION:
+                    break;
+                case REGEXP: {
+                    RegExpLiteral regexp = (RegExpLiteral) node;
+                    regexp.setValue(readString());
+                    regexp.setFlags(readString());
+                    break;
+                }
+                case ARRAY: {
+                    ArrayLiteral array = (ArrayLiteral) node;
+                    array.setIsDestructuring(readUnsigned() != 0);
+                    array.setDestructuringLength(readSigned());
+                    array.setSkipCount(readSigned());
+                    readList(AstNode.class, array::addElement);
+                    break;
+                }
+                case OBJECT: {
+                    ObjectLiteral object = (ObjectLiteral) node;
+                    object.setIsDestructuring(readUnsigned() != 0);
+                    readList(ObjectProperty.class, object::addElement);
+                    break;
+                }
+                case OBJECT_PROPERTY:
+                case ASSIGNMENT:
+                case INFIX:
+                case PROPERTY_GET: {
+                    InfixExpression infix = (InfixExpression) node;
+                    read(infix::setLeft);
+                    read(infix::setRight);
+                    break;
+                }
+                case ELEMENT_GET: {
+                    ElementGet get = (ElementGet) node;
+                    read(get::setTarget);
+                    read(get::setElement);
+                    break;
+                }
+                case CALL:
+                case NEW: {
+                    FunctionCall call = (FunctionCall) node;
+                    read(call::setTarget);
+                    readList(AstNode.class, call::addArgument);
+                    if (kind == NEW) {
+                        read(ObjectLiteral.class, ((NewExpression) node)::setInitializer);
+                    }
+                    break;
+                }
+                case UNARY:
+                    read(((UnaryExpression) node)::setOperand);
+                    break;
+                case UPDATE: {
+                    UpdateExpression update = (UpdateExpression) node;
+                    update.setIsPostfix(readUnsigned() != 0);
+                    read(update::setOperand);
+                    break;
+                }
+                case CONDITIONAL: {
+                    ConditionalExpression conditional = (ConditionalExpression) node;
+                    read(conditional::setTestExpression);
+                    read(conditional::setTrueExpression);
+                    read(conditional::setFalseExpression);
+                    break;
+                }
+                case PARENTHESIZED:
+                    read(((ParenthesizedExpression) node)::setExpression);
+                    break;
+                case IF: {
+                    IfStatement statement = (IfStatement) node;
+                    read(statement::setCondition);
+                    read(statement::setThenPart);
+                    read(statement::setElsePart);
+                    Comment comment = readCommentRef();
+                    if (comment != null) {
+                        statement.setElseKeyWordInlineComment(comment);
+                    }
+                    break;
+                }
+                case FOR: {
+                    ForLoop loop = (ForLoop) node;
+                    read(loop::setInitializer);
+                    read(loop::setCondition);
+                    read(loop::setIncrement);
+                    read(loop::setBody);
+                    break;
+                }
+                case FOR_IN: {
+                    ForInLoop loop = (ForInLoop) node;
+                    int flags = readUnsigned();
+                    loop.setIsForEach((flags & 1) != 0);
+                    loop.setIsForOf((flags & 2) != 0);
+                    read(loop::setIterator);
+                    read(loop::setIteratedObject);
+                    read(loop::setBody);
+                    break;
+                }
+                case WHILE: {
+                    WhileLoop loop = (WhileLoop) node;
+                    read(loop::setCondition);
+                    read(loop::setBody);
+                    break;
+                }
+                case DO: {
+                    DoLoop loop = (DoLoop) node;
+                    read(loop::setBody);
+                    read(loop::setCondition);
+                    break;
+                }
+                case SWITCH: {
+                    SwitchStatement statement = (SwitchStatement) node;
+                    read(statement::setExpression);
+                    readList(SwitchCase.class, statement::addCase);
+                    break;
+                }
+                case SWITCH_CASE: {
+                    SwitchCase switchCase = (SwitchCase) node;
+                    read(switchCase::setExpression);
+                    readList(AstNode.class, switchCase::addStatement);
+                    break;
+                }
+                case RETURN:
+                    read(((ReturnStatement) node)::setReturnValue);
+                    break;
+                case THROW:
+                    read(((ThrowStatement) node)::setExpression);
+                    break;
+                case TRY: {
+                    TryStatement statement = (TryStatement) node;
+                    read(statement::setTryBlock);
+                    readList(CatchClause.class, statement::addCatchClause);
+                    read(statement::setFinallyBlock);
+                    break;
+                }
+                case CATCH: {
+                    CatchClause clause = (CatchClause) node;
+                    read(Name.class, clause::setVarName);
+                    read(clause::setCatchCondition);
+                    read(Block.class, clause::setBody);
+                    break;
+                }
+                case BREAK:
+                    read(Name.class, ((BreakStatement) node)::setBreakLabel);
+                    break;
+                case CONTINUE:
+                    read(Name.class, ((ContinueStatement) node)::setLabel);
+                    break;
+                case LABELED: {
+                    LabeledStatement statement = (LabeledStatement) node;
+                    readList(Label.class, statement::addLabel);
+                    read(statement::setStatement);
+                    break;
+                }
+                case LABEL:
+                    ((Label) node).setName(readString());
+                    break;
+                case YIELD:
+                    read(((Yield) node)::setValue);
+                    break;
+                case WITH: {
+                    WithStatement statement = (WithStatement) node;
+                    read(statement::setExpression);
+                    read(statement::setStatement);
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("未知的节点种类 " + kind);
+            }
+            return node;
+        }
+
+        /**
+         * 读取列表长度，每个元素至少占一个字节，超过剩余内容的长度说明快照已损坏
+         */
+        private int readCount() {
+            int count = readUnsigned();
+            if (count < 0 || count > buffer.remaining() + 1) {
+                throw new IllegalStateException("列表长度不正确: " + count);
+            }
+            return count;
+        }
+
+        private int readUnsigned() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("变长整数过长");
+        }
+
+        private int readSigned() {
+            int value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String readString() {
+            int ref = readUnsigned();
+            if (ref == 0) {
+                return null;
+            }
+            if (ref > 1) {
+                return strings.get(ref - 2);
+            }
+            int length = readCount();
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            String value = new String(utf8, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package js2j;
+
+import org.mozilla.javascript.ast.AstRoot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地的AST快照缓存
+ * 以预处理后的源码为键保存解析器生成的AST，只修改转换选项（优化级别、输出风格等）后重新运行时，
+ * 从内存映射的快照直接还原AST，不再经过解析器。键是快照格式版本、转换器版本、解析器前端和源码的SHA-256，
+ * 不包含文件名，内容相同的文件共用一个快照。
+ *
+ * 目录下每个快照一个文件，先写临时文件再改名，多个进程可以共用一个目录。
+ * 快照损坏或版本不同时按未命中处理，重新解析后覆盖；AST中有快照不支持的节点时不保存
+ */
+public class AstSnapshotCache {
+
+    /** 快照文件的扩展名 */
+    public static final String SUFFIX = ".ast";
+
+    private final Path directory;
+    private final String converterVersion;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong unsupported = new AtomicLong();
+
+    /**
+     * 构造函数，转换器版本取自当前运行的jar
+     *
+     * @param directory 快照目录，不存在时创建
+     * @throws IOException 如果目录无法创建
+     */
+    public AstSnapshotCache(Path directory) throws IOException {
+        this(directory, RemoteCache.defaultConverterVersion());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param directory 快照目录，不存在时创建
+     * @param converterVersion 转换器版本，解析器前端生成的AST可能不同的两个版本必须不同
+     * @throws IOException 如果目录无法创建
+     */
+    public AstSnapshotCache(Path directory, String converterVersion) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.converterVersion = converterVersion;
+    }
+
+    /**
+     * 计算快照的键
+     *
+     * @param parserName 解析器前端名称
+     * @param source 交给解析器的源码，即预处理之后的源码
+     * @return 64位十六进制的键
+     */
+    public String key(String parserName, String source) {
+        String header = AstSnapshot.FORMAT_VERSION + "\0" + converterVersion + "\0" + parserName + "\0";
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(header.getBytes(StandardCharsets.UTF_8));
+            return RemoteCache.hex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 读取快照
+     *
+     * @param key 快照的键
+     * @param sourceName 源文件名，设置到还原的AST上
+     * @return 还原的AST，未命中时返回null
+     */
+    public AstRoot load(String key, String sourceName) {
+        Path file = directory.resolve(key + SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            AstRoot root = AstSnapshot.decode(buffer, sourceName);
+            hits.incrementAndGet();
+            return root;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            JSLogger.warn("AST快照 " + file + " 无法读取，重新解析: " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * 保存快照，必须在优化等修改AST的步骤之前调用
+     *
+     * @param key 快照的键
+     * @param root 解析器生成的AST
+     */
+    public void store(String key, AstRoot root) {
+        byte[] snapshot = AstSnapshot.encode(root);
+        if (snapshot == null) {
+            unsupported.incrementAndGet();
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(temp, snapshot);
+                Files.move(temp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            stores.incrementAndGet();
+        } catch (IOException e) {
+            JSLogger.warn("保存AST快照 " + key + " 失败: " + e.getMessage());
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    /**
+     * 因为含有快照不支持的节点而没有保存的次数
+     */
+    public long getUnsupportedCount() {
+        return unsupported.get();
+    }
+}
@@ -0,0 +1,464 @@
+package js2j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 命令行参数
+ * 位置参数依次为输入文件/目录和输出目录，选项以--开头，既可以写成--name=value也可以写成--name value，
+ * 优化级别沿用编译器的写法 -O0、-O1、-O2
+ */
+public class CommandLineOptions {
+
+    /** 生成Java源码的后端 */
+    public static final String BACKEND_SOURCE = "source";
+
+    /** 直接生成类文件并打包为jar的后端 */
+    public static final String BACKEND_BYTECODE = "bytecode";
+
+    private String inputPath;
+    private String outputDir = "java-output";
+    private String backend = BACKEND_SOURCE;
+    private String parser = JSParser.NAME;
+    private OptimizationLevel optimizationLevel = OptimizationLevel.O1;
+    private int statusInterval;
+    private JSLogger.Level logLevel = JSLogger.Level.INFO;
+    private String errorLog;
+    private String symbolIndex;
+    private String filesFrom;
+    private String changedSince;
+    private final List<String> extraRoots = new ArrayList<>();
+    private SkipRules.Mode skipMode = SkipRules.Mode.AUTO;
+    private String jar;
+    private String remoteCache;
+    private String astCache;
+    private int jobs = Runtime.getRuntime().availableProcessors();
+    private String timings;
+    private boolean dedupFunctions;
+    private boolean sourceMaps;
+    /** JFR插桩的采样间隔，0表示不插桩 */
+    private int jfrEvents;
+    private int compileThreads = Runtime.getRuntime().availableProcessors();
+    private boolean watch;
+    private boolean train;
+
+    /**
+     * 解析命令行参数
+     *
+     * @param args 命令行参数
+     * @return 解析结果
+     * @throws IllegalArgumentException 如果参数不合法
+     */
+    public static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+        List<String> positional = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("-O")) {
+                options.optimizationLevel = OptimizationLevel.fromOption(arg);
+                continue;
+            }
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+
+            String name = arg;
+            String value = null;
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                name = arg.substring(0, eq);
+                value = arg.substring(eq + 1);
+            }
+
+            switch (name) {
+                case "--backend":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    if (!BACKEND_SOURCE.equals(value) && !BACKEND_BYTECODE.equals(value)) {
+                        throw new IllegalArgumentException("未知的后端: " + value + "（可选 source 或 bytecode）");
+                    }
+                    options.backend = value;
+                    break;
+                case "--parser":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    // 校验前端是否已注册
+                    JSParserFrontend.forName(value);
+                    options.parser = value;
+                    break;
+                case "--status-interval":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    try {
+                        options.statusInterval = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        options.statusInterval = -1;
+                    }
+                    if (options.statusInterval <= 0) {
+                        throw new IllegalArgumentException("--status-interval 需要一个正整数秒数: " + value);
+                    }
+                    break;
+                case "--log-level":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    try {
+                        options.logLevel = JSLogger.Level.valueOf(value.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("未知的日志级别: " + value + "（可选 debug、info、warn、error 或 off）");
+                    }
+                    break;
+                case "--quiet":
+                    options.logLevel = JSLogger.Level.WARN;
+                    break;
+                case "--error-log":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.errorLog = value;
+                    break;
+                case "--symbol-index":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.symbolIndex = value;
+                    break;
+                case "--files-from":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.filesFrom = value;
+                    break;
+                case "--changed-since":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.changedSince = value;
+                    break;
+                case "--root":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.extraRoots.add(value);
+                    break;
+                case "--skip":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    try {
+                        options.skipMode = SkipRules.Mode.valueOf(value.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("未知的跳过模式: " + value + "（可选 auto、defer 或 off）");
+                    }
+                    break;
+                case "--jar":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.jar = value;
+                    break;
+                case "--compile-threads":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    try {
+                        options.compileThreads = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        options.compileThreads = -1;
+                    }
+                    if (options.compileThreads <= 0) {
+                        throw new IllegalArgumentException("--compile-threads 需要一个正整数: " + value);
+                    }
+                    break;
+                case "--remote-cache":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.remoteCache = value;
+                    break;
+                case "--ast-cache":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.astCache = value;
+                    break;
+                case "--jobs":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    try {
+                        options.jobs = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        options.jobs = -1;
+                    }
+                    if (options.jobs <= 0) {
+                        throw new IllegalArgumentException("--jobs 需要一个正整数: " + value);
+                    }
+                    break;
+                case "--timings":
+                    if (value == null) {
+                        value = requireValue(args, ++i, name);
+                    }
+                    options.timings = value;
+                    break;
+                case "--dedup-functions":
+                    options.dedupFunctions = true;
+                    break;
+                case "--source-maps":
+                    options.sourceMaps = true;
+                    break;
+                case "--jfr-events":
+                    // 采样间隔可省略，不读取下一个参数
+                    if (value == null) {
+                        options.jfrEvents = JfrInstrumentation.DEFAULT_SAMPLE_INTERVAL;
+                        break;
+                    }
+                    try {
+                        options.jfrEvents = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        options.jfrEvents = -1;
+                    }
+                    if (options.jfrEvents <= 0) {
+                        throw new IllegalArgumentException("--jfr-events 需要一个正整数: " + value);
+                    }
+                    break;
+                case "--watch":
+                    options.watch = true;
+                    break;
+                case "--train":
+                    options.train = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知的选项: " + name);
+            }
+        }
+
+        if (options.watch && options.isBytecodeBackend()) {
+            throw new IllegalArgumentException("--watch 只能与源码后端一起使用");
+        }
+        if (options.jar != null && (options.watch || options.isBytecodeBackend())) {
+            throw new IllegalArgumentException("--jar 只能与源码后端一起使用");
+        }
+        if (options.filesFrom != null && options.changedSince != null) {
+            throw new IllegalArgumentException("--files-from 和 --changed-since 不能同时使用");
+        }
+        if (!options.extraRoots.isEmpty() && !options.isTargeted()) {
+            throw new IllegalArgumentException("--root 只能与 --files-from 或 --changed-since 一起使用");
+        }
+        if (options.dedupFunctions && (options.watch || options.isBytecodeBackend())) {
+            throw new IllegalArgumentException("--dedup-functions 只能与源码后端一起使用");
+        }
+        if (options.sourceMaps && (options.watch || options.isBytecodeBackend())) {
+            throw new IllegalArgumentException("--source-maps 只能与源码后端一起使用");
+        }
+        if (options.jfrEvents > 0 && (options.watch || options.isBytecodeBackend())) {
+            throw new IllegalArgumentException("--jfr-events 只能与源码后端一起使用");
+        }
+        if (options.jfrEvents > 0 && options.dedupFunctions) {
+            throw new IllegalArgumentException("--jfr-events 和 --dedup-functions 不能同时使用");
+        }
+        if (options.isTargeted() && (options.watch || options.isBytecodeBackend())) {
+            throw new IllegalArgumentException("--files-from 和 --changed-since 只能与源码后端一起使用");
+        }
+        if (options.train) {
+            // 训练运行使用内置的样例，不需要输入
+            return options;
+        }
+        if (positional.isEmpty()) {
+            throw new IllegalArgumentException("缺少输入文件或目录");
+        }
+        if (positional.size() > 2) {
+            throw new IllegalArgumentException("多余的参数: " + positional.get(2));
+        }
+        options.inputPath = positional.get(0);
+        if (positional.size() > 1) {
+            options.outputDir = positional.get(1);
+        }
+        return options;
+    }
+
+    private static String requireValue(String[] args, int index, String name) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("选项 " + name + " 缺少参数值");
+        }
+        return args[index];
+    }
+
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    public String getOutputDir() {
+        return outputDir;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public boolean isBytecodeBackend() {
+        return BACKEND_BYTECODE.equals(backend);
+    }
+
+    /**
+     * 获取解析器前端名称
+     */
+    public String getParser() {
+        return parser;
+    }
+
+    /**
+     * 获取优化级别
+     */
+    public OptimizationLevel getOptimizationLevel() {
+        return optimizationLevel;
+    }
+
+    /**
+     * 获取打印进度的间隔秒数，0表示不打印
+     */
+    public int getStatusInterval() {
+        return statusInterval;
+    }
+
+    /**
+     * 获取日志级别
+     */
+    public JSLogger.Level getLogLevel() {
+        return logLevel;
+    }
+
+    /**
+     * 获取文件错误记录的输出路径，未指定时为null
+     */
+    public String getErrorLog() {
+        return errorLog;
+    }
+
+    /**
+     * 获取符号索引文件的路径，未指定时为null
+     */
+    public String getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    /**
+     * 获取要转换的文件列表的路径，"-"表示标准输入，未指定时为null
+     */
+    public String getFilesFrom() {
+        return filesFrom;
+    }
+
+    /**
+     * 获取比较变化文件的git提交，未指定时为null
+     */
+    public String getChangedSince() {
+        return changedSince;
+    }
+
+    /**
+     * 是否只转换文件列表或git变化集中的文件
+     */
+    public boolean isTargeted() {
+        return filesFrom != null || changedSince != null;
+    }
+
+    /**
+     * 获取定向转换的所有输入根目录，第一个为输入路径，其后是--root指定的目录
+     */
+    public List<String> getRoots() {
+        List<String> roots = new ArrayList<>();
+        roots.add(inputPath);
+        roots.addAll(extraRoots);
+        return roots;
+    }
+
+    /**
+     * 获取跳过忽略文件和生成文件的模式
+     */
+    public SkipRules.Mode getSkipMode() {
+        return skipMode;
+    }
+
+    /**
+     * 获取在进程内编译生成代码后写入的jar路径，未指定时为null
+     */
+    public String getJar() {
+        return jar;
+    }
+
+    /**
+     * 获取编译阶段的线程数，默认为处理器核数
+     */
+    public int getCompileThreads() {
+        return compileThreads;
+    }
+
+    /**
+     * 获取远程转换缓存的基地址，未指定时为null
+     */
+    public String getRemoteCache() {
+        return remoteCache;
+    }
+
+    /**
+     * 获取AST快照目录，未指定时为null
+     */
+    public String getAstCache() {
+        return astCache;
+    }
+
+    /**
+     * 获取转换目录时的线程数，默认为处理器核数
+     */
+    public int getJobs() {
+        return jobs;
+    }
+
+    /**
+     * 获取转换耗时历史文件的路径，未指定时为null（使用输出目录下的默认文件）
+     */
+    public String getTimings() {
+        return timings;
+    }
+
+    /**
+     * 是否在整次运行中对结构相同的函数去重
+     */
+    public boolean isDedupFunctions() {
+        return dedupFunctions;
+    }
+
+    /**
+     * 是否在每个生成的Java文件旁写入到JavaScript源码的SMAP行映射
+     */
+    public boolean isSourceMaps() {
+        return sourceMaps;
+    }
+
+    /**
+     * 获取JFR插桩的采样间隔，0表示不插桩
+     */
+    public int getJfrEvents() {
+        return jfrEvents;
+    }
+
+    /**
+     * 是否在内存中编译并运行转换结果，文件变化时热加载
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * 是否执行类数据共享训练运行
+     */
+    public boolean isTrain() {
+        return train;
+    }
+}
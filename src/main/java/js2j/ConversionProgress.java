@@ -0,0 +1,316 @@
+package js2j;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 目录转换的进度和吞吐量统计
+ * 通过JMX暴露，也可以按固定间隔打印一行状态。计数器都是线程安全的，可以由多个转换线程同时更新。
+ * 同时收集本次运行中的文件错误，与其他运行（包括其他线程上的）互不混杂
+ */
+public class ConversionProgress implements ConversionProgressMXBean {
+
+    /** JMX注册名 */
+    public static final String OBJECT_NAME = "js2j:type=ConversionProgress";
+
+    private final AtomicInteger filesTotal = new AtomicInteger();
+    private final AtomicLong bytesTotal = new AtomicLong();
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    private final AtomicLong bytesDone = new AtomicLong();
+    private final AtomicInteger filesSkipped = new AtomicInteger();
+    private final AtomicLong bytesSkipped = new AtomicLong();
+    /** 正在处理的文件及其开始时间（纳秒） */
+    private final Map<Path, Long> inFlight = new ConcurrentHashMap<>();
+    private final Queue<JSLogger.FileError> fileErrors = new ConcurrentLinkedQueue<>();
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+    private volatile long startNanos = System.nanoTime();
+    private ObjectName registeredName;
+    private ScheduledExecutorService reporter;
+
+    /**
+     * 开始一次运行，重置所有计数
+     *
+     * @param files 文件总数
+     * @param bytes 输入总字节数
+     */
+    public void start(int files, long bytes) {
+        filesTotal.set(files);
+        bytesTotal.set(bytes);
+        filesDone.set(0);
+        errorCount.set(0);
+        bytesDone.set(0);
+        filesSkipped.set(0);
+        bytesSkipped.set(0);
+        inFlight.clear();
+        fileErrors.clear();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 记录一个文件开始处理
+     */
+    public void fileStarted(Path file) {
+        inFlight.put(file, System.nanoTime());
+    }
+
+    /**
+     * 记录一个文件处理结束
+     *
+     * @param file 文件
+     * @param bytes 文件字节数
+     * @param success 是否转换成功
+     */
+    public void fileFinished(Path file, long bytes, boolean success) {
+        inFlight.remove(file);
+        bytesDone.addAndGet(bytes);
+        if (!success) {
+            errorCount.incrementAndGet();
+        }
+        filesDone.incrementAndGet();
+    }
+
+    /**
+     * 记录本次运行中的一个文件错误，由JSLogger.collectFileErrors调用
+     */
+    public void fileError(JSLogger.FileError error) {
+        fileErrors.add(error);
+    }
+
+    /**
+     * 获取本次运行中记录的文件错误
+     */
+    public List<JSLogger.FileError> getFileErrors() {
+        return new ArrayList<>(fileErrors);
+    }
+
+    /**
+     * 记录一个在解析前被跳过的文件，跳过的文件不计入文件总数
+     *
+     * @param file 文件
+     * @param bytes 文件字节数
+     */
+    public void fileSkipped(Path file, long bytes) {
+        filesSkipped.incrementAndGet();
+        bytesSkipped.addAndGet(bytes);
+    }
+
+    /**
+     * 注册到平台MBeanServer，同名的旧实例会被替换
+     *
+     * @throws IllegalStateException 如果注册失败
+     */
+    public synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+            registeredName = name;
+        } catch (JMException e) {
+            throw new IllegalStateException("注册JMX进度MBean失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从平台MBeanServer注销
+     */
+    public synchronized void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            JSLogger.warn("注销JMX进度MBean失败: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    /**
+     * 每隔固定秒数在标准输出打印一行状态，直到调用stopReporting
+     *
+     * @param intervalSeconds 间隔秒数
+     */
+    public synchronized void startReporting(int intervalSeconds) {
+        stopReporting();
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "js2j-status");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> JSLogger.info(statusLine()),
+                                     intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止打印状态
+     */
+    public synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * 一行状态，如 [进度] 120/40000 文件 (0.3%)，2.1 MB/s，85.0 文件/s，错误 0，剩余约 7m50s，最慢 a.js 3200 ms，堆 512 MB，
+     * 有文件被跳过时还包括跳过的文件数、字节数和估算节省的时间
+     */
+    public String statusLine() {
+        int done = getFilesDone();
+        int total = getFilesTotal();
+        StringBuilder line = new StringBuilder("[进度] ");
+        line.append(done).append('/').append(total).append(" 文件");
+        if (total > 0) {
+            line.append(String.format(" (%.1f%%)", done * 100.0 / total));
+        }
+        line.append(String.format("，%.1f MB/s，%.1f 文件/s", getBytesPerSecond() / (1024 * 1024), getFilesPerSecond()));
+        line.append("，错误 ").append(getErrorCount());
+        long remaining = getEstimatedSecondsRemaining();
+        if (remaining >= 0) {
+            line.append("，剩余约 ").append(formatSeconds(remaining));
+        }
+        String slowest = getSlowestInFlightFile();
+        if (!slowest.isEmpty()) {
+            line.append("，最慢 ").append(slowest).append(' ').append(getSlowestInFlightMillis()).append(" ms");
+        }
+        line.append("，堆 ").append(getHeapUsedBytes() / (1024 * 1024)).append(" MB");
+        if (getFilesSkipped() > 0) {
+            line.append(String.format("，跳过 %d 文件 %.1f MB", getFilesSkipped(), getBytesSkipped() / (1024.0 * 1024)));
+            long saved = getEstimatedSecondsSaved();
+            if (saved >= 0) {
+                line.append("，约节省 ").append(formatSeconds(saved));
+            }
+        }
+        return line.toString();
+    }
+
+    private static String formatSeconds(long seconds) {
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return (seconds / 60) + "m" + (seconds % 60) + "s";
+        }
+        return (seconds / 3600) + "h" + (seconds % 3600 / 60) + "m";
+    }
+
+    @Override
+    public int getFilesTotal() {
+        return filesTotal.get();
+    }
+
+    @Override
+    public int getFilesDone() {
+        return filesDone.get();
+    }
+
+    @Override
+    public int getFilesRemaining() {
+        return Math.max(0, filesTotal.get() - filesDone.get());
+    }
+
+    @Override
+    public int getErrorCount() {
+        return errorCount.get();
+    }
+
+    @Override
+    public long getBytesDone() {
+        return bytesDone.get();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        double seconds = getElapsedMillis() / 1000.0;
+        return seconds > 0 ? bytesDone.get() / seconds : 0;
+    }
+
+    @Override
+    public double getFilesPerSecond() {
+        double seconds = getElapsedMillis() / 1000.0;
+        return seconds > 0 ? filesDone.get() / seconds : 0;
+    }
+
+    @Override
+    public long getEstimatedSecondsRemaining() {
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, bytesTotal.get() - bytesDone.get()) / bytesPerSecond);
+    }
+
+    @Override
+    public int getFilesSkipped() {
+        return filesSkipped.get();
+    }
+
+    @Override
+    public long getBytesSkipped() {
+        return bytesSkipped.get();
+    }
+
+    @Override
+    public long getEstimatedSecondsSaved() {
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond <= 0) {
+            return -1;
+        }
+        return (long) (bytesSkipped.get() / bytesPerSecond);
+    }
+
+    @Override
+    public String getSlowestInFlightFile() {
+        Map.Entry<Path, Long> slowest = slowestInFlight();
+        return slowest == null ? "" : slowest.getKey().toString();
+    }
+
+    @Override
+    public long getSlowestInFlightMillis() {
+        Map.Entry<Path, Long> slowest = slowestInFlight();
+        return slowest == null ? 0 : (System.nanoTime() - slowest.getValue()) / 1_000_000;
+    }
+
+    private Map.Entry<Path, Long> slowestInFlight() {
+        Map.Entry<Path, Long> slowest = null;
+        for (Map.Entry<Path, Long> entry : inFlight.entrySet()) {
+            if (slowest == null || entry.getValue() < slowest.getValue()) {
+                slowest = entry;
+            }
+        }
+        return slowest;
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
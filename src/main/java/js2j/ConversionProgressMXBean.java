@@ -0,0 +1,83 @@
+package js2j;
+
+/**
+ * 目录转换进度的JMX接口
+ * 注册名为 js2j:type=ConversionProgress，可以用jconsole、VisualVM或任何JMX客户端查看和告警
+ */
+public interface ConversionProgressMXBean {
+
+    /**
+     * 本次运行的文件总数
+     */
+    int getFilesTotal();
+
+    /**
+     * 已处理完的文件数，包括失败的文件
+     */
+    int getFilesDone();
+
+    /**
+     * 尚未处理完的文件数
+     */
+    int getFilesRemaining();
+
+    /**
+     * 转换失败的文件数
+     */
+    int getErrorCount();
+
+    /**
+     * 已处理的输入字节数
+     */
+    long getBytesDone();
+
+    /**
+     * 自开始以来的平均吞吐量（输入字节/秒）
+     */
+    double getBytesPerSecond();
+
+    /**
+     * 自开始以来的平均吞吐量（文件/秒）
+     */
+    double getFilesPerSecond();
+
+    /**
+     * 按平均吞吐量估算的剩余秒数，尚无法估算时为-1
+     */
+    long getEstimatedSecondsRemaining();
+
+    /**
+     * 在解析前被忽略规则或内容嗅探跳过的文件数
+     */
+    int getFilesSkipped();
+
+    /**
+     * 被跳过的输入字节数
+     */
+    long getBytesSkipped();
+
+    /**
+     * 按平均吞吐量估算跳过文件节省的秒数，尚无法估算时为-1
+     */
+    long getEstimatedSecondsSaved();
+
+    /**
+     * 正在处理的文件中已耗时最长的一个，没有时为空字符串
+     */
+    String getSlowestInFlightFile();
+
+    /**
+     * 正在处理的文件中最长的已耗时（毫秒）
+     */
+    long getSlowestInFlightMillis();
+
+    /**
+     * 当前已使用的堆内存字节数
+     */
+    long getHeapUsedBytes();
+
+    /**
+     * 自开始以来经过的毫秒数
+     */
+    long getElapsedMillis();
+}
@@ -0,0 +1,334 @@
+package js2j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 目录转换的调度器
+ * 按文件大小和以前运行记录的耗时估算每个文件的转换成本，按成本从大到小把文件交给线程池（最长处理时间优先），
+ * 避免最后才遇到的大bundle拖长整次运行。运行结束后报告关键路径（耗时最长的文件）、
+ * 总工作量和理想耗时 max(总工作量/线程数, 关键路径)，并把本次的耗时写回历史文件
+ *
+ * 历史文件每行一条记录：耗时毫秒、字节数、文件的键（见key），以制表符分隔
+ */
+public class ConversionScheduler {
+
+    /** 默认的历史文件名，位于输出目录下 */
+    public static final String DEFAULT_HISTORY_FILE = ".js2j-timings";
+
+    /** 没有任何历史时假定的转换速度（毫秒/字节），约为语料上的实测值 */
+    static final double DEFAULT_MILLIS_PER_BYTE = 0.05;
+
+    private final int workers;
+    private final Path historyFile;
+    /** 文件的键到 {字节数, 耗时毫秒} */
+    private final Map<String, long[]> history = new ConcurrentHashMap<>();
+    private final double millisPerByte;
+    private volatile Report lastReport;
+
+    /**
+     * 构造函数，使用与处理器核数相同的线程，不读写历史
+     */
+    public ConversionScheduler() {
+        this(Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param workers 转换线程数
+     * @param historyFile 历史耗时文件，为null时只按大小估算且不记录
+     * @throws IllegalArgumentException 如果线程数不是正数
+     */
+    public ConversionScheduler(int workers, Path historyFile) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("转换线程数必须为正数: " + workers);
+        }
+        this.workers = workers;
+        this.historyFile = historyFile;
+        if (historyFile != null) {
+            loadHistory();
+        }
+        long bytes = 0;
+        long millis = 0;
+        for (long[] record : history.values()) {
+            bytes += record[0];
+            millis += record[1];
+        }
+        this.millisPerByte = bytes > 0 && millis > 0 ? (double) millis / bytes : DEFAULT_MILLIS_PER_BYTE;
+    }
+
+    private void loadHistory() {
+        if (!Files.isRegularFile(historyFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(historyFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                try {
+                    history.put(fields[2], new long[] {Long.parseLong(fields[1]), Long.parseLong(fields[0])});
+                } catch (NumberFormatException e) {
+                    // 跳过损坏的行
+                }
+            }
+        } catch (IOException e) {
+            JSLogger.warn("读取转换耗时历史 " + historyFile + " 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 文件在历史记录中的键：输入根目录的绝对路径加上相对路径
+     * 不同根目录下相对路径相同的文件（如各自的index.js）不会共用记录
+     *
+     * @param root 输入根目录
+     * @param relativePath 文件相对于根目录的路径
+     */
+    public static String key(Path root, Path relativePath) {
+        return root.toAbsolutePath().normalize().resolve(relativePath).toString().replace(File.separatorChar, '/');
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * 估算一个文件的转换耗时
+     * 有历史记录时按记录的耗时和大小变化折算，否则按历史的平均速度（没有历史时按默认速度）估算
+     *
+     * @param key 文件的键，见key
+     * @param bytes 文件字节数
+     * @return 估算的毫秒数
+     */
+    public double estimateMillis(String key, long bytes) {
+        long[] record = history.get(key);
+        if (record != null && record[0] > 0) {
+            return record[1] * ((double) bytes / record[0]);
+        }
+        return bytes * millisPerByte;
+    }
+
+    /**
+     * 按估算成本从大到小排序
+     *
+     * @param jobs 任务
+     * @return 排好序的新列表
+     */
+    public List<Job> longestFirst(List<Job> jobs) {
+        List<Job> sorted = new ArrayList<>(jobs);
+        for (Job job : sorted) {
+            job.estimatedMillis = estimateMillis(job.key, job.bytes);
+        }
+        sorted.sort(Comparator.comparingDouble((Job job) -> job.estimatedMillis).reversed()
+                              .thenComparing(job -> job.key));
+        return sorted;
+    }
+
+    /**
+     * 按给定顺序把任务交给线程池并等待全部完成，空闲的线程总是取下一个任务
+     * 任务抛出的异常记入日志，不影响其他任务
+     *
+     * @param jobs 任务，通常先经过longestFirst排序
+     * @return 本次运行的报告
+     */
+    public Report run(List<Job> jobs) {
+        long start = System.nanoTime();
+        AtomicLong totalWork = new AtomicLong();
+        AtomicReference<Job> longest = new AtomicReference<>();
+
+        int threads = Math.max(1, Math.min(workers, jobs.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "js2j-convert");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Job job : jobs) {
+                executor.execute(() -> {
+                    long jobStart = System.nanoTime();
+                    try {
+                        job.work.run();
+                    } catch (RuntimeException e) {
+                        JSLogger.error("转换 " + job.key + " 时发生错误:", e);
+                    } finally {
+                        job.actualMillis = (System.nanoTime() - jobStart) / 1_000_000;
+                        totalWork.addAndGet(job.actualMillis);
+                        longest.accumulateAndGet(job, (a, b) -> a == null || b.actualMillis > a.actualMillis ? b : a);
+                        history.put(job.key, new long[] {job.bytes, job.actualMillis});
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                JSLogger.debug("等待转换线程结束");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        Job critical = longest.get();
+        Report report = new Report(threads, jobs.size(), totalWork.get(), (System.nanoTime() - start) / 1_000_000,
+                                   critical == null ? "" : critical.key, critical == null ? 0 : critical.actualMillis);
+        lastReport = report;
+        if (historyFile != null) {
+            saveHistory();
+        }
+        return report;
+    }
+
+    private void saveHistory() {
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : new TreeMap<>(history).entrySet()) {
+            content.append(entry.getValue()[1]).append('\t').append(entry.getValue()[0]).append('\t')
+                   .append(entry.getKey()).append('\n');
+        }
+        try {
+            Path parent = historyFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, DEFAULT_HISTORY_FILE, ".tmp");
+            Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            JSLogger.warn("保存转换耗时历史 " + historyFile + " 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 最近一次运行的报告，尚未运行时为null
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * 一个文件的转换任务
+     */
+    public static final class Job {
+
+        private final String key;
+        private final long bytes;
+        private final Runnable work;
+        private double estimatedMillis;
+        private volatile long actualMillis;
+
+        /**
+         * @param key 历史记录中文件的键，见ConversionScheduler.key
+         * @param bytes 文件字节数
+         * @param work 转换工作
+         */
+        public Job(String key, long bytes, Runnable work) {
+            this.key = key;
+            this.bytes = bytes;
+            this.work = work;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * 排序时估算的毫秒数
+         */
+        public double getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+
+    /**
+     * 一次运行的调度报告
+     */
+    public static final class Report {
+
+        private final int workers;
+        private final int jobs;
+        private final long totalWorkMillis;
+        private final long makespanMillis;
+        private final String criticalFile;
+        private final long criticalMillis;
+
+        Report(int workers, int jobs, long totalWorkMillis, long makespanMillis, String criticalFile, long criticalMillis) {
+            this.workers = workers;
+            this.jobs = jobs;
+            this.totalWorkMillis = totalWorkMillis;
+            this.makespanMillis = makespanMillis;
+            this.criticalFile = criticalFile;
+            this.criticalMillis = criticalMillis;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public int getJobs() {
+            return jobs;
+        }
+
+        /**
+         * 所有文件转换耗时之和
+         */
+        public long getTotalWorkMillis() {
+            return totalWorkMillis;
+        }
+
+        /**
+         * 从开始到最后一个文件完成的实际耗时
+         */
+        public long getMakespanMillis() {
+            return makespanMillis;
+        }
+
+        /**
+         * 关键路径：耗时最长的文件
+         */
+        public String getCriticalFile() {
+            return criticalFile;
+        }
+
+        public long getCriticalMillis() {
+            return criticalMillis;
+        }
+
+        /**
+         * 理想耗时：工作量均分到所有线程，且不短于关键路径
+         */
+        public long getIdealMillis() {
+            return Math.max((totalWorkMillis + workers - 1) / workers, criticalMillis);
+        }
+
+        /**
+         * 一行报告，如 [调度] 8 线程 1200 文件，关键路径 vendor/bundle.js 5120 ms，总工作量 40200 ms，理想 5120 ms，实际 5400 ms (95%)
+         */
+        public String statusLine() {
+            StringBuilder line = new StringBuilder("[调度] ");
+            line.append(workers).append(" 线程 ").append(jobs).append(" 文件");
+            if (!criticalFile.isEmpty()) {
+                line.append("，关键路径 ").append(criticalFile).append(' ').append(criticalMillis).append(" ms");
+            }
+            line.append("，总工作量 ").append(totalWorkMillis).append(" ms");
+            line.append("，理想 ").append(getIdealMillis()).append(" ms");
+            line.append("，实际 ").append(makespanMillis).append(" ms");
+            if (makespanMillis > 0) {
+                line.append(String.format(" (%.0f%%)", Math.min(100.0, getIdealMillis() * 100.0 / makespanMillis)));
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package js2j;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 在栈空间很大的线程上执行任务
+ * 解析器和语句处理器按嵌套结构递归，默认线程栈只够几千层嵌套。
+ * 线程栈只保留虚拟地址空间，实际用到多少才占用多少内存，所以可以放心地申请很大的栈。
+ * 栈大小由系统属性 js2j.deepStackSize 指定，如 512m、4g，默认 2g
+ */
+public final class DeepStack {
+
+    /** 栈大小的系统属性 */
+    public static final String STACK_SIZE_PROPERTY = "js2j.deepStackSize";
+
+    private static final long DEFAULT_STACK_SIZE = 2L << 30;
+
+    private DeepStack() {
+    }
+
+    /**
+     * 在大栈线程上执行任务并等待结果，任务抛出的异常原样抛出
+     *
+     * @param name 线程名
+     * @param task 任务
+     * @return 任务的结果
+     */
+    public static <T> T call(String name, Callable<T> task) {
+        Object[] result = new Object[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                result[0] = task.call();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, name, stackSize());
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待 " + name + " 时被中断", e);
+        }
+
+        Throwable error = failure[0];
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * 大栈线程的栈大小（字节）
+     */
+    static long stackSize() {
+        String value = System.getProperty(STACK_SIZE_PROPERTY);
+        if (value == null || value.isEmpty()) {
+            return DEFAULT_STACK_SIZE;
+        }
+        String number = value.trim().toLowerCase();
+        long unit = 1;
+        char suffix = number.charAt(number.length() - 1);
+        if (suffix == 'k' || suffix == 'm' || suffix == 'g') {
+            unit = suffix == 'k' ? 1L << 10 : suffix == 'm' ? 1L << 20 : 1L << 30;
+            number = number.substring(0, number.length() - 1);
+        }
+        try {
+            return Long.parseLong(number) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的栈大小 " + STACK_SIZE_PROPERTY + "=" + value, e);
+        }
+    }
+}
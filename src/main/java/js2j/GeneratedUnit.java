@@ -0,0 +1,57 @@
+package js2j;
+
+/**
+ * 生成的Java编译单元
+ * 每个JavaScript模块和每个JavaScript类各对应一个编译单元
+ */
+public class GeneratedUnit {
+
+    private final String packageName;
+    private final String className;
+    private final String code;
+    private final SourceMap sourceMap;
+
+    public GeneratedUnit(String packageName, String className, String code) {
+        this(packageName, className, code, null);
+    }
+
+    public GeneratedUnit(String packageName, String className, String code, SourceMap sourceMap) {
+        this.packageName = packageName;
+        this.className = className;
+        this.code = code;
+        this.sourceMap = sourceMap;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 获取全限定类名
+     */
+    public String getQualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    /**
+     * 获取输出文件名
+     */
+    public String getFileName() {
+        return className + ".java";
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 获取到JavaScript源码的行映射，没有生成时为null
+     */
+    public SourceMap getSourceMap() {
+        return sourceMap;
+    }
+}
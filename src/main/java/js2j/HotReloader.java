@@ -0,0 +1,261 @@
+package js2j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 转换结果的进程内热加载
+ * 将JavaScript文件转换为Java源码后在内存中编译，并加载到一个一次性的类加载器中。
+ * 新版本编译成功后原子地替换旧版本，旧的类加载器不再被引用后随之回收；
+ * 编译失败时继续使用旧版本。宿主进程的其他代码不受影响，已有的JIT编译结果得以保留
+ */
+public class HotReloader {
+
+    private final JavaScriptToJavaConverter converter;
+    private final InMemoryJavaCompiler compiler;
+    private final ClassLoader parentLoader;
+    private final String packageName;
+    private final Map<Path, AtomicReference<LoadedModule>> modules = new ConcurrentHashMap<>();
+    /** 每个文件一把锁，同一文件的加载依次进行，版本号不重复，先读到的旧内容也不会覆盖新版本 */
+    private final Map<Path, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数，生成的类以当前类的类加载器为父加载器
+     */
+    public HotReloader() {
+        this(HotReloader.class.getClassLoader(), JavaScriptToJavaConverter.DEFAULT_PACKAGE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parentLoader 生成的类的父加载器，生成的代码可以访问其中的类
+     * @param packageName 生成的类所在的包
+     */
+    public HotReloader(ClassLoader parentLoader, String packageName) {
+        this(new JSParser(), parentLoader, packageName);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parser 解析器前端
+     * @param parentLoader 生成的类的父加载器，生成的代码可以访问其中的类
+     * @param packageName 生成的类所在的包
+     */
+    public HotReloader(JSParserFrontend parser, ClassLoader parentLoader, String packageName) {
+        this.converter = new JavaScriptToJavaConverter(parser);
+        // 重新加载时只转换改动过的顶层语句
+        this.converter.setStatementCache(new StatementCache());
+        this.compiler = new InMemoryJavaCompiler();
+        this.parentLoader = parentLoader;
+        this.packageName = packageName;
+    }
+
+    /**
+     * 转换、编译并加载JavaScript文件，成功后替换该文件当前加载的版本
+     * 同一文件的并发加载（如监视线程触发的重新加载和直接调用）依次进行
+     *
+     * @param jsFile JavaScript文件
+     * @return 新加载的模块
+     * @throws IOException 如果读取文件出错
+     * @throws InMemoryJavaCompiler.CompilationException 如果生成的Java代码无法编译，此时旧版本保持不变
+     */
+    public LoadedModule load(File jsFile) throws IOException, InMemoryJavaCompiler.CompilationException {
+        Path path = jsFile.toPath().toAbsolutePath().normalize();
+        synchronized (locks.computeIfAbsent(path, p -> new Object())) {
+            return loadLocked(jsFile, path);
+        }
+    }
+
+    private LoadedModule loadLocked(File jsFile, Path path) throws IOException, InMemoryJavaCompiler.CompilationException {
+        long start = System.nanoTime();
+        String source = new String(Files.readAllBytes(path));
+        List<GeneratedUnit> units = converter.convert(source, jsFile.getName(), packageName);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (GeneratedUnit unit : units) {
+            sources.put(unit.getQualifiedName(), unit.getCode());
+        }
+        Map<String, byte[]> classes = compiler.compile(sources);
+
+        AtomicReference<LoadedModule> slot = modules.computeIfAbsent(path, p -> new AtomicReference<>());
+        LoadedModule previous = slot.get();
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LoadedModule module = new LoadedModule(path, units.get(0).getQualifiedName(),
+                                               new ModuleClassLoader(classes, parentLoader), version, millis);
+        slot.set(module);
+        return module;
+    }
+
+    /**
+     * 获取JavaScript文件当前加载的版本
+     *
+     * @return 当前版本，尚未加载时返回null
+     */
+    public LoadedModule get(File jsFile) {
+        AtomicReference<LoadedModule> slot = modules.get(jsFile.toPath().toAbsolutePath().normalize());
+        return slot == null ? null : slot.get();
+    }
+
+    /**
+     * 监视已加载文件所在的目录，文件变化时重新加载。此方法会阻塞当前线程直到被中断
+     *
+     * @param onReload 每次重新加载成功后的回调
+     * @throws IOException 如果无法监视目录
+     */
+    public void watch(Consumer<LoadedModule> onReload) throws IOException {
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Path path : modules.keySet()) {
+            directories.add(path.getParent());
+        }
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            JSLogger.info("监视 " + modules.size() + " 个JavaScript文件的变化...");
+
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                // 编辑器保存一次可能触发多个事件，同一批事件中每个文件只重新加载一次
+                Set<Path> changed = new LinkedHashSet<>();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path) {
+                        Path path = directory.resolve((Path) event.context()).toAbsolutePath().normalize();
+                        if (modules.containsKey(path)) {
+                            changed.add(path);
+                        }
+                    }
+                }
+                key.reset();
+
+                for (Path path : changed) {
+                    try {
+                        LoadedModule module = load(path.toFile());
+                        JSLogger.info("重新加载 " + path.getFileName() + " 版本 " + module.getVersion()
+                                           + "，用时 " + module.getLoadMillis() + " ms");
+                        onReload.accept(module);
+                    } catch (InMemoryJavaCompiler.CompilationException e) {
+                        JSLogger.warn("重新加载 " + path.getFileName() + " 失败，继续使用旧版本: " + e.getMessage());
+                    } catch (IOException e) {
+                        JSLogger.error("读取 " + path + " 时发生错误: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 已加载的模块版本
+     */
+    public static class LoadedModule {
+
+        private final Path source;
+        private final String mainClassName;
+        private final ClassLoader classLoader;
+        private final long version;
+        private final long loadMillis;
+
+        LoadedModule(Path source, String mainClassName, ClassLoader classLoader, long version, long loadMillis) {
+            this.source = source;
+            this.mainClassName = mainClassName;
+            this.classLoader = classLoader;
+            this.version = version;
+            this.loadMillis = loadMillis;
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        public ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        /**
+         * 获取版本号，每次成功加载加一
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 获取从读取源文件到类可用的耗时
+         */
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        /**
+         * 获取模块类
+         */
+        public Class<?> getModuleClass() throws ClassNotFoundException {
+            return classLoader.loadClass(mainClassName);
+        }
+
+        /**
+         * 调用模块类的main方法
+         */
+        public void runMain(String[] args) throws ReflectiveOperationException {
+            Method main = getModuleClass().getMethod("main", String[].class);
+            main.invoke(null, (Object) args);
+        }
+    }
+
+    /**
+     * 只加载一个模块版本的一次性类加载器
+     * 生成的类优先从自身加载，保证不会与父加载器中同名的旧类混用
+     */
+    private static class ModuleClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        ModuleClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!classes.containsKey(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    byte[] bytes = classes.get(name);
+                    loaded = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+}
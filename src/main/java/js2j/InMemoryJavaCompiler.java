@@ -0,0 +1,187 @@
+package js2j;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内存中的Java编译器
+ * 通过javax.tools编译生成的Java源码，源码和类文件都不落盘。
+ * 编译器和标准文件管理器在多次编译之间复用，避免每次重新扫描类路径
+ */
+public class InMemoryJavaCompiler {
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager standardFileManager;
+    private final List<String> options;
+
+    /**
+     * 构造函数，使用当前进程的类路径编译
+     */
+    public InMemoryJavaCompiler() {
+        this(System.getProperty("java.class.path"));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param classPath 编译时使用的类路径
+     * @throws IllegalStateException 如果当前运行环境不是JDK
+     */
+    public InMemoryJavaCompiler(String classPath) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("当前运行环境没有javac，需要在JDK上运行");
+        }
+        this.standardFileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        this.options = new ArrayList<>(Arrays.asList("-classpath", classPath, "-g", "-nowarn", "-proc:none"));
+    }
+
+    /**
+     * 编译一组Java源码
+     *
+     * @param sources 全限定类名到源码的映射
+     * @return 全限定类名到类文件内容的映射，包括内部类
+     * @throws CompilationException 如果编译失败
+     */
+    public synchronized Map<String, byte[]> compile(Map<String, String> sources) throws CompilationException {
+        List<JavaFileObject> units = new ArrayList<>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            units.add(new SourceFile(entry.getKey(), entry.getValue()));
+        }
+
+        Map<String, ByteArrayOutputStream> outputs = new LinkedHashMap<>();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileManager fileManager = new MemoryFileManager(standardFileManager, outputs);
+
+        boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+        if (!success) {
+            throw new CompilationException(diagnostics.getDiagnostics());
+        }
+
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : outputs.entrySet()) {
+            classes.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return classes;
+    }
+
+    /**
+     * 内存中的源文件
+     */
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String code;
+
+        SourceFile(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * 将编译输出写入内存的文件管理器
+     */
+    private static class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> outputs;
+
+        MemoryFileManager(JavaFileManager fileManager, Map<String, ByteArrayOutputStream> outputs) {
+            super(fileManager);
+            this.outputs = outputs;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    outputs.put(className, out);
+                    return out;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            // 标准文件管理器由编译器复用，这里不关闭
+        }
+    }
+
+    /**
+     * 编译失败
+     */
+    public static class CompilationException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> errors = new ArrayList<>();
+        private final Map<String, List<String>> errorsByClass = new LinkedHashMap<>();
+
+        CompilationException(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+            super("编译失败");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    String source = diagnostic.getSource() != null ? diagnostic.getSource().getName() : "";
+                    errors.add(source + ":" + diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+                    errorsByClass.computeIfAbsent(classNameOf(source), k -> new ArrayList<>())
+                        .add(diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+                }
+            }
+        }
+
+        /**
+         * 由内存源文件的路径（如 /js2j/generated/Foo.java）得到全限定类名
+         */
+        private static String classNameOf(String source) {
+            String name = source.startsWith("/") ? source.substring(1) : source;
+            if (name.endsWith(JavaFileObject.Kind.SOURCE.extension)) {
+                name = name.substring(0, name.length() - JavaFileObject.Kind.SOURCE.extension.length());
+            }
+            return name.replace('/', '.');
+        }
+
+        /**
+         * 获取编译错误，每条错误包含源文件和行号
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        /**
+         * 按出错的编译单元分组的编译错误，键为全限定类名，每条错误为"行号: 信息"
+         */
+        public Map<String, List<String>> getErrorsByClass() {
+            return errorsByClass;
+        }
+
+        @Override
+        public String getMessage() {
+            return super.getMessage() + "（" + errors.size() + " 个错误）" + (errors.isEmpty() ? "" : ": " + errors.get(0));
+        }
+    }
+}
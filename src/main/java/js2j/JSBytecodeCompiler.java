@@ -0,0 +1,880 @@
+package js2j;
+
+import org.mozilla.javascript.Node;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.*;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * 字节码后端
+ * 将解析得到的JavaScript AST直接编译为JVM类文件，跳过Java源码生成、格式化和javac。
+ * 每个JavaScript文件生成一个模块类：顶层函数为静态方法，顶层变量为静态字段，
+ * 其余顶层语句放入main方法。所有值都以Object表示，运算委托给JSRuntime
+ */
+public class JSBytecodeCompiler implements Opcodes {
+
+    private static final String RUNTIME = "js2j/JSRuntime";
+    private static final String OBJECT = "Ljava/lang/Object;";
+    private static final String BINARY_DESC = "(" + OBJECT + OBJECT + ")" + OBJECT;
+    private static final String UNARY_DESC = "(" + OBJECT + ")" + OBJECT;
+
+    /** 需要随生成的类一起打包的运行时类 */
+    private static final String[] RUNTIME_CLASSES = {"js2j/JSRuntime"};
+
+    private final JSParserFrontend parser;
+    private final JSSourcePreprocessor sourcePreprocessor;
+
+    /**
+     * 构造函数，使用Rhino解析器
+     */
+    public JSBytecodeCompiler() {
+        this(new JSParser());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parser 解析器前端
+     */
+    public JSBytecodeCompiler(JSParserFrontend parser) {
+        this.parser = parser;
+        this.sourcePreprocessor = new JSSourcePreprocessor();
+    }
+
+    /**
+     * 将JavaScript源码编译为类文件
+     *
+     * @param source JavaScript源码
+     * @param fileName 源文件名，用于生成模块类名
+     * @param packageName 生成的类所在的包
+     * @return 全限定类名到类文件内容的映射
+     * @throws UnsupportedOperationException 如果源码中包含字节码后端不支持的结构
+     */
+    public Map<String, byte[]> compile(String source, String fileName, String packageName) {
+        if (parser.needsPreprocessing()) {
+            source = sourcePreprocessor.preProcessSource(source);
+        }
+        AstRoot root = parser.parse(source, fileName);
+
+        String className = JavaScriptToJavaConverter.generateClassName(fileName);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        classes.put(qualifiedName, new ModuleCompiler(qualifiedName.replace('.', '/'), fileName).compile(root));
+        return classes;
+    }
+
+    /**
+     * 将编译得到的类和运行时类写入可执行jar
+     *
+     * @param classes 全限定类名到类文件内容的映射
+     * @param mainClass 清单中的Main-Class，为null时不设置
+     * @param jarFile 输出的jar文件
+     * @throws IOException 如果写入出错
+     */
+    public static void writeJar(Map<String, byte[]> classes, String mainClass, File jarFile) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (mainClass != null) {
+            manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, mainClass);
+        }
+
+        File parent = jarFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile), manifest)) {
+            for (String runtimeClass : RUNTIME_CLASSES) {
+                jar.putNextEntry(new JarEntry(runtimeClass + ".class"));
+                jar.write(readRuntimeClass(runtimeClass));
+                jar.closeEntry();
+            }
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(entry.getKey().replace('.', '/') + ".class"));
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * 从当前类路径读取运行时类的类文件
+     */
+    private static byte[] readRuntimeClass(String internalName) throws IOException {
+        try (InputStream in = JSBytecodeCompiler.class.getResourceAsStream("/" + internalName + ".class")) {
+            if (in == null) {
+                throw new IOException("找不到运行时类: " + internalName);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 单个模块的编译过程
+     */
+    private static class ModuleCompiler {
+
+        private final String internalName;
+        private final String fileName;
+        private final Set<String> moduleFields = new LinkedHashSet<>();
+        private final Map<String, Integer> functionArity = new HashMap<>();
+        private final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+
+        private MethodContext method;
+
+        ModuleCompiler(String internalName, String fileName) {
+            this.internalName = internalName;
+            this.fileName = fileName;
+        }
+
+        byte[] compile(AstRoot root) {
+            classWriter.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, "java/lang/Object", null);
+            classWriter.visitSource(fileName, null);
+
+            // 先收集模块级的函数和变量，函数可以在声明之前调用
+            for (Node node : root) {
+                if (node instanceof FunctionNode) {
+                    FunctionNode function = (FunctionNode) node;
+                    functionArity.put(function.getName(), function.getParams().size());
+                } else {
+                    collectVariables(node, moduleFields);
+                }
+            }
+            for (String field : moduleFields) {
+                classWriter.visitField(ACC_PUBLIC | ACC_STATIC, field, OBJECT, null, null).visitEnd();
+            }
+
+            for (Node node : root) {
+                if (node instanceof FunctionNode) {
+                    compileFunction((FunctionNode) node);
+                }
+            }
+            compileMain(root);
+
+            classWriter.visitEnd();
+            return classWriter.toByteArray();
+        }
+
+        /**
+         * 收集语句中声明的变量，不进入嵌套函数
+         */
+        private void collectVariables(Node node, Set<String> names) {
+            if (node instanceof FunctionNode) {
+                return;
+            }
+            if (node instanceof VariableDeclaration) {
+                for (VariableInitializer init : ((VariableDeclaration) node).getVariables()) {
+                    if (init.getTarget() instanceof Name) {
+                        names.add(((Name) init.getTarget()).getIdentifier());
+                    }
+                }
+            }
+            for (Node child : childrenOf(node)) {
+                collectVariables(child, names);
+            }
+        }
+
+        /**
+         * 获取需要扫描变量声明的子节点
+         */
+        private Iterable<Node> childrenOf(Node node) {
+            List<Node> children = new ArrayList<>();
+            if (node instanceof IfStatement) {
+                IfStatement ifStmt = (IfStatement) node;
+                children.add(ifStmt.getThenPart());
+                if (ifStmt.getElsePart() != null) {
+                    children.add(ifStmt.getElsePart());
+                }
+            } else if (node instanceof ForLoop) {
+                children.add(((ForLoop) node).getInitializer());
+                children.add(((ForLoop) node).getBody());
+            } else if (node instanceof Loop) {
+                children.add(((Loop) node).getBody());
+            } else if (node instanceof SwitchStatement) {
+                for (SwitchCase switchCase : ((SwitchStatement) node).getCases()) {
+                    if (switchCase.getStatements() != null) {
+                        children.addAll(switchCase.getStatements());
+                    }
+                }
+            } else if (node instanceof Block || node instanceof Scope) {
+                for (Node child : node) {
+                    children.add(child);
+                }
+            }
+            return children;
+        }
+
+        private void compileFunction(FunctionNode function) {
+            int arity = function.getParams().size();
+            MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, function.getName(),
+                                                       functionDescriptor(arity), null, null);
+            method = new MethodContext(mv, false);
+
+            for (AstNode param : function.getParams()) {
+                if (!(param instanceof Name)) {
+                    throw unsupported(param, "解构参数");
+                }
+                method.declareLocal(((Name) param).getIdentifier());
+            }
+
+            mv.visitCode();
+            declareLocals(function.getBody());
+            compileStatement(function.getBody());
+            mv.visitInsn(ACONST_NULL);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private void compileMain(AstRoot root) {
+            MethodVisitor mv = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+            method = new MethodContext(mv, true);
+            // 局部变量0是args
+            method.nextLocal = 1;
+
+            mv.visitCode();
+            for (Node node : root) {
+                if (!(node instanceof FunctionNode)) {
+                    compileStatement((AstNode) node);
+                }
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        /**
+         * 为函数中的var声明分配局部变量，并初始化为undefined
+         */
+        private void declareLocals(AstNode body) {
+            Set<String> names = new LinkedHashSet<>();
+            collectVariables(body, names);
+            for (String name : names) {
+                if (!method.locals.containsKey(name)) {
+                    int slot = method.declareLocal(name);
+                    method.initializers.add(slot);
+                }
+            }
+            for (int slot : method.initializers) {
+                method.mv.visitInsn(ACONST_NULL);
+                method.mv.visitVarInsn(ASTORE, slot);
+            }
+        }
+
+        // ---- 语句 ----
+
+        private void compileStatement(AstNode node) {
+            MethodVisitor mv = method.mv;
+            if (node.getLineno() > 0) {
+                Label line = new Label();
+                mv.visitLabel(line);
+                mv.visitLineNumber(node.getLineno(), line);
+            }
+
+            if (node instanceof ExpressionStatement) {
+                compileExpression(((ExpressionStatement) node).getExpression());
+                mv.visitInsn(POP);
+            } else if (node instanceof VariableDeclaration) {
+                for (VariableInitializer init : ((VariableDeclaration) node).getVariables()) {
+                    if (!(init.getTarget() instanceof Name)) {
+                        throw unsupported(init, "解构赋值");
+                    }
+                    if (init.getInitializer() != null) {
+                        compileExpression(init.getInitializer());
+                        storeName(((Name) init.getTarget()).getIdentifier());
+                    }
+                }
+            } else if (node instanceof ReturnStatement) {
+                if (method.isMain) {
+                    throw unsupported(node, "顶层return语句");
+                }
+                AstNode value = ((ReturnStatement) node).getReturnValue();
+                if (value != null) {
+                    compileExpression(value);
+                } else {
+                    mv.visitInsn(ACONST_NULL);
+                }
+                mv.visitInsn(ARETURN);
+            } else if (node instanceof IfStatement) {
+                compileIf((IfStatement) node);
+            } else if (node instanceof WhileLoop) {
+                WhileLoop loop = (WhileLoop) node;
+                Label start = new Label();
+                Label end = new Label();
+                mv.visitLabel(start);
+                compileCondition(loop.getCondition(), end);
+                method.loops.push(new Label[] {end, start});
+                compileStatement(loop.getBody());
+                method.loops.pop();
+                mv.visitJumpInsn(GOTO, start);
+                mv.visitLabel(end);
+            } else if (node instanceof DoLoop) {
+                DoLoop loop = (DoLoop) node;
+                Label start = new Label();
+                Label next = new Label();
+                Label end = new Label();
+                mv.visitLabel(start);
+                method.loops.push(new Label[] {end, next});
+                compileStatement(loop.getBody());
+                method.loops.pop();
+                mv.visitLabel(next);
+                compileExpression(loop.getCondition());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "truthy", "(" + OBJECT + ")Z", false);
+                mv.visitJumpInsn(IFNE, start);
+                mv.visitLabel(end);
+            } else if (node instanceof ForLoop) {
+                compileFor((ForLoop) node);
+            } else if (node instanceof BreakStatement) {
+                if (((BreakStatement) node).getBreakLabel() != null || method.loops.isEmpty()) {
+                    throw unsupported(node, "带标签的break");
+                }
+                mv.visitJumpInsn(GOTO, method.loops.peek()[0]);
+            } else if (node instanceof ContinueStatement) {
+                if (((ContinueStatement) node).getLabel() != null) {
+                    throw unsupported(node, "带标签的continue");
+                }
+                mv.visitJumpInsn(GOTO, findContinueLabel(node));
+            } else if (node instanceof SwitchStatement) {
+                compileSwitch((SwitchStatement) node);
+            } else if (node instanceof ThrowStatement) {
+                compileExpression(((ThrowStatement) node).getExpression());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "error", "(" + OBJECT + ")Ljava/lang/RuntimeException;", false);
+                mv.visitInsn(ATHROW);
+            } else if (node instanceof Block || node instanceof Scope) {
+                for (Node child : node) {
+                    compileStatement((AstNode) child);
+                }
+            } else if (node instanceof EmptyStatement || node instanceof EmptyExpression || node instanceof Comment) {
+                // 空语句和注释不生成代码
+            } else if (node instanceof FunctionNode) {
+                throw unsupported(node, "嵌套函数");
+            } else {
+                throw unsupported(node, node.getClass().getSimpleName());
+            }
+        }
+
+        private void compileIf(IfStatement ifStmt) {
+            MethodVisitor mv = method.mv;
+            Label elseLabel = new Label();
+            Label end = new Label();
+            compileCondition(ifStmt.getCondition(), elseLabel);
+            compileStatement(ifStmt.getThenPart());
+            if (ifStmt.getElsePart() != null) {
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(elseLabel);
+                compileStatement(ifStmt.getElsePart());
+                mv.visitLabel(end);
+            } else {
+                mv.visitLabel(elseLabel);
+            }
+        }
+
+        private void compileFor(ForLoop loop) {
+            MethodVisitor mv = method.mv;
+            Label start = new Label();
+            Label next = new Label();
+            Label end = new Label();
+
+            AstNode init = loop.getInitializer();
+            if (init instanceof VariableDeclaration) {
+                compileStatement(init);
+            } else if (init != null && !(init instanceof EmptyExpression)) {
+                compileExpression(init);
+                mv.visitInsn(POP);
+            }
+
+            mv.visitLabel(start);
+            AstNode condition = loop.getCondition();
+            if (condition != null && !(condition instanceof EmptyExpression)) {
+                compileCondition(condition, end);
+            }
+            method.loops.push(new Label[] {end, next});
+            compileStatement(loop.getBody());
+            method.loops.pop();
+
+            mv.visitLabel(next);
+            AstNode increment = loop.getIncrement();
+            if (increment != null && !(increment instanceof EmptyExpression)) {
+                compileExpression(increment);
+                mv.visitInsn(POP);
+            }
+            mv.visitJumpInsn(GOTO, start);
+            mv.visitLabel(end);
+        }
+
+        /**
+         * switch按严格相等依次比较各个case，然后按顺序输出各分支，保留贯穿语义
+         */
+        private void compileSwitch(SwitchStatement switchStmt) {
+            MethodVisitor mv = method.mv;
+            int discriminant = method.newTemp();
+            compileExpression(switchStmt.getExpression());
+            mv.visitVarInsn(ASTORE, discriminant);
+
+            List<SwitchCase> cases = switchStmt.getCases();
+            Label[] bodies = new Label[cases.size()];
+            Label end = new Label();
+            Label defaultLabel = end;
+            for (int i = 0; i < cases.size(); i++) {
+                bodies[i] = new Label();
+                SwitchCase switchCase = cases.get(i);
+                if (switchCase.isDefault()) {
+                    defaultLabel = bodies[i];
+                    continue;
+                }
+                mv.visitVarInsn(ALOAD, discriminant);
+                compileExpression(switchCase.getExpression());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "strictEquals", BINARY_DESC, false);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "truthy", "(" + OBJECT + ")Z", false);
+                mv.visitJumpInsn(IFNE, bodies[i]);
+            }
+            mv.visitJumpInsn(GOTO, defaultLabel);
+
+            // switch中的break跳到末尾，continue交给外层循环
+            method.loops.push(new Label[] {end, null});
+            for (int i = 0; i < cases.size(); i++) {
+                mv.visitLabel(bodies[i]);
+                List<AstNode> statements = cases.get(i).getStatements();
+                if (statements != null) {
+                    for (AstNode statement : statements) {
+                        compileStatement(statement);
+                    }
+                }
+            }
+            method.loops.pop();
+            mv.visitLabel(end);
+        }
+
+        private Label findContinueLabel(AstNode node) {
+            for (Label[] loop : method.loops) {
+                if (loop[1] != null) {
+                    return loop[1];
+                }
+            }
+            throw unsupported(node, "循环外的continue");
+        }
+
+        /**
+         * 计算条件，为假时跳转到指定标签
+         */
+        private void compileCondition(AstNode condition, Label whenFalse) {
+            compileExpression(condition);
+            method.mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "truthy", "(" + OBJECT + ")Z", false);
+            method.mv.visitJumpInsn(IFEQ, whenFalse);
+        }
+
+        // ---- 表达式，计算结果以Object留在操作数栈上 ----
+
+        private void compileExpression(AstNode node) {
+            MethodVisitor mv = method.mv;
+            if (node instanceof NumberLiteral) {
+                mv.visitLdcInsn(((NumberLiteral) node).getNumber());
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;", false);
+            } else if (node instanceof StringLiteral) {
+                mv.visitLdcInsn(((StringLiteral) node).getValue());
+            } else if (node instanceof KeywordLiteral) {
+                switch (node.getType()) {
+                    case Token.TRUE:
+                        mv.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "TRUE", "Ljava/lang/Boolean;");
+                        break;
+                    case Token.FALSE:
+                        mv.visitFieldInsn(GETSTATIC, "java/lang/Boolean", "FALSE", "Ljava/lang/Boolean;");
+                        break;
+                    case Token.NULL:
+                        mv.visitInsn(ACONST_NULL);
+                        break;
+                    default:
+                        throw unsupported(node, "this");
+                }
+            } else if (node instanceof Name) {
+                loadName((Name) node);
+            } else if (node instanceof ParenthesizedExpression) {
+                compileExpression(((ParenthesizedExpression) node).getExpression());
+            } else if (node instanceof Assignment) {
+                compileAssignment((Assignment) node);
+            } else if (node instanceof PropertyGet) {
+                PropertyGet propertyGet = (PropertyGet) node;
+                compileExpression(propertyGet.getTarget());
+                mv.visitLdcInsn(propertyGet.getProperty().getIdentifier());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "getProperty", "(" + OBJECT + "Ljava/lang/String;)" + OBJECT, false);
+            } else if (node instanceof ElementGet) {
+                ElementGet elementGet = (ElementGet) node;
+                compileExpression(elementGet.getTarget());
+                compileExpression(elementGet.getElement());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "getElement", BINARY_DESC, false);
+            } else if (node instanceof InfixExpression) {
+                compileInfix((InfixExpression) node);
+            } else if (node instanceof UnaryExpression) {
+                compileUnary((UnaryExpression) node);
+            } else if (node instanceof UpdateExpression) {
+                compileUpdate((UpdateExpression) node);
+            } else if (node instanceof ConditionalExpression) {
+                ConditionalExpression conditional = (ConditionalExpression) node;
+                Label elseLabel = new Label();
+                Label end = new Label();
+                compileCondition(conditional.getTestExpression(), elseLabel);
+                compileExpression(conditional.getTrueExpression());
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(elseLabel);
+                compileExpression(conditional.getFalseExpression());
+                mv.visitLabel(end);
+            } else if (node instanceof FunctionCall && !(node instanceof NewExpression)) {
+                compileCall((FunctionCall) node);
+            } else if (node instanceof ObjectLiteral) {
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "newObject", "()" + OBJECT, false);
+                for (ObjectProperty property : ((ObjectLiteral) node).getElements()) {
+                    mv.visitInsn(DUP);
+                    mv.visitLdcInsn(propertyKey(property));
+                    compileExpression(property.getRight());
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "setProperty",
+                                       "(" + OBJECT + "Ljava/lang/String;" + OBJECT + ")" + OBJECT, false);
+                    mv.visitInsn(POP);
+                }
+            } else if (node instanceof ArrayLiteral) {
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "newArray", "()" + OBJECT, false);
+                for (AstNode element : ((ArrayLiteral) node).getElements()) {
+                    mv.visitInsn(DUP);
+                    if (element instanceof EmptyExpression) {
+                        mv.visitInsn(ACONST_NULL);
+                    } else {
+                        compileExpression(element);
+                    }
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "push", "(" + OBJECT + OBJECT + ")V", false);
+                }
+            } else if (node instanceof FunctionNode) {
+                throw unsupported(node, "函数表达式");
+            } else {
+                throw unsupported(node, node.getClass().getSimpleName());
+            }
+        }
+
+        private String propertyKey(ObjectProperty property) {
+            AstNode key = property.getLeft();
+            if (key instanceof Name) {
+                return ((Name) key).getIdentifier();
+            }
+            if (key instanceof StringLiteral) {
+                return ((StringLiteral) key).getValue();
+            }
+            if (key instanceof NumberLiteral) {
+                return JSRuntime.toDisplayString(((NumberLiteral) key).getNumber());
+            }
+            throw unsupported(property, "计算属性名");
+        }
+
+        private void compileInfix(InfixExpression infix) {
+            MethodVisitor mv = method.mv;
+            int type = infix.getType();
+            if (type == Token.AND || type == Token.OR) {
+                // 短路求值：结果是决定表达式值的那个操作数
+                Label end = new Label();
+                compileExpression(infix.getLeft());
+                mv.visitInsn(DUP);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "truthy", "(" + OBJECT + ")Z", false);
+                mv.visitJumpInsn(type == Token.AND ? IFEQ : IFNE, end);
+                mv.visitInsn(POP);
+                compileExpression(infix.getRight());
+                mv.visitLabel(end);
+                return;
+            }
+            if (type == Token.COMMA) {
+                compileExpression(infix.getLeft());
+                mv.visitInsn(POP);
+                compileExpression(infix.getRight());
+                return;
+            }
+
+            String helper = binaryHelper(type);
+            if (helper == null) {
+                throw unsupported(infix, "运算符 " + AstNode.operatorToString(type));
+            }
+            compileExpression(infix.getLeft());
+            compileExpression(infix.getRight());
+            mv.visitMethodInsn(INVOKESTATIC, RUNTIME, helper, BINARY_DESC, false);
+            if (type == Token.NE || type == Token.SHNE) {
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "not", UNARY_DESC, false);
+            }
+        }
+
+        /**
+         * 二元运算对应的运行时方法
+         */
+        private String binaryHelper(int type) {
+            switch (type) {
+                case Token.ADD: case Token.ASSIGN_ADD: return "add";
+                case Token.SUB: case Token.ASSIGN_SUB: return "sub";
+                case Token.MUL: case Token.ASSIGN_MUL: return "mul";
+                case Token.DIV: case Token.ASSIGN_DIV: return "div";
+                case Token.MOD: case Token.ASSIGN_MOD: return "mod";
+                case Token.LT: return "lt";
+                case Token.LE: return "le";
+                case Token.GT: return "gt";
+                case Token.GE: return "ge";
+                case Token.EQ: case Token.NE: return "looseEquals";
+                case Token.SHEQ: case Token.SHNE: return "strictEquals";
+                default: return null;
+            }
+        }
+
+        /**
+         * 自增自减，操作数先转换为数字
+         */
+        private void compileUpdate(UpdateExpression update) {
+            MethodVisitor mv = method.mv;
+            if (!(update.getOperand() instanceof Name)) {
+                throw unsupported(update, "对属性的自增自减");
+            }
+            Name operand = (Name) update.getOperand();
+            loadName(operand);
+            mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "pos", UNARY_DESC, false);
+            if (update.isPostfix()) {
+                // 后缀形式的结果是转换为数字后的旧值
+                mv.visitInsn(DUP);
+            }
+            mv.visitLdcInsn(1.0);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;", false);
+            mv.visitMethodInsn(INVOKESTATIC, RUNTIME, update.getType() == Token.INC ? "add" : "sub", BINARY_DESC, false);
+            if (!update.isPostfix()) {
+                mv.visitInsn(DUP);
+            }
+            storeName(operand.getIdentifier());
+        }
+
+        private void compileUnary(UnaryExpression unary) {
+            MethodVisitor mv = method.mv;
+            int type = unary.getType();
+            compileExpression(unary.getOperand());
+            switch (type) {
+                case Token.NOT:
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "not", UNARY_DESC, false);
+                    break;
+                case Token.NEG:
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "neg", UNARY_DESC, false);
+                    break;
+                case Token.POS:
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "pos", UNARY_DESC, false);
+                    break;
+                case Token.TYPEOF:
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "typeof", UNARY_DESC, false);
+                    break;
+                case Token.VOID:
+                    mv.visitInsn(POP);
+                    mv.visitInsn(ACONST_NULL);
+                    break;
+                default:
+                    throw unsupported(unary, "运算符 " + AstNode.operatorToString(type));
+            }
+        }
+
+        private void compileAssignment(Assignment assignment) {
+            MethodVisitor mv = method.mv;
+            AstNode target = assignment.getLeft();
+            int type = assignment.getType();
+            String helper = null;
+            if (type != Token.ASSIGN) {
+                helper = binaryHelper(type);
+                if (helper == null) {
+                    throw unsupported(assignment, "运算符 " + AstNode.operatorToString(type));
+                }
+            }
+
+            if (target instanceof Name) {
+                String name = ((Name) target).getIdentifier();
+                if (helper != null) {
+                    loadName((Name) target);
+                    compileExpression(assignment.getRight());
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, helper, BINARY_DESC, false);
+                } else {
+                    compileExpression(assignment.getRight());
+                }
+                mv.visitInsn(DUP);
+                storeName(name);
+            } else if (target instanceof PropertyGet) {
+                PropertyGet propertyGet = (PropertyGet) target;
+                String property = propertyGet.getProperty().getIdentifier();
+                compileExpression(propertyGet.getTarget());
+                mv.visitLdcInsn(property);
+                if (helper != null) {
+                    compileExpression(propertyGet.getTarget());
+                    mv.visitLdcInsn(property);
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "getProperty", "(" + OBJECT + "Ljava/lang/String;)" + OBJECT, false);
+                    compileExpression(assignment.getRight());
+                    mv.visitMethodInsn(INVOKESTATIC, RUNTIME, helper, BINARY_DESC, false);
+                } else {
+                    compileExpression(assignment.getRight());
+                }
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "setProperty",
+                                   "(" + OBJECT + "Ljava/lang/String;" + OBJECT + ")" + OBJECT, false);
+            } else if (target instanceof ElementGet && helper == null) {
+                ElementGet elementGet = (ElementGet) target;
+                compileExpression(elementGet.getTarget());
+                compileExpression(elementGet.getElement());
+                compileExpression(assignment.getRight());
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "setElement", "(" + OBJECT + OBJECT + OBJECT + ")" + OBJECT, false);
+            } else {
+                throw unsupported(assignment, "赋值目标 " + target.getClass().getSimpleName());
+            }
+        }
+
+        private void compileCall(FunctionCall call) {
+            MethodVisitor mv = method.mv;
+            AstNode target = call.getTarget();
+            List<AstNode> args = call.getArguments();
+
+            if (target instanceof Name) {
+                String name = ((Name) target).getIdentifier();
+                Integer arity = functionArity.get(name);
+                if (arity != null && !method.locals.containsKey(name)) {
+                    // 模块函数直接调用静态方法，实参个数与形参不一致时补undefined或丢弃多余的值
+                    for (int i = 0; i < args.size(); i++) {
+                        compileExpression(args.get(i));
+                        if (i >= arity) {
+                            mv.visitInsn(POP);
+                        }
+                    }
+                    for (int i = args.size(); i < arity; i++) {
+                        mv.visitInsn(ACONST_NULL);
+                    }
+                    mv.visitMethodInsn(INVOKESTATIC, internalName, name, functionDescriptor(arity), false);
+                    return;
+                }
+                if (method.locals.containsKey(name) || moduleFields.contains(name)) {
+                    throw unsupported(call, "调用函数值 " + name);
+                }
+                mv.visitLdcInsn(name);
+                compileArguments(args);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "callGlobal", "(Ljava/lang/String;[" + OBJECT + ")" + OBJECT, false);
+            } else if (target instanceof PropertyGet) {
+                PropertyGet propertyGet = (PropertyGet) target;
+                compileExpression(propertyGet.getTarget());
+                mv.visitLdcInsn(propertyGet.getProperty().getIdentifier());
+                compileArguments(args);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "invoke",
+                                   "(" + OBJECT + "Ljava/lang/String;[" + OBJECT + ")" + OBJECT, false);
+            } else {
+                throw unsupported(call, "调用目标 " + target.getClass().getSimpleName());
+            }
+        }
+
+        /**
+         * 将实参打包为Object数组
+         */
+        private void compileArguments(List<AstNode> args) {
+            MethodVisitor mv = method.mv;
+            mv.visitLdcInsn(args.size());
+            mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+            for (int i = 0; i < args.size(); i++) {
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn(i);
+                compileExpression(args.get(i));
+                mv.visitInsn(AASTORE);
+            }
+        }
+
+        private void loadName(Name node) {
+            MethodVisitor mv = method.mv;
+            String name = node.getIdentifier();
+            Integer slot = method.locals.get(name);
+            if (slot != null) {
+                mv.visitVarInsn(ALOAD, slot);
+            } else if (moduleFields.contains(name)) {
+                mv.visitFieldInsn(GETSTATIC, internalName, name, OBJECT);
+            } else if ("undefined".equals(name)) {
+                mv.visitInsn(ACONST_NULL);
+            } else if (functionArity.containsKey(name)) {
+                throw unsupported(node, "函数作为值使用 " + name);
+            } else {
+                mv.visitLdcInsn(name);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "global", "(Ljava/lang/String;)" + OBJECT, false);
+            }
+        }
+
+        /**
+         * 将栈顶的值存入变量
+         */
+        private void storeName(String name) {
+            MethodVisitor mv = method.mv;
+            Integer slot = method.locals.get(name);
+            if (slot != null) {
+                mv.visitVarInsn(ASTORE, slot);
+            } else if (moduleFields.contains(name)) {
+                mv.visitFieldInsn(PUTSTATIC, internalName, name, OBJECT);
+            } else {
+                mv.visitLdcInsn(name);
+                mv.visitInsn(SWAP);
+                mv.visitMethodInsn(INVOKESTATIC, RUNTIME, "setGlobal", "(Ljava/lang/String;" + OBJECT + ")" + OBJECT, false);
+                mv.visitInsn(POP);
+            }
+        }
+
+        private UnsupportedOperationException unsupported(AstNode node, String what) {
+            return new UnsupportedOperationException(fileName + " 第" + node.getLineno() + "行: 字节码后端暂不支持" + what);
+        }
+    }
+
+    private static String functionDescriptor(int arity) {
+        StringBuilder desc = new StringBuilder("(");
+        for (int i = 0; i < arity; i++) {
+            desc.append(OBJECT);
+        }
+        return desc.append(")").append(OBJECT).toString();
+    }
+
+    /**
+     * 正在编译的方法的状态
+     */
+    private static class MethodContext {
+
+        final MethodVisitor mv;
+        final boolean isMain;
+        final Map<String, Integer> locals = new HashMap<>();
+        final List<Integer> initializers = new ArrayList<>();
+        /** 循环和switch的跳转目标：[break标签, continue标签] */
+        final Deque<Label[]> loops = new ArrayDeque<>();
+        int nextLocal;
+
+        MethodContext(MethodVisitor mv, boolean isMain) {
+            this.mv = mv;
+            this.isMain = isMain;
+        }
+
+        int declareLocal(String name) {
+            int slot = nextLocal++;
+            locals.put(name, slot);
+            return slot;
+        }
+
+        int newTemp() {
+            return nextLocal++;
+        }
+    }
+}
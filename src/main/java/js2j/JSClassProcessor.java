@@ -15,7 +15,9 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.VoidType;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JavaScript类处理器
@@ -55,44 +57,133 @@ public class JSClassProcessor {
      * @return Java类定义字符串
      */
     public String processClass(AstNode node) {
+        StringBuilder result = new StringBuilder();
+        emitClass(node, new JavaCodeEmitter(result));
+        return result.toString();
+    }
+    
+    /**
+     * 处理JavaScript类定义，直接写入输出器
+     */
+    public void emitClass(AstNode node, JavaCodeEmitter emitter) {
         if (!(node instanceof ObjectLiteral)) {
-            return "// 不支持的类定义格式";
+            emitter.print("// 不支持的类定义格式");
+            return;
         }
         
         ObjectLiteral classNode = (ObjectLiteral) node;
         String className = getClassName(classNode);
         
-        StringBuilder result = new StringBuilder();
-        result.append("public class ").append(className).append(" {\n");
+        emitter.println("public class " + className + " {");
+        emitter.indent();
         
         // 添加字段
         List<String> fields = extractFields(classNode);
         for (String field : fields) {
-            result.append("    ").append(field).append("\n");
+            emitter.println(field);
         }
         
         // 添加构造函数
-        String constructor = extractConstructor(classNode);
-        if (!constructor.isEmpty()) {
-            result.append("\n    ").append(constructor).append("\n");
+        FunctionNode constructor = findConstructor(classNode);
+        if (constructor != null) {
+            emitter.println();
+            emitConstructor(constructor, className, emitter);
         }
         
         // 添加方法
-        List<String> methods = extractMethods(classNode);
-        for (String method : methods) {
-            result.append("\n    ").append(method).append("\n");
+        emitMethods(classNode, className, emitter);
+        
+        emitter.unindent();
+        emitter.println("}");
+    }
+    
+    /**
+     * 输出由构造函数和原型方法组成的JavaScript类的成员
+     * 字段来自构造函数中的this.xxx赋值，方法来自ClassName.prototype.xxx = function赋值
+     * 
+     * @param className 类名
+     * @param constructorNode 构造函数，没有时为null
+     * @param methods 原型方法，按方法名索引
+     * @param emitter 输出器
+     */
+    public void emitClassMembers(String className, FunctionNode constructorNode,
+                                 Map<String, FunctionNode> methods, JavaCodeEmitter emitter) {
+        if (constructorNode != null) {
+            emitter.sourceLine(constructorNode.getLineno());
+            // 同一个字段可能在构造函数中被多次赋值，只声明一次
+            for (String field : new LinkedHashSet<>(extractFieldsFromConstructor(constructorNode))) {
+                emitter.println(field);
+            }
+            emitter.println();
+            emitConstructor(constructorNode, className, emitter);
         }
         
-        result.append("}\n");
-        return result.toString();
+        for (Map.Entry<String, FunctionNode> method : methods.entrySet()) {
+            emitter.println();
+            emitMethod(method.getValue(), className, method.getKey(), emitter);
+        }
+    }
+    
+    /**
+     * 判断函数声明是否是构造函数
+     * 按JavaScript惯例，首字母大写且在函数体中给this.xxx赋值的函数视为构造函数
+     */
+    public boolean isConstructorFunction(FunctionNode node) {
+        String name = node.getName();
+        if (name == null || name.isEmpty() || !Character.isUpperCase(name.charAt(0))) {
+            return false;
+        }
+        return !extractFieldsFromConstructor(node).isEmpty();
+    }
+    
+    /**
+     * 识别ClassName.prototype.method = function(...) {...}形式的原型方法定义
+     * 
+     * @return 原型方法，不是这种形式时返回null
+     */
+    public PrototypeMethod matchPrototypeMethod(ExpressionStatement statement) {
+        if (!(statement.getExpression() instanceof Assignment)) {
+            return null;
+        }
+        Assignment assignment = (Assignment) statement.getExpression();
+        if (assignment.getType() != Token.ASSIGN
+            || !(assignment.getRight() instanceof FunctionNode)
+            || !(assignment.getLeft() instanceof PropertyGet)) {
+            return null;
+        }
+        
+        PropertyGet methodGet = (PropertyGet) assignment.getLeft();
+        if (!(methodGet.getTarget() instanceof PropertyGet)) {
+            return null;
+        }
+        PropertyGet prototypeGet = (PropertyGet) methodGet.getTarget();
+        if (!"prototype".equals(prototypeGet.getProperty().getIdentifier())
+            || !(prototypeGet.getTarget() instanceof org.mozilla.javascript.ast.Name)) {
+            return null;
+        }
+        
+        String className = ((org.mozilla.javascript.ast.Name) prototypeGet.getTarget()).getIdentifier();
+        return new PrototypeMethod(className, methodGet.getProperty().getIdentifier(),
+                                   (FunctionNode) assignment.getRight());
     }
     
     /**
      * 从类节点中获取类名
      */
     private String getClassName(ObjectLiteral classNode) {
-        // 尝试从上下文中获取类名
-        // 这里简化实现，返回默认类名
+        // 尝试从上下文中获取类名，如 var Foo = {...} 或 Foo = {...}
+        AstNode parent = classNode.getParent();
+        AstNode target = null;
+        if (parent instanceof VariableInitializer) {
+            target = ((VariableInitializer) parent).getTarget();
+        } else if (parent instanceof Assignment) {
+            target = ((Assignment) parent).getLeft();
+        }
+        
+        if (target instanceof org.mozilla.javascript.ast.Name) {
+            String name = ((org.mozilla.javascript.ast.Name) target).getIdentifier();
+            return JavaScriptToJavaConverter.generateClassName(name);
+        }
         return "GeneratedClass";
     }
     
@@ -120,7 +211,7 @@ public class JSClassProcessor {
     /**
      * 从构造函数中提取字段
      */
-    private List<String> extractFieldsFromConstructor(FunctionNode constructorNode) {
+    List<String> extractFieldsFromConstructor(FunctionNode constructorNode) {
         List<String> fields = new ArrayList<>();
         org.mozilla.javascript.ast.AstNode body = constructorNode.getBody();
         
@@ -140,9 +231,9 @@ public class JSClassProcessor {
                             PropertyGet propGet = (PropertyGet) left;
                             AstNode target = propGet.getTarget();
                             
-                            if (target instanceof org.mozilla.javascript.ast.Name) {
-                                org.mozilla.javascript.ast.Name name = (org.mozilla.javascript.ast.Name) target;
-                                if (name.getIdentifier().equals("this")) {
+                            // Rhino将this解析为KeywordLiteral而不是Name
+                            if (target instanceof KeywordLiteral) {
+                                if (target.getType() == Token.THIS) {
                                     // 这是this.xxx = yyy的形式
                                     if (propGet.getProperty() instanceof org.mozilla.javascript.ast.Name) {
                                         String fieldName = ((org.mozilla.javascript.ast.Name) propGet.getProperty()).getIdentifier();
@@ -196,48 +287,31 @@ public class JSClassProcessor {
     }
     
     /**
-     * 提取构造函数
+     * 查找构造函数
      */
-    private String extractConstructor(ObjectLiteral classNode) {
+    private FunctionNode findConstructor(ObjectLiteral classNode) {
         for (ObjectProperty prop : classNode.getElements()) {
             if (prop.getRight() instanceof FunctionNode) {
                 FunctionNode funcNode = (FunctionNode) prop.getRight();
                 if (funcNode.getFunctionName() != null && 
                     "constructor".equals(funcNode.getFunctionName().getIdentifier())) {
-                    return processConstructor(funcNode);
+                    return funcNode;
                 }
             }
         }
         
-        return "";
+        return null;
     }
     
     /**
      * 处理构造函数
      */
-    private String processConstructor(FunctionNode constructorNode) {
-        StringBuilder result = new StringBuilder();
-        String className = "GeneratedClass"; // 应该和类名匹配
-        
-        // 处理参数
-        List<AstNode> params = constructorNode.getParams();
-        StringBuilder paramList = new StringBuilder();
-        
-        for (int i = 0; i < params.size(); i++) {
-            AstNode param = params.get(i);
-            if (param instanceof org.mozilla.javascript.ast.Name) {
-                String paramName = ((org.mozilla.javascript.ast.Name) param).getIdentifier();
-                String paramType = "Object"; // 简化实现，默认使用Object
-                
-                paramList.append(paramType).append(" ").append(paramName);
-                
-                if (i < params.size() - 1) {
-                    paramList.append(", ");
-                }
-            }
-        }
-        
-        result.append("public ").append(className).append("(").append(paramList).append(") {");
+    private void emitConstructor(FunctionNode constructorNode, String className, JavaCodeEmitter emitter) {
+        emitter.sourceLine(constructorNode.getLineno());
+        emitter.print("public ").print(className).print("(");
+        emitParameters(constructorNode, emitter);
+        emitter.println(") {");
+        emitter.indent();
         
         // 处理构造函数体
         AstNode body = constructorNode.getBody();
@@ -245,6 +319,7 @@ public class JSClassProcessor {
             Block blockBody = (Block) body;
             List<AstNode> statements = statementProcessor.getBlockStatements(blockBody);
             for (AstNode statement : statements) {
+                emitter.sourceLine(statement.getLineno());
                 if (statement instanceof ExpressionStatement) {
                     ExpressionStatement exprStmt = (ExpressionStatement) statement;
                     AstNode expr = exprStmt.getExpression();
@@ -257,16 +332,17 @@ public class JSClassProcessor {
                             PropertyGet propGet = (PropertyGet) left;
                             AstNode target = propGet.getTarget();
                             
-                            if (target instanceof org.mozilla.javascript.ast.Name) {
-                                org.mozilla.javascript.ast.Name name = (org.mozilla.javascript.ast.Name) target;
-                                if (name.getIdentifier().equals("this")) {
+                            // Rhino将this解析为KeywordLiteral而不是Name
+                            if (target instanceof KeywordLiteral) {
+                                if (target.getType() == Token.THIS) {
                                     // 这是this.xxx = yyy的形式
                                     if (propGet.getProperty() instanceof org.mozilla.javascript.ast.Name) {
                                         String fieldName = ((org.mozilla.javascript.ast.Name) propGet.getProperty()).getIdentifier();
-                                        String fieldValue = expressionProcessor.createExpressionFromJSNode(assignment.getRight()).toString();
                                         
                                         // 添加字段赋值
-                                        result.append("\n        this.").append(fieldName).append(" = ").append(fieldValue).append(";");
+                                        emitter.print("this.").print(fieldName).print(" = ")
+                                               .emit(expressionProcessor.createExpressionFromJSNode(assignment.getRight()))
+                                               .println(";");
                                     }
                                 }
                             }
@@ -276,16 +352,35 @@ public class JSClassProcessor {
             }
         }
         
-        result.append("\n    }");
-        return result.toString();
+        emitter.unindent();
+        emitter.println("}");
     }
     
     /**
-     * 提取方法
+     * 输出参数列表
      */
-    private List<String> extractMethods(ObjectLiteral classNode) {
-        List<String> methods = new ArrayList<>();
+    private void emitParameters(FunctionNode functionNode, JavaCodeEmitter emitter) {
+        List<AstNode> params = functionNode.getParams();
         
+        for (int i = 0; i < params.size(); i++) {
+            AstNode param = params.get(i);
+            if (param instanceof org.mozilla.javascript.ast.Name) {
+                String paramName = ((org.mozilla.javascript.ast.Name) param).getIdentifier();
+                String paramType = "Object"; // 简化实现，默认使用Object
+                
+                emitter.print(paramType).print(" ").print(paramName);
+                
+                if (i < params.size() - 1) {
+                    emitter.print(", ");
+                }
+            }
+        }
+    }
+    
+    /**
+     * 提取方法
+     */
+    private void emitMethods(ObjectLiteral classNode, String className, JavaCodeEmitter emitter) {
         for (ObjectProperty prop : classNode.getElements()) {
             if (prop.getRight() instanceof FunctionNode) {
                 FunctionNode funcNode = (FunctionNode) prop.getRight();
@@ -299,74 +394,37 @@ public class JSClassProcessor {
                 
                 // 排除构造函数
                 if (!"constructor".equals(methodName)) {
-                    methods.add(processMethod(funcNode, methodName));
+                    emitter.println();
+                    emitMethod(funcNode, className, methodName, emitter);
                 }
             }
         }
-        
-        return methods;
     }
     
     /**
      * 处理方法
      */
-    private String processMethod(FunctionNode methodNode, String methodName) {
-        StringBuilder result = new StringBuilder();
-        
+    private void emitMethod(FunctionNode methodNode, String className, String methodName, JavaCodeEmitter emitter) {
         // 处理返回类型和参数
         String returnType = inferReturnType(methodNode);
-        List<AstNode> params = methodNode.getParams();
-        StringBuilder paramList = new StringBuilder();
-        
-        for (int i = 0; i < params.size(); i++) {
-            AstNode param = params.get(i);
-            if (param instanceof org.mozilla.javascript.ast.Name) {
-                String paramName = ((org.mozilla.javascript.ast.Name) param).getIdentifier();
-                String paramType = "Object"; // 简化实现，默认使用Object
-                
-                paramList.append(paramType).append(" ").append(paramName);
-                
-                if (i < params.size() - 1) {
-                    paramList.append(", ");
-                }
-            }
-        }
         
-        result.append("public ").append(returnType).append(" ").append(methodName).append("(")
-              .append(paramList).append(") {");
+        emitter.sourceLine(methodNode.getLineno());
+        emitter.print("public ").print(returnType).print(" ").print(methodName).print("(");
+        emitParameters(methodNode, emitter);
+        emitter.println(") {");
+        emitter.indent();
         
         // 处理方法体
-        AstNode body = methodNode.getBody();
-        if (body instanceof Block) {
-            Block blockBody = (Block) body;
-            List<AstNode> statements = statementProcessor.getBlockStatements(blockBody);
-            for (AstNode statement : statements) {
-                if (statement instanceof ReturnStatement) {
-                    ReturnStatement returnStmt = (ReturnStatement) statement;
-                    AstNode returnValue = returnStmt.getReturnValue();
-                    
-                    if (returnValue != null) {
-                        String returnExpr = expressionProcessor.createExpressionFromJSNode(returnValue).toString();
-                        result.append("\n        return ").append(returnExpr).append(";");
-                    } else {
-                        result.append("\n        return;");
-                    }
-                } else {
-                    // 处理其他语句，这里简化处理，实际情况需要更多逻辑
-                    String statementStr = statement.toSource().trim();
-                    result.append("\n        ").append(statementStr).append(";");
-                }
-            }
-        }
+        functionProcessor.emitInstrumentedBody(methodNode, className + "." + methodName, emitter);
         
-        result.append("\n    }");
-        return result.toString();
+        emitter.unindent();
+        emitter.println("}");
     }
     
     /**
      * 推断方法返回类型
      */
-    private String inferReturnType(FunctionNode methodNode) {
+    String inferReturnType(FunctionNode methodNode) {
         // 检查是否有return语句
         AstNode body = methodNode.getBody();
         if (body instanceof Block) {
@@ -388,4 +446,32 @@ public class JSClassProcessor {
         
         return "void";
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 原型方法定义
+     */
+    public static class PrototypeMethod {
+        
+        private final String className;
+        private final String methodName;
+        private final FunctionNode function;
+        
+        public PrototypeMethod(String className, String methodName, FunctionNode function) {
+            this.className = className;
+            this.methodName = methodName;
+            this.function = function;
+        }
+        
+        public String getClassName() {
+            return className;
+        }
+        
+        public String getMethodName() {
+            return methodName;
+        }
+        
+        public FunctionNode getFunction() {
+            return function;
+        }
+    }
+}
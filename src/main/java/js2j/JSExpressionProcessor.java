@@ -6,7 +6,9 @@ import com.github.javaparser.ast.stmt.ExpressionStmt;
 import org.mozilla.javascript.Token;
 import org.mozilla.javascript.ast.*;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -35,8 +37,16 @@ public class JSExpressionProcessor {
      * 处理表达式语句，输出Java代码字符串
      */
     public String processExpressionStatement(org.mozilla.javascript.ast.ExpressionStatement node) {
-        Expression expr = createExpressionFromJSNode(node.getExpression());
-        return expr.toString() + ";\n";
+        StringBuilder result = new StringBuilder();
+        emitExpressionStatement(node, new JavaCodeEmitter(result));
+        return result.toString();
+    }
+    
+    /**
+     * 处理表达式语句，直接写入输出器
+     */
+    public void emitExpressionStatement(org.mozilla.javascript.ast.ExpressionStatement node, JavaCodeEmitter emitter) {
+        emitter.emit(createExpressionFromJSNode(node.getExpression())).println(";");
     }
     
     /**
@@ -45,7 +55,7 @@ public class JSExpressionProcessor {
      */
     public String processExpressionStatement(ExpressionStmt node) {
         // 由于JavaParser的Expression不能转为AstNode，我们只返回表达式的字符串形式
-        return node.getExpression().toString() + ";\n";
+        return JavaCodeEmitter.toJava(node.getExpression()) + ";\n";
     }
     
     /**
@@ -55,7 +65,151 @@ public class JSExpressionProcessor {
         if (node == null) {
             return null;
         }
+        if (!isCompound(node)) {
+            return convertNode(node);
+        }
         
+        // 运算符链（如上万项的字符串拼接）用显式栈做后序遍历，嵌套深度只受堆大小限制
+        Deque<AstNode> pending = new ArrayDeque<>();
+        Deque<Boolean> expanded = new ArrayDeque<>();
+        Deque<Expression> results = new ArrayDeque<>();
+        pending.push(node);
+        expanded.push(Boolean.FALSE);
+        while (!pending.isEmpty()) {
+            AstNode current = pending.pop();
+            boolean childrenDone = expanded.pop();
+            if (!isCompound(current)) {
+                results.push(convertNode(current));
+            } else if (childrenDone) {
+                results.push(combine(current, results));
+            } else {
+                pending.push(current);
+                expanded.push(Boolean.TRUE);
+                List<AstNode> operands = operands(current);
+                // 逆序入栈，使左侧的操作数先转换
+                for (int i = operands.size() - 1; i >= 0; i--) {
+                    pending.push(operands.get(i));
+                    expanded.push(Boolean.FALSE);
+                }
+            }
+        }
+        return results.pop();
+    }
+    
+    /**
+     * 是否是只由子表达式组合而成的节点，这类节点由createExpressionFromJSNode用显式栈遍历
+     */
+    private static boolean isCompound(AstNode node) {
+        switch (node.getType()) {
+            case Token.ADD:
+            case Token.SUB:
+            case Token.MUL:
+            case Token.DIV:
+            case Token.MOD:
+            case Token.BITOR:
+            case Token.BITAND:
+            case Token.BITXOR:
+            case Token.EQ:
+            case Token.NE:
+            case Token.LT:
+            case Token.LE:
+            case Token.GT:
+            case Token.GE:
+            case Token.AND:
+            case Token.OR:
+                return node instanceof InfixExpression;
+            case Token.NEG:
+            case Token.POS:
+            case Token.NOT:
+            case Token.BITNOT:
+                return node instanceof org.mozilla.javascript.ast.UnaryExpression;
+            case Token.GETPROP:
+                return node instanceof PropertyGet;
+            case Token.GETELEM:
+                return node instanceof ElementGet;
+            case Token.LP:
+            case Token.HOOK:
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * 组合节点需要转换的子表达式，按求值顺序排列
+     */
+    private static List<AstNode> operands(AstNode node) {
+        List<AstNode> operands = new ArrayList<>(3);
+        if (node instanceof PropertyGet) {
+            // 属性名不作为表达式转换
+            operands.add(((PropertyGet) node).getTarget());
+        } else if (node instanceof InfixExpression) {
+            operands.add(((InfixExpression) node).getLeft());
+            operands.add(((InfixExpression) node).getRight());
+        } else if (node instanceof org.mozilla.javascript.ast.UnaryExpression) {
+            operands.add(((org.mozilla.javascript.ast.UnaryExpression) node).getOperand());
+        } else if (node instanceof ElementGet) {
+            operands.add(((ElementGet) node).getTarget());
+            operands.add(((ElementGet) node).getElement());
+        } else if (node instanceof ParenthesizedExpression) {
+            operands.add(((ParenthesizedExpression) node).getExpression());
+        } else if (node instanceof ConditionalExpression) {
+            ConditionalExpression conditional = (ConditionalExpression) node;
+            operands.add(conditional.getTestExpression());
+            operands.add(conditional.getTrueExpression());
+            operands.add(conditional.getFalseExpression());
+        }
+        return operands;
+    }
+    
+    /**
+     * 用已转换的子表达式（位于结果栈顶，最后一个操作数在最上面）构造组合节点对应的Java表达式
+     */
+    private Expression combine(AstNode node, Deque<Expression> results) {
+        switch (node.getType()) {
+            case Token.GETPROP: {
+                AstNode propertyNode = ((PropertyGet) node).getProperty();
+                String propName;
+                if (propertyNode instanceof org.mozilla.javascript.ast.Name) {
+                    propName = ((org.mozilla.javascript.ast.Name) propertyNode).getIdentifier();
+                } else {
+                    propName = propertyNode.toString();
+                }
+                // 创建字段访问表达式
+                return new FieldAccessExpr(results.pop(), propName);
+            }
+            case Token.NEG:
+            case Token.POS:
+            case Token.NOT:
+            case Token.BITNOT:
+                return new UnaryExpr(results.pop(), getUnaryOperator(node.getType()));
+            case Token.GETELEM: {
+                // 数组元素访问，如array[index]
+                Expression indexExpr = results.pop();
+                return new ArrayAccessExpr(results.pop(), indexExpr);
+            }
+            case Token.LP:
+                // 括号表达式，保留括号以维持运算顺序
+                return new EnclosedExpr(results.pop());
+            case Token.HOOK: {
+                // 条件表达式 a ? b : c
+                Expression falseExpr = results.pop();
+                Expression trueExpr = results.pop();
+                return new ConditionalExpr(results.pop(), trueExpr, falseExpr);
+            }
+            default: {
+                // 二元运算、比较和逻辑运算
+                Expression rightExpr = results.pop();
+                Expression leftExpr = results.pop();
+                return new BinaryExpr(leftExpr, rightExpr, getBinaryOperator(((InfixExpression) node).getOperator()));
+            }
+        }
+    }
+    
+    /**
+     * 转换单个节点，组合节点之外的表达式由这里处理
+     */
+    private Expression convertNode(AstNode node) {
         switch (node.getType()) {
             case Token.STRING:
             return new StringLiteralExpr(((StringLiteral) node).getValue());
@@ -78,6 +232,10 @@ public class JSExpressionProcessor {
             case Token.VOID:
                 return new NullLiteralExpr();
                 
+            case Token.THIS:
+                // 原型方法和构造函数中的this指向生成类的实例
+                return new ThisExpr();
+                
             case Token.NAME:
                 if (node instanceof org.mozilla.javascript.ast.Name) {
                     String name = ((org.mozilla.javascript.ast.Name) node).getIdentifier();
@@ -159,34 +317,6 @@ public class JSExpressionProcessor {
                 ArrayLiteral arrayLit = (ArrayLiteral) node;
                 return new NameExpr(objectProcessor.processArrayLiteral(arrayLit));
                 
-            case Token.ADD:
-            case Token.SUB:
-            case Token.MUL:
-            case Token.DIV:
-            case Token.MOD:
-            case Token.BITOR:
-            case Token.BITAND:
-            case Token.BITXOR:
-                InfixExpression infix = (InfixExpression) node;
-                BinaryExpr.Operator operator = getBinaryOperator(infix.getOperator());
-                
-                Expression leftExpr = createExpressionFromJSNode(infix.getLeft());
-                Expression rightExpr = createExpressionFromJSNode(infix.getRight());
-                
-                return new BinaryExpr(leftExpr, rightExpr, operator);
-                
-            case Token.EQ:
-            case Token.NE:
-            case Token.LT:
-            case Token.LE:
-            case Token.GT:
-            case Token.GE:
-                return processComparisonExpression((InfixExpression) node);
-                
-            case Token.AND:
-            case Token.OR:
-                return processLogicalExpression((InfixExpression) node);
-                
             case Token.ASSIGN:
             case Token.ASSIGN_ADD:
             case Token.ASSIGN_SUB:
@@ -196,67 +326,24 @@ public class JSExpressionProcessor {
                 
             case Token.INC:
             case Token.DEC:
-                org.mozilla.javascript.ast.UnaryExpression unary = (org.mozilla.javascript.ast.UnaryExpression) node;
-                Expression expr = createExpressionFromJSNode(unary.getOperand());
-                
-                // 判断是前缀还是后缀操作符
-                int position = unary.getPosition();
-                int operandPosition = unary.getOperand().getPosition();
-                
-                // 如果操作符位置在操作数之后，则为后缀
-                boolean isPostfix = position > operandPosition;
+                // Rhino 1.7.14起自增自减是UpdateExpression，不再是UnaryExpression
+                org.mozilla.javascript.ast.UpdateExpression update = (org.mozilla.javascript.ast.UpdateExpression) node;
+                Expression expr = createExpressionFromJSNode(update.getOperand());
                 
-                if (isPostfix) {
-                    if (unary.getType() == Token.INC) {
+                if (update.isPostfix()) {
+                    if (update.getType() == Token.INC) {
                         return new UnaryExpr(expr, UnaryExpr.Operator.POSTFIX_INCREMENT);
                     } else {
                         return new UnaryExpr(expr, UnaryExpr.Operator.POSTFIX_DECREMENT);
                     }
                 } else {
-                    if (unary.getType() == Token.INC) {
+                    if (update.getType() == Token.INC) {
                         return new UnaryExpr(expr, UnaryExpr.Operator.PREFIX_INCREMENT);
                     } else {
                         return new UnaryExpr(expr, UnaryExpr.Operator.PREFIX_DECREMENT);
                     }
                 }
                 
-            case Token.NEG:
-            case Token.POS:
-            case Token.NOT:
-            case Token.BITNOT:
-                return processUnaryExpression((org.mozilla.javascript.ast.UnaryExpression) node);
-                
-            case Token.GETPROP:
-                // 处理属性访问表达式，如obj.property
-                if (node instanceof PropertyGet) {
-                    PropertyGet propGet = (PropertyGet) node;
-                    AstNode targetNode = propGet.getTarget();
-                    AstNode propertyNode = propGet.getProperty();
-                    
-                    // 创建字段访问表达式
-                    Expression scopeExpr = createExpressionFromJSNode(targetNode);
-                    String propName = "";
-                    
-                    if (propertyNode instanceof org.mozilla.javascript.ast.Name) {
-                        propName = ((org.mozilla.javascript.ast.Name) propertyNode).getIdentifier();
-                    } else {
-                        propName = propertyNode.toString();
-                    }
-                    
-                    return new FieldAccessExpr(scopeExpr, propName);
-                }
-                break;
-                
-            case Token.GETELEM:
-                // 处理数组元素访问，如array[index]
-                if (node instanceof ElementGet) {
-                    ElementGet elemGet = (ElementGet) node;
-                    Expression arrayExpr = createExpressionFromJSNode(elemGet.getTarget());
-                    Expression indexExpr = createExpressionFromJSNode(elemGet.getElement());
-                    
-                    return new ArrayAccessExpr(arrayExpr, indexExpr);
-                }
-                break;
         }
         
         // 不支持的表达式类型
@@ -288,30 +375,6 @@ public class JSExpressionProcessor {
         }
     }
     
-    /**
-     * 处理比较表达式
-     */
-    private Expression processComparisonExpression(InfixExpression node) {
-        BinaryExpr.Operator operator = getBinaryOperator(node.getOperator());
-        
-        Expression leftExpr = createExpressionFromJSNode(node.getLeft());
-        Expression rightExpr = createExpressionFromJSNode(node.getRight());
-        
-        return new BinaryExpr(leftExpr, rightExpr, operator);
-    }
-    
-    /**
-     * 处理逻辑表达式
-     */
-    private Expression processLogicalExpression(InfixExpression node) {
-        BinaryExpr.Operator operator = getBinaryOperator(node.getOperator());
-        
-        Expression leftExpr = createExpressionFromJSNode(node.getLeft());
-        Expression rightExpr = createExpressionFromJSNode(node.getRight());
-        
-        return new BinaryExpr(leftExpr, rightExpr, operator);
-    }
-    
     /**
      * 处理赋值表达式
      */
@@ -333,44 +396,22 @@ public class JSExpressionProcessor {
     }
     
     /**
-     * 处理一元表达式
+     * 获取一元操作符
      */
-    private Expression processUnaryExpression(org.mozilla.javascript.ast.UnaryExpression node) {
-        Expression expr = createExpressionFromJSNode(node.getOperand());
-        UnaryExpr.Operator operator;
-        
-        switch (node.getOperator()) {
-            case Token.NEG: operator = UnaryExpr.Operator.MINUS; break;
-            case Token.POS: operator = UnaryExpr.Operator.PLUS; break;
-            case Token.NOT: operator = UnaryExpr.Operator.LOGICAL_COMPLEMENT; break;
-            case Token.BITNOT: operator = UnaryExpr.Operator.BITWISE_COMPLEMENT; break;
-            case Token.INC:
-                // 处理++操作符
-                int position = node.getPosition();
-                int operandPosition = node.getOperand().getPosition();
-                boolean isPostfix = position > operandPosition;
-                return new UnaryExpr(expr, isPostfix ? 
-                    UnaryExpr.Operator.POSTFIX_INCREMENT : 
-                    UnaryExpr.Operator.PREFIX_INCREMENT);
-            case Token.DEC:
-                // 处理--操作符
-                position = node.getPosition();
-                operandPosition = node.getOperand().getPosition();
-                isPostfix = position > operandPosition;
-                return new UnaryExpr(expr, isPostfix ? 
-                    UnaryExpr.Operator.POSTFIX_DECREMENT : 
-                    UnaryExpr.Operator.PREFIX_DECREMENT);
-            default: operator = UnaryExpr.Operator.PLUS; // 默认
+    private static UnaryExpr.Operator getUnaryOperator(int jsOperator) {
+        switch (jsOperator) {
+            case Token.NEG: return UnaryExpr.Operator.MINUS;
+            case Token.POS: return UnaryExpr.Operator.PLUS;
+            case Token.NOT: return UnaryExpr.Operator.LOGICAL_COMPLEMENT;
+            case Token.BITNOT: return UnaryExpr.Operator.BITWISE_COMPLEMENT;
+            default: return UnaryExpr.Operator.PLUS; // 默认
         }
-        
-        return new UnaryExpr(expr, operator);
     }
     
     /**
      * 将JavaScript表达式转换为Java表达式字符串
      */
     public String createExpressionString(AstNode node) {
-        Expression expr = createExpressionFromJSNode(node);
-        return expr.toString();
+        return JavaCodeEmitter.toJava(createExpressionFromJSNode(node));
     }
 } 
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.mozilla.javascript.ast.FunctionNode;
 import org.mozilla.javascript.ast.Name;
 
 import java.util.List;
+import java.util.function.IntUnaryOperator;
 
 /**
  * JavaScript函数处理器
@@ -22,6 +23,12 @@ public class JSFunctionProcessor {
     private final JSExpressionProcessor expressionProcessor;
     private final JSStatementProcessor statementProcessor;
     private final JSControlFlowProcessor controlFlowProcessor;
+    /** -O2时的类型推断结果，为null时按名称推断类型 */
+    private JSTypeInference typeHints;
+    /** 生成代码中的JFR插桩，为null时不插桩 */
+    private JfrInstrumentation instrumentation;
+    private String sourceName;
+    private IntUnaryOperator sourceLines;
     
     /**
      * 构造函数
@@ -42,22 +49,47 @@ public class JSFunctionProcessor {
         this.statementProcessor = statementProcessor;
         this.controlFlowProcessor = controlFlowProcessor;
     }
+    
+    /**
+     * 设置类型推断结果，传入null时恢复按名称推断
+     */
+    public void setTypeHints(JSTypeInference typeHints) {
+        this.typeHints = typeHints;
+    }
+
+    /**
+     * 设置JFR插桩，传入null时不插桩
+     * 
+     * @param sourceName JavaScript文件名，用于事件中的源码位置
+     * @param sourceLines 把AST中的行号换算为原始源码的行号
+     */
+    public void setInstrumentation(JfrInstrumentation instrumentation, String sourceName, IntUnaryOperator sourceLines) {
+        this.instrumentation = instrumentation;
+        this.sourceName = sourceName;
+        this.sourceLines = sourceLines;
+    }
 
     /**
      * 处理函数声明，转换为Java方法字符串
      */
     public String processFunctionNode(FunctionNode node) {
+        StringBuilder result = new StringBuilder();
+        emitFunctionNode(node, new JavaCodeEmitter(result));
+        return result.toString();
+    }
+    
+    /**
+     * 处理函数声明，直接写入输出器
+     */
+    public void emitFunctionNode(FunctionNode node, JavaCodeEmitter emitter) {
         String methodName = node.getName();
         String functionBody = node.getBody().toSource();
         
         // 根据函数名和内容推断返回类型
-        String returnType = JSTypeUtils.determineReturnTypeFromMethodName(methodName, functionBody);
-        
-        // 创建方法
-        StringBuilder methodBuilder = new StringBuilder();
+        String returnType = returnType(node, methodName, functionBody);
         
         // 添加方法签名
-        methodBuilder.append(returnType).append(" ").append(methodName).append("(");
+        emitter.print(returnType).print(" ").print(methodName).print("(");
         
         // 添加参数
         List<AstNode> params = node.getParams();
@@ -65,23 +97,23 @@ public class JSFunctionProcessor {
             AstNode param = params.get(i);
             if (param instanceof Name) {
                 String paramName = ((Name) param).getIdentifier();
-                String paramType = JSTypeUtils.determineParameterType(paramName);
+                String paramType = parameterType(param, paramName);
                 
-                methodBuilder.append(paramType).append(" ").append(paramName);
+                emitter.print(paramType).print(" ").print(paramName);
                 if (i < params.size() - 1) {
-                    methodBuilder.append(", ");
+                    emitter.print(", ");
                 }
             }
         }
-        methodBuilder.append(") {\n");
+        emitter.println(") {");
         
         // 处理函数体
-        methodBuilder.append(processFunctionBody(node.getBody()));
+        emitter.indent();
+        emitInstrumentedBody(node, methodName, emitter);
+        emitter.unindent();
         
         // 关闭方法
-        methodBuilder.append("}\n");
-        
-        return methodBuilder.toString();
+        emitter.println("}");
     }
     
     /**
@@ -92,7 +124,7 @@ public class JSFunctionProcessor {
         String functionBody = node.getBody().toSource();
         
         // 根据函数名和内容推断返回类型
-        String returnType = JSTypeUtils.determineReturnTypeFromMethodName(methodName, functionBody);
+        String returnType = returnType(node, methodName, functionBody);
         
         // 创建方法
         MethodDeclaration method = classDecl.addMethod(methodName, Modifier.Keyword.PUBLIC, Modifier.Keyword.STATIC);
@@ -104,7 +136,7 @@ public class JSFunctionProcessor {
         for (AstNode param : node.getParams()) {
             if (param instanceof Name) {
                 String paramName = ((Name) param).getIdentifier();
-                String paramType = JSTypeUtils.determineParameterType(paramName);
+                String paramType = parameterType(param, paramName);
                 
                 method.addParameter(paramType, paramName);
             }
@@ -119,70 +151,100 @@ public class JSFunctionProcessor {
         processMethodBody(functionBodyNode, body);
     }
     
+    /**
+     * 返回类型：优先使用类型推断的结果
+     */
+    String returnType(FunctionNode node, String methodName, String functionBody) {
+        String inferred = typeHints != null ? typeHints.returnType(node) : null;
+        return inferred != null ? inferred : JSTypeUtils.determineReturnTypeFromMethodName(methodName, functionBody);
+    }
+    
+    /**
+     * 参数类型：优先使用类型推断的结果
+     */
+    String parameterType(AstNode param, String paramName) {
+        String inferred = typeHints != null ? typeHints.variableType(param) : null;
+        return inferred != null ? inferred : JSTypeUtils.determineParameterType(paramName);
+    }
+    
+    /**
+     * 处理函数体，设置了JFR插桩时包在记录调用的try语句中
+     * 
+     * @param function 事件中的函数名
+     */
+    void emitInstrumentedBody(FunctionNode node, String function, JavaCodeEmitter emitter) {
+        if (instrumentation == null) {
+            emitFunctionBody(node.getBody(), emitter);
+            return;
+        }
+        String source = sourceName + ":" + sourceLines.applyAsInt(node.getLineno());
+        emitter.println(instrumentation.tryHeader(function, source)).indent();
+        emitFunctionBody(node.getBody(), emitter);
+        emitter.unindent().println("}");
+    }
+    
     /**
      * 处理函数体，转换为Java语句
      */
-    private String processFunctionBody(AstNode bodyNode) {
-        StringBuilder bodyBuilder = new StringBuilder();
-        
+    public void emitFunctionBody(AstNode bodyNode, JavaCodeEmitter emitter) {
         if (bodyNode instanceof Block) {
             Block block = (Block) bodyNode;
             List<AstNode> statements = statementProcessor.getBlockStatements(block);
             
             for (AstNode statement : statements) {
+                // 生成行映射时精确到函数体中的顶层语句
+                emitter.sourceLine(statement.getLineno());
                 if (statement instanceof org.mozilla.javascript.ast.ReturnStatement) {
                     // 处理返回语句
                     org.mozilla.javascript.ast.ReturnStatement returnStmt = 
                         (org.mozilla.javascript.ast.ReturnStatement) statement;
                     AstNode returnValue = returnStmt.getReturnValue();
                     
-                    bodyBuilder.append("    return ");
+                    emitter.print("return ");
                     if (returnValue != null) {
-                        bodyBuilder.append(expressionProcessor.createExpressionString(returnValue));
+                        emitter.emit(expressionProcessor.createExpressionFromJSNode(returnValue));
                     }
-                    bodyBuilder.append(";\n");
+                    emitter.println(";");
                 } else {
                     // 处理其他语句
-                    bodyBuilder.append(processStatement(statement));
+                    emitStatement(statement, emitter);
                 }
             }
         }
-        
-        return bodyBuilder.toString();
     }
     
     /**
      * 处理函数体中的单个语句
      */
-    private String processStatement(AstNode node) {
+    private void emitStatement(AstNode node, JavaCodeEmitter emitter) {
         if (node instanceof org.mozilla.javascript.ast.ExpressionStatement) {
             org.mozilla.javascript.ast.ExpressionStatement exprStmt = 
                 (org.mozilla.javascript.ast.ExpressionStatement) node;
-            return "    " + expressionProcessor.createExpressionString(exprStmt.getExpression()) + ";\n";
+            emitter.emit(expressionProcessor.createExpressionFromJSNode(exprStmt.getExpression())).println(";");
         } else if (node instanceof org.mozilla.javascript.ast.VariableDeclaration) {
-            return statementProcessor.processVariableDeclaration((org.mozilla.javascript.ast.VariableDeclaration) node);
+            statementProcessor.emitVariableDeclaration((org.mozilla.javascript.ast.VariableDeclaration) node, emitter);
         } else if (node instanceof org.mozilla.javascript.ast.IfStatement) {
             // 创建一个临时BlockStmt来处理IfStatement
             BlockStmt tempBlock = new BlockStmt();
             controlFlowProcessor.processIfStatementInBlock((org.mozilla.javascript.ast.IfStatement) node, tempBlock);
-            return "    " + tempBlock.toString() + "\n";
+            emitter.emit(tempBlock).println();
         } else if (node instanceof org.mozilla.javascript.ast.ForLoop) {
             // 创建一个临时BlockStmt来处理ForLoop
             BlockStmt tempBlock = new BlockStmt();
             controlFlowProcessor.processForLoop((org.mozilla.javascript.ast.ForLoop) node, tempBlock);
-            return "    " + tempBlock.toString() + "\n";
+            emitter.emit(tempBlock).println();
         } else if (node instanceof org.mozilla.javascript.ast.WhileLoop) {
             // 创建一个临时BlockStmt来处理WhileLoop
             BlockStmt tempBlock = new BlockStmt();
             controlFlowProcessor.processWhileLoopInBlock((org.mozilla.javascript.ast.WhileLoop) node, tempBlock);
-            return "    " + tempBlock.toString() + "\n";
+            emitter.emit(tempBlock).println();
         } else if (node instanceof org.mozilla.javascript.ast.SwitchStatement) {
             // 创建一个临时BlockStmt来处理SwitchStatement
             BlockStmt tempBlock = new BlockStmt();
             controlFlowProcessor.processSwitchStatementInBlock((org.mozilla.javascript.ast.SwitchStatement) node, tempBlock);
-            return "    " + tempBlock.toString() + "\n";
+            emitter.emit(tempBlock).println();
         } else {
-            return "    // 不支持的节点类型: " + node.getClass().getSimpleName() + "\n";
+            emitter.println("// 不支持的节点类型: " + node.getClass().getSimpleName());
         }
     }
     
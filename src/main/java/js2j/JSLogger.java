@@ -0,0 +1,348 @@
+package js2j;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 异步分级日志
+ * 调用方只把消息放入队列，由一个后台线程按批写入标准输出（DEBUG、INFO）或标准错误（WARN、ERROR），
+ * 转换线程不再争用输出流的锁。低于当前级别的消息在入队前就被丢弃。
+ * 转换失败的文件另外记录为结构化的错误记录，可以在运行结束后汇总或写成JSON Lines文件。
+ * 进程级的错误记录最多保留MAX_FILE_ERRORS条，由命令行在每次运行开始时清空；
+ * 嵌入使用时用collectFileErrors按次运行收集，见ConversionProgress.getFileErrors
+ */
+public final class JSLogger {
+
+    /**
+     * 日志级别
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final long SHUTDOWN_FLUSH_MILLIS = 2000;
+    /** 进程级错误记录的上限，长时间运行的服务不会因为错误记录耗尽内存 */
+    static final int MAX_FILE_ERRORS = 10000;
+
+    private static final BlockingQueue<Record> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final Queue<FileError> fileErrors = new ConcurrentLinkedQueue<>();
+    /** 队列中保留的错误数，代替需要遍历队列的size() */
+    private static final AtomicInteger retainedFileErrors = new AtomicInteger();
+    /** 超过上限后没有保留的错误数 */
+    private static final AtomicInteger droppedFileErrors = new AtomicInteger();
+    /** 当前线程上正在收集错误的运行 */
+    private static final ThreadLocal<Consumer<FileError>> collector = new ThreadLocal<>();
+    private static volatile Level level = Level.INFO;
+
+    static {
+        Thread writer = new Thread(JSLogger::writeLoop, "js2j-logger");
+        writer.setDaemon(true);
+        writer.start();
+        // 进程退出前写出队列中剩余的消息
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(SHUTDOWN_FLUSH_MILLIS), "js2j-logger-flush"));
+    }
+
+    private JSLogger() {
+    }
+
+    /**
+     * 设置日志级别，默认为INFO
+     */
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 给定级别的消息是否会被输出，构造消息代价较高时先检查
+     */
+    public static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    /**
+     * 输出错误消息和异常堆栈
+     */
+    public static void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * 记录一个文件的转换错误，同时以ERROR级别输出一行
+     *
+     * @param file 文件名或路径
+     * @param stage 出错的阶段，如 parse、block、write、compile
+     * @param line 出错的行号，未知时为0
+     * @param message 错误信息
+     */
+    public static void fileError(String file, String stage, int line, String message) {
+        FileError record = new FileError(file, stage, line, message);
+        // 先占用一个名额，超过上限时退回；ConcurrentLinkedQueue.size()要遍历整个队列
+        if (retainedFileErrors.incrementAndGet() <= MAX_FILE_ERRORS) {
+            fileErrors.add(record);
+        } else {
+            retainedFileErrors.decrementAndGet();
+            droppedFileErrors.incrementAndGet();
+        }
+        Consumer<FileError> sink = collector.get();
+        if (sink != null) {
+            sink.accept(record);
+        }
+        log(Level.ERROR, record.toString(), null);
+    }
+
+    /**
+     * 在当前线程中执行work，期间记录的文件错误同时交给sink，用于按次运行收集错误
+     * 可以嵌套，结束后恢复外层的收集
+     */
+    public static void collectFileErrors(Consumer<FileError> sink, Runnable work) {
+        Consumer<FileError> outer = collector.get();
+        collector.set(sink);
+        try {
+            work.run();
+        } finally {
+            if (outer == null) {
+                collector.remove();
+            } else {
+                collector.set(outer);
+            }
+        }
+    }
+
+    /**
+     * 获取进程中记录的文件错误，最多MAX_FILE_ERRORS条
+     */
+    public static List<FileError> getFileErrors() {
+        return new ArrayList<>(fileErrors);
+    }
+
+    /**
+     * 获取超过上限后没有保留的文件错误数
+     */
+    public static int getDroppedFileErrors() {
+        return droppedFileErrors.get();
+    }
+
+    /**
+     * 清空文件错误记录
+     */
+    public static void clearFileErrors() {
+        fileErrors.clear();
+        retainedFileErrors.set(0);
+        droppedFileErrors.set(0);
+    }
+
+    /**
+     * 将文件错误记录写成JSON Lines文件，每行一条
+     *
+     * @throws IOException 如果写文件出错
+     */
+    public static void writeFileErrors(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (FileError error : fileErrors) {
+                writer.write(error.toJson());
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 等待队列中已有的消息全部写出
+     */
+    public static void flush() {
+        flush(Long.MAX_VALUE);
+    }
+
+    private static void flush(long timeoutMillis) {
+        Record marker = new Record(null, null, null);
+        try {
+            if (queue.offer(marker, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                marker.flushed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void log(Level messageLevel, String message, Throwable error) {
+        if (!isEnabled(messageLevel)) {
+            return;
+        }
+        try {
+            // 队列满时等待，消息不会丢失
+            queue.put(new Record(messageLevel, message, error));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 后台线程：一次取出一批消息，连续写往同一个流的消息合并为一次写入
+     */
+    private static void writeLoop() {
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder pending = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            PrintStream pendingStream = null;
+            for (Record record : batch) {
+                if (record.level == null) {
+                    // 刷新标记：先写出之前的消息
+                    write(pendingStream, pending);
+                    pendingStream = null;
+                    record.flushed.countDown();
+                    continue;
+                }
+                PrintStream stream = record.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+                if (stream != pendingStream) {
+                    write(pendingStream, pending);
+                    pendingStream = stream;
+                }
+                pending.append(record.message).append(System.lineSeparator());
+                if (record.error != null) {
+                    StringWriter trace = new StringWriter();
+                    record.error.printStackTrace(new PrintWriter(trace));
+                    pending.append(trace);
+                }
+            }
+            write(pendingStream, pending);
+            batch.clear();
+        }
+    }
+
+    private static void write(PrintStream stream, StringBuilder pending) {
+        if (stream != null && pending.length() > 0) {
+            stream.print(pending);
+            stream.flush();
+        }
+        pending.setLength(0);
+    }
+
+    /**
+     * 队列中的一条消息，level为null时是刷新标记
+     */
+    private static class Record {
+        final Level level;
+        final String message;
+        final Throwable error;
+        final CountDownLatch flushed = new CountDownLatch(1);
+
+        Record(Level level, String message, Throwable error) {
+            this.level = level;
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 一个文件的转换错误
+     */
+    public static class FileError {
+        private final String file;
+        private final String stage;
+        private final int line;
+        private final String message;
+
+        public FileError(String file, String stage, int line, String message) {
+            this.file = file;
+            this.stage = stage;
+            this.line = line;
+            this.message = message == null ? "" : message;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public String getStage() {
+            return stage;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * 转为一行JSON
+         */
+        public String toJson() {
+            return "{\"file\":" + quote(file) + ",\"stage\":" + quote(stage) + ",\"line\":" + line
+                   + ",\"message\":" + quote(message) + "}";
+        }
+
+        private static String quote(String value) {
+            if (value == null) {
+                return "null";
+            }
+            StringBuilder sb = new StringBuilder("\"");
+            for (char c : value.toCharArray()) {
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                }
+            }
+            return sb.append('"').toString();
+        }
+
+        @Override
+        public String toString() {
+            return "错误 [" + stage + "] " + file + (line > 0 ? ":" + line : "") + ": " + message;
+        }
+    }
+}
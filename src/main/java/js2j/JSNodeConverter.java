@@ -36,7 +36,7 @@ public class JSNodeConverter {
         body.addStatement(new ReturnStmt().setExpression(null));
         
         // 添加一条注释，表示这里简化了函数体转换
-        System.out.println("警告：简化了函数体转换，可能需要手动编写函数体实现。");
+        JSLogger.warn("警告：简化了函数体转换，可能需要手动编写函数体实现。");
         
         return body;
     }
@@ -0,0 +1,373 @@
+package js2j;
+
+import org.mozilla.javascript.Node;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.ArrayLiteral;
+import org.mozilla.javascript.ast.Assignment;
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.Block;
+import org.mozilla.javascript.ast.BreakStatement;
+import org.mozilla.javascript.ast.ConditionalExpression;
+import org.mozilla.javascript.ast.ContinueStatement;
+import org.mozilla.javascript.ast.DoLoop;
+import org.mozilla.javascript.ast.ElementGet;
+import org.mozilla.javascript.ast.ExpressionStatement;
+import org.mozilla.javascript.ast.ForLoop;
+import org.mozilla.javascript.ast.FunctionCall;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.IfStatement;
+import org.mozilla.javascript.ast.InfixExpression;
+import org.mozilla.javascript.ast.KeywordLiteral;
+import org.mozilla.javascript.ast.NumberLiteral;
+import org.mozilla.javascript.ast.ObjectLiteral;
+import org.mozilla.javascript.ast.ObjectProperty;
+import org.mozilla.javascript.ast.ParenthesizedExpression;
+import org.mozilla.javascript.ast.PropertyGet;
+import org.mozilla.javascript.ast.ReturnStatement;
+import org.mozilla.javascript.ast.Scope;
+import org.mozilla.javascript.ast.StringLiteral;
+import org.mozilla.javascript.ast.ThrowStatement;
+import org.mozilla.javascript.ast.UnaryExpression;
+import org.mozilla.javascript.ast.UpdateExpression;
+import org.mozilla.javascript.ast.VariableInitializer;
+import org.mozilla.javascript.ast.WhileLoop;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AST优化器（-O2）
+ * 在转换前对JavaScript AST做常量折叠，按JavaScript语义计算只由字面量组成的表达式
+ * （例如 7 / 2 折叠为 3.5，避免生成Java的整数除法），并删除条件恒定的分支、
+ * 条件恒为假的循环以及return、throw、break、continue之后不可达的语句
+ */
+public class JSOptimizer {
+
+    /**
+     * 原地优化AST
+     *
+     * @param root AST根节点
+     */
+    public void optimize(AstRoot root) {
+        root.visit(node -> {
+            optimizeNode(node);
+            return true;
+        });
+    }
+
+    private void optimizeNode(AstNode node) {
+        if (node instanceof ExpressionStatement) {
+            ExpressionStatement statement = (ExpressionStatement) node;
+            statement.setExpression(fold(statement.getExpression()));
+        } else if (node instanceof VariableInitializer) {
+            VariableInitializer init = (VariableInitializer) node;
+            if (init.getInitializer() != null) {
+                init.setInitializer(fold(init.getInitializer()));
+            }
+        } else if (node instanceof ReturnStatement) {
+            ReturnStatement statement = (ReturnStatement) node;
+            if (statement.getReturnValue() != null) {
+                statement.setReturnValue(fold(statement.getReturnValue()));
+            }
+        } else if (node instanceof IfStatement) {
+            IfStatement statement = (IfStatement) node;
+            statement.setCondition(fold(statement.getCondition()));
+        } else if (node instanceof WhileLoop) {
+            WhileLoop loop = (WhileLoop) node;
+            loop.setCondition(fold(loop.getCondition()));
+        } else if (node instanceof DoLoop) {
+            DoLoop loop = (DoLoop) node;
+            loop.setCondition(fold(loop.getCondition()));
+        } else if (node instanceof ForLoop) {
+            ForLoop loop = (ForLoop) node;
+            loop.setCondition(fold(loop.getCondition()));
+        }
+
+        if (node instanceof Block || node instanceof Scope) {
+            // Scope包括AstRoot和各种代码块
+            removeDeadStatements(node);
+        }
+    }
+
+    /**
+     * 删除语句列表中的死代码，条件恒定的if语句展开为被执行的分支
+     */
+    private void removeDeadStatements(AstNode block) {
+        List<Node> statements = new ArrayList<>();
+        for (Node child : block) {
+            statements.add(child);
+        }
+
+        boolean unreachable = false;
+        for (Node child : statements) {
+            AstNode statement = (AstNode) child;
+            if (unreachable) {
+                // 函数声明会被提升，不能删除
+                if (!(statement instanceof FunctionNode)) {
+                    block.removeChild(statement);
+                }
+                continue;
+            }
+
+            if (statement instanceof IfStatement) {
+                IfStatement ifStatement = (IfStatement) statement;
+                AstNode condition = fold(ifStatement.getCondition());
+                if (isBooleanLiteral(condition)) {
+                    AstNode taken = condition.getType() == Token.TRUE ? ifStatement.getThenPart() : ifStatement.getElsePart();
+                    splice(block, ifStatement, taken);
+                    continue;
+                }
+            } else if (statement instanceof WhileLoop) {
+                AstNode condition = fold(((WhileLoop) statement).getCondition());
+                if (condition.getType() == Token.FALSE) {
+                    block.removeChild(statement);
+                    continue;
+                }
+            }
+
+            unreachable = statement instanceof ReturnStatement || statement instanceof ThrowStatement
+                          || statement instanceof BreakStatement || statement instanceof ContinueStatement;
+        }
+    }
+
+    /**
+     * 用分支中的语句替换语句列表中的if语句，JavaScript的var是函数级作用域，展开不改变语义
+     */
+    private void splice(AstNode block, AstNode replaced, AstNode branch) {
+        if (branch != null) {
+            List<Node> statements = new ArrayList<>();
+            if (branch instanceof Scope || branch instanceof Block) {
+                for (Node child : branch) {
+                    statements.add(child);
+                }
+            } else {
+                statements.add(branch);
+            }
+            for (Node child : statements) {
+                AstNode statement = (AstNode) child;
+                int position = statement.getAbsolutePosition();
+                statement.setParent(null);
+                statement.setPosition(position);
+                block.addChildBefore(statement, replaced);
+                statement.setParent(block);
+            }
+        }
+        block.removeChild(replaced);
+    }
+
+    /**
+     * 折叠表达式，返回折叠后的节点（可能是原节点）
+     */
+    private AstNode fold(AstNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof ParenthesizedExpression) {
+            ParenthesizedExpression parenthesized = (ParenthesizedExpression) node;
+            AstNode inner = fold(parenthesized.getExpression());
+            if (isLiteral(inner)) {
+                return inner;
+            }
+            parenthesized.setExpression(inner);
+            return node;
+        }
+        if (node instanceof Assignment) {
+            Assignment assignment = (Assignment) node;
+            assignment.setRight(fold(assignment.getRight()));
+            return node;
+        }
+        if (node instanceof PropertyGet) {
+            return node;
+        }
+        if (node instanceof InfixExpression) {
+            InfixExpression infix = (InfixExpression) node;
+            infix.setLeft(fold(infix.getLeft()));
+            infix.setRight(fold(infix.getRight()));
+            AstNode folded = foldInfix(infix);
+            if (folded == null && infix.getType() == Token.DIV && infix.getRight() instanceof NumberLiteral) {
+                // JavaScript的除法总是浮点除法，整数字面量的除数改写为浮点数，避免生成Java的整数除法
+                NumberLiteral divisor = (NumberLiteral) infix.getRight();
+                if (divisor.getValue().matches("\\d+")) {
+                    divisor.setValue(divisor.getValue() + ".0");
+                }
+            }
+            return folded != null ? folded : node;
+        }
+        if (node instanceof UnaryExpression && !(node instanceof UpdateExpression)) {
+            UnaryExpression unary = (UnaryExpression) node;
+            AstNode operand = fold(unary.getOperand());
+            unary.setOperand(operand);
+            if (unary.getType() == Token.NOT && isBooleanLiteral(operand)) {
+                return bool(operand.getType() != Token.TRUE, node);
+            }
+            return node;
+        }
+        if (node instanceof ConditionalExpression) {
+            ConditionalExpression conditional = (ConditionalExpression) node;
+            AstNode test = fold(conditional.getTestExpression());
+            if (isBooleanLiteral(test)) {
+                return fold(test.getType() == Token.TRUE ? conditional.getTrueExpression() : conditional.getFalseExpression());
+            }
+            conditional.setTestExpression(test);
+            conditional.setTrueExpression(fold(conditional.getTrueExpression()));
+            conditional.setFalseExpression(fold(conditional.getFalseExpression()));
+            return node;
+        }
+        if (node instanceof FunctionCall) {
+            // 包括new表达式
+            FunctionCall call = (FunctionCall) node;
+            List<AstNode> args = new ArrayList<>();
+            for (AstNode arg : call.getArguments()) {
+                args.add(fold(arg));
+            }
+            call.setArguments(args);
+            return node;
+        }
+        if (node instanceof ElementGet) {
+            ElementGet get = (ElementGet) node;
+            get.setElement(fold(get.getElement()));
+            return node;
+        }
+        if (node instanceof ArrayLiteral) {
+            ArrayLiteral array = (ArrayLiteral) node;
+            List<AstNode> elements = new ArrayList<>();
+            for (AstNode element : array.getElements()) {
+                elements.add(fold(element));
+            }
+            array.setElements(elements);
+            return node;
+        }
+        if (node instanceof ObjectLiteral) {
+            for (ObjectProperty property : ((ObjectLiteral) node).getElements()) {
+                if (!(property.getRight() instanceof FunctionNode)) {
+                    property.setRight(fold(property.getRight()));
+                }
+            }
+            return node;
+        }
+        return node;
+    }
+
+    /**
+     * 折叠两侧都是字面量的二元表达式，无法折叠时返回null
+     */
+    private AstNode foldInfix(InfixExpression infix) {
+        AstNode left = infix.getLeft();
+        AstNode right = infix.getRight();
+        int operator = infix.getType();
+
+        if (left instanceof NumberLiteral && right instanceof NumberLiteral) {
+            double a = ((NumberLiteral) left).getNumber();
+            double b = ((NumberLiteral) right).getNumber();
+            switch (operator) {
+                case Token.ADD: return number(a + b, infix);
+                case Token.SUB: return number(a - b, infix);
+                case Token.MUL: return number(a * b, infix);
+                case Token.DIV: return b == 0 ? null : number(a / b, infix);
+                case Token.MOD: return b == 0 ? null : number(a % b, infix);
+                case Token.LT: return bool(a < b, infix);
+                case Token.LE: return bool(a <= b, infix);
+                case Token.GT: return bool(a > b, infix);
+                case Token.GE: return bool(a >= b, infix);
+                case Token.EQ:
+                case Token.SHEQ:
+                    return bool(a == b, infix);
+                case Token.NE:
+                case Token.SHNE:
+                    return bool(a != b, infix);
+                default:
+                    return null;
+            }
+        }
+
+        if (operator == Token.ADD && (left instanceof StringLiteral || right instanceof StringLiteral)) {
+            String a = literalText(left);
+            String b = literalText(right);
+            return a == null || b == null ? null : string(a + b, infix);
+        }
+
+        if (left instanceof StringLiteral && right instanceof StringLiteral) {
+            boolean equal = ((StringLiteral) left).getValue().equals(((StringLiteral) right).getValue());
+            switch (operator) {
+                case Token.EQ:
+                case Token.SHEQ:
+                    return bool(equal, infix);
+                case Token.NE:
+                case Token.SHNE:
+                    return bool(!equal, infix);
+                default:
+                    return null;
+            }
+        }
+
+        if (isBooleanLiteral(left) && isBooleanLiteral(right)) {
+            boolean a = left.getType() == Token.TRUE;
+            boolean b = right.getType() == Token.TRUE;
+            switch (operator) {
+                case Token.AND: return bool(a && b, infix);
+                case Token.OR: return bool(a || b, infix);
+                default: return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 字面量在字符串拼接中的文本，只处理与Java输出一致的情况
+     */
+    private static String literalText(AstNode node) {
+        if (node instanceof StringLiteral) {
+            return ((StringLiteral) node).getValue();
+        }
+        if (node instanceof NumberLiteral) {
+            double value = ((NumberLiteral) node).getNumber();
+            if (value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+                return String.valueOf((long) value);
+            }
+            return null;
+        }
+        if (isBooleanLiteral(node)) {
+            return node.getType() == Token.TRUE ? "true" : "false";
+        }
+        return null;
+    }
+
+    private static NumberLiteral number(double value, AstNode replaced) {
+        String text;
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        if (value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE) {
+            text = String.valueOf((long) value);
+        } else {
+            text = Double.toString(value);
+        }
+        NumberLiteral number = new NumberLiteral(replaced.getAbsolutePosition(), text, value);
+        number.setLineno(replaced.getLineno());
+        return number;
+    }
+
+    private static StringLiteral string(String value, AstNode replaced) {
+        StringLiteral string = new StringLiteral(replaced.getAbsolutePosition(), replaced.getLength());
+        string.setLineno(replaced.getLineno());
+        string.setValue(value);
+        string.setQuoteCharacter('"');
+        return string;
+    }
+
+    private static KeywordLiteral bool(boolean value, AstNode replaced) {
+        KeywordLiteral keyword = new KeywordLiteral(replaced.getAbsolutePosition(), replaced.getLength(),
+                                                    value ? Token.TRUE : Token.FALSE);
+        keyword.setLineno(replaced.getLineno());
+        return keyword;
+    }
+
+    private static boolean isLiteral(AstNode node) {
+        return node instanceof NumberLiteral || node instanceof StringLiteral || isBooleanLiteral(node);
+    }
+
+    private static boolean isBooleanLiteral(AstNode node) {
+        return node instanceof KeywordLiteral && (node.getType() == Token.TRUE || node.getType() == Token.FALSE);
+    }
+}
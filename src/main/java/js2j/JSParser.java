@@ -7,9 +7,13 @@ import org.mozilla.javascript.ast.AstRoot;
 
 /**
  * JavaScript解析器
- * 使用Rhino引擎解析JavaScript代码并生成抽象语法树(AST)
+ * 使用Rhino引擎解析JavaScript代码并生成抽象语法树(AST)。
+ * Rhino不支持class、箭头函数和模块等语法，需要先经过JSSourcePreprocessor改写
  */
-public class JSParser {
+public class JSParser implements JSParserFrontend {
+    
+    /** 前端名称 */
+    public static final String NAME = "rhino";
     
     private final CompilerEnvirons compilerEnvirons;
     
@@ -23,6 +27,16 @@ public class JSParser {
         this.compilerEnvirons.setRecordingLocalJsDocComments(true);
     }
     
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public boolean needsPreprocessing() {
+        return true;
+    }
+    
     /**
      * 解析JavaScript代码并返回AST
      * 
@@ -41,6 +55,7 @@ public class JSParser {
      * @param sourceFileName 源文件名
      * @return 解析后的AST根节点
      */
+    @Override
     public AstRoot parse(String jsCode, String sourceFileName) {
         Parser parser = new Parser(compilerEnvirons);
         return parser.parse(jsCode, sourceFileName, 1);
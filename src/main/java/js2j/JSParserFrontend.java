@@ -0,0 +1,53 @@
+package js2j;
+
+import org.mozilla.javascript.ast.AstRoot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 解析器前端
+ * 将JavaScript源码解析为转换器使用的Rhino AST。实现类通过
+ * META-INF/services/js2j.JSParserFrontend 注册，按名称选择
+ */
+public interface JSParserFrontend {
+
+    /**
+     * 获取前端名称，用于命令行的--parser选项
+     */
+    String getName();
+
+    /**
+     * 解析前是否需要JSSourcePreprocessor将ES6+语法改写为该前端支持的形式
+     */
+    boolean needsPreprocessing();
+
+    /**
+     * 解析JavaScript代码并返回AST
+     *
+     * @param jsCode JavaScript代码字符串
+     * @param sourceFileName 源文件名，用于错误信息，可以为null
+     * @return 解析后的AST根节点
+     * @throws org.mozilla.javascript.EvaluatorException 如果存在语法错误
+     */
+    AstRoot parse(String jsCode, String sourceFileName);
+
+    /**
+     * 按名称查找已注册的解析器前端
+     *
+     * @param name 前端名称
+     * @return 新的前端实例
+     * @throws IllegalArgumentException 如果没有该名称的前端
+     */
+    static JSParserFrontend forName(String name) {
+        List<String> names = new ArrayList<>();
+        for (JSParserFrontend frontend : ServiceLoader.load(JSParserFrontend.class, JSParserFrontend.class.getClassLoader())) {
+            if (frontend.getName().equals(name)) {
+                return frontend;
+            }
+            names.add(frontend.getName());
+        }
+        throw new IllegalArgumentException("未知的解析器: " + name + "（可选 " + String.join("、", names) + "）");
+    }
+}
@@ -0,0 +1,483 @@
+package js2j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字节码后端的运行时支持
+ * 直接生成的类文件中所有JavaScript值都以Object表示：数字为Double，字符串为String，
+ * 布尔值为Boolean，对象为Map，数组为List，undefined和null都为null。
+ * 运算、属性访问和内置对象调用都委托给这里的静态方法
+ */
+public final class JSRuntime {
+
+    /** 内置console对象 */
+    public static final Object CONSOLE = new Object();
+
+    /** 内置Math对象 */
+    public static final Object MATH = new Object();
+
+    private static final Map<String, Object> GLOBALS = new HashMap<>();
+
+    private JSRuntime() {
+    }
+
+    /**
+     * 读取未声明的全局变量
+     */
+    public static Object global(String name) {
+        if ("console".equals(name)) {
+            return CONSOLE;
+        }
+        if ("Math".equals(name)) {
+            return MATH;
+        }
+        if (GLOBALS.containsKey(name)) {
+            return GLOBALS.get(name);
+        }
+        throw new RuntimeException("ReferenceError: " + name + " is not defined");
+    }
+
+    /**
+     * 给未声明的全局变量赋值
+     */
+    public static Object setGlobal(String name, Object value) {
+        GLOBALS.put(name, value);
+        return value;
+    }
+
+    /**
+     * 创建对象字面量
+     */
+    public static Object newObject() {
+        return new LinkedHashMap<String, Object>();
+    }
+
+    /**
+     * 创建数组字面量
+     */
+    public static Object newArray() {
+        return new ArrayList<Object>();
+    }
+
+    /**
+     * 向数组字面量追加元素
+     */
+    @SuppressWarnings("unchecked")
+    public static void push(Object array, Object value) {
+        ((List<Object>) array).add(value);
+    }
+
+    /**
+     * 构造抛出的异常
+     */
+    public static RuntimeException error(Object value) {
+        return new RuntimeException(toDisplayString(value));
+    }
+
+    // ---- 类型转换 ----
+
+    public static boolean truthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Double) {
+            double d = (Double) value;
+            return d != 0 && !Double.isNaN(d);
+        }
+        if (value instanceof String) {
+            return !((String) value).isEmpty();
+        }
+        return true;
+    }
+
+    public static double toNumber(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        if (value instanceof String) {
+            String s = ((String) value).trim();
+            if (s.isEmpty()) {
+                return 0;
+            }
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * 按JavaScript的方式将值转换为字符串
+     */
+    public static String toDisplayString(Object value) {
+        if (value == null) {
+            return "undefined";
+        }
+        if (value instanceof Double) {
+            double d = (Double) value;
+            if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 1e15) {
+                return String.valueOf((long) d);
+            }
+            if (Double.isNaN(d)) {
+                return "NaN";
+            }
+            if (Double.isInfinite(d)) {
+                return d > 0 ? "Infinity" : "-Infinity";
+            }
+            return String.valueOf(d);
+        }
+        if (value instanceof List) {
+            StringBuilder sb = new StringBuilder();
+            for (Object element : (List<?>) value) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(element == null ? "" : toDisplayString(element));
+            }
+            return sb.toString();
+        }
+        if (value instanceof Map) {
+            return "[object Object]";
+        }
+        return value.toString();
+    }
+
+    // ---- 运算符 ----
+
+    public static Object add(Object left, Object right) {
+        if (left instanceof String || right instanceof String
+            || left instanceof Map || right instanceof Map
+            || left instanceof List || right instanceof List) {
+            return toDisplayString(left) + toDisplayString(right);
+        }
+        return toNumber(left) + toNumber(right);
+    }
+
+    public static Object sub(Object left, Object right) {
+        return toNumber(left) - toNumber(right);
+    }
+
+    public static Object mul(Object left, Object right) {
+        return toNumber(left) * toNumber(right);
+    }
+
+    public static Object div(Object left, Object right) {
+        return toNumber(left) / toNumber(right);
+    }
+
+    public static Object mod(Object left, Object right) {
+        return toNumber(left) % toNumber(right);
+    }
+
+    public static Object neg(Object value) {
+        return -toNumber(value);
+    }
+
+    public static Object pos(Object value) {
+        return toNumber(value);
+    }
+
+    public static Object not(Object value) {
+        return !truthy(value);
+    }
+
+    public static Object lt(Object left, Object right) {
+        if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right) < 0;
+        }
+        return toNumber(left) < toNumber(right);
+    }
+
+    public static Object le(Object left, Object right) {
+        if (left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right) <= 0;
+        }
+        return toNumber(left) <= toNumber(right);
+    }
+
+    public static Object gt(Object left, Object right) {
+        return lt(right, left);
+    }
+
+    public static Object ge(Object left, Object right) {
+        return le(right, left);
+    }
+
+    public static Object strictEquals(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof Double && right instanceof Double) {
+            return ((Double) left).doubleValue() == ((Double) right).doubleValue();
+        }
+        if (left instanceof String || left instanceof Boolean) {
+            return left.equals(right);
+        }
+        return left == right;
+    }
+
+    public static Object looseEquals(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left.getClass() == right.getClass()) {
+            return strictEquals(left, right);
+        }
+        if (left instanceof Map || left instanceof List || right instanceof Map || right instanceof List) {
+            return false;
+        }
+        return toNumber(left) == toNumber(right);
+    }
+
+    public static Object typeof(Object value) {
+        if (value == null) {
+            return "undefined";
+        }
+        if (value instanceof Double) {
+            return "number";
+        }
+        if (value instanceof String) {
+            return "string";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        return "object";
+    }
+
+    // ---- 属性访问 ----
+
+    public static Object getProperty(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        if ("length".equals(name)) {
+            if (target instanceof List) {
+                return (double) ((List<?>) target).size();
+            }
+            if (target instanceof String) {
+                return (double) ((String) target).length();
+            }
+        }
+        if (target == MATH) {
+            if ("PI".equals(name)) {
+                return Math.PI;
+            }
+            if ("E".equals(name)) {
+                return Math.E;
+            }
+        }
+        if (target == null) {
+            throw new RuntimeException("TypeError: Cannot read property '" + name + "' of undefined");
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Object setProperty(Object target, String name, Object value) {
+        if (target instanceof Map) {
+            ((Map<String, Object>) target).put(name, value);
+            return value;
+        }
+        if (target instanceof List && "length".equals(name)) {
+            List<Object> list = (List<Object>) target;
+            int length = (int) toNumber(value);
+            while (list.size() > length) {
+                list.remove(list.size() - 1);
+            }
+            while (list.size() < length) {
+                list.add(null);
+            }
+            return value;
+        }
+        throw new RuntimeException("TypeError: Cannot set property '" + name + "' of " + toDisplayString(target));
+    }
+
+    public static Object getElement(Object target, Object key) {
+        if (target instanceof List && key instanceof Double) {
+            List<?> list = (List<?>) target;
+            int index = (int) toNumber(key);
+            return index >= 0 && index < list.size() ? list.get(index) : null;
+        }
+        if (target instanceof String && key instanceof Double) {
+            String s = (String) target;
+            int index = (int) toNumber(key);
+            return index >= 0 && index < s.length() ? String.valueOf(s.charAt(index)) : null;
+        }
+        return getProperty(target, toDisplayString(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Object setElement(Object target, Object key, Object value) {
+        if (target instanceof List && key instanceof Double) {
+            List<Object> list = (List<Object>) target;
+            int index = (int) toNumber(key);
+            while (list.size() <= index) {
+                list.add(null);
+            }
+            list.set(index, value);
+            return value;
+        }
+        return setProperty(target, toDisplayString(key), value);
+    }
+
+    // ---- 方法调用 ----
+
+    /**
+     * 调用对象上的方法，支持console、Math以及字符串和数组的常用方法
+     */
+    public static Object invoke(Object target, String name, Object[] args) {
+        if (target == CONSOLE) {
+            return invokeConsole(name, args);
+        }
+        if (target == MATH) {
+            return invokeMath(name, args);
+        }
+        if (target instanceof String) {
+            return invokeString((String) target, name, args);
+        }
+        if (target instanceof List) {
+            return invokeArray(target, name, args);
+        }
+        throw new RuntimeException("TypeError: " + name + " is not a function");
+    }
+
+    /**
+     * 调用内置全局函数
+     */
+    public static Object callGlobal(String name, Object[] args) {
+        Object arg = args.length > 0 ? args[0] : null;
+        switch (name) {
+            case "String": return toDisplayString(arg);
+            case "Number": return toNumber(arg);
+            case "Boolean": return truthy(arg);
+            case "isNaN": return Double.isNaN(toNumber(arg));
+            case "parseFloat": return toNumber(arg);
+            case "parseInt": {
+                double value = toNumber(arg);
+                return Double.isNaN(value) ? value : (double) (long) value;
+            }
+            default:
+                throw new RuntimeException("ReferenceError: " + name + " is not defined");
+        }
+    }
+
+    private static Object invokeConsole(String name, Object[] args) {
+        StringBuilder line = new StringBuilder();
+        for (Object arg : args) {
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(toDisplayString(arg));
+        }
+        if ("error".equals(name) || "warn".equals(name)) {
+            System.err.println(line);
+        } else {
+            System.out.println(line);
+        }
+        return null;
+    }
+
+    private static Object invokeMath(String name, Object[] args) {
+        double a = args.length > 0 ? toNumber(args[0]) : Double.NaN;
+        switch (name) {
+            case "floor": return Math.floor(a);
+            case "ceil": return Math.ceil(a);
+            case "round": return Math.floor(a + 0.5);
+            case "abs": return Math.abs(a);
+            case "sqrt": return Math.sqrt(a);
+            case "random": return Math.random();
+            case "pow": return Math.pow(a, args.length > 1 ? toNumber(args[1]) : Double.NaN);
+            case "max":
+            case "min": {
+                boolean max = "max".equals(name);
+                double result = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                for (Object arg : args) {
+                    result = max ? Math.max(result, toNumber(arg)) : Math.min(result, toNumber(arg));
+                }
+                return result;
+            }
+            default:
+                throw new RuntimeException("TypeError: Math." + name + " is not a function");
+        }
+    }
+
+    private static Object invokeString(String s, String name, Object[] args) {
+        switch (name) {
+            case "toUpperCase": return s.toUpperCase();
+            case "toLowerCase": return s.toLowerCase();
+            case "trim": return s.trim();
+            case "charAt": {
+                int index = (int) toNumber(args.length > 0 ? args[0] : null);
+                return index >= 0 && index < s.length() ? String.valueOf(s.charAt(index)) : "";
+            }
+            case "indexOf": return (double) s.indexOf(toDisplayString(args[0]));
+            case "substring": {
+                int start = clamp(toNumber(args.length > 0 ? args[0] : null), s.length());
+                int end = args.length > 1 && args[1] != null ? clamp(toNumber(args[1]), s.length()) : s.length();
+                return s.substring(Math.min(start, end), Math.max(start, end));
+            }
+            default:
+                throw new RuntimeException("TypeError: " + name + " is not a function");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object invokeArray(Object target, String name, Object[] args) {
+        List<Object> list = (List<Object>) target;
+        switch (name) {
+            case "push":
+                for (Object arg : args) {
+                    list.add(arg);
+                }
+                return (double) list.size();
+            case "pop":
+                return list.isEmpty() ? null : list.remove(list.size() - 1);
+            case "indexOf":
+                for (int i = 0; i < list.size(); i++) {
+                    if ((Boolean) strictEquals(list.get(i), args[0])) {
+                        return (double) i;
+                    }
+                }
+                return -1.0;
+            case "join": {
+                String separator = args.length > 0 && args[0] != null ? toDisplayString(args[0]) : ",";
+                StringBuilder sb = new StringBuilder();
+                Iterator<Object> it = list.iterator();
+                while (it.hasNext()) {
+                    Object element = it.next();
+                    sb.append(element == null ? "" : toDisplayString(element));
+                    if (it.hasNext()) {
+                        sb.append(separator);
+                    }
+                }
+                return sb.toString();
+            }
+            default:
+                throw new RuntimeException("TypeError: " + name + " is not a function");
+        }
+    }
+
+    private static int clamp(double value, int length) {
+        if (Double.isNaN(value) || value < 0) {
+            return 0;
+        }
+        return (int) Math.min(value, length);
+    }
+}
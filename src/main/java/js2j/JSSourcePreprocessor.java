@@ -1,7 +1,13 @@
 package js2j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
@@ -11,38 +17,106 @@ import java.util.regex.Matcher;
  */
 public class JSSourcePreprocessor {
     
+    /** 带括号参数的表达式箭头函数 (a, b) => expr */
+    private static final Pattern PAREN_ARROW_EXPRESSION = Pattern.compile("\\((.*?)\\)\\s*=>\\s*+([^{][^;]*)(;|$)");
+    /** PAREN_ARROW_EXPRESSION从右括号开始的部分能否匹配：表达式部分总能匹配到分号或末尾，只需判断第一个字符 */
+    private static final Pattern PAREN_ARROW_EXPRESSION_CLOSE = Pattern.compile("\\)\\s*=>\\s*+[^{]");
+    /** 带括号参数和函数体的箭头函数 (a, b) => { */
+    private static final Pattern PAREN_ARROW_BODY = Pattern.compile("\\((.*?)\\)\\s*=>\\s*\\{");
+    private static final Pattern PAREN_ARROW_BODY_CLOSE = Pattern.compile("\\)\\s*=>\\s*\\{");
+    
+    /** 按执行顺序排列的预处理步骤，键为步骤名 */
+    private final Map<String, UnaryOperator<String>> stages = createStages();
+    
     /**
      * 预处理源代码，移除Rhino不支持的ES6语法
      */
     public String preProcessSource(String source) {
+        for (UnaryOperator<String> stage : stages.values()) {
+            source = stage.apply(source);
+        }
+        return source;
+    }
+    
+    /**
+     * 按执行顺序排列的预处理步骤，压力测试逐个测量各步骤的耗时
+     */
+    Map<String, UnaryOperator<String>> stages() {
+        return stages;
+    }
+    
+    private Map<String, UnaryOperator<String>> createStages() {
+        Map<String, UnaryOperator<String>> stages = new LinkedHashMap<>();
+        
         // 移除import语句
-        source = source.replaceAll("import\\s+.*?;", "// import statement removed");
+        stages.put("imports", JSSourcePreprocessor::removeImports);
         
         // 移除export语句(普通函数导出)
-        source = source.replaceAll("export\\s+function", "function");
+        stages.put("exportFunction", source -> source.replaceAll("export\\s+function", "function"));
         
         // 移除export default语句
-        source = source.replaceAll("export\\s+default\\s+function", "function");
+        stages.put("exportDefault", source -> source.replaceAll("export\\s+default\\s+function", "function"));
         
         // 移除export const/let/var
-        source = source.replaceAll("export\\s+(const|let|var)", "$1");
+        stages.put("exportVariable", source -> source.replaceAll("export\\s+(const|let|var)", "$1"));
         
         // 处理ES6的模板字符串 (反引号字符串)
-        source = handleTemplateLiterals(source);
+        stages.put("templateLiterals", this::handleTemplateLiterals);
         
         // 将class替换为构造函数形式
-        source = replaceClassWithConstructor(source);
+        stages.put("classes", this::replaceClassWithConstructor);
         
         // 将const和let替换为var (Rhino不完全支持)
-        source = source.replaceAll("(const|let)\\s+", "var ");
+        stages.put("constLet", source -> source.replaceAll("(const|let)\\s+", "var "));
         
         // 处理for...of循环
-        source = replaceForOfLoops(source);
+        stages.put("forOf", this::replaceForOfLoops);
         
         // 处理箭头函数
-        source = handleArrowFunctions(source);
+        stages.put("arrowFunctions", this::handleArrowFunctions);
         
-        return source;
+        return Collections.unmodifiableMap(stages);
+    }
+    
+    /**
+     * 移除import语句，结果与 source.replaceAll("import\\s+.*?;", "// import statement removed") 相同
+     * 正则从每个import开始扫描到行尾，一行中很多import而没有分号时是平方级的。
+     * 该正则匹配当且仅当import之后的空白之后、下一个行结束符之前有分号，这里记住下一个分号和行结束符的位置，
+     * 越过之后才重新查找
+     */
+    private static String removeImports(String source) {
+        StringBuilder result = new StringBuilder();
+        int copied = 0;
+        int semicolon = -1;
+        int lineEnd = -1;
+        int start = source.indexOf("import");
+        while (start >= 0) {
+            int spaces = start + "import".length();
+            int code = spaces;
+            while (code < source.length() && " \t\n\u000B\f\r".indexOf(source.charAt(code)) >= 0) {
+                code++;
+            }
+            if (code > spaces) {
+                if (semicolon < code) {
+                    semicolon = source.indexOf(';', code);
+                    semicolon = semicolon < 0 ? source.length() : semicolon;
+                }
+                if (lineEnd < code) {
+                    lineEnd = code;
+                    while (lineEnd < source.length() && !isLineTerminator(source.charAt(lineEnd))) {
+                        lineEnd++;
+                    }
+                }
+                if (semicolon < lineEnd) {
+                    result.append(source, copied, start).append("// import statement removed");
+                    copied = semicolon + 1;
+                    start = source.indexOf("import", copied);
+                    continue;
+                }
+            }
+            start = source.indexOf("import", start + 1);
+        }
+        return result.append(source, copied, source.length()).toString();
     }
     
     /**
@@ -57,6 +131,7 @@ public class JSSourcePreprocessor {
         boolean inDoubleQuotes = false;
         boolean inBackticks = false;
         boolean escapeNext = false;
+        int[] closingBraces = null;
         
         for (int i = 0; i < source.length(); i++) {
             char c = source.charAt(i);
@@ -110,15 +185,11 @@ public class JSSourcePreprocessor {
                 lastPos = i + 2;
                 i++; // 跳过 {
                 
-                // 查找闭合的 }
-                int braceLevel = 1;
-                int j = lastPos;
-                for (; j < source.length(); j++) {
-                    if (source.charAt(j) == '{') braceLevel++;
-                    else if (source.charAt(j) == '}') braceLevel--;
-                    
-                    if (braceLevel == 0) break;
+                // 查找闭合的 }，配对只计算一次，否则每个不闭合的 ${ 都要扫描到末尾
+                if (closingBraces == null) {
+                    closingBraces = matchBraces(source);
                 }
+                int j = closingBraces[i];
                 
                 if (j < source.length()) {
                     // 找到了匹配的 }
@@ -138,6 +209,29 @@ public class JSSourcePreprocessor {
         return result.toString();
     }
     
+    /**
+     * 为每个左大括号计算与之配对的右大括号的位置，没有配对时为source.length()
+     * 与从左大括号向后计数到层级归零的结果相同，只是所有括号一起在一遍扫描中完成
+     */
+    private static int[] matchBraces(String source) {
+        int[] closing = new int[source.length()];
+        int[] open = new int[16];
+        int depth = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                }
+                open[depth++] = i;
+                closing[i] = source.length();
+            } else if (c == '}' && depth > 0) {
+                closing[open[--depth]] = i;
+            }
+        }
+        return closing;
+    }
+    
     /**
      * 转换模板字符串内容，处理转义字符
      */
@@ -185,21 +279,81 @@ public class JSSourcePreprocessor {
      * 处理ES6的箭头函数
      */
     private String handleArrowFunctions(String source) {
+        // 没有箭头函数时直接跳过
+        if (!source.contains("=>")) {
+            return source;
+        }
+        
         // 处理单参数箭头函数 a => expr
-        source = source.replaceAll("(\\w+)\\s*=>\\s*([^{][^;]*)(;|$)", "function($1) { return $2; }$3");
+        // 单词用占有量词并从单词开头匹配（\\b在JDK 17上与\\w的定义不一致，用逆向断言），否则很长的单词（如内联的base64数据）中每个位置都要回溯到单词末尾
+        // 箭头后的空白也用占有量词，否则表达式的第一个字符[^{]会匹配空白，把 a => { ... } 当成表达式箭头函数
+        source = source.replaceAll("(?<!\\w)(\\w++)\\s*=>\\s*+([^{][^;]*)(;|$)", "function($1) { return $2; }$3");
         
         // 处理带括号的单参数或多参数箭头函数 (a) => expr 或 (a, b) => expr
-        source = source.replaceAll("\\((.*?)\\)\\s*=>\\s*([^{][^;]*)(;|$)", "function($1) { return $2; }$3");
+        source = replaceParenthesizedArrows(source, PAREN_ARROW_EXPRESSION, PAREN_ARROW_EXPRESSION_CLOSE,
+                                            arrow -> "function(" + arrow.group(1) + ") { return " + arrow.group(2) + "; }"
+                                                     + arrow.group(3));
         
         // 处理带函数体的箭头函数 a => { ... }
-        source = source.replaceAll("(\\w+)\\s*=>\\s*\\{", "function($1) {");
+        source = source.replaceAll("(?<!\\w)(\\w++)\\s*=>\\s*\\{", "function($1) {");
         
         // 处理带括号的带函数体箭头函数 (a) => { ... } 或 (a, b) => { ... }
-        source = source.replaceAll("\\((.*?)\\)\\s*=>\\s*\\{", "function($1) {");
+        source = replaceParenthesizedArrows(source, PAREN_ARROW_BODY, PAREN_ARROW_BODY_CLOSE,
+                                            arrow -> "function(" + arrow.group(1) + ") {");
         
         return source;
     }
     
+    /**
+     * 线性时间地完成 source.replaceAll(arrow, ...)，arrow形如 \((.*?)\) 加上箭头之后的部分
+     * 正则从每个左括号开始惰性地扫描到行尾，一行中括号很多而箭头很少时是平方级的。
+     * 惰性匹配选中的右括号是左括号之后、同一行中第一个满足close的右括号，它与左括号无关，
+     * 所以改为向前查找满足close的右括号，再取同一行中它之前最早的左括号，然后只在该处匹配arrow
+     *
+     * @param arrow 完整的正则，第1组是括号内的参数
+     * @param close arrow从右括号开始的部分能否匹配的判断
+     * @param replacement 由arrow的匹配结果生成替换文本，文本按原样插入
+     */
+    private static String replaceParenthesizedArrows(String source, Pattern arrow, Pattern close,
+                                                     Function<Matcher, String> replacement) {
+        Matcher closes = close.matcher(source);
+        Matcher arrows = arrow.matcher(source);
+        StringBuilder result = new StringBuilder();
+        int copied = 0;
+        int scanned = 0;
+        // 已扫描部分的最后一行中第一个左括号
+        int firstOpen = -1;
+        while (scanned < source.length() && closes.find(scanned)) {
+            int closeParen = closes.start();
+            for (; scanned < closeParen; scanned++) {
+                char c = source.charAt(scanned);
+                if (isLineTerminator(c)) {
+                    firstOpen = -1;
+                } else if (c == '(' && firstOpen < 0) {
+                    firstOpen = scanned;
+                }
+            }
+            scanned = closeParen + 1;
+            if (firstOpen < 0) {
+                continue;
+            }
+            arrows.region(firstOpen, source.length());
+            if (arrows.lookingAt()) {
+                result.append(source, copied, firstOpen).append(replacement.apply(arrows));
+                copied = scanned = arrows.end();
+                firstOpen = -1;
+            }
+        }
+        return result.append(source, copied, source.length()).toString();
+    }
+    
+    /**
+     * 正则中 . 不匹配的行结束符
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    
     /**
      * 将class声明替换为构造函数形式
      */
@@ -213,7 +367,8 @@ public class JSSourcePreprocessor {
             "class\\s+(\\w+)\\s*\\{");
         Matcher matcher = pattern.matcher(source);
         
-        while (matcher.find()) {
+        // 从上一个类的结尾继续查找：类体中的class已经随外层类处理，而且没有闭合的类已经扫描到了末尾
+        while (matcher.find(lastPos)) {
             String className = matcher.group(1);
             result.append(source.substring(lastPos, matcher.start()));
             
@@ -255,6 +410,8 @@ public class JSSourcePreprocessor {
                 Pattern methodPattern = Pattern.compile(
                     "(\\w+)\\s*\\((.*?)\\)\\s*\\{([^}]*?)\\}");
                 Matcher methodMatcher = methodPattern.matcher(classBody);
+                // 方法体在最后一个右大括号之前结束，限定范围后没有闭合的类不会从每个方法名扫描到末尾
+                methodMatcher.region(0, classBody.lastIndexOf('}') + 1);
                 
                 while (methodMatcher.find()) {
                     String methodName = methodMatcher.group(1);
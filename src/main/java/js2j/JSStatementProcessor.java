@@ -25,6 +25,8 @@ public class JSStatementProcessor {
     
     private final JSExpressionProcessor expressionProcessor;
     private final JSObjectProcessor objectProcessor;
+    /** -O2时的类型推断结果，为null时按名称和初始值推断类型 */
+    private JSTypeInference typeHints;
     
     /**
      * 构造函数
@@ -42,6 +44,13 @@ public class JSStatementProcessor {
         this.objectProcessor = objectProcessor;
     }
     
+    /**
+     * 设置类型推断结果，传入null时恢复按名称和初始值推断
+     */
+    public void setTypeHints(JSTypeInference typeHints) {
+        this.typeHints = typeHints;
+    }
+    
     /**
      * 处理变量声明，添加到Java块中
      */
@@ -56,7 +65,7 @@ public class JSStatementProcessor {
                 
                 if (valueNode != null) {
                     Expression valueExpr = expressionProcessor.createExpressionFromJSNode(valueNode);
-                    varType = JSTypeUtils.determineType(valueExpr);
+                    varType = inferredType(init.getTarget(), JSTypeUtils.determineType(valueExpr));
                     
                     // 创建变量声明表达式
                     VariableDeclarationExpr varDecl = new VariableDeclarationExpr();
@@ -76,7 +85,7 @@ public class JSStatementProcessor {
                     VariableDeclarationExpr varDecl = new VariableDeclarationExpr();
                     
                     // 根据变量名推断类型
-                    varType = JSTypeUtils.determineTypeFromName(varName);
+                    varType = inferredType(init.getTarget(), JSTypeUtils.determineTypeFromName(varName));
                     
                     // 创建变量声明器
                     VariableDeclarator var = new VariableDeclarator()
@@ -97,35 +106,44 @@ public class JSStatementProcessor {
      */
     public String processVariableDeclaration(VariableDeclaration node) {
         StringBuilder result = new StringBuilder();
-        
+        JavaCodeEmitter emitter = new JavaCodeEmitter(result);
+        emitter.indent();
+        emitVariableDeclaration(node, emitter);
+        return result.toString();
+    }
+    
+    /**
+     * 处理变量声明，直接写入输出器
+     */
+    public void emitVariableDeclaration(VariableDeclaration node, JavaCodeEmitter emitter) {
+        emitVariableDeclaration(node, "", emitter);
+    }
+    
+    /**
+     * 处理变量声明，直接写入输出器，每个变量前加上给定的修饰符（如作为静态字段输出时）
+     */
+    public void emitVariableDeclaration(VariableDeclaration node, String modifiers, JavaCodeEmitter emitter) {
         for (VariableInitializer init : node.getVariables()) {
             if (init.getTarget() instanceof org.mozilla.javascript.ast.Name) {
                 String varName = ((org.mozilla.javascript.ast.Name) init.getTarget()).getIdentifier();
                 AstNode valueNode = init.getInitializer();
                 
-                // 确定变量类型
-                String varType = "Object"; // 默认类型
+                // 确定变量类型，只赋值一次的字面量声明为final
+                String varType = variableType(init);
+                emitter.print(modifiers);
+                if (typeHints != null && typeHints.isConstant(init.getTarget())) {
+                    emitter.print("final ");
+                }
+                emitter.print(varType).print(" ").print(varName);
                 
                 if (valueNode != null) {
-                    // 先将AstNode转换为Java表达式，然后获取字符串表示
+                    // 将AstNode转换为Java表达式后直接输出
                     Expression valueExpr = expressionProcessor.createExpressionFromJSNode(valueNode);
-                    String valueExprStr = valueExpr.toString();
-                    varType = JSTypeUtils.determineTypeFromName(varName);
-                    
-                    // 创建变量声明表达式
-                    result.append("    ").append(varType).append(" ")
-                          .append(varName).append(" = ")
-                          .append(valueExprStr).append(";\n");
-                } else {
-                    // 处理没有初始化器的变量声明
-                    varType = JSTypeUtils.determineTypeFromName(varName);
-                    result.append("    ").append(varType).append(" ")
-                          .append(varName).append(";\n");
+                    emitter.print(" = ").emit(valueExpr);
                 }
+                emitter.println(";");
             }
         }
-        
-        return result.toString();
     }
     
     /**
@@ -142,7 +160,7 @@ public class JSStatementProcessor {
                 
                 if (valueNode != null) {
                     Expression valueExpr = expressionProcessor.createExpressionFromJSNode(valueNode);
-                    fieldType = JSTypeUtils.determineType(valueExpr);
+                    fieldType = inferredType(init.getTarget(), JSTypeUtils.determineType(valueExpr));
                     
                     // 创建字段声明
                     NodeList<Modifier> modifiers = NodeList.nodeList(Modifier.privateModifier(), Modifier.staticModifier());
@@ -158,7 +176,7 @@ public class JSStatementProcessor {
                     classDecl.addFieldWithInitializer(fieldType, varName, valueExpr, Modifier.Keyword.PRIVATE, Modifier.Keyword.STATIC);
                 } else {
                     // 处理没有初始化器的字段声明
-                    fieldType = JSTypeUtils.determineTypeFromName(varName);
+                    fieldType = inferredType(init.getTarget(), JSTypeUtils.determineTypeFromName(varName));
                     
                     // 添加字段到类
                     classDecl.addField(fieldType, varName, Modifier.Keyword.PRIVATE, Modifier.Keyword.STATIC);
@@ -167,6 +185,22 @@ public class JSStatementProcessor {
         }
     }
     
+    /**
+     * 变量声明生成的Java类型
+     */
+    String variableType(VariableInitializer init) {
+        String varName = ((org.mozilla.javascript.ast.Name) init.getTarget()).getIdentifier();
+        return inferredType(init.getTarget(), JSTypeUtils.determineTypeFromName(varName));
+    }
+    
+    /**
+     * 变量类型：优先使用类型推断的结果
+     */
+    private String inferredType(AstNode declaration, String fallback) {
+        String inferred = typeHints != null ? typeHints.variableType(declaration) : null;
+        return inferred != null ? inferred : fallback;
+    }
+    
     /**
      * 处理表达式语句，添加到Java块中
      */
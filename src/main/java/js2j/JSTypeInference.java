@@ -0,0 +1,517 @@
+package js2j;
+
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.Assignment;
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.ConditionalExpression;
+import org.mozilla.javascript.ast.FunctionCall;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.InfixExpression;
+import org.mozilla.javascript.ast.KeywordLiteral;
+import org.mozilla.javascript.ast.Name;
+import org.mozilla.javascript.ast.NumberLiteral;
+import org.mozilla.javascript.ast.ParenthesizedExpression;
+import org.mozilla.javascript.ast.PropertyGet;
+import org.mozilla.javascript.ast.ReturnStatement;
+import org.mozilla.javascript.ast.StringLiteral;
+import org.mozilla.javascript.ast.UnaryExpression;
+import org.mozilla.javascript.ast.UpdateExpression;
+import org.mozilla.javascript.ast.VariableInitializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于数据流的类型推断（-O2）
+ * 收集每个变量的所有赋值、每个函数的所有返回值和调用处的实参，反复计算直到类型不再变化。
+ * 只有一个变量的所有来源都能确定类型时才给出结果，否则由JSTypeUtils按名称推断。
+ * JavaScript的数值运算不会溢出，int的加、减、乘、取负和自增自减的结果推断为double，
+ * 只有整数字面量（已由JSOptimizer折叠）和位运算的结果是int
+ * 结果按声明处的Name节点记录，只对本次分析的AST有效
+ */
+public class JSTypeInference {
+
+    private static final String INT = "int";
+    private static final String DOUBLE = "double";
+    private static final String STRING = "String";
+    private static final String BOOLEAN = "boolean";
+    private static final String OBJECT = "Object";
+    private static final String VOID = "void";
+    /** 尚未计算出类型，迭代时按乐观假设忽略 */
+    private static final String PENDING = "";
+
+    /**
+     * 类型格的高度：待定、int、double、Object、无法确定，每个类型最多变化这么多次，
+     * 所以每轮至少有一个类型变化时，迭代轮数不超过类型数乘以该值
+     */
+    private static final int LATTICE_HEIGHT = 4;
+
+    /** 每个函数（顶层为AstRoot）中声明的变量 */
+    private final Map<AstNode, Map<String, Variable>> scopes = new IdentityHashMap<>();
+    private final Map<FunctionNode, FunctionInfo> functions = new IdentityHashMap<>();
+    private final Map<Name, Variable> declarations = new IdentityHashMap<>();
+
+    /**
+     * 分析AST
+     *
+     * @param root AST根节点
+     */
+    public void analyze(AstRoot root) {
+        scopes.put(root, new HashMap<>());
+
+        // 第一遍：登记函数、参数和变量声明
+        root.visit(node -> {
+            if (node instanceof FunctionNode) {
+                declareFunction((FunctionNode) node);
+            } else if (node instanceof VariableInitializer && ((VariableInitializer) node).getTarget() instanceof Name) {
+                VariableInitializer init = (VariableInitializer) node;
+                Variable variable = declare(owner(init), (Name) init.getTarget());
+                if (init.getInitializer() != null) {
+                    variable.sources.add(init.getInitializer());
+                }
+            }
+            return true;
+        });
+
+        // 第二遍：收集赋值、返回值和调用处的实参
+        root.visit(node -> {
+            if (node instanceof Assignment) {
+                collectAssignment((Assignment) node);
+            } else if (node instanceof UpdateExpression) {
+                AstNode operand = ((UpdateExpression) node).getOperand();
+                Variable variable = operand instanceof Name ? resolve(operand, ((Name) operand).getIdentifier()) : null;
+                if (variable != null) {
+                    variable.sources.add(node);
+                }
+            } else if (node instanceof ReturnStatement) {
+                FunctionNode function = node.getEnclosingFunction();
+                if (function != null) {
+                    functions.get(function).returns.add((ReturnStatement) node);
+                }
+            } else if (node instanceof FunctionCall) {
+                collectCall((FunctionCall) node);
+            } else if (node instanceof Name) {
+                markEscaping((Name) node);
+            }
+            return true;
+        });
+
+        // 反复计算直到不再变化，上限只防止意外的不单调，达到上限时放弃全部推断结果，
+        // 以免变量和返回值的类型互相矛盾
+        int limit = LATTICE_HEIGHT * (declarations.size() + functions.size()) + 1;
+        boolean changed = true;
+        for (int i = 0; changed && i < limit; i++) {
+            changed = iterate();
+        }
+        if (changed) {
+            for (Variable variable : declarations.values()) {
+                variable.type = null;
+            }
+            for (FunctionInfo info : functions.values()) {
+                info.returnType = null;
+            }
+        }
+    }
+
+    /**
+     * 重新计算一轮所有变量和返回值的类型
+     *
+     * @return 是否有类型变化
+     */
+    private boolean iterate() {
+        boolean changed = false;
+        for (Variable variable : declarations.values()) {
+            String type = joinAll(variable.sources);
+            if (!equal(type, variable.type)) {
+                variable.type = type;
+                changed = true;
+            }
+        }
+        for (FunctionInfo info : functions.values()) {
+            String type = returnType(info);
+            if (!equal(type, info.returnType)) {
+                info.returnType = type;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 获取变量或参数的推断类型
+     *
+     * @param declaration 声明处的Name节点
+     * @return Java类型，无法确定时返回null
+     */
+    public String variableType(AstNode declaration) {
+        Variable variable = declarations.get(declaration);
+        return variable == null ? null : result(variable.type);
+    }
+
+    /**
+     * 变量是否只在声明时赋值一次且初始值为字面量，可以声明为final
+     *
+     * @param declaration 声明处的Name节点
+     */
+    public boolean isConstant(AstNode declaration) {
+        Variable variable = declarations.get(declaration);
+        return variable != null && result(variable.type) != null && variable.sources.size() == 1
+               && !variable.assigned && isLiteral(variable.sources.get(0));
+    }
+
+    /**
+     * 获取函数的推断返回类型
+     *
+     * @return Java类型，没有返回值时为void，无法确定时返回null
+     */
+    public String returnType(FunctionNode function) {
+        FunctionInfo info = functions.get(function);
+        return info == null ? null : result(info.returnType);
+    }
+
+    private static String result(String type) {
+        return PENDING.equals(type) ? null : type;
+    }
+
+    private void declareFunction(FunctionNode function) {
+        FunctionInfo info = new FunctionInfo();
+        functions.put(function, info);
+        Map<String, Variable> scope = new HashMap<>();
+        scopes.put(function, scope);
+        for (AstNode param : function.getParams()) {
+            if (param instanceof Name) {
+                Variable variable = declare(function, (Name) param);
+                info.params.add(variable);
+            }
+        }
+        // 函数声明的名称属于外层作用域
+        if (function.getFunctionType() == FunctionNode.FUNCTION_STATEMENT && function.getFunctionName() != null) {
+            AstNode outer = owner(function);
+            scopes.get(outer).computeIfAbsent(function.getName(), name -> new Variable()).function = info;
+        }
+    }
+
+    private Variable declare(AstNode owner, Name name) {
+        Variable variable = scopes.get(owner).computeIfAbsent(name.getIdentifier(), n -> new Variable());
+        declarations.put(name, variable);
+        return variable;
+    }
+
+    private void collectAssignment(Assignment assignment) {
+        if (!(assignment.getLeft() instanceof Name)) {
+            return;
+        }
+        Variable variable = resolve(assignment, ((Name) assignment.getLeft()).getIdentifier());
+        if (variable == null) {
+            return;
+        }
+        variable.assigned = true;
+        // 复合赋值 x += y 的结果类型与 x + y 相同
+        variable.sources.add(assignment.getType() == Token.ASSIGN ? assignment.getRight() : assignment);
+    }
+
+    private void collectCall(FunctionCall call) {
+        FunctionInfo info = calledFunction(call);
+        if (info == null) {
+            return;
+        }
+        List<AstNode> args = call.getArguments();
+        for (int i = 0; i < info.params.size(); i++) {
+            Variable param = info.params.get(i);
+            if (i < args.size()) {
+                param.sources.add(args.get(i));
+            } else {
+                // 缺少的实参为undefined，无法推断
+                param.sources.add(null);
+            }
+        }
+    }
+
+    /**
+     * 函数名出现在调用以外的位置时，可能以任意参数被调用，不再推断其参数类型
+     */
+    private void markEscaping(Name name) {
+        AstNode parent = name.getParent();
+        if (parent instanceof FunctionCall && ((FunctionCall) parent).getTarget() == name
+            || parent instanceof FunctionNode
+            || parent instanceof PropertyGet && ((PropertyGet) parent).getProperty() == name) {
+            return;
+        }
+        Variable variable = resolve(name, name.getIdentifier());
+        if (variable != null && variable.function != null) {
+            for (Variable param : variable.function.params) {
+                param.sources.add(null);
+            }
+        }
+    }
+
+    private FunctionInfo calledFunction(FunctionCall call) {
+        if (!(call.getTarget() instanceof Name)) {
+            return null;
+        }
+        Variable variable = resolve(call, ((Name) call.getTarget()).getIdentifier());
+        return variable == null ? null : variable.function;
+    }
+
+    /**
+     * 沿外层函数查找变量的声明
+     */
+    private Variable resolve(AstNode node, String name) {
+        AstNode owner = owner(node);
+        while (true) {
+            Variable variable = scopes.get(owner).get(name);
+            if (variable != null || owner instanceof AstRoot) {
+                return variable;
+            }
+            owner = owner(owner);
+        }
+    }
+
+    /**
+     * 节点所属的函数，顶层节点属于AstRoot
+     */
+    private AstNode owner(AstNode node) {
+        FunctionNode function = node.getEnclosingFunction();
+        return function != null ? function : node.getAstRoot();
+    }
+
+    private String returnType(FunctionInfo info) {
+        if (info.returns.isEmpty()) {
+            return VOID;
+        }
+        List<AstNode> values = new ArrayList<>();
+        for (ReturnStatement statement : info.returns) {
+            if (statement.getReturnValue() == null) {
+                // 部分分支没有返回值时无法确定类型
+                return info.returns.size() == 1 ? VOID : null;
+            }
+            values.add(statement.getReturnValue());
+        }
+        return joinAll(values);
+    }
+
+    private String joinAll(List<AstNode> sources) {
+        String result = PENDING;
+        for (AstNode source : sources) {
+            String type = source == null ? null : typeOf(source);
+            if (type == null) {
+                return null;
+            }
+            result = join(result, type);
+        }
+        return result;
+    }
+
+    /**
+     * 计算表达式的类型，无法确定时返回null
+     */
+    private String typeOf(AstNode node) {
+        if (node instanceof NumberLiteral) {
+            NumberLiteral number = (NumberLiteral) node;
+            double value = number.getNumber();
+            String text = number.getValue();
+            boolean integral = value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE
+                               && !text.contains(".") && (text.startsWith("0x") || text.startsWith("0X")
+                                                          || !text.contains("e") && !text.contains("E"));
+            return integral ? INT : DOUBLE;
+        }
+        if (node instanceof StringLiteral) {
+            return STRING;
+        }
+        if (node instanceof KeywordLiteral) {
+            return node.getType() == Token.TRUE || node.getType() == Token.FALSE ? BOOLEAN : null;
+        }
+        if (node instanceof Name) {
+            Variable variable = resolve(node, ((Name) node).getIdentifier());
+            return variable == null || variable.function != null ? null : variable.type;
+        }
+        if (node instanceof ParenthesizedExpression) {
+            return typeOf(((ParenthesizedExpression) node).getExpression());
+        }
+        if (node instanceof UpdateExpression) {
+            return overflowing(numeric(typeOf(((UpdateExpression) node).getOperand())));
+        }
+        if (node instanceof UnaryExpression) {
+            return unaryType((UnaryExpression) node);
+        }
+        if (node instanceof ConditionalExpression) {
+            ConditionalExpression conditional = (ConditionalExpression) node;
+            String whenTrue = typeOf(conditional.getTrueExpression());
+            String whenFalse = typeOf(conditional.getFalseExpression());
+            return whenTrue == null || whenFalse == null ? null : join(whenTrue, whenFalse);
+        }
+        if (node instanceof FunctionCall) {
+            FunctionInfo info = calledFunction((FunctionCall) node);
+            return info == null || VOID.equals(info.returnType) ? null : info.returnType;
+        }
+        if (node instanceof InfixExpression && !(node instanceof PropertyGet)) {
+            return infixType((InfixExpression) node);
+        }
+        return null;
+    }
+
+    private String unaryType(UnaryExpression unary) {
+        switch (unary.getType()) {
+            case Token.NOT:
+                return BOOLEAN;
+            case Token.TYPEOF:
+                return STRING;
+            case Token.BITNOT:
+                return INT;
+            case Token.NEG:
+                // 非零整数字面量取负不会溢出，其余的int可能溢出，0取负是-0
+                AstNode operand = unary.getOperand();
+                if (operand instanceof NumberLiteral && INT.equals(typeOf(operand))
+                    && ((NumberLiteral) operand).getNumber() != 0) {
+                    return INT;
+                }
+                return overflowing(numeric(typeOf(operand)));
+            case Token.POS:
+                return numeric(typeOf(unary.getOperand()));
+            default:
+                return null;
+        }
+    }
+
+    private String infixType(InfixExpression infix) {
+        int operator = infix.getType();
+        if (infix instanceof Assignment) {
+            if (operator == Token.ASSIGN) {
+                return typeOf(infix.getRight());
+            }
+            operator = compoundOperator(operator);
+        }
+        switch (operator) {
+            case Token.EQ:
+            case Token.NE:
+            case Token.SHEQ:
+            case Token.SHNE:
+            case Token.LT:
+            case Token.LE:
+            case Token.GT:
+            case Token.GE:
+            case Token.INSTANCEOF:
+            case Token.IN:
+                return BOOLEAN;
+            case Token.COMMA:
+                return typeOf(infix.getRight());
+            default:
+                break;
+        }
+
+        String left = typeOf(infix.getLeft());
+        String right = typeOf(infix.getRight());
+        switch (operator) {
+            case Token.ADD:
+                // 任意一侧为字符串时结果是字符串
+                if (STRING.equals(left) || STRING.equals(right)) {
+                    return STRING;
+                }
+                return overflowing(numeric(left, right));
+            case Token.SUB:
+            case Token.MUL:
+                return overflowing(numeric(left, right));
+            case Token.MOD:
+                return numeric(left, right);
+            case Token.DIV:
+                // JavaScript的除法总是浮点除法
+                String quotient = numeric(left, right);
+                return quotient == null || PENDING.equals(quotient) ? quotient : DOUBLE;
+            case Token.BITOR:
+            case Token.BITAND:
+            case Token.BITXOR:
+            case Token.LSH:
+            case Token.RSH:
+                return INT;
+            case Token.AND:
+            case Token.OR:
+                String both = left == null || right == null ? null : join(left, right);
+                return BOOLEAN.equals(both) || PENDING.equals(both) ? both : null;
+            default:
+                return null;
+        }
+    }
+
+    private static int compoundOperator(int operator) {
+        switch (operator) {
+            case Token.ASSIGN_ADD: return Token.ADD;
+            case Token.ASSIGN_SUB: return Token.SUB;
+            case Token.ASSIGN_MUL: return Token.MUL;
+            case Token.ASSIGN_DIV: return Token.DIV;
+            case Token.ASSIGN_MOD: return Token.MOD;
+            case Token.ASSIGN_BITOR: return Token.BITOR;
+            case Token.ASSIGN_BITAND: return Token.BITAND;
+            case Token.ASSIGN_BITXOR: return Token.BITXOR;
+            case Token.ASSIGN_LSH: return Token.LSH;
+            case Token.ASSIGN_RSH: return Token.RSH;
+            default: return -1;
+        }
+    }
+
+    /**
+     * 数值运算的结果类型，运算数尚未计算出类型时结果也暂不确定
+     */
+    private static String numeric(String... operands) {
+        String result = PENDING;
+        for (String operand : operands) {
+            if (operand == null || !PENDING.equals(operand) && !isNumeric(operand)) {
+                return null;
+            }
+            result = join(result, operand);
+        }
+        return result;
+    }
+
+    /**
+     * 可能超出int范围的运算结果：JavaScript得到double，Java的int会回绕，所以推断为double
+     */
+    private static String overflowing(String type) {
+        return INT.equals(type) ? DOUBLE : type;
+    }
+
+    private static String join(String a, String b) {
+        if (a.equals(b) || PENDING.equals(b)) {
+            return a;
+        }
+        if (PENDING.equals(a)) {
+            return b;
+        }
+        if (isNumeric(a) && isNumeric(b)) {
+            return DOUBLE;
+        }
+        return OBJECT;
+    }
+
+    private static boolean isNumeric(String type) {
+        return INT.equals(type) || DOUBLE.equals(type);
+    }
+
+    private static boolean isLiteral(AstNode node) {
+        return node instanceof NumberLiteral || node instanceof StringLiteral
+               || node instanceof KeywordLiteral && (node.getType() == Token.TRUE || node.getType() == Token.FALSE);
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * 变量或参数，sources中的null表示无法推断的来源
+     */
+    private static class Variable {
+        final List<AstNode> sources = new ArrayList<>();
+        String type = PENDING;
+        boolean assigned;
+        FunctionInfo function;
+    }
+
+    private static class FunctionInfo {
+        final List<Variable> params = new ArrayList<>();
+        final List<ReturnStatement> returns = new ArrayList<>();
+        String returnType = PENDING;
+    }
+}
@@ -0,0 +1,515 @@
+package js2j;
+
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Java代码流式输出器
+ * 直接将代码和JavaParser节点写入Appendable，并跟踪缩进，
+ * 避免每次调用Node.toString()都创建一个新的美化打印器和中间字符串
+ */
+public class JavaCodeEmitter {
+
+    private static final String INDENT = "    ";
+
+    /** 缩进的最大层数，更深的嵌套不再增加缩进，避免输出大小随嵌套深度平方增长 */
+    static final int MAX_INDENT_LEVEL = 64;
+
+    private final Appendable out;
+    private int indentLevel;
+    private boolean atLineStart = true;
+    private int blockCount;
+    /** 生成源码映射时每个输出行对应的JavaScript行号，0表示没有对应的行，为null时不跟踪 */
+    private int[] sourceLines;
+    /** 当前输出行，从0开始 */
+    private int line;
+    /** 之后输出的代码对应的JavaScript行号 */
+    private int sourceLine;
+
+    /**
+     * 构造函数
+     *
+     * @param out 输出目标，可以是StringBuilder或Writer
+     */
+    public JavaCodeEmitter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * 将单个节点输出为字符串
+     */
+    public static String toJava(Node node) {
+        StringBuilder sb = new StringBuilder();
+        new JavaCodeEmitter(sb).emit(node);
+        return sb.toString();
+    }
+
+    /**
+     * 跟踪每个输出行对应的JavaScript行号，用于生成源码映射
+     */
+    public JavaCodeEmitter trackSourceLines() {
+        if (sourceLines == null) {
+            sourceLines = new int[64];
+        }
+        return this;
+    }
+
+    /**
+     * 设置之后输出的代码对应的JavaScript行号，每行取行中第一次输出时的行号，不跟踪时忽略
+     */
+    public JavaCodeEmitter sourceLine(int jsLine) {
+        if (jsLine > 0) {
+            sourceLine = jsLine;
+        }
+        return this;
+    }
+
+    /**
+     * 获取已输出的每一行对应的JavaScript行号，不跟踪时返回null
+     */
+    public int[] getSourceLines() {
+        if (sourceLines == null) {
+            return null;
+        }
+        return Arrays.copyOf(sourceLines, atLineStart ? line : line + 1);
+    }
+
+    /**
+     * 输出文本，行首时先写入当前缩进
+     */
+    public JavaCodeEmitter print(CharSequence text) {
+        if (text.length() == 0) {
+            return this;
+        }
+        try {
+            if (atLineStart) {
+                for (int i = Math.min(indentLevel, MAX_INDENT_LEVEL); i > 0; i--) {
+                    out.append(INDENT);
+                }
+                atLineStart = false;
+            }
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (sourceLines != null) {
+            trackLines(text);
+        }
+        return this;
+    }
+
+    /**
+     * 原样输出另一个输出器的文本，lines是其中每一行对应的JavaScript行号，为null时按当前行号处理
+     */
+    public JavaCodeEmitter print(CharSequence text, int[] lines) {
+        if (sourceLines == null || lines == null) {
+            return print(text);
+        }
+        int saved = sourceLine;
+        int start = 0;
+        for (int i = 0; start < text.length(); i++) {
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            end = Math.min(end + 1, text.length());
+            sourceLine = i < lines.length && lines[i] > 0 ? lines[i] : saved;
+            print(text.subSequence(start, end));
+            start = end;
+        }
+        sourceLine = saved;
+        return this;
+    }
+
+    /**
+     * 记录文本中各行对应的JavaScript行号
+     */
+    private void trackLines(CharSequence text) {
+        markLine();
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                line++;
+                if (i + 1 < text.length()) {
+                    markLine();
+                }
+            }
+        }
+    }
+
+    private void markLine() {
+        if (line >= sourceLines.length) {
+            sourceLines = Arrays.copyOf(sourceLines, Math.max(line + 1, sourceLines.length * 2));
+        }
+        if (sourceLines[line] == 0) {
+            sourceLines[line] = sourceLine;
+        }
+    }
+
+    /**
+     * 输出文本并换行
+     */
+    public JavaCodeEmitter println(CharSequence text) {
+        return print(text).println();
+    }
+
+    /**
+     * 换行，下一次输出时重新写入缩进
+     */
+    public JavaCodeEmitter println() {
+        try {
+            out.append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        atLineStart = true;
+        if (sourceLines != null) {
+            line++;
+        }
+        return this;
+    }
+
+    /**
+     * 按行输出多行文本，每行都加上当前缩进，空行不加缩进，末尾的空行被忽略
+     */
+    public JavaCodeEmitter printLines(CharSequence text) {
+        return printLines(text, null);
+    }
+
+    /**
+     * 按行输出多行文本，lines是其中每一行对应的JavaScript行号，为null时按当前行号处理
+     *
+     * @see #printLines(CharSequence)
+     */
+    public JavaCodeEmitter printLines(CharSequence text, int[] lines) {
+        int saved = sourceLine;
+        int index = 0;
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lines != null) {
+                sourceLine = index < lines.length && lines[index] > 0 ? lines[index] : saved;
+            }
+            print(text.subSequence(lineStart, lineEnd)).println();
+            lineStart = lineEnd + 1;
+            index++;
+        }
+        sourceLine = saved;
+        return this;
+    }
+    
+    /**
+     * 开始一个新的顶层代码块，与前一个代码块之间以空行分隔
+     */
+    public JavaCodeEmitter beginBlock() {
+        if (blockCount > 0) {
+            println().println();
+        }
+        blockCount++;
+        return this;
+    }
+
+    /**
+     * 获取已经开始的顶层代码块数量
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * 增加一级缩进
+     */
+    public JavaCodeEmitter indent() {
+        indentLevel++;
+        return this;
+    }
+
+    /**
+     * 减少一级缩进
+     */
+    public JavaCodeEmitter unindent() {
+        indentLevel = Math.max(0, indentLevel - 1);
+        return this;
+    }
+
+    /**
+     * 输出JavaParser语句或表达式节点
+     * 输出格式与JavaParser默认的美化打印保持一致，后续的格式化步骤依赖这一点
+     */
+    public JavaCodeEmitter emit(Node node) {
+        if (node instanceof Statement) {
+            emitStatement((Statement) node);
+        } else if (node instanceof Expression) {
+            emitExpression((Expression) node);
+        } else {
+            print(node.toString());
+        }
+        return this;
+    }
+
+    /**
+     * 输出语句
+     */
+    private void emitStatement(Statement stmt) {
+        if (stmt instanceof BlockStmt) {
+            println("{");
+            indent();
+            for (Statement s : ((BlockStmt) stmt).getStatements()) {
+                emitStatement(s);
+                println();
+            }
+            unindent();
+            print("}");
+        } else if (stmt instanceof ExpressionStmt) {
+            emitExpression(((ExpressionStmt) stmt).getExpression());
+            print(";");
+        } else if (stmt instanceof ReturnStmt) {
+            ReturnStmt returnStmt = (ReturnStmt) stmt;
+            print("return");
+            if (returnStmt.getExpression().isPresent()) {
+                print(" ");
+                emitExpression(returnStmt.getExpression().get());
+            }
+            print(";");
+        } else if (stmt instanceof IfStmt) {
+            emitIfStatement((IfStmt) stmt);
+        } else if (stmt instanceof ForStmt) {
+            ForStmt forStmt = (ForStmt) stmt;
+            print("for (");
+            emitSeparated(forStmt.getInitialization().iterator());
+            print("; ");
+            if (forStmt.getCompare().isPresent()) {
+                emitExpression(forStmt.getCompare().get());
+            }
+            print("; ");
+            emitSeparated(forStmt.getUpdate().iterator());
+            print(") ");
+            emitStatement(forStmt.getBody());
+        } else if (stmt instanceof WhileStmt) {
+            WhileStmt whileStmt = (WhileStmt) stmt;
+            print("while (");
+            emitExpression(whileStmt.getCondition());
+            print(") ");
+            emitStatement(whileStmt.getBody());
+        } else if (stmt instanceof SwitchStmt) {
+            emitSwitchStatement((SwitchStmt) stmt);
+        } else {
+            // 其他语句类型很少出现，退回JavaParser的默认打印
+            print(stmt.toString());
+        }
+    }
+
+    /**
+     * 输出if语句
+     */
+    private void emitIfStatement(IfStmt ifStmt) {
+        boolean thenBlock = ifStmt.getThenStmt() instanceof BlockStmt;
+        print("if (");
+        emitExpression(ifStmt.getCondition());
+        print(") ");
+        if (!thenBlock) {
+            println();
+            indent();
+        }
+        emitStatement(ifStmt.getThenStmt());
+        if (!thenBlock) {
+            unindent();
+        }
+
+        if (ifStmt.getElseStmt().isPresent()) {
+            Statement elseStmt = ifStmt.getElseStmt().get();
+            if (thenBlock) {
+                print(" ");
+            } else {
+                println();
+            }
+            boolean elseOnSameLine = elseStmt instanceof IfStmt || elseStmt instanceof BlockStmt;
+            if (elseOnSameLine) {
+                print("else ");
+            } else {
+                println("else");
+                indent();
+            }
+            emitStatement(elseStmt);
+            if (!elseOnSameLine) {
+                unindent();
+            }
+        }
+    }
+
+    /**
+     * 输出switch语句
+     */
+    private void emitSwitchStatement(SwitchStmt switchStmt) {
+        print("switch(");
+        emitExpression(switchStmt.getSelector());
+        println(") {");
+        indent();
+        for (SwitchEntry entry : switchStmt.getEntries()) {
+            String separator = entry.getType() == SwitchEntry.Type.STATEMENT_GROUP ? ":" : " ->";
+            if (entry.getLabels().isEmpty()) {
+                print("default" + separator);
+            } else {
+                print("case ");
+                emitSeparated(entry.getLabels().iterator());
+                print(separator);
+            }
+            println();
+            indent();
+            for (Statement s : entry.getStatements()) {
+                emitStatement(s);
+                println();
+            }
+            unindent();
+        }
+        unindent();
+        print("}");
+    }
+
+    /**
+     * 输出表达式
+     * 运算符链用显式栈展开，很长的字符串拼接或嵌套很深的括号不会耗尽调用栈
+     */
+    private void emitExpression(Expression root) {
+        // 栈中是待输出的表达式或原样输出的文本
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object item = pending.pop();
+            if (item instanceof String) {
+                print((String) item);
+                continue;
+            }
+            Expression expr = (Expression) item;
+            if (expr instanceof BinaryExpr) {
+                BinaryExpr binary = (BinaryExpr) expr;
+                pending.push(binary.getRight());
+                pending.push(" " + binary.getOperator().asString() + " ");
+                pending.push(binary.getLeft());
+            } else if (expr instanceof AssignExpr) {
+                AssignExpr assign = (AssignExpr) expr;
+                pending.push(assign.getValue());
+                pending.push(" " + assign.getOperator().asString() + " ");
+                pending.push(assign.getTarget());
+            } else if (expr instanceof UnaryExpr) {
+                UnaryExpr unary = (UnaryExpr) expr;
+                if (unary.isPostfix()) {
+                    pending.push(unary.getOperator().asString());
+                }
+                pending.push(unary.getExpression());
+                if (unary.isPrefix()) {
+                    print(unary.getOperator().asString());
+                }
+            } else if (expr instanceof FieldAccessExpr) {
+                FieldAccessExpr fieldAccess = (FieldAccessExpr) expr;
+                pending.push("." + fieldAccess.getNameAsString());
+                pending.push(fieldAccess.getScope());
+            } else if (expr instanceof ArrayAccessExpr) {
+                ArrayAccessExpr arrayAccess = (ArrayAccessExpr) expr;
+                pending.push("]");
+                pending.push(arrayAccess.getIndex());
+                pending.push("[");
+                pending.push(arrayAccess.getName());
+            } else if (expr instanceof EnclosedExpr) {
+                pending.push(")");
+                pending.push(((EnclosedExpr) expr).getInner());
+                pending.push("(");
+            } else if (expr instanceof ConditionalExpr) {
+                ConditionalExpr conditional = (ConditionalExpr) expr;
+                pending.push(conditional.getElseExpr());
+                pending.push(" : ");
+                pending.push(conditional.getThenExpr());
+                pending.push(" ? ");
+                pending.push(conditional.getCondition());
+            } else {
+                emitSimpleExpression(expr);
+            }
+        }
+    }
+
+    /**
+     * 输出运算符链以外的表达式
+     */
+    private void emitSimpleExpression(Expression expr) {
+        if (expr instanceof NameExpr) {
+            print(((NameExpr) expr).getNameAsString());
+        } else if (expr instanceof StringLiteralExpr) {
+            print("\"").print(((StringLiteralExpr) expr).getValue()).print("\"");
+        } else if (expr instanceof IntegerLiteralExpr || expr instanceof LongLiteralExpr
+                   || expr instanceof DoubleLiteralExpr) {
+            print(((LiteralStringValueExpr) expr).getValue());
+        } else if (expr instanceof BooleanLiteralExpr) {
+            print(String.valueOf(((BooleanLiteralExpr) expr).getValue()));
+        } else if (expr instanceof NullLiteralExpr) {
+            print("null");
+        } else if (expr instanceof MethodCallExpr) {
+            MethodCallExpr call = (MethodCallExpr) expr;
+            if (call.getScope().isPresent()) {
+                emitExpression(call.getScope().get());
+                print(".");
+            }
+            print(call.getNameAsString());
+            print("(");
+            emitSeparated(call.getArguments().iterator());
+            print(")");
+        } else if (expr instanceof VariableDeclarationExpr) {
+            emitVariableDeclaration((VariableDeclarationExpr) expr);
+        } else {
+            // 其他表达式类型很少出现，退回JavaParser的默认打印
+            print(expr.toString());
+        }
+    }
+
+    /**
+     * 输出变量声明表达式
+     */
+    private void emitVariableDeclaration(VariableDeclarationExpr varDecl) {
+        for (Modifier modifier : varDecl.getModifiers()) {
+            print(modifier.getKeyword().asString()).print(" ");
+        }
+        if (!varDecl.getVariables().isEmpty()) {
+            varDecl.getMaximumCommonType().ifPresent(type -> print(type.asString()));
+        }
+        print(" ");
+        Iterator<VariableDeclarator> variables = varDecl.getVariables().iterator();
+        while (variables.hasNext()) {
+            VariableDeclarator var = variables.next();
+            print(var.getNameAsString());
+            if (var.getInitializer().isPresent()) {
+                print(" = ");
+                emitExpression(var.getInitializer().get());
+            }
+            if (variables.hasNext()) {
+                print(", ");
+            }
+        }
+    }
+
+    /**
+     * 输出以逗号分隔的表达式列表
+     */
+    private void emitSeparated(Iterator<? extends Expression> expressions) {
+        while (expressions.hasNext()) {
+            emitExpression(expressions.next());
+            if (expressions.hasNext()) {
+                print(", ");
+            }
+        }
+    }
+}
@@ -24,9 +24,12 @@ import org.mozilla.javascript.ast.AstNode;
 import org.mozilla.javascript.ast.AstRoot;
 import org.mozilla.javascript.ast.FunctionNode;
 import org.mozilla.javascript.ast.VariableDeclaration;
+import org.mozilla.javascript.ast.VariableInitializer;
 import org.mozilla.javascript.ast.ExpressionStatement;
 import org.mozilla.javascript.ast.Block;
 import org.mozilla.javascript.Parser;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.RhinoException;
 import org.mozilla.javascript.CompilerEnvirons;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.stmt.ForStmt;
@@ -42,14 +45,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 /**
  * JavaScript到Java转换器
@@ -57,183 +64,431 @@ import java.util.Collections;
  */
 public class JavaScriptToJavaConverter {
 
-    private ClassOrInterfaceDeclaration mainClass;
-    private final JSParser parser;
-    private final JSFunctionProcessor functionProcessor;
-    private final JSObjectProcessor objectProcessor;
-    private final JSExpressionProcessor expressionProcessor;
-    private final JSStatementProcessor statementProcessor;
-    private final JSControlFlowProcessor controlFlowProcessor;
+    /** 生成代码的默认包名 */
+    public static final String DEFAULT_PACKAGE = "js2j.generated";
+    
+    /** 解析失败的源码中括号嵌套超过这个深度时，在大栈线程上重试 */
+    private static final int DEEP_NESTING = 256;
+    
+    /** 生成的每个Java文件都需要的导入 */
+    private static final String[] REQUIRED_IMPORTS = {
+        // 基本Java包
+        "java.util.*",
+        "java.util.function.*",
+        // 集合类
+        "java.util.ArrayList",
+        "java.util.HashMap",
+        "java.util.List",
+        "java.util.Map",
+        "java.util.function.Function",
+        // 日期时间
+        "java.time.*",
+        // 数学相关
+        "java.math.*"
+    };
+    
+    private final JSParserFrontend parser;
     private final JSSourcePreprocessor sourcePreprocessor;
-    private final JSClassProcessor classProcessor;
+    private final JavaCodeFormatter formatter = new JavaCodeFormatter();
+    private volatile OptimizationLevel optimizationLevel = OptimizationLevel.O1;
+    private volatile StatementCache statementCache;
+    private volatile SymbolIndex symbolIndex;
+    private volatile ParallelJarCompiler jarCompiler;
+    private volatile RemoteCache remoteCache;
+    private volatile AstSnapshotCache astCache;
+    private volatile SharedFunctions sharedFunctions;
+    private volatile boolean sourceMaps;
+    private volatile JfrInstrumentation jfrInstrumentation;
     
     /**
-     * 构造函数
+     * 构造函数，使用Rhino解析器
      */
     public JavaScriptToJavaConverter() {
-        this.parser = new JSParser();
-        this.objectProcessor = new JSObjectProcessor();
-        this.expressionProcessor = new JSExpressionProcessor(objectProcessor);
-        this.statementProcessor = new JSStatementProcessor(expressionProcessor, objectProcessor);
-        this.controlFlowProcessor = new JSControlFlowProcessor(expressionProcessor, statementProcessor);
-        this.functionProcessor = new JSFunctionProcessor(expressionProcessor, statementProcessor, controlFlowProcessor);
+        this(new JSParser());
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param parser 解析器前端
+     */
+    public JavaScriptToJavaConverter(JSParserFrontend parser) {
+        this.parser = parser;
         this.sourcePreprocessor = new JSSourcePreprocessor();
-        this.classProcessor = new JSClassProcessor(expressionProcessor, statementProcessor, functionProcessor);
+    }
+    
+    /**
+     * 设置优化级别，默认为 -O1
+     */
+    public void setOptimizationLevel(OptimizationLevel optimizationLevel) {
+        this.optimizationLevel = optimizationLevel;
+    }
+    
+    public OptimizationLevel getOptimizationLevel() {
+        return optimizationLevel;
+    }
+    
+    /**
+     * 设置顶层语句的转换结果缓存，为null时不缓存（默认）
+     * -O2的类型推断依赖整个文件，此时不使用缓存
+     */
+    public void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+    
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+    
+    /**
+     * 设置符号索引，每转换一个文件就用其顶层声明更新索引，为null时不记录（默认）
+     */
+    public void setSymbolIndex(SymbolIndex symbolIndex) {
+        this.symbolIndex = symbolIndex;
+    }
+    
+    public SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+    
+    /**
+     * 设置编译阶段，convertFile生成的编译单元同时交给它在转换结束后编译打包，为null时不编译（默认）
+     */
+    public void setJarCompiler(ParallelJarCompiler jarCompiler) {
+        this.jarCompiler = jarCompiler;
+    }
+    
+    public ParallelJarCompiler getJarCompiler() {
+        return jarCompiler;
+    }
+    
+    /**
+     * 设置远程转换缓存，每个文件转换前先按源码和选项查找，为null时不使用（默认）
+     * 命中时不会解析文件，因此设置了符号索引时不使用远程缓存
+     */
+    public void setRemoteCache(RemoteCache remoteCache) {
+        this.remoteCache = remoteCache;
+    }
+    
+    public RemoteCache getRemoteCache() {
+        return remoteCache;
+    }
+    
+    /**
+     * 设置AST快照缓存，解析整个文件前先按预处理后的源码查找快照，命中时不再解析，为null时不使用（默认）
+     * 分块处理时仍然逐块解析
+     */
+    public void setAstCache(AstSnapshotCache astCache) {
+        this.astCache = astCache;
+    }
+    
+    public AstSnapshotCache getAstCache() {
+        return astCache;
+    }
+    
+    /**
+     * 设置跨文件的函数去重，为null时不去重（默认）
+     * 转换前需要先用scanSharedFunctions扫描所有文件。生成的代码依赖整次运行，此时不使用语句缓存和远程缓存
+     */
+    public void setSharedFunctions(SharedFunctions sharedFunctions) {
+        this.sharedFunctions = sharedFunctions;
+    }
+    
+    public SharedFunctions getSharedFunctions() {
+        return sharedFunctions;
+    }
+    
+    /**
+     * 设置是否为每个编译单元生成到JavaScript源码的行映射（默认不生成），见GeneratedUnit.getSourceMap
+     * 行映射依赖原始源码的行号，此时不使用语句缓存和远程缓存
+     */
+    public void setSourceMaps(boolean sourceMaps) {
+        this.sourceMaps = sourceMaps;
+    }
+    
+    public boolean isSourceMaps() {
+        return sourceMaps;
+    }
+    
+    /**
+     * 设置生成代码中的JFR插桩，为null时不插桩（默认）
+     * 插桩的代码引用JfrInstrumentation.createUnit生成的类，需要与它一起编译。
+     * 事件中的源码位置与文件有关，此时不使用语句缓存和远程缓存
+     */
+    public void setJfrInstrumentation(JfrInstrumentation jfrInstrumentation) {
+        this.jfrInstrumentation = jfrInstrumentation;
+    }
+    
+    public JfrInstrumentation getJfrInstrumentation() {
+        return jfrInstrumentation;
+    }
+    
+    /**
+     * 去重的第一遍：解析文件并记录其中模块级函数的规范化AST哈希，未设置函数去重时什么也不做
+     * 无法整体解析的文件与转换时一样分块解析，仍然无法解析的块被忽略
+     * 
+     * @param source JavaScript源码
+     * @param fileName 源文件名
+     */
+    public void scanSharedFunctions(CharSequence source, String fileName) {
+        if (sharedFunctions != null) {
+            new Conversion(fileName).scan(source.toString());
+        }
+    }
+    
+    /**
+     * 组装共享类，在所有文件转换完成后调用
+     * 
+     * @return 共享类的编译单元，没有共享方法时返回null
+     */
+    public GeneratedUnit assembleSharedFunctions() {
+        SharedFunctions shared = sharedFunctions;
+        if (shared == null || shared.getSharedCount() == 0) {
+            return null;
+        }
+        StringBuilder members = new StringBuilder();
+        JavaCodeEmitter membersEmitter = new JavaCodeEmitter(members);
+        for (String method : shared.getMethods()) {
+            membersEmitter.beginBlock().print(method);
+        }
+        
+        StringBuilder code = new StringBuilder();
+        JavaCodeEmitter emitter = new JavaCodeEmitter(code);
+        emitHeader(shared.getPackageName(), emitter);
+        emitter.println("public class " + shared.getClassName() + " {").indent();
+        emitter.println().printLines(optimizationLevel == OptimizationLevel.O0 ? members : formatter.format(members.toString()));
+        emitter.unindent().println("}");
+        return new GeneratedUnit(shared.getPackageName(), shared.getClassName(), code.toString());
+    }
+    
+    /**
+     * 将JavaScript文件转换为Java文件，生成的类位于默认包中
+     * 
+     * @param inputFile JavaScript文件
+     * @param outputDir 输出目录
+     * @return 是否转换成功
+     * @throws IOException 如果文件读写出错
+     */
+    public boolean convertFile(File inputFile, File outputDir) throws IOException {
+        return convertFile(inputFile, outputDir, DEFAULT_PACKAGE);
     }
     
     /**
      * 将JavaScript文件转换为Java文件
+     * 模块级的函数、变量和语句生成一个以文件名命名的类，
+     * 每个JavaScript类（构造函数及其原型方法）各生成一个独立的类
      * 
      * @param inputFile JavaScript文件
      * @param outputDir 输出目录
+     * @param packageName 生成的类所在的包
+     * @return 是否转换成功，出错时错误已打印到标准错误
      * @throws IOException 如果文件读写出错
      */
-    public void convertFile(File inputFile, File outputDir) throws IOException {
+    public boolean convertFile(File inputFile, File outputDir, String packageName) throws IOException {
         try {
             // 从文件读取JavaScript代码
             String source = new String(Files.readAllBytes(inputFile.toPath()));
             
-            // 预处理源代码
-            source = sourcePreprocessor.preProcessSource(source);
-            
-            // 解析JavaScript代码
-            List<String> javaCodeBlocks = parseAndConvert(source, inputFile.getName());
+            List<GeneratedUnit> units = convert(source, inputFile.getName(), packageName);
+            ParallelJarCompiler compiler = jarCompiler;
+            if (compiler != null) {
+                compiler.add(inputFile.toPath(), units);
+            }
             
             // 确保输出目录存在
             if (!outputDir.exists()) {
                 outputDir.mkdirs();
             }
             
-            // 写入Java文件
-            if (javaCodeBlocks.isEmpty()) {
-                System.err.println("警告: 没有生成任何Java代码");
-                // 创建一个包含错误信息的Java文件
-                javaCodeBlocks.add("// 转换过程中发生错误");
-            }
-            
-            // 将代码块合并为一个文件
-            String javaCode = String.join("\n\n", javaCodeBlocks);
-            
-            // 格式化生成的Java代码
-            javaCode = formatJavaCode(javaCode);
-            
-            String fileName = inputFile.getName().replace(".js", ".java");
-            String filePath = outputDir.getAbsolutePath() + File.separator + fileName;
-            
-            try (FileWriter writer = new FileWriter(filePath)) {
-                writer.write(javaCode);
-                System.out.println("生成Java文件: " + filePath);
-            } catch (IOException e) {
-                System.err.println("写入文件时发生错误: " + e.getMessage());
+            // 每个编译单元写入一个Java文件
+            boolean success = true;
+            for (GeneratedUnit unit : units) {
+                String filePath = outputDir.getAbsolutePath() + File.separator + unit.getFileName();
+                
+                try (FileWriter writer = new FileWriter(filePath)) {
+                    writer.write(unit.getCode());
+                    JSLogger.info("生成Java文件: " + filePath);
+                } catch (IOException e) {
+                    JSLogger.fileError(filePath, "write", 0, e.getMessage());
+                    success = false;
+                }
+                if (unit.getSourceMap() != null) {
+                    String mapPath = outputDir.getAbsolutePath() + File.separator + unit.getClassName() + ".smap";
+                    try (FileWriter writer = new FileWriter(mapPath)) {
+                        writer.write(unit.getSourceMap().toSmap());
+                    } catch (IOException e) {
+                        JSLogger.fileError(mapPath, "write", 0, e.getMessage());
+                        success = false;
+                    }
+                }
             }
+            return success;
         } catch (Exception e) {
-            System.err.println("转换过程中发生错误:");
-            e.printStackTrace();
+            JSLogger.fileError(inputFile.getPath(), "convert", 0, String.valueOf(e));
+            JSLogger.error("转换过程中发生错误:", e);
+            return false;
         }
     }
     
     /**
-     * 解析JavaScript源码并转换为Java代码块
+     * 将JavaScript源码转换为Java编译单元
+     * 转换器只保存配置，每次调用使用各自的处理器和中间结果，可以被多个线程同时调用
+     * 
+     * @param source JavaScript源码
+     * @param fileName 源文件名，用于生成模块类名和错误信息
+     * @param packageName 生成的类所在的包，空字符串表示默认包
+     * @return 模块类在前，其后是各个JavaScript类
+     */
+    public List<GeneratedUnit> convert(CharSequence source, String fileName, String packageName) {
+        List<GeneratedUnit> units = new ArrayList<>();
+        convert(source, fileName, packageName, units::add);
+        return units;
+    }
+    
+    /**
+     * 读取并转换JavaScript源码，Reader由调用方关闭
+     * 
+     * @throws IOException 如果读取出错
+     * @see #convert(CharSequence, String, String)
+     */
+    public List<GeneratedUnit> convert(Reader source, String fileName, String packageName) throws IOException {
+        return convert(readFully(source), fileName, packageName);
+    }
+    
+    /**
+     * 读取并转换JavaScript源码，每组装好一个编译单元就交给sink
+     * 
+     * @throws IOException 如果读取出错
+     * @see #convert(CharSequence, String, String, Consumer)
      */
-    private List<String> parseAndConvert(String source, String fileName) {
-        List<String> javaCodeBlocks = new ArrayList<>();
+    public void convert(Reader source, String fileName, String packageName, Consumer<GeneratedUnit> sink)
+            throws IOException {
+        convert(readFully(source), fileName, packageName, sink);
+    }
+    
+    /**
+     * 转换JavaScript源码，每组装好一个编译单元就交给sink，模块类最先交付，
+     * 不必等整个文件的所有类都生成后再处理。sink在调用线程上执行
+     * 
+     * @param source JavaScript源码
+     * @param fileName 源文件名，用于生成模块类名和错误信息
+     * @param packageName 生成的类所在的包，空字符串表示默认包
+     * @param sink 接收编译单元
+     */
+    public void convert(CharSequence source, String fileName, String packageName, Consumer<GeneratedUnit> sink) {
+        String text = source.toString();
+        RemoteCache remote = remoteCache;
+        if (remote == null || symbolIndex != null || sharedFunctions != null || sourceMaps
+            || jfrInstrumentation != null) {
+            convertUncached(text, fileName, packageName, sink);
+            return;
+        }
         
+        String key = remote.key(parser.getName() + " " + optimizationLevel, packageName, fileName, text);
+        List<GeneratedUnit> cached = remote.get(key);
+        if (cached != null) {
+            cached.forEach(sink);
+            return;
+        }
+        List<GeneratedUnit> units = new ArrayList<>();
+        boolean whole = convertUncached(text, fileName, packageName, unit -> {
+            units.add(unit);
+            sink.accept(unit);
+        });
+        // 退回逐块处理的结果伴随着文件错误，命中时不会重放这些错误，所以不上传
+        if (whole) {
+            remote.put(key, units);
+        }
+    }
+    
+    /**
+     * 不经过远程缓存转换JavaScript源码，嵌套过深时在大栈线程上重试
+     *
+     * @return 是否整个文件一次转换成功，退回逐块处理时为false
+     */
+    private boolean convertUncached(String text, String fileName, String packageName, Consumer<GeneratedUnit> sink) {
+        // 记录已交付的单元数，在大栈线程上重试时不重复交付
+        int[] delivered = new int[1];
         try {
-            // 先尝试解析整个文件
-            AstRoot root = parser.parse(source, fileName);
-            javaCodeBlocks = convertAstToJavaBlocks(root);
-        } catch (Exception e) {
-            System.err.println("解析整个文件时出错: " + e.getMessage());
-            System.out.println("尝试分块处理...");
-            
-            // 如果整个文件解析失败，尝试按函数或语句分块处理
-            javaCodeBlocks = processFileByBlocks(source);
+            Conversion conversion = new Conversion(fileName);
+            conversion.run(text, packageName, false, unit -> {
+                delivered[0]++;
+                sink.accept(unit);
+            });
+            return !conversion.degraded;
+        } catch (StackOverflowError | NestingTooDeepException e) {
+            // 嵌套过深时在大栈线程上重新转换，而不是退回逐块处理
+            JSLogger.debug(fileName + " 嵌套过深，在大栈线程上重新转换");
+            int skip = delivered[0];
+            List<GeneratedUnit> units = new ArrayList<>();
+            Conversion conversion = new Conversion(fileName);
+            try {
+                DeepStack.call("js2j-deep-stack", () -> {
+                    conversion.run(text, packageName, true, units::add);
+                    return null;
+                });
+            } catch (StackOverflowError deeper) {
+                throw new IllegalStateException(fileName + " 嵌套过深，超出了 " + (DeepStack.stackSize() >> 20)
+                                                + " MB 的栈，可以用 -D" + DeepStack.STACK_SIZE_PROPERTY + " 增大");
+            }
+            for (GeneratedUnit unit : units.subList(Math.min(skip, units.size()), units.size())) {
+                sink.accept(unit);
+            }
+            return !conversion.degraded;
         }
-        
-        return javaCodeBlocks;
+    }
+    
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, n);
+        }
+        return text.toString();
     }
     
     /**
-     * 将JavaScript AST转换为Java代码块列表
+     * 解析错误是否可能是Rhino因递归过深而报告的
+     * Rhino把解析时的栈溢出报告为普通的语法错误，所以按源码中括号的最大嵌套深度判断，
+     * 只在解析失败时计算；误判的代价只是在大栈线程上再解析一次
      */
-    private List<String> convertAstToJavaBlocks(AstRoot ast) {
-        List<String> result = new ArrayList<>();
-        // 创建一个临时类声明，用于处理需要ClassOrInterfaceDeclaration参数的方法
-        ClassOrInterfaceDeclaration tempClass = new ClassOrInterfaceDeclaration();
-        tempClass.setName("TempClass");
-        
-        // 处理所有语句
-        for (AstNode node : ast.getStatements()) {
-            if (node instanceof FunctionNode) {
-                // 处理函数定义
-                result.add(functionProcessor.processFunctionNode((FunctionNode) node));
-            } else if (node instanceof VariableDeclaration) {
-                // 处理变量声明
-                result.add(statementProcessor.processVariableDeclaration((VariableDeclaration) node));
-            } else if (node instanceof ExpressionStatement) {
-                // 处理表达式语句
-                result.add(expressionProcessor.processExpressionStatement((ExpressionStatement) node));
-            } else if (node instanceof org.mozilla.javascript.ast.IfStatement) {
-                // 处理if语句 - 使用临时类
-                // 创建一个临时BlockStmt用于捕获语句
-                BlockStmt tempBlock = new BlockStmt();
-                controlFlowProcessor.processIfStatementInBlock((org.mozilla.javascript.ast.IfStatement) node, tempBlock);
-                result.add(tempBlock.toString());
-            } else if (node instanceof org.mozilla.javascript.ast.ForLoop) {
-                // 处理for循环 - 使用临时BlockStmt
-                BlockStmt tempBlock = new BlockStmt();
-                controlFlowProcessor.processForLoop((org.mozilla.javascript.ast.ForLoop) node, tempBlock);
-                result.add(tempBlock.toString());
-            } else if (node instanceof org.mozilla.javascript.ast.WhileLoop) {
-                // 处理while循环 - 使用临时BlockStmt
-                BlockStmt tempBlock = new BlockStmt();
-                controlFlowProcessor.processWhileLoopInBlock((org.mozilla.javascript.ast.WhileLoop) node, tempBlock);
-                result.add(tempBlock.toString());
-            } else if (node instanceof org.mozilla.javascript.ast.SwitchStatement) {
-                // 处理switch语句 - 使用临时BlockStmt
-                BlockStmt tempBlock = new BlockStmt();
-                controlFlowProcessor.processSwitchStatementInBlock((org.mozilla.javascript.ast.SwitchStatement) node, tempBlock);
-                result.add(tempBlock.toString());
-            } else {
-                // 尝试作为类处理（由于Rhino可能不直接支持ES6类语法，我们试图解析其结构）
-                // 注意：这里简化处理，实际环境中可能需要更精确的类型检测
-                String nodeSource = node.toSource();
-                if (nodeSource.contains("class") && nodeSource.contains("{")) {
-                    result.add(classProcessor.processClass(node));
+    private static boolean isTooDeep(Exception e, String source) {
+        if (!(e instanceof EvaluatorException)) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '(' || c == '[' || c == '{') {
+                if (++depth > DEEP_NESTING) {
+                    return true;
                 }
+            } else if ((c == ')' || c == ']' || c == '}') && depth > 0) {
+                depth--;
             }
         }
-        
-        return result;
+        return false;
     }
     
     /**
-     * 按块处理JavaScript文件，用于处理无法整体解析的文件
+     * 解析错误的行号，未知时为0
      */
-    private List<String> processFileByBlocks(String source) {
-        List<String> results = new ArrayList<>();
-        
-        // 分割源码为可能的逻辑块
-        List<String> blocks = sourcePreprocessor.splitIntoBlocks(source);
-        
-        // 处理每个代码块
-        for (String block : blocks) {
-            System.out.println("处理代码块...");
-            
-            try {
-                // 尝试解析这个块
-                AstRoot blockRoot = parser.parse(block);
-                
-                // 处理这个块中的语句
-                results.addAll(convertAstToJavaBlocks(blockRoot));
-            } catch (Exception e) {
-                System.err.println("处理代码块时出错: " + e.getMessage());
-                // 添加一条注释表示此块处理失败
-                results.add("// 无法处理的代码块");
-            }
+    private static int lineOf(Exception e) {
+        return e instanceof RhinoException ? ((RhinoException) e).lineNumber() : 0;
+    }
+    
+    /**
+     * 输出包声明和导入语句
+     */
+    private void emitHeader(String packageName, JavaCodeEmitter emitter) {
+        if (!packageName.isEmpty()) {
+            emitter.println("package " + packageName + ";").println();
         }
-        
-        return results;
+        for (String name : REQUIRED_IMPORTS) {
+            emitter.println("import " + name + ";");
+        }
+        emitter.println();
     }
     
     /**
@@ -268,13 +523,13 @@ public class JavaScriptToJavaConverter {
      */
     public CompilationUnit createCompilationUnit(String className) {
         CompilationUnit cu = new CompilationUnit();
-        cu.setPackageDeclaration("js2j.generated");
+        cu.setPackageDeclaration(DEFAULT_PACKAGE);
         
         // 添加必要的导入
         addRequiredImports(cu);
         
         // 创建主类
-        mainClass = cu.addClass(className);
+        ClassOrInterfaceDeclaration mainClass = cu.addClass(className);
         mainClass.addModifier(Modifier.Keyword.PUBLIC);
         
         // 创建main方法
@@ -290,670 +545,617 @@ public class JavaScriptToJavaConverter {
      * 添加Java类需要的导入语句
      */
     private void addRequiredImports(CompilationUnit cu) {
-        // 基本Java包
-        cu.addImport("java.util.*");
-        cu.addImport("java.util.function.*");
-        
-        // 集合类
-        cu.addImport("java.util.ArrayList");
-        cu.addImport("java.util.HashMap");
-        cu.addImport("java.util.List");
-        cu.addImport("java.util.Map");
-        cu.addImport("java.util.function.Function");
-        
-        // 日期时间
-        cu.addImport("java.time.*");
-        
-        // 数学相关
-        cu.addImport("java.math.*");
+        for (String name : REQUIRED_IMPORTS) {
+            cu.addImport(name);
+        }
     }
 
     /**
-     * 格式化Java代码
-     * 
-     * @param javaCode 原始Java代码
-     * @return 格式化后的代码
+     * 一次转换：开始时读取的配置和本次使用的处理器
+     * 每次调用各自创建，类型推断结果等中间状态不会在线程之间共享
      */
-    private String formatJavaCode(String javaCode) {
-        // 去除多余的空行
-        javaCode = removeExcessEmptyLines(javaCode);
-        
-        // 去除多余的嵌套大括号
-        javaCode = removeExcessBraces(javaCode);
-        
-        // 修复for循环的递增表达式问题
-        javaCode = fixForLoopExpressions(javaCode);
-        
-        // 修复HashMap的put语句格式
-        javaCode = fixHashMapPutStatements(javaCode);
-        
-        // 修复数组/集合声明问题
-        javaCode = fixArrayDeclarations(javaCode);
-        
-        // 修复if-else结构
-        javaCode = fixIfElseStructures(javaCode);
-        
-        // 修复函数返回语句问题
-        javaCode = fixFunctionReturnStatements(javaCode);
+    private final class Conversion {
+        
+        private final String fileName;
+        private final OptimizationLevel level = optimizationLevel;
+        private final SharedFunctions shared = sharedFunctions;
+        private final boolean mapped = sourceMaps;
+        private final JfrInstrumentation instrumentation = jfrInstrumentation;
+        /** 行映射和JFR插桩都需要原始源码中的行号 */
+        private final boolean positions = mapped || instrumentation != null;
+        /** -O2的类型推断依赖整个文件，去重的结果依赖整次运行，行映射和插桩依赖语句的位置，都不使用缓存 */
+        private final StatementCache cache =
+            level == OptimizationLevel.O2 || shared != null || positions ? null : statementCache;
+        private final SymbolIndex index = symbolIndex;
+        private final AstSnapshotCache snapshots = astCache;
+        private final JSObjectProcessor objectProcessor = new JSObjectProcessor();
+        private final JSExpressionProcessor expressionProcessor = new JSExpressionProcessor(objectProcessor);
+        private final JSStatementProcessor statementProcessor = new JSStatementProcessor(expressionProcessor, objectProcessor);
+        private final JSControlFlowProcessor controlFlowProcessor =
+            new JSControlFlowProcessor(expressionProcessor, statementProcessor);
+        private final JSFunctionProcessor functionProcessor =
+            new JSFunctionProcessor(expressionProcessor, statementProcessor, controlFlowProcessor);
+        private final JSClassProcessor classProcessor =
+            new JSClassProcessor(expressionProcessor, statementProcessor, functionProcessor);
+        /** 预处理后每一行对应的原始源码行号，没有预处理时为null */
+        private int[] originalLines;
+        /** 整个文件没有一次转换成功，退回了逐块处理 */
+        boolean degraded;
+        
+        Conversion(String fileName) {
+            this.fileName = fileName;
+            if (instrumentation != null) {
+                functionProcessor.setInstrumentation(instrumentation, fileName, this::originalLine);
+            }
+        }
         
-        // 修复缩进
-        javaCode = fixIndentation(javaCode);
+        /**
+         * 预处理、解析、转换并组装编译单元
+         */
+        void run(String source, String packageName, boolean deepStack, Consumer<GeneratedUnit> sink) {
+            // 预处理源代码，能直接解析ES6+语法的前端不需要预处理
+            if (parser.needsPreprocessing()) {
+                String original = source;
+                source = sourcePreprocessor.preProcessSource(source);
+                if (positions) {
+                    // 预处理是文本替换，不保留位置，按内容把改写后的行对应回原始的行
+                    originalLines = SourceMap.alignLines(original, source);
+                }
+            }
+            
+            // 解析JavaScript代码，转换结果按模块成员、模块语句和类分别写入
+            ModuleParts module = parseAndConvert(source, deepStack);
+            assembleUnits(module, packageName, sink);
+            if (index != null) {
+                indexSymbols(module, packageName);
+            }
+        }
         
-        return javaCode;
-    }
-
-    /**
-     * 去除多余的空行
-     */
-    private String removeExcessEmptyLines(String code) {
-        // 将连续两个以上的空行替换为两个空行
-        return code.replaceAll("\\n\\s*\\n\\s*\\n+", "\n\n");
-    }
-
-    /**
-     * 去除多余的大括号
-     */
-    private String removeExcessBraces(String code) {
-        // 首先去除嵌套的大括号
-        code = removeNestedBraces(code);
+        /**
+         * 去重的第一遍：预处理、解析，-O2时做与转换时相同的常量折叠，然后记录模块级函数
+         */
+        void scan(String source) {
+            if (parser.needsPreprocessing()) {
+                source = sourcePreprocessor.preProcessSource(source);
+            }
+            List<AstRoot> roots = new ArrayList<>();
+            try {
+                roots.add(parseFile(source));
+            } catch (Exception e) {
+                for (String block : sourcePreprocessor.splitIntoBlocks(source)) {
+                    try {
+                        roots.add(parser.parse(block, null));
+                    } catch (Exception blockError) {
+                        JSLogger.debug("去重扫描跳过 " + fileName + " 中无法解析的块");
+                    }
+                }
+            }
+            for (AstRoot root : roots) {
+                if (level == OptimizationLevel.O2) {
+                    new JSOptimizer().optimize(root);
+                }
+                for (AstNode node : root.getStatements()) {
+                    if (node instanceof FunctionNode && !classProcessor.isConstructorFunction((FunctionNode) node)) {
+                        String hash = SharedFunctions.hash((FunctionNode) node);
+                        if (hash != null) {
+                            shared.record(hash);
+                        }
+                    }
+                }
+            }
+        }
         
-        // 然后去除独立的大括号块（不包含控制语句的单独大括号块）
-        code = removeStandaloneBraces(code);
+        /**
+         * 预处理后的行号对应的原始源码行号
+         */
+        int originalLine(int line) {
+            return originalLines != null && line > 0 && line <= originalLines.length ? originalLines[line - 1] : line;
+        }
         
-        // 最后，去除循环或函数体内多余的大括号
-        code = removeRedundantBlockBraces(code);
+        /**
+         * 生成行映射时各部分的输出器跟踪每一行对应的JavaScript行号
+         */
+        ModuleParts newModuleParts() {
+            ModuleParts module = new ModuleParts();
+            if (mapped) {
+                module.members.trackSourceLines();
+                module.mainBody.trackSourceLines();
+            }
+            return module;
+        }
         
-        return code;
-    }
-
-    /**
-     * 去除循环或函数体内多余的大括号
-     */
-    private String removeRedundantBlockBraces(String code) {
-        // 匹配形如 for(...) { { 语句 } } 或 function(...) { { 语句 } } 的模式
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(for|while|if|function|method)\\s*\\([^\\)]*\\)\\s*\\{\\s*\\{([^\\{\\}]*)\\}\\s*\\}",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String keyword = matcher.group(1);
-            String content = matcher.group(2).trim();
-            
-            // 保持原始参数，而不是替换为(...)
-            String originalInput = matcher.group(0);
-            String params = originalInput.substring(keyword.length(), originalInput.indexOf("{")).trim();
-            
-            // 移除多余的大括号，保留一层
-            matcher.appendReplacement(sb, keyword + params + " {\n    " + content + "\n}");
+        /**
+         * 模块类名，与其中的某个类同名时加上后缀
+         */
+        String moduleClassName(ModuleParts module) {
+            String moduleClassName = generateClassName(fileName);
+            return module.classes.containsKey(moduleClassName) ? moduleClassName + "Module" : moduleClassName;
         }
-        matcher.appendTail(sb);
         
-        // 处理更一般情况下的多余大括号，比如循环和条件语句体内包含单独大括号的情况
-        String result = sb.toString();
+        /**
+         * 将收集到的模块成员、模块语句和类组装为编译单元，每组装好一个就交给sink
+         */
+        void assembleUnits(ModuleParts module, String packageName, Consumer<GeneratedUnit> sink) {
+            String moduleClassName = moduleClassName(module);
+            for (SharedFunctions.Copy copy : module.sharedCopies) {
+                shared.addCopy(copy);
+            }
         
-        // 匹配形如 { { 单行语句; } } 的模式，并移除多余的大括号
-        pattern = java.util.regex.Pattern.compile(
-            "\\{\\s*\\{\\s*([^\\{\\}]+;)\\s*\\}\\s*\\}",
-            java.util.regex.Pattern.DOTALL
-        );
-        matcher = pattern.matcher(result);
-        sb = new StringBuffer();
+            if (module.isEmpty()) {
+                JSLogger.warn("警告: " + fileName + " 没有生成任何Java代码");
+                // 创建一个包含错误信息的模块类
+                module.members.beginBlock().print("// 转换过程中发生错误");
+            }
         
-        while (matcher.find()) {
-            String statement = matcher.group(1).trim();
-            matcher.appendReplacement(sb, "{\n    " + statement + "\n}");
-        }
-        matcher.appendTail(sb);
+            // 只包含类定义的文件不再额外生成空的模块类
+            if (module.members.getBlockCount() > 0 || module.mainBody.getBlockCount() > 0 || module.classes.isEmpty()) {
+                sink.accept(assembleModuleClass(packageName, moduleClassName, module));
+            }
         
-        return sb.toString();
-    }
+            for (Map.Entry<String, ClassParts> entry : module.classes.entrySet()) {
+                sink.accept(assembleClass(packageName, entry.getKey(), entry.getValue()));
+            }
+        }
 
-    /**
-     * 去除嵌套的大括号
-     */
-    private String removeNestedBraces(String code) {
-        // 寻找并删除多余的大括号块, 特别是嵌套的块
-        // 例如: { { System.out.println("Hello"); } } 变为 { System.out.println("Hello"); }
-        
-        // 匹配模式：找到形如 { { 语句 } } 的嵌套块
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "\\{\\s*\\{\\s*([^\\{\\}]*)\\s*\\}\\s*\\}", java.util.regex.Pattern.DOTALL);
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            // 保留一层大括号
-            String innerContent = matcher.group(1).trim();
-            matcher.appendReplacement(sb, "{\n    " + innerContent + "\n}");
-        }
-        matcher.appendTail(sb);
-        
-        // 处理嵌套的问题，可能需要多次处理
-        String previousCode;
-        String newCode = sb.toString();
-        
-        do {
-            previousCode = newCode;
-            matcher = pattern.matcher(newCode);
-            sb = new StringBuffer();
+        /**
+         * 解析JavaScript源码并将转换得到的Java代码按所属的类分别收集
+         */
+        ModuleParts parseAndConvert(String source, boolean deepStack) {
+            ModuleParts module = newModuleParts();
+            try {
+                // 先尝试解析整个文件
+                AstRoot root = parseFile(source);
+                if (level == OptimizationLevel.O2) {
+                    optimize(root);
+                }
+                emitAst(root, module);
+            } catch (Exception e) {
+                if (!deepStack && isTooDeep(e, source)) {
+                    // Rhino在栈溢出时报告语法错误，交给调用方在大栈线程上重试
+                    throw new NestingTooDeepException();
+                }
+                // 记为文件错误，--error-log中能看到没有整体转换的文件
+                JSLogger.fileError(fileName, "convert", lineOf(e), "整个文件转换失败，已分块处理: " + e.getMessage());
             
-            while (matcher.find()) {
-                String innerContent = matcher.group(1).trim();
-                matcher.appendReplacement(sb, "{\n    " + innerContent + "\n}");
+                // 丢弃已经写入的部分结果，按函数或语句分块处理
+                degraded = true;
+                module = newModuleParts();
+                processFileByBlocks(source, module);
             }
-            
-            matcher.appendTail(sb);
-            newCode = sb.toString();
-        } while (!newCode.equals(previousCode));
-        
-        return newCode;
-    }
+            return module;
+        }
 
-    /**
-     * 去除独立的大括号块
-     */
-    private String removeStandaloneBraces(String code) {
-        // 匹配独立的大括号块，但不匹配if, for, while等控制语句后的大括号
-        // 例如匹配: {\n    if (condition) {...}\n}
-        // 但不匹配: if (condition) {...}
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(?<!(if|for|while|else)\\s*\\([^\\)]*\\)\\s*)\\{\\s*([^\\{].*?[^\\}])\\s*\\}",
-            java.util.regex.Pattern.DOTALL);
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            // 确认这不是控制语句的一部分
-            String beforeBrace = code.substring(0, matcher.start()).trim();
-            // 如果前面不是控制语句，去掉大括号
-            if (!beforeBrace.endsWith(")") && !beforeBrace.endsWith("else")) {
-                String content = matcher.group(2).trim();
-                matcher.appendReplacement(sb, content);
-            } else {
-                // 否则保留原样
-                matcher.appendReplacement(sb, matcher.group(0));
+        /**
+         * 解析整个文件，设置了AST快照缓存时先查找快照，未命中时解析后在优化修改AST之前保存快照
+         */
+        private AstRoot parseFile(String source) {
+            if (snapshots == null) {
+                return parser.parse(source, fileName);
+            }
+            String key = snapshots.key(parser.getName(), source);
+            AstRoot root = snapshots.load(key, fileName);
+            if (root == null) {
+                root = parser.parse(source, fileName);
+                snapshots.store(key, root);
             }
+            return root;
         }
-        matcher.appendTail(sb);
-        
-        return sb.toString();
-    }
 
-    /**
-     * 修复for循环的递增表达式问题
-     */
-    private String fixForLoopExpressions(String code) {
-        // 1. 修复表达式替换问题
-        code = fixMissingIncrement(code);
-        
-        // 2. 修复for循环中多余的括号
-        code = fixExtraParentheses(code);
-        
-        // 3. 修复未处理的赋值表达式
-        code = fixUnhandledAssignments(code);
-        
-        // 4. 修复参数类型问题
-        code = fixParameterTypes(code);
-        
-        return code;
-    }
+        /**
+         * -O2：折叠常量、删除死代码后对整个文件做类型推断，分块处理时不做这些分析
+         * 推断结果只交给本次转换的处理器
+         */
+        private void optimize(AstRoot root) {
+            new JSOptimizer().optimize(root);
+            JSTypeInference typeInference = new JSTypeInference();
+            typeInference.analyze(root);
+            functionProcessor.setTypeHints(typeInference);
+            statementProcessor.setTypeHints(typeInference);
+        }
 
-    /**
-     * 修复缺失的递增表达式
-     */
-    private String fixMissingIncrement(String code) {
-        // 匹配有问题的for循环递增表达式
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "for\\s*\\(([^;]+);([^;]+);\\s*\"(/\\*[^*]+\\*/)\""
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String initPart = matcher.group(1).trim();
-            String condPart = matcher.group(2).trim();
-            String errorComment = matcher.group(3).trim();
-            
-            // 从初始化部分提取变量名，用来构造递增表达式
-            String varName = "";
-            if (initPart.matches(".*?\\b(\\w+)\\s*=\\s*\\d+.*")) {
-                java.util.regex.Matcher varMatcher = java.util.regex.Pattern.compile("\\b(\\w+)\\s*=").matcher(initPart);
-                if (varMatcher.find()) {
-                    varName = varMatcher.group(1);
+        /**
+         * 将JavaScript AST转换为Java代码块，按所属的类分别写入
+         */
+        private void emitAst(AstRoot ast, ModuleParts module) {
+            String options = cache == null ? null : parser.getName() + " " + level;
+            // 处理所有语句
+            for (AstNode node : ast.getStatements()) {
+                module.members.sourceLine(node.getLineno());
+                module.mainBody.sourceLine(node.getLineno());
+                if (index != null && isIndexedDeclaration(node)) {
+                    module.declarations.add(node);
+                }
+                if (cache == null) {
+                    emitStatement(node, module);
+                } else {
+                    emitCachedStatement(node, module, options);
                 }
             }
-            
-            // 构造递增表达式，默认使用 i++
-            String incrementExpr = varName.isEmpty() ? "i++" : varName + "++";
-            
-            // 替换为正确的for循环
-            matcher.appendReplacement(sb, "for (" + initPart + ";" + condPart + "; " + incrementExpr + ")");
         }
-        matcher.appendTail(sb);
-        
-        return sb.toString();
-    }
 
-    /**
-     * 修复for循环中多余的括号
-     */
-    private String fixExtraParentheses(String code) {
-        // 修复多余的右括号 i++)
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("for\\s*\\([^;]+;[^;]+;\\s*[^\\)]+\\)\\)");
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String match = matcher.group(0);
-            // 去掉最后的多余括号
-            String fixed = match.substring(0, match.length() - 1);
-            matcher.appendReplacement(sb, fixed);
+        /**
+         * 是否是记入符号索引的模块级函数或变量声明，构造函数作为类记录
+         */
+        private boolean isIndexedDeclaration(AstNode node) {
+            return node instanceof VariableDeclaration
+                   || node instanceof FunctionNode && !classProcessor.isConstructorFunction((FunctionNode) node);
         }
-        matcher.appendTail(sb);
         
-        return sb.toString();
-    }
-
-    /**
-     * 修复未处理的赋值表达式
-     */
-    private String fixUnhandledAssignments(String code) {
-        // 1. 处理注释形式的未处理赋值
-        code = fixCommentedAssignments(code);
+        /**
+         * 用本次转换的模块级函数、变量和类更新符号索引，类型与生成的代码一致
+         */
+        private void indexSymbols(ModuleParts module, String packageName) {
+            String prefix = packageName.isEmpty() ? "" : packageName + ".";
+            String moduleName = prefix + moduleClassName(module);
+            List<SymbolIndex.Symbol> symbols = new ArrayList<>();
+            List<String> none = Collections.emptyList();
+            for (AstNode node : module.declarations) {
+                if (node instanceof FunctionNode) {
+                    FunctionNode function = (FunctionNode) node;
+                    String returnType = functionProcessor.returnType(function, function.getName(), function.getBody().toSource());
+                    symbols.add(functionSymbol(SymbolIndex.Kind.FUNCTION, moduleName + "." + function.getName(),
+                                               returnType, function, true));
+                } else {
+                    for (VariableInitializer init : ((VariableDeclaration) node).getVariables()) {
+                        if (init.getTarget() instanceof org.mozilla.javascript.ast.Name) {
+                            String name = ((org.mozilla.javascript.ast.Name) init.getTarget()).getIdentifier();
+                            symbols.add(new SymbolIndex.Symbol(SymbolIndex.Kind.VARIABLE, moduleName + "." + name, fileName,
+                                                               statementProcessor.variableType(init), none, none, none));
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<String, ClassParts> entry : module.classes.entrySet()) {
+                String className = prefix + entry.getKey();
+                FunctionNode constructor = entry.getValue().constructor;
+                List<String> fields = new ArrayList<>();
+                List<String> parameterNames = new ArrayList<>();
+                List<String> parameterTypes = new ArrayList<>();
+                if (constructor != null) {
+                    // 字段声明去掉修饰符和分号，如 private int x; 记为 int x
+                    for (String field : new LinkedHashSet<>(classProcessor.extractFieldsFromConstructor(constructor))) {
+                        fields.add(field.substring(field.indexOf(' ') + 1, field.length() - 1));
+                    }
+                    addParameters(constructor, false, parameterNames, parameterTypes);
+                }
+                symbols.add(new SymbolIndex.Symbol(SymbolIndex.Kind.CLASS, className, fileName, null,
+                                                   parameterNames, parameterTypes, fields));
+                for (Map.Entry<String, FunctionNode> method : entry.getValue().methods.entrySet()) {
+                    symbols.add(functionSymbol(SymbolIndex.Kind.METHOD, className + "." + method.getKey(),
+                                               classProcessor.inferReturnType(method.getValue()), method.getValue(), false));
+                }
+            }
+            try {
+                index.updateModule(moduleName, fileName, symbols);
+            } catch (IOException e) {
+                JSLogger.fileError(fileName, "index", 0, e.getMessage());
+            }
+        }
         
-        // 2. 处理空语句或不完整的赋值语句
-        code = fixEmptyAssignments(code);
+        private SymbolIndex.Symbol functionSymbol(SymbolIndex.Kind kind, String name, String returnType,
+                                                  FunctionNode function, boolean inferTypes) {
+            List<String> parameterNames = new ArrayList<>();
+            List<String> parameterTypes = new ArrayList<>();
+            addParameters(function, inferTypes, parameterNames, parameterTypes);
+            return new SymbolIndex.Symbol(kind, name, fileName, returnType, parameterNames, parameterTypes,
+                                          Collections.<String>emptyList());
+        }
         
-        return code;
-    }
-
-    /**
-     * 修复注释形式的未处理赋值
-     */
-    private String fixCommentedAssignments(String code) {
-        // 匹配未处理的赋值表达式 - 注释形式
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "\"(/\\*\\s*不支持的表达式类型:\\s*Assignment\\s*\\*/)\"|(/\\*\\s*处理赋值\\s*\\*/);"
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            // 查找附近的变量和可能的值
-            String context = code.substring(Math.max(0, matcher.start() - 100), 
-                                           Math.min(code.length(), matcher.start() + 100));
-            
-            // 在附近找到sum变量，处理典型的累加模式
-            if (context.contains("sum") || context.contains("total")) {
-                // 在for循环内部，最可能的是sum += i 或 sum += array[i]这样的操作
-                String replacement = "sum += i";
-                if (context.contains("numbers")) {
-                    replacement = "sum += numbers[i]";
+        /**
+         * 参数名和生成代码中的参数类型，类的构造函数和方法的参数都是Object
+         */
+        private void addParameters(FunctionNode function, boolean inferTypes, List<String> names, List<String> types) {
+            for (AstNode param : function.getParams()) {
+                if (param instanceof org.mozilla.javascript.ast.Name) {
+                    String name = ((org.mozilla.javascript.ast.Name) param).getIdentifier();
+                    names.add(name);
+                    types.add(inferTypes ? functionProcessor.parameterType(param, name) : "Object");
                 }
-                matcher.appendReplacement(sb, replacement);
-            } else if (context.contains("count") || context.contains("counter")) {
-                // 处理计数器
-                matcher.appendReplacement(sb, "count++");
-            } else {
-                // 默认的赋值处理 - 使用真实代码而不是注释
-                matcher.appendReplacement(sb, "// 需要添加赋值语句");
             }
         }
-        matcher.appendTail(sb);
         
-        return sb.toString();
-    }
+        /**
+         * 通过缓存转换一条顶层语句：命中时直接写入缓存的代码，
+         * 否则单独转换后写入并缓存，生成类的语句引用当前的AST，不缓存
+         */
+        private void emitCachedStatement(AstNode node, ModuleParts module, String options) {
+            String key = StatementCache.key(options, node.toSource());
+            StatementCache.Entry cached = cache.get(key);
+            if (cached != null) {
+                if (cached.getMembersCode() != null) {
+                    module.members.beginBlock().print(cached.getMembersCode());
+                }
+                if (cached.getMainBodyCode() != null) {
+                    module.mainBody.beginBlock().print(cached.getMainBodyCode());
+                }
+                return;
+            }
+        
+            ModuleParts statementParts = newModuleParts();
+            emitStatement(node, statementParts);
+            if (statementParts.classes.isEmpty()) {
+                cache.put(key, new StatementCache.Entry(
+                    statementParts.members.getBlockCount() > 0 ? statementParts.membersCode.toString() : null,
+                    statementParts.mainBody.getBlockCount() > 0 ? statementParts.mainBodyCode.toString() : null));
+            }
+            module.merge(statementParts);
+        }
 
-    /**
-     * 修复空或不完整的赋值语句
-     */
-    private String fixEmptyAssignments(String code) {
-        // 匹配空语句或不完整的赋值语句
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "for\\s*\\([^;]+;[^;]+;[^{]+\\)\\s*\\{\\s*([;\\s]*)\\}"
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            // 检查循环体是否为空或只有分号
-            String loopBody = matcher.group(1).trim();
-            if (loopBody.isEmpty() || loopBody.equals(";")) {
-                // 查找附近的上下文
-                String context = code.substring(Math.max(0, matcher.start() - 100), 
-                                              Math.min(code.length(), matcher.start() + 100));
-                
-                // 根据上下文决定添加什么样的循环体
-                if (context.contains("sum") || context.contains("total")) {
-                    if (context.contains("numbers")) {
-                        matcher.appendReplacement(sb, "for\\$1) {\n        sum += numbers[i];\n    }");
-                    } else {
-                        matcher.appendReplacement(sb, "for\\$1) {\n        sum += i;\n    }");
-                    }
+        /**
+         * 转换一条顶层语句，按所属的类分别写入
+         */
+        private void emitStatement(AstNode node, ModuleParts module) {
+            if (node instanceof FunctionNode) {
+                FunctionNode function = (FunctionNode) node;
+                if (classProcessor.isConstructorFunction(function)) {
+                    // 构造函数生成独立的类
+                    module.classParts(function.getName()).constructor = function;
+                } else if (shared == null || !emitSharedFunction(function, module)) {
+                    // 处理函数定义
+                    functionProcessor.emitFunctionNode(function, module.members.beginBlock().print("public static "));
+                }
+            } else if (node instanceof VariableDeclaration) {
+                // 模块级变量作为静态字段
+                statementProcessor.emitVariableDeclaration((VariableDeclaration) node, "public static ",
+                                                           module.members.beginBlock());
+            } else if (node instanceof ExpressionStatement) {
+                JSClassProcessor.PrototypeMethod method = classProcessor.matchPrototypeMethod((ExpressionStatement) node);
+                if (method != null) {
+                    // 原型方法归入对应的类
+                    module.classParts(method.getClassName()).methods.put(method.getMethodName(), method.getFunction());
                 } else {
-                    // 默认添加一个空的循环体，但添加注释说明
-                    matcher.appendReplacement(sb, "for\\$1) {\n        // 这里需要添加循环体\n    }");
+                    // 处理表达式语句
+                    expressionProcessor.emitExpressionStatement((ExpressionStatement) node, module.mainBody.beginBlock());
                 }
+            } else if (node instanceof org.mozilla.javascript.ast.IfStatement) {
+                // 处理if语句 - 创建一个临时BlockStmt用于捕获语句
+                BlockStmt tempBlock = new BlockStmt();
+                controlFlowProcessor.processIfStatementInBlock((org.mozilla.javascript.ast.IfStatement) node, tempBlock);
+                module.mainBody.beginBlock().emit(tempBlock);
+            } else if (node instanceof org.mozilla.javascript.ast.ForLoop) {
+                // 处理for循环 - 使用临时BlockStmt
+                BlockStmt tempBlock = new BlockStmt();
+                controlFlowProcessor.processForLoop((org.mozilla.javascript.ast.ForLoop) node, tempBlock);
+                module.mainBody.beginBlock().emit(tempBlock);
+            } else if (node instanceof org.mozilla.javascript.ast.WhileLoop) {
+                // 处理while循环 - 使用临时BlockStmt
+                BlockStmt tempBlock = new BlockStmt();
+                controlFlowProcessor.processWhileLoopInBlock((org.mozilla.javascript.ast.WhileLoop) node, tempBlock);
+                module.mainBody.beginBlock().emit(tempBlock);
+            } else if (node instanceof org.mozilla.javascript.ast.SwitchStatement) {
+                // 处理switch语句 - 使用临时BlockStmt
+                BlockStmt tempBlock = new BlockStmt();
+                controlFlowProcessor.processSwitchStatementInBlock((org.mozilla.javascript.ast.SwitchStatement) node, tempBlock);
+                module.mainBody.beginBlock().emit(tempBlock);
             } else {
-                // 保持原样
-                matcher.appendReplacement(sb, matcher.group(0));
+                // 尝试作为类处理（由于Rhino可能不直接支持ES6类语法，我们试图解析其结构）
+                // 注意：这里简化处理，实际环境中可能需要更精确的类型检测
+                String nodeSource = node.toSource();
+                if (nodeSource.contains("class") && nodeSource.contains("{")) {
+                    classProcessor.emitClass(node, module.members.beginBlock());
+                }
             }
         }
-        matcher.appendTail(sb);
-        
-        return sb.toString();
-    }
-
-    /**
-     * 修复参数类型问题
-     */
-    private String fixParameterTypes(String code) {
-        // 先修复numbers被当作集合的问题
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(int)\\s+(numbers)(.*?)(numbers\\.size\\(\\))",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            // 将int numbers改为int[] numbers，并将numbers.size()改为numbers.length
-            String type = matcher.group(1);
-            String name = matcher.group(2);
-            String middle = matcher.group(3);
-            String sizeCall = matcher.group(4);
-            
-            matcher.appendReplacement(sb, type + "[] " + name + middle + name + ".length");
-        }
-        matcher.appendTail(sb);
-        
-        return sb.toString();
-    }
 
-    /**
-     * 修复缩进
-     */
-    private String fixIndentation(String code) {
-        String[] lines = code.split("\\n");
-        StringBuilder result = new StringBuilder();
-        int indentLevel = 0;
-        
-        for (String line : lines) {
-            // 去除前导空格
-            String trimmedLine = line.trim();
-            
-            // 如果是右大括号，减少缩进级别
-            if (trimmedLine.startsWith("}")) {
-                indentLevel = Math.max(0, indentLevel - 1);
+        /**
+         * 扫描时见过多次的函数：方法体放入共享类，这里只写入委托方法
+         * 
+         * @return 是否已写入，函数不需要去重时返回false
+         */
+        private boolean emitSharedFunction(FunctionNode function, ModuleParts module) {
+            String hash = SharedFunctions.hash(function);
+            if (hash == null || !shared.isDuplicated(hash)) {
+                return false;
             }
-            
-            // 添加当前缩进级别的空格
-            if (!trimmedLine.isEmpty()) {
-                for (int i = 0; i < indentLevel; i++) {
-                    result.append("    "); // 4个空格作为一个缩进级别
-                }
-                result.append(trimmedLine).append("\n");
-            } else {
-                // 保留空行
-                result.append("\n");
+            StringBuilder code = new StringBuilder();
+            JavaCodeEmitter codeEmitter = new JavaCodeEmitter(code);
+            if (mapped) {
+                codeEmitter.trackSourceLines().sourceLine(function.getLineno());
             }
-            
-            // 如果是左大括号，增加缩进级别
-            if (trimmedLine.endsWith("{")) {
-                indentLevel++;
+            functionProcessor.emitFunctionNode(function, codeEmitter);
+            String name = function.getName();
+            String returnType = functionProcessor.returnType(function, name, function.getBody().toSource());
+            List<String> parameterNames = new ArrayList<>();
+            addParameters(function, true, parameterNames, new ArrayList<>());
+            SharedFunctions.Copy copy = shared.share(hash, name, returnType, parameterNames, code.toString());
+            if (copy != null) {
+                module.sharedCopies.add(copy);
+            }
+            module.members.beginBlock().print("public static ");
+            if (copy != null) {
+                module.members.print(copy.getDelegate());
+            } else {
+                module.members.print(code, codeEmitter.getSourceLines());
             }
+            return true;
         }
-        
-        return result.toString();
-    }
 
-    /**
-     * 修复HashMap的put语句格式
-     */
-    private String fixHashMapPutStatements(String code) {
-        // 修复类型推断：将Object person = new HashMap<...>改为Map<String, Object> person
-        java.util.regex.Pattern typePattern = java.util.regex.Pattern.compile(
-            "(\\bObject\\b)\\s+(\\w+)\\s*=\\s*new\\s+HashMap<String,\\s*Object>\\(\\)",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher typeMatcher = typePattern.matcher(code);
-        StringBuffer typeSb = new StringBuffer();
-        
-        while (typeMatcher.find()) {
-            String varName = typeMatcher.group(2);
-            // 替换为更精确的类型
-            typeMatcher.appendReplacement(typeSb, "Map<String, Object> " + varName + " = new HashMap<String, Object>()");
-        }
-        typeMatcher.appendTail(typeSb);
-        code = typeSb.toString();
-        
-        // 查找HashMap创建表达式中的put语句
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "new\\s+HashMap<[^>]+>\\(\\)\\s*\\{\\{(.*?)\\}\\}",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String mapContent = matcher.group(1);
+        /**
+         * 按块处理JavaScript文件，用于处理无法整体解析的文件
+         */
+        private void processFileByBlocks(String source, ModuleParts module) {
+            // 分割源码为可能的逻辑块
+            List<String> blocks = sourcePreprocessor.splitIntoBlocks(source);
+            // 当前块之前的行数，需要原始位置时块中的行号加上它
+            int blockLine = 0;
+        
+            // 处理每个代码块
+            for (String block : blocks) {
+                int offset = blockLine;
+                for (int i = 0; i < block.length(); i++) {
+                    if (block.charAt(i) == '\n') {
+                        blockLine++;
+                    }
+                }
+                JSLogger.debug("处理代码块...");
             
-            // 查找所有的put语句
-            java.util.regex.Pattern putPattern = java.util.regex.Pattern.compile(
-                "put\\(\"([^\"]+)\",\\s*(.*?)\\);",
-                java.util.regex.Pattern.DOTALL
-            );
-            java.util.regex.Matcher putMatcher = putPattern.matcher(mapContent);
+                // 块的转换结果先写入独立的缓冲区，失败时不会留下不完整的代码
+                ModuleParts blockParts = newModuleParts();
+                try {
+                    // 尝试解析这个块并处理其中的语句
+                    AstRoot blockRoot = parser.parse(block, null);
+                    if (positions && offset > 0) {
+                        blockRoot.visit(node -> {
+                            if (node.getLineno() > 0) {
+                                node.setLineno(node.getLineno() + offset);
+                            }
+                            return true;
+                        });
+                    }
+                    emitAst(blockRoot, blockParts);
+                } catch (Exception e) {
+                    JSLogger.fileError(fileName, "block", lineOf(e), e.getMessage());
+                    // 添加一条注释表示此块处理失败
+                    module.members.beginBlock().print("// 无法处理的代码块");
+                    continue;
+                }
             
-            StringBuilder formattedPuts = new StringBuilder();
-            while (putMatcher.find()) {
-                String key = putMatcher.group(1);
-                String value = putMatcher.group(2).trim();
-                
-                // 格式化put语句，确保合适的缩进
-                formattedPuts.append("\n    put(\"").append(key).append("\", ").append(value).append(");");
+                module.merge(blockParts);
             }
-            
-            // 替换整个HashMap创建表达式
-            matcher.appendReplacement(sb, "new HashMap<String, Object>() {{" + formattedPuts + "\n}}");
-        }
-        matcher.appendTail(sb);
-        
-        // 修复函数属性定义中的大括号问题
-        pattern = java.util.regex.Pattern.compile(
-            "(Function<Object\\[\\], Object>)\\s*\\(args\\)\\s*->\\s*\\{([^{}]*)(return[^;]*;)([^{}]*)\\}(\\);)",
-            java.util.regex.Pattern.DOTALL
-        );
-        matcher = pattern.matcher(sb.toString());
-        StringBuffer sb2 = new StringBuffer();
-        
-        while (matcher.find()) {
-            String functionType = matcher.group(1);
-            String beforeReturn = matcher.group(2);
-            String returnStmt = matcher.group(3);
-            String afterReturn = matcher.group(4);
-            String closing = matcher.group(5);
-            
-            // 格式化lambda函数体
-            String formattedFunction = functionType + " (args) -> {\n" +
-                                      "    " + beforeReturn.trim().replace("\n", "\n    ") + "\n" +
-                                      "    " + returnStmt.trim() + "\n" +
-                                      (afterReturn.trim().isEmpty() ? "" : "    " + afterReturn.trim() + "\n") +
-                                      "}" + closing;
-            
-            matcher.appendReplacement(sb2, formattedFunction);
         }
-        matcher.appendTail(sb2);
-        
-        return sb2.toString();
-    }
 
-    /**
-     * 修复数组和集合声明的类型问题
-     */
-    private String fixArrayDeclarations(String code) {
-        // 1. 修复 int = Arrays.asList(...) 的问题
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(\\bint\\b)\\s+(\\w+)\\s*=\\s*Arrays\\.asList\\(([^\\)]+)\\);",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String type = matcher.group(1);  // int
-            String varName = matcher.group(2);  // 变量名
-            String elements = matcher.group(3);  // 数组元素
-            
-            // 根据上下文选择正确的类型和声明方式
-            boolean hasNonIntElements = false;
-            // 检查是否包含非整数元素
-            for (String element : elements.split(",")) {
-                try {
-                    Integer.parseInt(element.trim());
-                } catch (NumberFormatException e) {
-                    hasNonIntElements = true;
-                    break;
-                }
+        /**
+         * 组装模块类：模块级函数和变量作为静态成员，其余顶层语句放入main方法
+         */
+        private GeneratedUnit assembleModuleClass(String packageName, String className, ModuleParts module) {
+            StringBuilder code = new StringBuilder();
+            JavaCodeEmitter emitter = newEmitter(code);
+            emitHeader(packageName, emitter);
+        
+            emitter.println("public class " + className + " {").indent();
+            if (module.members.getBlockCount() > 0) {
+                printFormatted(module.membersCode, module.members, emitter.println());
             }
-            
-            if (hasNonIntElements) {
-                // 如果有非整数元素，使用List<Object>
-                matcher.appendReplacement(sb, "List<Object> " + varName + " = Arrays.asList(" + elements + ");");
-            } else {
-                // 如果都是整数，使用int[]
-                matcher.appendReplacement(sb, "int[] " + varName + " = {" + elements + "};");
+            if (module.mainBody.getBlockCount() > 0) {
+                emitter.println();
+                emitter.println("public static void main(String[] args) {").indent();
+                printFormatted(module.mainBodyCode, module.mainBody, emitter);
+                emitter.unindent().println("}");
             }
+            emitter.unindent().println("}");
+            return unit(packageName, className, code, emitter);
         }
-        matcher.appendTail(sb);
-        
-        // 2. 修复其他集合类型问题
-        pattern = java.util.regex.Pattern.compile(
-            "(\\b(?:byte|short|int|long|float|double|char|boolean)\\b)\\s+(\\w+)\\s*=\\s*new\\s+ArrayList",
-            java.util.regex.Pattern.DOTALL
-        );
-        matcher = pattern.matcher(sb.toString());
-        StringBuffer sb2 = new StringBuffer();
-        
-        while (matcher.find()) {
-            String type = matcher.group(1);  // 原始类型
-            String varName = matcher.group(2);  // 变量名
-            
-            // 使用对应的包装类型
-            String wrapperType = getWrapperType(type);
-            matcher.appendReplacement(sb2, "List<" + wrapperType + "> " + varName + " = new ArrayList");
+
+        /**
+         * 组装由构造函数和原型方法得到的类
+         */
+        private GeneratedUnit assembleClass(String packageName, String className, ClassParts parts) {
+            StringBuilder members = new StringBuilder();
+            JavaCodeEmitter membersEmitter = newEmitter(members);
+            classProcessor.emitClassMembers(className, parts.constructor, parts.methods, membersEmitter);
+        
+            StringBuilder code = new StringBuilder();
+            JavaCodeEmitter emitter = newEmitter(code);
+            emitHeader(packageName, emitter);
+            emitter.println("public class " + className + " {").indent();
+            printFormatted(members, membersEmitter, emitter.println());
+            emitter.unindent().println("}");
+            return unit(packageName, className, code, emitter);
         }
-        matcher.appendTail(sb2);
-        
-        return sb2.toString();
-    }
 
+        /**
+         * 整理生成代码的格式，-O0时原样输出
+         */
+        private String format(String javaCode) {
+            return level == OptimizationLevel.O0 ? javaCode : formatter.format(javaCode);
+        }
+
+        /**
+         * 整理source输出的代码的格式后按行写入emitter，生成行映射时按内容对齐格式化前后的行
+         */
+        private void printFormatted(StringBuilder javaCode, JavaCodeEmitter source, JavaCodeEmitter emitter) {
+            String formatted = format(javaCode.toString());
+            int[] lines = source.getSourceLines();
+            if (lines != null && level != OptimizationLevel.O0) {
+                lines = SourceMap.compose(SourceMap.alignLines(javaCode, formatted), lines);
+            }
+            emitter.printLines(formatted, lines);
+        }
+
+        private JavaCodeEmitter newEmitter(StringBuilder code) {
+            JavaCodeEmitter emitter = new JavaCodeEmitter(code);
+            return mapped ? emitter.trackSourceLines() : emitter;
+        }
+
+        /**
+         * 创建编译单元，生成行映射时把预处理后的行号换算为原始源码的行号
+         */
+        private GeneratedUnit unit(String packageName, String className, StringBuilder code, JavaCodeEmitter emitter) {
+            if (!mapped) {
+                return new GeneratedUnit(packageName, className, code.toString());
+            }
+            int[] lines = emitter.getSourceLines();
+            if (originalLines != null) {
+                lines = SourceMap.compose(lines, originalLines);
+            }
+            return new GeneratedUnit(packageName, className, code.toString(),
+                                     new SourceMap(className + ".java", fileName, lines));
+        }
+    }
+    
     /**
-     * 获取原始类型对应的包装类型
+     * 解析器因嵌套过深无法在当前线程上解析整个文件
      */
-    private String getWrapperType(String primitiveType) {
-        switch (primitiveType) {
-            case "byte": return "Byte";
-            case "short": return "Short";
-            case "int": return "Integer";
-            case "long": return "Long";
-            case "float": return "Float";
-            case "double": return "Double";
-            case "char": return "Character";
-            case "boolean": return "Boolean";
-            default: return "Object";
+    private static class NestingTooDeepException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NestingTooDeepException() {
+            super(null, null, false, false);
         }
     }
-
+    
     /**
-     * 修复if-else结构的问题
+     * 一个JavaScript文件的转换结果
+     * 模块成员、模块语句和各个类分别收集，最后组装成独立的编译单元
      */
-    private String fixIfElseStructures(String code) {
-        // 先进行特殊修复：针对行内"System.out.println(...); else {"模式
-        // 这种情况非常具体，所以直接处理
-        java.util.regex.Pattern specificPattern = java.util.regex.Pattern.compile(
-            "(if\\s*\\([^\\)]+\\)\\s*\\{\\s*)(System\\.out\\.println\\([^\\)]+\\);)(\\s*else\\s*\\{)",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher specificMatcher = specificPattern.matcher(code);
-        StringBuffer specificSb = new StringBuffer();
-        
-        while (specificMatcher.find()) {
-            String ifPart = specificMatcher.group(1);
-            String printStmt = specificMatcher.group(2);
-            String elsePart = specificMatcher.group(3);
-            
-            // 修复缺少if语句块闭合的问题
-            specificMatcher.appendReplacement(specificSb, 
-                ifPart + printStmt + "\n}" + elsePart);
-        }
-        specificMatcher.appendTail(specificSb);
-        code = specificSb.toString();
-        
-        // 1. 修复其中一行包含if语句和else语句的情况
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "(if\\s*\\([^\\)]+\\)\\s*\\{[^\\}]*\\})\\s*(else\\s*\\{)",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
-        
-        while (matcher.find()) {
-            String ifPart = matcher.group(1);
-            String elsePart = matcher.group(2);
-            // 将else放到新行
-            matcher.appendReplacement(sb, ifPart + "\n" + elsePart);
-        }
-        matcher.appendTail(sb);
-        
-        // 2. 直接匹配有问题的if-else模式并重写（处理多余的右大括号）
-        pattern = java.util.regex.Pattern.compile(
-            "if\\s*\\(([^\\)]+)\\)\\s*\\{\\s*([^\\{\\}]+)\\s*\\}\\s*else\\s*\\{\\s*([^\\{\\}]+)\\s*\\}\\s*\\}",
-            java.util.regex.Pattern.DOTALL
-        );
-        matcher = pattern.matcher(sb.toString());
-        StringBuffer sb2 = new StringBuffer();
-        
-        while (matcher.find()) {
-            String condition = matcher.group(1).trim();
-            String ifBody = matcher.group(2).trim();
-            String elseBody = matcher.group(3).trim();
-            
-            // 重新构造正确的if-else结构（去掉多余的右大括号）
-            String fixed = "if (" + condition + ") {\n    " + 
-                           ifBody + "\n} else {\n    " + 
-                           elseBody + "\n}";
-            
-            matcher.appendReplacement(sb2, fixed);
+    private static class ModuleParts {
+        
+        final StringBuilder membersCode = new StringBuilder();
+        final JavaCodeEmitter members = new JavaCodeEmitter(membersCode);
+        final StringBuilder mainBodyCode = new StringBuilder();
+        final JavaCodeEmitter mainBody = new JavaCodeEmitter(mainBodyCode);
+        final Map<String, ClassParts> classes = new LinkedHashMap<>();
+        /** 记入符号索引的模块级声明 */
+        final List<AstNode> declarations = new ArrayList<>();
+        /** 改为委托共享方法的函数 */
+        final List<SharedFunctions.Copy> sharedCopies = new ArrayList<>();
+        
+        ClassParts classParts(String className) {
+            return classes.computeIfAbsent(className, name -> new ClassParts());
         }
-        matcher.appendTail(sb2);
         
-        return sb2.toString();
+        boolean isEmpty() {
+            return members.getBlockCount() == 0 && mainBody.getBlockCount() == 0 && classes.isEmpty();
+        }
+        
+        /**
+         * 合并分块处理时单个块的转换结果
+         */
+        void merge(ModuleParts other) {
+            if (other.members.getBlockCount() > 0) {
+                members.beginBlock().print(other.membersCode, other.members.getSourceLines());
+            }
+            if (other.mainBody.getBlockCount() > 0) {
+                mainBody.beginBlock().print(other.mainBodyCode, other.mainBody.getSourceLines());
+            }
+            for (Map.Entry<String, ClassParts> entry : other.classes.entrySet()) {
+                ClassParts parts = classParts(entry.getKey());
+                if (entry.getValue().constructor != null) {
+                    parts.constructor = entry.getValue().constructor;
+                }
+                parts.methods.putAll(entry.getValue().methods);
+            }
+            declarations.addAll(other.declarations);
+            sharedCopies.addAll(other.sharedCopies);
+        }
     }
-
+    
     /**
-     * 修复函数返回语句中的多余括号和分号
+     * 由构造函数和原型方法组成的JavaScript类
      */
-    private String fixFunctionReturnStatements(String code) {
-        // 修复函数返回语句中的多余括号和分号
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
-            "return\\s+([^;]+);\\s*\\);",
-            java.util.regex.Pattern.DOTALL
-        );
-        java.util.regex.Matcher matcher = pattern.matcher(code);
-        StringBuffer sb = new StringBuffer();
+    private static class ClassParts {
         
-        while (matcher.find()) {
-            String returnExpr = matcher.group(1).trim();
-            // 修复返回语句，移除多余的括号
-            matcher.appendReplacement(sb, "return " + returnExpr + ";");
-        }
-        matcher.appendTail(sb);
-        
-        return sb.toString();
+        FunctionNode constructor;
+        final Map<String, FunctionNode> methods = new LinkedHashMap<>();
     }
-} 
-
+}
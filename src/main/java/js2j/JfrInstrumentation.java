@@ -0,0 +1,151 @@
+package js2j;
+
+/**
+ * 生成代码中的JFR插桩
+ * 开启后每个转换得到的函数和方法的方法体包在一个try-with-resources语句中，被采样的调用结束时提交一个
+ * 自定义的JFR事件js2j.FunctionCall，记录函数名、JavaScript源码位置、耗时和调用期间当前线程分配的字节数，
+ * 用 jcmd &lt;pid&gt; JFR.start 开始记录后即可按函数找出热点。
+ *
+ * 事件类和采样逻辑生成在默认包的Js2jProfile类中，生成的代码仍然只依赖JDK（需要JDK 11及以上的jdk.jfr模块）。
+ * 没有在记录时每次调用只读取一次事件是否启用；记录时按采样间隔随机选取调用，没有采到的调用不创建事件。
+ * 不开启时生成的代码中没有任何插桩
+ */
+public class JfrInstrumentation {
+
+    /** 事件类和采样逻辑所在的类名 */
+    public static final String DEFAULT_CLASS_NAME = "Js2jProfile";
+
+    /** JFR事件名，jfr print --events 按它筛选 */
+    public static final String EVENT_NAME = "js2j.FunctionCall";
+
+    /** 运行时覆盖采样间隔的系统属性 */
+    public static final String SAMPLE_PROPERTY = "js2j.jfr.sample";
+
+    /** 默认每64次调用采样一次 */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    /** try语句中的资源变量名。不用$：格式化步骤按appendReplacement的规则处理替换文本 */
+    private static final String CALL_VARIABLE = "js2jCall";
+
+    private final String packageName;
+    private final String className;
+    private final int sampleInterval;
+
+    public JfrInstrumentation() {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * @param sampleInterval 平均每多少次调用采样一次，1表示记录每次调用
+     */
+    public JfrInstrumentation(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("采样间隔必须是正整数: " + sampleInterval);
+        }
+        this.packageName = JavaScriptToJavaConverter.DEFAULT_PACKAGE;
+        this.className = DEFAULT_CLASS_NAME;
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * 获取事件类所在类的全限定名
+     */
+    public String getQualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    /**
+     * 包住方法体的try语句的第一行，方法体之后需要一个右大括号
+     * 格式化步骤只保留右括号之后的左大括号，所以不使用try-finally；返回和异常都会关闭资源，资源为null时不关闭
+     *
+     * @param function 函数名，类的方法为 类名.方法名
+     * @param source JavaScript源码位置，如 shapes.js:12
+     */
+    String tryHeader(String function, String source) {
+        String profile = getQualifiedName();
+        return "try (" + profile + ".Call " + CALL_VARIABLE + " = " + profile + ".begin("
+               + quote(function) + ", " + quote(source) + ")) {";
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * 生成事件类和采样逻辑所在的编译单元，在所有文件转换完成后与生成的代码一起编译
+     */
+    public GeneratedUnit createUnit() {
+        StringBuilder code = new StringBuilder();
+        JavaCodeEmitter emitter = new JavaCodeEmitter(code);
+        if (!packageName.isEmpty()) {
+            emitter.println("package " + packageName + ";").println();
+        }
+        emitter.println("import java.lang.management.ManagementFactory;");
+        emitter.println("import java.lang.management.ThreadMXBean;");
+        emitter.println("import java.util.concurrent.ThreadLocalRandom;");
+        emitter.println();
+        emitter.println("public final class " + className + " {").indent();
+        emitter.println();
+        emitter.println("// 平均每SAMPLE_INTERVAL次调用采样一次，可以用 -D" + SAMPLE_PROPERTY + "=N 覆盖");
+        emitter.println("public static final int SAMPLE_INTERVAL = Math.max(1, Integer.getInteger(\""
+                        + SAMPLE_PROPERTY + "\", " + sampleInterval + "));");
+        emitter.println("private static final jdk.jfr.EventType TYPE = jdk.jfr.EventType.getEventType(Call.class);");
+        emitter.println("private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();");
+        emitter.println();
+        emitter.println("private " + className + "() {");
+        emitter.println("}");
+        emitter.println();
+        emitter.println("// 没有在记录或没有采到时返回null");
+        emitter.println("public static Call begin(String function, String source) {").indent();
+        emitter.println("if (!TYPE.isEnabled() || ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {").indent();
+        emitter.println("return null;");
+        emitter.unindent().println("}");
+        emitter.println("Call call = new Call();");
+        emitter.println("call.function = function;");
+        emitter.println("call.source = source;");
+        emitter.println("call.sampleInterval = SAMPLE_INTERVAL;");
+        emitter.println("call.allocationStart = allocatedBytes();");
+        emitter.println("call.begin();");
+        emitter.println("return call;");
+        emitter.unindent().println("}");
+        emitter.println();
+        emitter.println("static long allocatedBytes() {").indent();
+        emitter.println("return THREADS instanceof com.sun.management.ThreadMXBean");
+        emitter.println("    ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId())");
+        emitter.println("    : 0;");
+        emitter.unindent().println("}");
+        emitter.println();
+        emitter.println("@jdk.jfr.Name(\"" + EVENT_NAME + "\")");
+        emitter.println("@jdk.jfr.Label(\"JavaScript Function Call\")");
+        emitter.println("@jdk.jfr.Category(\"js2j\")");
+        emitter.println("@jdk.jfr.StackTrace(false)");
+        emitter.println("public static final class Call extends jdk.jfr.Event implements AutoCloseable {").indent();
+        emitter.println();
+        emitter.println("@jdk.jfr.Label(\"Function\")");
+        emitter.println("String function;");
+        emitter.println("@jdk.jfr.Label(\"Source\")");
+        emitter.println("String source;");
+        emitter.println("@jdk.jfr.Label(\"Allocated\")");
+        emitter.println("@jdk.jfr.DataAmount");
+        emitter.println("long allocated;");
+        emitter.println("@jdk.jfr.Label(\"Sample Interval\")");
+        emitter.println("int sampleInterval;");
+        emitter.println("transient long allocationStart;");
+        emitter.println();
+        emitter.println("@Override");
+        emitter.println("public void close() {").indent();
+        emitter.println("end();");
+        emitter.println("if (shouldCommit()) {").indent();
+        emitter.println("allocated = allocatedBytes() - allocationStart;");
+        emitter.println("commit();");
+        emitter.unindent().println("}");
+        emitter.unindent().println("}");
+        emitter.unindent().println("}");
+        emitter.unindent().println("}");
+        return new GeneratedUnit(packageName, className, code.toString());
+    }
+}
@@ -2,13 +2,21 @@ package js2j;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import javax.lang.model.SourceVersion;
 import org.mozilla.javascript.ast.AstNode;  
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 /**
  * JavaScript到Java转换器的主入口类
@@ -16,50 +24,439 @@ import java.util.Collections;
 public class Main { 
 
     public static void main(String[] args) {
+        try {
+            run(args);
+        } finally {
+            // 诊断信息由后台线程写出，退出前等待写完
+            JSLogger.flush();
+        }
+    }
+
+    private static void run(String[] args) {
         if (args.length < 1) {
-            System.out.println("用法: java -jar js2j.jar <JavaScript文件/目录> [输出目录]");
+            System.out.println("用法: java -jar js2j.jar [--backend=source|bytecode] [--parser=rhino|modern] [-O0|-O1|-O2] [--status-interval=秒] [--log-level=级别] [--quiet] [--error-log=文件] [--symbol-index=文件] [--files-from=列表|-] [--changed-since=提交] [--root=目录] [--skip=auto|defer|off] [--jar=文件] [--compile-threads=N] [--remote-cache=地址] [--ast-cache=目录] [--jobs=N] [--timings=文件] [--dedup-functions] [--source-maps] [--jfr-events[=N]] [--watch] [--train] <JavaScript文件/目录> [输出目录]");
             System.out.println("如果未指定输出目录，将使用当前目录下的'java-output'");
             return;
         }
 
-        String inputPath = args[0];
-        String outputDir = args.length > 1 ? args[1] : "java-output";
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("错误: " + e.getMessage());
+            printHelp();
+            return;
+        }
+        JSLogger.setLevel(options.getLogLevel());
+        // 错误记录是进程级的，同一个JVM中多次运行时只汇总本次的错误
+        JSLogger.clearFileErrors();
+        try {
+            convert(options);
+        } finally {
+            writeErrorLog(options);
+        }
+    }
+
+    /**
+     * 按命令行选项执行转换
+     */
+    private static void convert(CommandLineOptions options) {
+
+        if (options.isTrain()) {
+            try {
+                train();
+            } catch (IOException e) {
+                JSLogger.error("训练运行失败: " + e.getMessage());
+            }
+            return;
+        }
+
+        String inputPath = options.getInputPath();
+        String outputDir = options.getOutputDir();
+        JSParserFrontend parser = JSParserFrontend.forName(options.getParser());
 
         try {
             File inputFile = new File(inputPath);
             if (!inputFile.exists()) {
-                System.err.println("错误: 输入文件或目录不存在 - " + inputPath);
+                JSLogger.error("错误: 输入文件或目录不存在 - " + inputPath);
                 return;
             }
 
             // 确保输出目录存在
             File outDir = new File(outputDir);
             if (!outDir.exists() && !outDir.mkdirs()) {
-                System.err.println("错误: 无法创建输出目录 - " + outputDir);
+                JSLogger.error("错误: 无法创建输出目录 - " + outputDir);
                 return;
             }
 
-            JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+            if (options.isWatch()) {
+                // 在内存中编译运行，文件变化时热加载
+                watchAndRun(inputFile, parser);
+                return;
+            }
 
-            if (inputFile.isDirectory()) {
-                // 处理目录中的所有.js文件
-                processDirectory(inputFile, outDir, converter);
-            } else {
-                // 处理单个文件
-                if (inputFile.getName().endsWith(".js")) {
-                    System.out.println("转换文件: " + inputFile.getPath());
-                    converter.convertFile(inputFile, outDir);
+            if (options.isBytecodeBackend()) {
+                // 直接编译为类文件并打包
+                compileToJar(inputFile, outDir, parser);
+                JSLogger.info("转换完成! 输出目录: " + outputDir);
+                return;
+            }
+
+            JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter(parser);
+            converter.setOptimizationLevel(options.getOptimizationLevel());
+            if (options.getSymbolIndex() != null) {
+                converter.setSymbolIndex(SymbolIndex.open(Paths.get(options.getSymbolIndex())));
+            }
+            if (options.getJar() != null) {
+                converter.setJarCompiler(new ParallelJarCompiler(options.getCompileThreads()));
+            }
+            if (options.getRemoteCache() != null) {
+                if (options.getSymbolIndex() != null) {
+                    JSLogger.warn("警告: 设置了--symbol-index时不使用远程缓存");
+                }
+                converter.setRemoteCache(new RemoteCache(options.getRemoteCache()));
+            }
+            if (options.getAstCache() != null) {
+                converter.setAstCache(new AstSnapshotCache(Paths.get(options.getAstCache())));
+            }
+            if (options.isDedupFunctions()) {
+                if (options.getRemoteCache() != null) {
+                    JSLogger.warn("警告: 设置了--dedup-functions时不使用远程缓存");
+                }
+                converter.setSharedFunctions(new SharedFunctions());
+            }
+            if (options.isSourceMaps()) {
+                if (options.getRemoteCache() != null) {
+                    JSLogger.warn("警告: 设置了--source-maps时不使用远程缓存");
+                }
+                converter.setSourceMaps(true);
+            }
+            if (options.getJfrEvents() > 0) {
+                if (options.getRemoteCache() != null) {
+                    JSLogger.warn("警告: 设置了--jfr-events时不使用远程缓存");
+                }
+                converter.setJfrInstrumentation(new JfrInstrumentation(options.getJfrEvents()));
+                JSLogger.info("JFR插桩: 事件 " + JfrInstrumentation.EVENT_NAME + "，每 " + options.getJfrEvents() + " 次调用采样一次");
+            }
+
+            try {
+                if (options.isTargeted()) {
+                    convertTargeted(outDir, converter, options);
                 } else {
-                    System.err.println("警告: 跳过非JavaScript文件 - " + inputFile.getPath());
+                    convertInput(inputFile, outDir, converter, options);
+                }
+                if (converter.getSharedFunctions() != null) {
+                    writeCommonUnit(converter.assembleSharedFunctions(), converter, outDir);
+                }
+                if (converter.getJfrInstrumentation() != null) {
+                    writeCommonUnit(converter.getJfrInstrumentation().createUnit(), converter, outDir);
+                }
+                if (converter.getJarCompiler() != null) {
+                    compileGenerated(converter.getJarCompiler(), new File(options.getJar()));
+                }
+            } finally {
+                if (converter.getSymbolIndex() != null) {
+                    converter.getSymbolIndex().close();
+                }
+                RemoteCache remote = converter.getRemoteCache();
+                if (remote != null) {
+                    remote.close();
+                    JSLogger.info("远程缓存: 命中 " + remote.getHitCount() + "，未命中 " + remote.getMissCount()
+                                  + "，上传 " + remote.getUploadCount());
+                }
+                AstSnapshotCache snapshots = converter.getAstCache();
+                if (snapshots != null) {
+                    JSLogger.info("AST快照: 命中 " + snapshots.getHitCount() + "，未命中 " + snapshots.getMissCount()
+                                  + "，保存 " + snapshots.getStoreCount());
+                }
+                if (converter.getSharedFunctions() != null) {
+                    for (String line : converter.getSharedFunctions().report(10)) {
+                        JSLogger.info(line);
+                    }
+                }
+            }
+
+            JSLogger.info("转换完成! 输出目录: " + outputDir);
+
+        } catch (Exception e) {
+            JSLogger.error("转换过程中发生错误:", e);
+        }
+    }
+
+    /**
+     * 使用源码后端转换文件或目录
+     */
+    private static void convertInput(File inputFile, File outDir, JavaScriptToJavaConverter converter,
+                                     CommandLineOptions options) throws IOException {
+        if (inputFile.isDirectory()) {
+            // 处理目录中的所有.js文件，进度通过JMX暴露，并按需定期打印
+            ConversionProgress progress = new ConversionProgress();
+            progress.register();
+            if (options.getStatusInterval() > 0) {
+                progress.startReporting(options.getStatusInterval());
+            }
+            try {
+                processDirectory(inputFile, outDir, converter, progress, options.getStatusInterval() == 0,
+                                 options.getSkipMode(), scheduler(options, outDir));
+            } finally {
+                progress.stopReporting();
+                progress.unregister();
+            }
+            JSLogger.info(progress.statusLine());
+        } else {
+            // 处理单个文件
+            if (inputFile.getName().endsWith(".js")) {
+                JSLogger.info("转换文件: " + inputFile.getPath());
+                scanSharedFunctions(Collections.singletonList(inputFile.toPath()), converter);
+                converter.convertFile(inputFile, outDir);
+            } else {
+                JSLogger.warn("警告: 跳过非JavaScript文件 - " + inputFile.getPath());
+            }
+        }
+    }
+
+    /**
+     * 函数去重的第一遍：并行扫描所有要转换的文件，未设置函数去重时什么也不做
+     */
+    private static void scanSharedFunctions(List<Path> files, JavaScriptToJavaConverter converter) {
+        if (converter.getSharedFunctions() == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        files.parallelStream().forEach(file -> {
+            try {
+                // 与convertFile读取源码的方式相同，两遍得到相同的AST
+                converter.scanSharedFunctions(new String(Files.readAllBytes(file)), file.getFileName().toString());
+            } catch (IOException | RuntimeException e) {
+                JSLogger.debug("去重扫描跳过 " + file + ": " + e.getMessage());
+            }
+        });
+        JSLogger.info("函数去重扫描 " + files.size() + " 个文件，用时 " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * 写出所有文件共用的类（函数去重的共享类、JFR插桩的事件类），位于默认包对应的输出目录，并加入jar编译
+     */
+    private static void writeCommonUnit(GeneratedUnit unit, JavaScriptToJavaConverter converter, File outDir)
+        throws IOException {
+        if (unit == null) {
+            return;
+        }
+        Path file = outDir.toPath().resolve(unit.getFileName());
+        Files.write(file, unit.getCode().getBytes());
+        JSLogger.info("生成Java文件: " + file);
+        if (converter.getJarCompiler() != null) {
+            converter.getJarCompiler().addCommon(unit);
+        }
+    }
+
+    /**
+     * 按--jobs和--timings创建调度器，历史文件默认位于输出目录下
+     */
+    private static ConversionScheduler scheduler(CommandLineOptions options, File outDir) {
+        Path history = options.getTimings() != null
+            ? Paths.get(options.getTimings())
+            : outDir.toPath().resolve(ConversionScheduler.DEFAULT_HISTORY_FILE);
+        return new ConversionScheduler(options.getJobs(), history);
+    }
+
+    /**
+     * 只转换文件列表或git变化集中的文件，可以有多个输入根目录，每个根目录下的文件按相对路径输出
+     */
+    private static void convertTargeted(File outDir, JavaScriptToJavaConverter converter,
+                                        CommandLineOptions options) throws IOException {
+        List<Path> roots = new ArrayList<>();
+        for (String root : options.getRoots()) {
+            Path rootPath = Paths.get(root);
+            if (!Files.isDirectory(rootPath)) {
+                JSLogger.error("错误: 输入目录不存在 - " + root);
+                return;
+            }
+            roots.add(rootPath);
+        }
+
+        List<Path> files = new ArrayList<>();
+        if (options.getChangedSince() != null) {
+            for (Path root : roots) {
+                files.addAll(TargetFiles.gitChanged(root, options.getChangedSince()));
+            }
+        } else {
+            for (String entry : TargetFiles.readList(options.getFilesFrom())) {
+                files.add(Paths.get(entry));
+            }
+        }
+
+        ConversionProgress progress = new ConversionProgress();
+        progress.register();
+        if (options.getStatusInterval() > 0) {
+            progress.startReporting(options.getStatusInterval());
+        }
+        try {
+            processFiles(TargetFiles.groupByRoot(roots, files), outDir, converter, progress,
+                         options.getStatusInterval() == 0, options.getSkipMode(), scheduler(options, outDir));
+        } finally {
+            progress.stopReporting();
+            progress.unregister();
+        }
+        JSLogger.info(progress.statusLine());
+    }
+
+    /**
+     * 在进程内并行编译转换生成的源码并写入jar
+     */
+    private static void compileGenerated(ParallelJarCompiler compiler, File jarFile) throws IOException {
+        if (compiler.getFileCount() == 0) {
+            JSLogger.warn("警告: 没有可编译的文件，未生成JAR");
+            return;
+        }
+        JSLogger.info("编译 " + compiler.getFileCount() + " 个文件生成的Java代码");
+        ParallelJarCompiler.Result result = compiler.compileToJar(jarFile);
+        if (result.getClassCount() == 0) {
+            JSLogger.warn("警告: 生成的代码都无法编译，未生成JAR");
+            return;
+        }
+        JSLogger.info("生成JAR文件: " + jarFile.getAbsolutePath() + "（" + result.getClassCount() + " 个类，"
+                      + result.getBatches() + " 批，用时 " + result.getMillis() + " ms"
+                      + (result.getFailedFiles() > 0 ? "，" + result.getFailedFiles() + " 个文件编译失败" : "") + "）");
+    }
+
+    /**
+     * 指定了--error-log时将文件错误记录写成JSON Lines文件
+     */
+    private static void writeErrorLog(CommandLineOptions options) {
+        List<JSLogger.FileError> errors = JSLogger.getFileErrors();
+        if (!errors.isEmpty()) {
+            int dropped = JSLogger.getDroppedFileErrors();
+            JSLogger.warn((errors.size() + dropped) + " 个转换错误"
+                          + (dropped > 0 ? "（只记录了前 " + errors.size() + " 个）" : ""));
+        }
+        if (options.getErrorLog() == null) {
+            return;
+        }
+        try {
+            JSLogger.writeFileErrors(Paths.get(options.getErrorLog()));
+        } catch (IOException e) {
+            JSLogger.error("写入错误记录 " + options.getErrorLog() + " 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 类数据共享训练运行
+     * 转换一个覆盖常用语法的内置样例并走一遍字节码后端，使转换过程中用到的类都被加载，
+     * 配合-XX:ArchiveClassesAtExit运行即可生成AppCDS归档
+     * 
+     * @throws IOException 如果临时文件读写出错
+     */
+    public static void train() throws IOException {
+        Path workDir = Files.createTempDirectory("js2j-train");
+        try {
+            Path script = workDir.resolve("training.js");
+            try (InputStream in = Main.class.getResourceAsStream("/js2j/training.js")) {
+                if (in == null) {
+                    throw new IOException("找不到训练样例 training.js");
                 }
+                Files.copy(in, script);
             }
+            new JavaScriptToJavaConverter().convertFile(script.toFile(), workDir.resolve("out").toFile());
+
+            // 字节码后端不支持样例中的类和箭头函数，使用一个简单的脚本
+            new JSBytecodeCompiler().compile("function add(a, b) { return a + b; }\nconsole.log(add(1, 2));\n",
+                                             "training.js", JavaScriptToJavaConverter.DEFAULT_PACKAGE);
+            JSLogger.info("训练运行完成");
+        } finally {
+            try (Stream<Path> paths = Files.walk(workDir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * 转换并在内存中编译JavaScript文件，运行各模块的main方法，
+     * 之后每当文件变化时重新加载并再次运行，直到进程被终止
+     * 
+     * @param input 输入文件或目录
+     * @param parser 解析器前端
+     * @throws IOException 如果文件读写出错
+     */
+    public static void watchAndRun(File input, JSParserFrontend parser) throws IOException {
+        List<Path> jsFiles;
+        if (input.isDirectory()) {
+            jsFiles = Files.walk(input.toPath())
+                .filter(Files::isRegularFile)
+                .filter(p -> p.toString().endsWith(".js"))
+                .collect(Collectors.toList());
+        } else {
+            jsFiles = Collections.singletonList(input.toPath());
+        }
 
-            System.out.println("转换完成! 输出目录: " + outputDir);
+        HotReloader reloader = new HotReloader(parser, Main.class.getClassLoader(), JavaScriptToJavaConverter.DEFAULT_PACKAGE);
+        for (Path jsFile : jsFiles) {
+            try {
+                HotReloader.LoadedModule module = reloader.load(jsFile.toFile());
+                JSLogger.info("加载 " + jsFile.getFileName() + "，用时 " + module.getLoadMillis() + " ms");
+                runModule(module);
+            } catch (InMemoryJavaCompiler.CompilationException e) {
+                JSLogger.error("加载 " + jsFile.getFileName() + " 失败: " + e.getMessage());
+            }
+        }
+        reloader.watch(Main::runModule);
+    }
 
+    /**
+     * 运行模块的main方法，异常只打印不中断监视
+     */
+    private static void runModule(HotReloader.LoadedModule module) {
+        try {
+            module.runMain(new String[0]);
         } catch (Exception e) {
-            System.err.println("转换过程中发生错误:");
-            e.printStackTrace();
+            JSLogger.error("运行 " + module.getSource().getFileName() + " 时发生错误: " + e);
+        }
+    }
+
+    /**
+     * 使用字节码后端将JavaScript文件或目录编译为一个jar
+     * 输入为单个文件时，jar的Main-Class为该文件的模块类，可以直接用java -jar运行
+     * 
+     * @param input 输入文件或目录
+     * @param outputDir 输出目录
+     * @param parser 解析器前端
+     * @throws IOException 如果文件读写出错
+     */
+    public static void compileToJar(File input, File outputDir, JSParserFrontend parser) throws IOException {
+        List<Path> jsFiles;
+        if (input.isDirectory()) {
+            jsFiles = Files.walk(input.toPath())
+                .filter(Files::isRegularFile)
+                .filter(p -> p.toString().endsWith(".js"))
+                .collect(Collectors.toList());
+        } else {
+            jsFiles = Collections.singletonList(input.toPath());
+        }
+
+        JSBytecodeCompiler compiler = new JSBytecodeCompiler(parser);
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        for (Path jsFile : jsFiles) {
+            Path relativeDir = input.isDirectory() ? input.toPath().relativize(jsFile).getParent() : null;
+            JSLogger.info("编译文件: " + jsFile);
+            try {
+                String source = new String(Files.readAllBytes(jsFile));
+                classes.putAll(compiler.compile(source, jsFile.getFileName().toString(), packageNameFor(relativeDir)));
+            } catch (UnsupportedOperationException e) {
+                JSLogger.warn("跳过文件: " + e.getMessage());
+            } catch (Exception e) {
+                JSLogger.fileError(jsFile.toString(), "compile", 0, e.getMessage());
+            }
+        }
+
+        if (classes.isEmpty()) {
+            JSLogger.warn("警告: 没有生成任何类文件");
+            return;
         }
+
+        String mainClass = input.isDirectory() ? null : classes.keySet().iterator().next();
+        File jarFile = new File(outputDir, input.getName().replaceAll("\\.js$", "") + ".jar");
+        JSBytecodeCompiler.writeJar(classes, mainClass, jarFile);
+        JSLogger.info("生成JAR文件: " + jarFile.getAbsolutePath() + "（" + classes.size() + " 个类）");
     }
 
     /**
@@ -70,34 +467,253 @@ public class Main {
      * @param converter 转换器实例
      */
     public static void processDirectory(File inputDir, File outputDir, JavaScriptToJavaConverter converter) {
+        processDirectory(inputDir, outputDir, converter, new ConversionProgress(), true);
+    }
+
+    /**
+     * 处理目录中的所有JavaScript文件，并记录进度，被忽略或嗅探出的生成文件会被跳过
+     * 
+     * @param inputDir 输入目录
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     */
+    public static void processDirectory(File inputDir, File outputDir, JavaScriptToJavaConverter converter,
+                                        ConversionProgress progress, boolean verbose) {
+        processDirectory(inputDir, outputDir, converter, progress, verbose, SkipRules.Mode.AUTO);
+    }
+
+    /**
+     * 处理目录中的所有JavaScript文件，并记录进度，在一个线程中依次转换
+     * 
+     * @param inputDir 输入目录
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     * @param skipMode 跳过模式
+     */
+    public static void processDirectory(File inputDir, File outputDir, JavaScriptToJavaConverter converter,
+                                        ConversionProgress progress, boolean verbose, SkipRules.Mode skipMode) {
+        processDirectory(inputDir, outputDir, converter, progress, verbose, skipMode, 1);
+    }
+
+    /**
+     * 处理目录中的所有JavaScript文件，并记录进度，用指定数量的线程并行转换，不读写耗时历史
+     * 
+     * @param inputDir 输入目录
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     * @param skipMode 跳过模式
+     * @param threads 转换线程数
+     */
+    public static void processDirectory(File inputDir, File outputDir, JavaScriptToJavaConverter converter,
+                                        ConversionProgress progress, boolean verbose, SkipRules.Mode skipMode,
+                                        int threads) {
+        processDirectory(inputDir, outputDir, converter, progress, verbose, skipMode,
+                         new ConversionScheduler(threads, null));
+    }
+
+    /**
+     * 处理目录中的所有JavaScript文件，并记录进度
+     * 
+     * @param inputDir 输入目录
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     * @param skipMode 跳过模式
+     * @param scheduler 调度器，决定转换线程数和文件的顺序
+     */
+    public static void processDirectory(File inputDir, File outputDir, JavaScriptToJavaConverter converter,
+                                        ConversionProgress progress, boolean verbose, SkipRules.Mode skipMode,
+                                        ConversionScheduler scheduler) {
         try {
             // 递归获取所有.js文件
             List<Path> jsFiles = Files.walk(inputDir.toPath())
                 .filter(Files::isRegularFile)
                 .filter(p -> p.toString().endsWith(".js"))
                 .collect(Collectors.toList());
+            processFiles(Collections.singletonMap(inputDir.toPath(), jsFiles), outputDir, converter, progress, verbose,
+                         skipMode, scheduler);
+        } catch (IOException e) {
+            JSLogger.error("处理目录时发生错误: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 转换若干输入根目录下的指定文件，在一个线程中依次转换
+     * 
+     * @param filesByRoot 输入根目录到其下JavaScript文件的映射
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     * @param skipMode 跳过模式
+     */
+    public static void processFiles(Map<Path, List<Path>> filesByRoot, File outputDir,
+                                    JavaScriptToJavaConverter converter, ConversionProgress progress, boolean verbose,
+                                    SkipRules.Mode skipMode) {
+        processFiles(filesByRoot, outputDir, converter, progress, verbose, skipMode, new ConversionScheduler(1, null));
+    }
+
+    /**
+     * 转换若干输入根目录下的指定文件，输出目录结构和包名与processDirectory相同
+     * 解析之前先按各根目录的.js2jignore和内容嗅探筛选文件，跳过的文件计入进度统计；
+     * 其余文件按估算成本从大到小交给调度器的线程池，推迟的文件排在最后。
+     * 不同根目录下相对路径相同的文件会生成同一个类，只转换第一个，其余的记为文件错误。
+     * 本次运行的文件错误收集在progress中
+     * 
+     * @param filesByRoot 输入根目录到其下JavaScript文件的映射
+     * @param outputDir 输出目录
+     * @param converter 转换器实例
+     * @param progress 进度统计
+     * @param verbose 是否逐个打印正在转换的文件
+     * @param skipMode 跳过模式
+     * @param scheduler 调度器
+     */
+    public static void processFiles(Map<Path, List<Path>> filesByRoot, File outputDir,
+                                    JavaScriptToJavaConverter converter, ConversionProgress progress, boolean verbose,
+                                    SkipRules.Mode skipMode, ConversionScheduler scheduler) {
+        JSLogger.collectFileErrors(progress::fileError, () -> scheduleFiles(filesByRoot, outputDir, converter, progress,
+                                                                            verbose, skipMode, scheduler));
+    }
+
+    private static void scheduleFiles(Map<Path, List<Path>> filesByRoot, File outputDir,
+                                      JavaScriptToJavaConverter converter, ConversionProgress progress, boolean verbose,
+                                      SkipRules.Mode skipMode, ConversionScheduler scheduler) {
+        try {
+            List<ConversionScheduler.Job> selected = new ArrayList<>();
+            List<ConversionScheduler.Job> deferred = new ArrayList<>();
+            List<Path> skipped = new ArrayList<>();
+            List<Path> scanned = new ArrayList<>();
+            // 输出冲突的文件到先占用该类的文件
+            Map<Path, Path> collided = new LinkedHashMap<>();
+            // 生成的类（不区分大小写，输出目录可能在不区分大小写的文件系统上）到产生它的文件
+            Map<String, Path> outputs = new HashMap<>();
+            long totalBytes = 0;
+            for (Map.Entry<Path, List<Path>> entry : filesByRoot.entrySet()) {
+                Path root = entry.getKey();
+                SkipRules rules = skipMode == SkipRules.Mode.OFF ? null : SkipRules.load(root);
+                for (Path jsFile : entry.getValue()) {
+                    // 计算相对路径，保持目录结构
+                    Path relativePath = root.relativize(jsFile);
+                    String reason = rules == null ? null : rules.ignoredBy(relativePath);
+                    if (reason != null) {
+                        JSLogger.debug("跳过 " + jsFile + ": 匹配忽略规则 " + reason);
+                        skipped.add(jsFile);
+                        continue;
+                    }
+                    reason = rules == null ? null : SkipRules.sniff(jsFile);
+                    if (reason != null && skipMode != SkipRules.Mode.DEFER) {
+                        JSLogger.debug("跳过 " + jsFile + ": " + reason);
+                        skipped.add(jsFile);
+                        continue;
+                    }
+                    
+                    long bytes = Files.size(jsFile);
+                    totalBytes += bytes;
+                    String output = (packageNameFor(relativePath.getParent()) + "."
+                                     + JavaScriptToJavaConverter.generateClassName(jsFile.getFileName().toString()))
+                        .toLowerCase();
+                    Path previous = outputs.putIfAbsent(output, jsFile);
+                    if (previous != null) {
+                        collided.put(jsFile, previous);
+                        continue;
+                    }
+                    scanned.add(jsFile);
+                    ConversionScheduler.Job job = new ConversionScheduler.Job(
+                        ConversionScheduler.key(root, relativePath), bytes,
+                        () -> JSLogger.collectFileErrors(progress::fileError, () ->
+                            convertOne(jsFile, relativePath, bytes, outputDir, converter, progress, verbose)));
+                    if (reason != null) {
+                        JSLogger.debug("推迟 " + jsFile + ": " + reason);
+                        deferred.add(job);
+                    } else {
+                        selected.add(job);
+                    }
+                }
+            }
+
+            scanSharedFunctions(scanned, converter);
+            JSLogger.info("找到 " + (selected.size() + deferred.size()) + " 个JavaScript文件需要转换"
+                          + (skipped.isEmpty() ? "" : "，跳过 " + skipped.size() + " 个")
+                          + (collided.isEmpty() ? "" : "，" + collided.size() + " 个与其他文件的输出冲突"));
+            progress.start(selected.size() + deferred.size() + collided.size(), totalBytes);
+            for (Path jsFile : skipped) {
+                progress.fileSkipped(jsFile, Files.size(jsFile));
+            }
+            for (Map.Entry<Path, Path> collision : collided.entrySet()) {
+                Path jsFile = collision.getKey();
+                JSLogger.fileError(jsFile.toString(), "write", 0, "与 " + collision.getValue() + " 生成同一个类，未转换");
+                progress.fileFinished(jsFile, Files.size(jsFile), false);
+            }
             
-            System.out.println("找到 " + jsFiles.size() + " 个JavaScript文件需要转换");
+            List<ConversionScheduler.Job> jobs = scheduler.longestFirst(selected);
+            jobs.addAll(scheduler.longestFirst(deferred));
+            ConversionScheduler.Report report = scheduler.run(jobs);
+            JSLogger.info(report.statusLine());
+        } catch (IOException e) {
+            JSLogger.error("处理文件时发生错误: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 转换一个文件，由调度器的线程调用
+     */
+    private static void convertOne(Path jsFile, Path relativePath, long bytes, File outputDir,
+                                   JavaScriptToJavaConverter converter, ConversionProgress progress, boolean verbose) {
+        progress.fileStarted(jsFile);
+        boolean success = false;
+        try {
+            // 确定输出目录(保持原始目录结构)
+            Path outputPath = outputDir.toPath().resolve(relativePath).getParent();
+            if (outputPath != null && !Files.exists(outputPath)) {
+                Files.createDirectories(outputPath);
+            }
             
-            for (Path jsFile : jsFiles) {
-                // 计算相对路径，保持目录结构
-                Path relativePath = inputDir.toPath().relativize(jsFile);
-                
-                // 确定输出目录(保持原始目录结构)
-                Path outputPath = outputDir.toPath().resolve(relativePath).getParent();
-                if (outputPath != null && !Files.exists(outputPath)) {
-                    Files.createDirectories(outputPath);
-                }
-                
-                // 转换文件
-                System.out.println("转换文件: " + jsFile);
-                File outputSubDir = outputPath != null ? outputPath.toFile() : outputDir;
-                converter.convertFile(jsFile.toFile(), outputSubDir);
+            // 转换文件，子目录映射为子包
+            if (verbose) {
+                JSLogger.info("转换文件: " + jsFile);
             }
+            File outputSubDir = outputPath != null ? outputPath.toFile() : outputDir;
+            success = converter.convertFile(jsFile.toFile(), outputSubDir, packageNameFor(relativePath.getParent()));
         } catch (IOException e) {
-            System.err.println("处理目录时发生错误: " + e.getMessage());
-            e.printStackTrace();
+            JSLogger.fileError(jsFile.toString(), "write", 0, e.getMessage());
+        } finally {
+            progress.fileFinished(jsFile, bytes, success);
+        }
+    }
+
+    /**
+     * 根据JavaScript文件相对于输入目录的位置确定生成类的包名
+     * 例如 ui/widgets 对应 js2j.generated.ui.widgets
+     * 
+     * @param relativeDir 相对目录，位于输入目录根部时为null
+     * @return 包名
+     */
+    static String packageNameFor(Path relativeDir) {
+        StringBuilder packageName = new StringBuilder(JavaScriptToJavaConverter.DEFAULT_PACKAGE);
+        if (relativeDir == null) {
+            return packageName.toString();
+        }
+        
+        for (Path segment : relativeDir) {
+            StringBuilder part = new StringBuilder();
+            for (char c : segment.toString().toLowerCase().toCharArray()) {
+                part.append(Character.isJavaIdentifierPart(c) ? c : '_');
+            }
+            // 包名的每一段必须是合法标识符且不能是关键字
+            if (part.length() == 0 || !Character.isJavaIdentifierStart(part.charAt(0))
+                || SourceVersion.isKeyword(part)) {
+                part.insert(0, '_');
+            }
+            packageName.append('.').append(part);
         }
+        return packageName.toString();
     }
 
     /**
@@ -109,9 +725,38 @@ public class Main {
         System.out.println("此工具将JavaScript代码转换为等效的Java代码");
         System.out.println();
         System.out.println("用法:");
-        System.out.println("  java -jar js2j.jar <JavaScript文件/目录> [输出目录]");
+        System.out.println("  java -jar js2j.jar [选项] <JavaScript文件/目录> [输出目录]");
         System.out.println();
         System.out.println("选项:");
+        System.out.println("  --backend=source      生成Java源码（默认）");
+        System.out.println("  --backend=bytecode    直接生成类文件并打包为jar，跳过源码生成和javac");
+        System.out.println("  --parser=rhino        使用Rhino解析器，ES6+语法先经过源码预处理（默认）");
+        System.out.println("  --parser=modern       使用内置的ES2020解析器，直接解析现代语法");
+        System.out.println("  -O0                   最快的转换，不整理生成代码的格式");
+        System.out.println("  -O1                   按名称推断类型并整理格式（默认）");
+        System.out.println("  -O2                   常量折叠、死代码删除和数据流类型推断，转换较慢，生成的代码更快");
+        System.out.println("  --status-interval=N   转换目录时每N秒打印一行进度，不再逐个打印文件名");
+        System.out.println("  --log-level=LEVEL     诊断信息的级别：debug、info（默认）、warn、error 或 off");
+        System.out.println("  --quiet               只输出警告和错误，等同于 --log-level=warn");
+        System.out.println("  --error-log=FILE      将每个转换失败的文件记录为一行JSON写入FILE");
+        System.out.println("  --symbol-index=FILE   将各模块的顶层声明记入FILE中的符号索引，增量转换时原地更新");
+        System.out.println("  --files-from=FILE     只转换FILE中列出的文件（NUL或换行分隔，-表示标准输入）");
+        System.out.println("  --changed-since=REF   只转换git中相对REF有变化的文件（包括未提交和未跟踪的文件）");
+        System.out.println("  --root=DIR            定向转换时的其他输入根目录，可以重复");
+        System.out.println("  --skip=auto           跳过.js2jignore匹配的文件以及压缩、生成的文件（默认）");
+        System.out.println("  --skip=defer          压缩、生成的文件推迟到最后转换");
+        System.out.println("  --skip=off            转换所有文件");
+        System.out.println("  --jar=FILE            转换后在进程内并行编译生成的代码并写入FILE，编译错误按JavaScript文件报告");
+        System.out.println("  --compile-threads=N   编译阶段的线程数（默认为处理器核数）");
+        System.out.println("  --remote-cache=URL    多台机器共享的转换缓存地址，命中的文件不再转换（服务见RemoteCacheServer）");
+        System.out.println("  --ast-cache=DIR       在DIR中保存解析得到的AST快照，源码未变的文件重新转换时不再解析");
+        System.out.println("  --jobs=N              转换目录时的线程数（默认为处理器核数）");
+        System.out.println("  --timings=FILE        各文件转换耗时的历史记录，用于按成本调度（默认为输出目录下的.js2j-timings）");
+        System.out.println("  --dedup-functions     先扫描所有文件，结构相同的模块级函数只在共享类中生成一份，原位置委托调用");
+        System.out.println("  --source-maps         在每个Java文件旁写入到JavaScript行号的SMAP映射（X.smap），--jar时同时写入类文件");
+        System.out.println("  --jfr-events[=N]      生成的函数和方法记录JFR事件js2j.FunctionCall，每N次调用采样一次（默认64）");
+        System.out.println("  --watch               在内存中编译并运行转换结果，文件变化时热加载");
+        System.out.println("  --train               转换内置样例，用于生成类数据共享归档（见bin/js2j）");
         System.out.println("  <JavaScript文件/目录>  要转换的JavaScript文件或包含JavaScript文件的目录");
         System.out.println("  [输出目录]            转换后的Java文件的输出目录（默认为'java-output'）");
     }
@@ -0,0 +1,2963 @@
+package js2j;
+
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.Token;
+import org.mozilla.javascript.ast.ArrayLiteral;
+import org.mozilla.javascript.ast.Assignment;
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.Block;
+import org.mozilla.javascript.ast.BreakStatement;
+import org.mozilla.javascript.ast.CatchClause;
+import org.mozilla.javascript.ast.ConditionalExpression;
+import org.mozilla.javascript.ast.ContinueStatement;
+import org.mozilla.javascript.ast.DoLoop;
+import org.mozilla.javascript.ast.ElementGet;
+import org.mozilla.javascript.ast.EmptyExpression;
+import org.mozilla.javascript.ast.EmptyStatement;
+import org.mozilla.javascript.ast.ExpressionStatement;
+import org.mozilla.javascript.ast.ForInLoop;
+import org.mozilla.javascript.ast.ForLoop;
+import org.mozilla.javascript.ast.FunctionCall;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.IfStatement;
+import org.mozilla.javascript.ast.InfixExpression;
+import org.mozilla.javascript.ast.KeywordLiteral;
+import org.mozilla.javascript.ast.Label;
+import org.mozilla.javascript.ast.LabeledStatement;
+import org.mozilla.javascript.ast.Name;
+import org.mozilla.javascript.ast.NewExpression;
+import org.mozilla.javascript.ast.NumberLiteral;
+import org.mozilla.javascript.ast.ObjectLiteral;
+import org.mozilla.javascript.ast.ObjectProperty;
+import org.mozilla.javascript.ast.ParenthesizedExpression;
+import org.mozilla.javascript.ast.PropertyGet;
+import org.mozilla.javascript.ast.RegExpLiteral;
+import org.mozilla.javascript.ast.ReturnStatement;
+import org.mozilla.javascript.ast.Scope;
+import org.mozilla.javascript.ast.StringLiteral;
+import org.mozilla.javascript.ast.SwitchCase;
+import org.mozilla.javascript.ast.SwitchStatement;
+import org.mozilla.javascript.ast.ThrowStatement;
+import org.mozilla.javascript.ast.TryStatement;
+import org.mozilla.javascript.ast.UnaryExpression;
+import org.mozilla.javascript.ast.UpdateExpression;
+import org.mozilla.javascript.ast.VariableDeclaration;
+import org.mozilla.javascript.ast.VariableInitializer;
+import org.mozilla.javascript.ast.WhileLoop;
+import org.mozilla.javascript.ast.WithStatement;
+import org.mozilla.javascript.ast.Yield;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 现代JavaScript解析器
+ * 手写的词法分析器和递归下降语法分析器，直接解析ES2020语法并生成与Rhino相同的AST节点，
+ * 不需要JSSourcePreprocessor的文本改写。转换器不认识的语法在解析时降级为等价的ES5结构：
+ * class降级为构造函数和原型方法，箭头函数降级为函数表达式，模板字符串降级为字符串拼接，
+ * let/const降级为var，for...of降级为下标循环，解构、默认参数、剩余参数、展开、
+ * 可选链和空值合并降级为普通的赋值和条件表达式。
+ * 无法降级为等价ES5代码的语法直接报错而不改变语义：计算属性名、class表达式、私有成员、
+ * 带标签的模板字符串、对象解构中的剩余属性、BigInt字面量、async函数和await。
+ * 解析器本身没有状态，可以在多个线程中共享
+ */
+public class ModernJSParser implements JSParserFrontend {
+
+    /** 前端名称 */
+    public static final String NAME = "modern";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean needsPreprocessing() {
+        return false;
+    }
+
+    @Override
+    public AstRoot parse(String jsCode, String sourceFileName) {
+        return new Grammar(jsCode, sourceFileName).parseProgram();
+    }
+
+    /**
+     * 词法分析器，每次调用next()读取一个记号
+     * 除号与正则表达式、模板字符串的后续部分需要由语法分析器根据上下文重新扫描
+     */
+    private static final class Lexer {
+
+        static final int EOF = 0;
+        static final int NAME = 1;
+        static final int NUMBER = 2;
+        static final int STRING = 3;
+        static final int TEMPLATE = 4;
+        static final int REGEX = 5;
+        static final int PUNCT = 6;
+
+        private final String src;
+        private final int length;
+        private final String fileName;
+        private int pos;
+        private int line = 1;
+
+        /** 当前记号 */
+        int type;
+        String text;
+        int start;
+        int end;
+        int tokenLine;
+        boolean newlineBefore;
+        double number;
+        char quote;
+        boolean templateTail;
+        String regexFlags;
+
+        Lexer(String src, String fileName) {
+            this.src = src;
+            this.length = src.length();
+            this.fileName = fileName;
+        }
+
+        /**
+         * 复制当前状态，用于向前查看记号
+         */
+        Lexer(Lexer other) {
+            this.src = other.src;
+            this.length = other.length;
+            this.fileName = other.fileName;
+            this.pos = other.pos;
+            this.line = other.line;
+            this.type = other.type;
+            this.text = other.text;
+            this.start = other.start;
+            this.end = other.end;
+            this.tokenLine = other.tokenLine;
+            this.newlineBefore = other.newlineBefore;
+        }
+
+        EvaluatorException error(String message) {
+            return new EvaluatorException(message, fileName, line);
+        }
+
+        void next() {
+            newlineBefore = false;
+            skipTrivia();
+            start = pos;
+            tokenLine = line;
+            if (pos >= length) {
+                type = EOF;
+                text = "";
+                end = pos;
+                return;
+            }
+
+            char c = src.charAt(pos);
+            if (isIdentifierStart(c)) {
+                scanName();
+            } else if (isDigit(c) || c == '.' && pos + 1 < length && isDigit(src.charAt(pos + 1))) {
+                scanNumber();
+            } else if (c == '"' || c == '\'') {
+                scanString(c);
+            } else if (c == '`') {
+                pos++;
+                scanTemplate();
+            } else {
+                scanPunctuator(c);
+            }
+            end = pos;
+        }
+
+        /**
+         * 当前记号是模板字符串中${...}的右花括号时，继续扫描模板的下一段
+         */
+        void continueTemplate() {
+            pos = start + 1;
+            scanTemplate();
+            end = pos;
+        }
+
+        /**
+         * 当前记号是/或/=且位于表达式开头时，重新作为正则表达式扫描
+         */
+        void rescanRegex() {
+            pos = start + 1;
+            boolean inClass = false;
+            while (true) {
+                if (pos >= length) {
+                    throw error("正则表达式没有结束");
+                }
+                char c = src.charAt(pos);
+                if (c == '\n' || c == '\r') {
+                    throw error("正则表达式没有结束");
+                }
+                if (c == '\\') {
+                    pos += 2;
+                    continue;
+                }
+                if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    break;
+                }
+                pos++;
+            }
+            text = src.substring(start + 1, pos);
+            pos++;
+            int flagsStart = pos;
+            while (pos < length && isIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+            regexFlags = pos > flagsStart ? src.substring(flagsStart, pos) : null;
+            type = REGEX;
+            end = pos;
+        }
+
+        /**
+         * 跳过当前记号之后的空白和注释，返回下一个有效字符，到达结尾时返回0
+         */
+        char peekChar() {
+            int i = end;
+            while (i < length) {
+                char c = src.charAt(i);
+                if (c == '/' && i + 1 < length && src.charAt(i + 1) == '/') {
+                    while (i < length && src.charAt(i) != '\n') {
+                        i++;
+                    }
+                } else if (c == '/' && i + 1 < length && src.charAt(i + 1) == '*') {
+                    int close = src.indexOf("*/", i + 2);
+                    i = close < 0 ? length : close + 2;
+                } else if (Character.isWhitespace(c) || c == 0xA0 || c == 0xFEFF) {
+                    i++;
+                } else {
+                    return c;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 当前记号之后紧跟=>（同一行）时返回true
+         */
+        boolean arrowFollows() {
+            int i = end;
+            while (i < length && (src.charAt(i) == ' ' || src.charAt(i) == '\t')) {
+                i++;
+            }
+            return src.startsWith("=>", i);
+        }
+
+        private void skipTrivia() {
+            while (pos < length) {
+                char c = src.charAt(pos);
+                if (c == '\n') {
+                    line++;
+                    newlineBefore = true;
+                    pos++;
+                } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B || c == 0xA0 || c == 0xFEFF) {
+                    pos++;
+                } else if (c == '/' && pos + 1 < length && src.charAt(pos + 1) == '/') {
+                    while (pos < length && src.charAt(pos) != '\n') {
+                        pos++;
+                    }
+                } else if (c == '/' && pos + 1 < length && src.charAt(pos + 1) == '*') {
+                    int close = src.indexOf("*/", pos + 2);
+                    if (close < 0) {
+                        throw error("注释没有结束");
+                    }
+                    for (int i = pos + 2; i < close; i++) {
+                        if (src.charAt(i) == '\n') {
+                            line++;
+                            newlineBefore = true;
+                        }
+                    }
+                    pos = close + 2;
+                } else if (c == '#' && pos == 0 && pos + 1 < length && src.charAt(pos + 1) == '!') {
+                    while (pos < length && src.charAt(pos) != '\n') {
+                        pos++;
+                    }
+                } else if (c == 0x2028 || c == 0x2029) {
+                    newlineBefore = true;
+                    pos++;
+                } else if (c > 127 && Character.isSpaceChar(c)) {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private void scanName() {
+            int begin = pos++;
+            while (pos < length && isIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+            if (pos < length && src.charAt(pos) == '\\') {
+                throw error("暂不支持标识符中的Unicode转义");
+            }
+            type = NAME;
+            text = src.substring(begin, pos);
+        }
+
+        private void scanNumber() {
+            int begin = pos;
+            char c = src.charAt(pos);
+
+            int radix = 0;
+            if (c == '0' && pos + 1 < length) {
+                char prefix = src.charAt(pos + 1);
+                if (prefix == 'x' || prefix == 'X') {
+                    radix = 16;
+                } else if (prefix == 'o' || prefix == 'O') {
+                    radix = 8;
+                } else if (prefix == 'b' || prefix == 'B') {
+                    radix = 2;
+                }
+            }
+
+            if (radix != 0) {
+                pos += 2;
+                double value = 0;
+                int digits = 0;
+                while (pos < length) {
+                    char d = src.charAt(pos);
+                    if (d != '_') {
+                        int digit = Character.digit(d, radix);
+                        if (digit < 0) {
+                            break;
+                        }
+                        value = value * radix + digit;
+                        digits++;
+                    }
+                    pos++;
+                }
+                if (digits == 0) {
+                    throw error("数字格式错误");
+                }
+                if (pos < length && src.charAt(pos) == 'n') {
+                    throw error("暂不支持BigInt字面量");
+                }
+                number = value;
+            } else if (c == '0' && pos + 1 < length && isDigit(src.charAt(pos + 1))) {
+                // 旧式八进制，包含8或9时按十进制处理
+                pos++;
+                boolean octal = true;
+                while (pos < length && isDigit(src.charAt(pos))) {
+                    if (src.charAt(pos) >= '8') {
+                        octal = false;
+                    }
+                    pos++;
+                }
+                String digits = src.substring(begin, pos);
+                number = octal ? Long.parseLong(digits, 8) : Double.parseDouble(digits);
+            } else {
+                while (pos < length && (isDigit(src.charAt(pos)) || src.charAt(pos) == '_')) {
+                    pos++;
+                }
+                if (pos < length && src.charAt(pos) == '.') {
+                    pos++;
+                    while (pos < length && (isDigit(src.charAt(pos)) || src.charAt(pos) == '_')) {
+                        pos++;
+                    }
+                }
+                if (pos < length && (src.charAt(pos) == 'e' || src.charAt(pos) == 'E')) {
+                    pos++;
+                    if (pos < length && (src.charAt(pos) == '+' || src.charAt(pos) == '-')) {
+                        pos++;
+                    }
+                    if (pos >= length || !isDigit(src.charAt(pos))) {
+                        throw error("数字格式错误");
+                    }
+                    while (pos < length && isDigit(src.charAt(pos))) {
+                        pos++;
+                    }
+                } else if (pos < length && src.charAt(pos) == 'n') {
+                    throw error("暂不支持BigInt字面量");
+                }
+                number = Double.parseDouble(stripSeparators(src.substring(begin, pos)));
+            }
+
+            if (pos < length && isIdentifierStart(src.charAt(pos))) {
+                throw error("数字后面不能紧跟标识符");
+            }
+            type = NUMBER;
+            text = stripSeparators(src.substring(begin, pos));
+        }
+
+        private static String stripSeparators(String digits) {
+            return digits.indexOf('_') < 0 ? digits : digits.replace("_", "");
+        }
+
+        private void scanString(char q) {
+            int begin = ++pos;
+            StringBuilder sb = null;
+            while (true) {
+                if (pos >= length) {
+                    throw error("字符串没有结束");
+                }
+                char c = src.charAt(pos);
+                if (c == q) {
+                    break;
+                }
+                if (c == '\n' || c == '\r') {
+                    throw error("字符串没有结束");
+                }
+                if (c == '\\') {
+                    if (sb == null) {
+                        sb = new StringBuilder().append(src, begin, pos);
+                    }
+                    pos++;
+                    readEscape(sb);
+                } else {
+                    if (sb != null) {
+                        sb.append(c);
+                    }
+                    pos++;
+                }
+            }
+            text = sb == null ? src.substring(begin, pos) : sb.toString();
+            pos++;
+            type = STRING;
+            quote = q;
+        }
+
+        /**
+         * 扫描模板字符串的一段，直到反引号或${为止
+         */
+        private void scanTemplate() {
+            int begin = pos;
+            StringBuilder sb = null;
+            while (true) {
+                if (pos >= length) {
+                    throw error("模板字符串没有结束");
+                }
+                char c = src.charAt(pos);
+                if (c == '`' || c == '$' && pos + 1 < length && src.charAt(pos + 1) == '{') {
+                    text = sb == null ? src.substring(begin, pos) : sb.toString();
+                    templateTail = c == '`';
+                    pos += templateTail ? 1 : 2;
+                    break;
+                }
+                if (c == '\\') {
+                    if (sb == null) {
+                        sb = new StringBuilder().append(src, begin, pos);
+                    }
+                    pos++;
+                    readEscape(sb);
+                    continue;
+                }
+                if (c == '\r') {
+                    // 模板中的换行统一为\n
+                    if (sb == null) {
+                        sb = new StringBuilder().append(src, begin, pos);
+                    }
+                    sb.append('\n');
+                    pos++;
+                    if (pos < length && src.charAt(pos) == '\n') {
+                        pos++;
+                    }
+                    line++;
+                    continue;
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                if (sb != null) {
+                    sb.append(c);
+                }
+                pos++;
+            }
+            type = TEMPLATE;
+        }
+
+        private void readEscape(StringBuilder sb) {
+            if (pos >= length) {
+                throw error("字符串没有结束");
+            }
+            char c = src.charAt(pos++);
+            switch (c) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'v': sb.append('\u000B'); break;
+                case 'x':
+                    sb.append((char) readHex(2));
+                    break;
+                case 'u':
+                    if (pos < length && src.charAt(pos) == '{') {
+                        int close = src.indexOf('}', pos);
+                        if (close < 0) {
+                            throw error("Unicode转义格式错误");
+                        }
+                        int codePoint = Integer.parseInt(src.substring(pos + 1, close), 16);
+                        sb.appendCodePoint(codePoint);
+                        pos = close + 1;
+                    } else {
+                        sb.append((char) readHex(4));
+                    }
+                    break;
+                case '\r':
+                    // 续行
+                    if (pos < length && src.charAt(pos) == '\n') {
+                        pos++;
+                    }
+                    line++;
+                    break;
+                case '\n':
+                    line++;
+                    break;
+                case 0x2028:
+                case 0x2029:
+                    break;
+                default:
+                    if (c >= '0' && c <= '7') {
+                        // 旧式八进制转义，\0单独出现时表示空字符
+                        int value = c - '0';
+                        int max = c <= '3' ? 2 : 1;
+                        for (int i = 0; i < max && pos < length && src.charAt(pos) >= '0' && src.charAt(pos) <= '7'; i++) {
+                            value = value * 8 + (src.charAt(pos++) - '0');
+                        }
+                        sb.append((char) value);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+
+        private int readHex(int digits) {
+            if (pos + digits > length) {
+                throw error("十六进制转义格式错误");
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(src.charAt(pos++), 16);
+                if (digit < 0) {
+                    throw error("十六进制转义格式错误");
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private void scanPunctuator(char c) {
+            type = PUNCT;
+            switch (c) {
+                case '{': case '}': case '(': case ')': case '[': case ']':
+                case ';': case ',': case '~': case ':': case '@':
+                    text = String.valueOf(c);
+                    pos++;
+                    return;
+                case '.':
+                    punct(src.startsWith("...", pos) ? "..." : ".");
+                    return;
+                case '?':
+                    if (src.startsWith("??=", pos)) {
+                        punct("??=");
+                    } else if (src.startsWith("??", pos)) {
+                        punct("??");
+                    } else if (src.startsWith("?.", pos) && !(pos + 2 < length && isDigit(src.charAt(pos + 2)))) {
+                        punct("?.");
+                    } else {
+                        punct("?");
+                    }
+                    return;
+                case '=':
+                    punct(longest("===", "==", "=>", "="));
+                    return;
+                case '!':
+                    punct(longest("!==", "!=", "!"));
+                    return;
+                case '<':
+                    punct(longest("<<=", "<<", "<=", "<"));
+                    return;
+                case '>':
+                    punct(longest(">>>=", ">>>", ">>=", ">>", ">=", ">"));
+                    return;
+                case '+':
+                    punct(longest("++", "+=", "+"));
+                    return;
+                case '-':
+                    punct(longest("--", "-=", "-"));
+                    return;
+                case '*':
+                    punct(longest("**=", "**", "*=", "*"));
+                    return;
+                case '/':
+                    punct(longest("/=", "/"));
+                    return;
+                case '%':
+                    punct(longest("%=", "%"));
+                    return;
+                case '&':
+                    punct(longest("&&=", "&&", "&=", "&"));
+                    return;
+                case '|':
+                    punct(longest("||=", "||", "|=", "|"));
+                    return;
+                case '^':
+                    punct(longest("^=", "^"));
+                    return;
+                case '#':
+                    throw error("暂不支持私有成员");
+                default:
+                    throw error("无法识别的字符 '" + c + "'");
+            }
+        }
+
+        private String longest(String... candidates) {
+            for (String candidate : candidates) {
+                if (src.startsWith(candidate, pos)) {
+                    return candidate;
+                }
+            }
+            throw error("无法识别的字符");
+        }
+
+        private void punct(String value) {
+            text = value;
+            pos += value.length();
+        }
+
+        static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        static boolean isIdentifierStart(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '$' || c == '_'
+                   || c > 127 && Character.isUnicodeIdentifierStart(c);
+        }
+
+        static boolean isIdentifierPart(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '$' || c == '_'
+                   || c > 127 && (Character.isUnicodeIdentifierPart(c) || c == 0x200C || c == 0x200D);
+        }
+    }
+
+    /**
+     * 解构模式，声明中的目标是标识符，赋值中的目标也可以是属性访问
+     */
+    private static final class Pattern {
+        AstNode target;
+        List<Pattern> elements;
+        List<AstNode> keys;
+        Pattern rest;
+        AstNode defaultValue;
+
+        static Pattern of(AstNode target) {
+            Pattern pattern = new Pattern();
+            pattern.target = target;
+            return pattern;
+        }
+
+        boolean isObject() {
+            return keys != null;
+        }
+    }
+
+    /**
+     * 函数上下文，记录降级时需要在函数开头声明的临时变量
+     */
+    private static final class FunctionContext {
+        final FunctionContext outer;
+        final boolean generator;
+        List<String> temps;
+
+        FunctionContext(FunctionContext outer, boolean generator) {
+            this.outer = outer;
+            this.generator = generator;
+        }
+    }
+
+    /**
+     * 一次解析的状态
+     */
+    private static final class Grammar {
+
+        private static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "break", "case", "catch", "class", "const", "continue", "debugger", "default", "delete", "do",
+            "else", "enum", "export", "extends", "false", "finally", "for", "function", "if", "import", "in",
+            "instanceof", "new", "null", "return", "super", "switch", "this", "throw", "true", "try",
+            "typeof", "var", "void", "while", "with"));
+
+        private static final Map<String, Integer> BINARY_OPERATORS = new HashMap<>();
+        private static final Map<String, Integer> ASSIGN_OPERATORS = new HashMap<>();
+
+        /** 需要降级的复合赋值运算符 */
+        private static final int ASSIGN_EXP = -1;
+        private static final int ASSIGN_AND = -2;
+        private static final int ASSIGN_OR = -3;
+        private static final int ASSIGN_NULLISH = -4;
+
+        static {
+            BINARY_OPERATORS.put("||", Token.OR);
+            BINARY_OPERATORS.put("&&", Token.AND);
+            BINARY_OPERATORS.put("|", Token.BITOR);
+            BINARY_OPERATORS.put("^", Token.BITXOR);
+            BINARY_OPERATORS.put("&", Token.BITAND);
+            BINARY_OPERATORS.put("==", Token.EQ);
+            BINARY_OPERATORS.put("!=", Token.NE);
+            BINARY_OPERATORS.put("===", Token.SHEQ);
+            BINARY_OPERATORS.put("!==", Token.SHNE);
+            BINARY_OPERATORS.put("<", Token.LT);
+            BINARY_OPERATORS.put(">", Token.GT);
+            BINARY_OPERATORS.put("<=", Token.LE);
+            BINARY_OPERATORS.put(">=", Token.GE);
+            BINARY_OPERATORS.put("<<", Token.LSH);
+            BINARY_OPERATORS.put(">>", Token.RSH);
+            BINARY_OPERATORS.put(">>>", Token.URSH);
+            BINARY_OPERATORS.put("+", Token.ADD);
+            BINARY_OPERATORS.put("-", Token.SUB);
+            BINARY_OPERATORS.put("*", Token.MUL);
+            BINARY_OPERATORS.put("/", Token.DIV);
+            BINARY_OPERATORS.put("%", Token.MOD);
+            BINARY_OPERATORS.put("instanceof", Token.INSTANCEOF);
+            BINARY_OPERATORS.put("in", Token.IN);
+
+            ASSIGN_OPERATORS.put("=", Token.ASSIGN);
+            ASSIGN_OPERATORS.put("+=", Token.ASSIGN_ADD);
+            ASSIGN_OPERATORS.put("-=", Token.ASSIGN_SUB);
+            ASSIGN_OPERATORS.put("*=", Token.ASSIGN_MUL);
+            ASSIGN_OPERATORS.put("/=", Token.ASSIGN_DIV);
+            ASSIGN_OPERATORS.put("%=", Token.ASSIGN_MOD);
+            ASSIGN_OPERATORS.put("<<=", Token.ASSIGN_LSH);
+            ASSIGN_OPERATORS.put(">>=", Token.ASSIGN_RSH);
+            ASSIGN_OPERATORS.put(">>>=", Token.ASSIGN_URSH);
+            ASSIGN_OPERATORS.put("&=", Token.ASSIGN_BITAND);
+            ASSIGN_OPERATORS.put("|=", Token.ASSIGN_BITOR);
+            ASSIGN_OPERATORS.put("^=", Token.ASSIGN_BITXOR);
+            ASSIGN_OPERATORS.put("**=", ASSIGN_EXP);
+            ASSIGN_OPERATORS.put("&&=", ASSIGN_AND);
+            ASSIGN_OPERATORS.put("||=", ASSIGN_OR);
+            ASSIGN_OPERATORS.put("??=", ASSIGN_NULLISH);
+        }
+
+        private final Lexer lx;
+        private final String source;
+        private final String fileName;
+        private int prevEnd;
+        private FunctionContext context;
+        private int tempCounter;
+        /** 当前所在类的父类表达式，不在派生类中时为null */
+        private AstNode superClass;
+        private boolean inStaticMember;
+        /** 下一个赋值表达式是括号中的直接成员，可能是箭头函数的参数，解构赋值暂不降级 */
+        private boolean coverItem;
+
+        Grammar(String source, String fileName) {
+            this.source = source;
+            this.fileName = fileName;
+            this.lx = new Lexer(source, fileName);
+        }
+
+        AstRoot parseProgram() {
+            AstRoot root = new AstRoot(0);
+            root.setSourceName(fileName);
+            context = new FunctionContext(null, false);
+            lx.next();
+            while (lx.type != Lexer.EOF) {
+                parseStatementListItem(root);
+            }
+            declareTemps(root, context);
+            root.setLength(source.length());
+            return root;
+        }
+
+        // ---------------------------------------------------------------- 记号辅助
+
+        private void next() {
+            prevEnd = lx.end;
+            lx.next();
+        }
+
+        private boolean at(String punct) {
+            return lx.type == Lexer.PUNCT && lx.text.equals(punct);
+        }
+
+        private boolean atName(String word) {
+            return lx.type == Lexer.NAME && lx.text.equals(word);
+        }
+
+        private boolean eat(String punct) {
+            if (at(punct)) {
+                next();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String punct) {
+            if (!at(punct)) {
+                throw error("缺少 " + punct + "，实际为" + describe());
+            }
+            next();
+        }
+
+        private void expectName(String word) {
+            if (!atName(word)) {
+                throw error("缺少 " + word + "，实际为" + describe());
+            }
+            next();
+        }
+
+        private void consumeSemicolon() {
+            if (eat(";")) {
+                return;
+            }
+            if (at("}") || lx.type == Lexer.EOF || lx.newlineBefore) {
+                return;
+            }
+            throw unexpected();
+        }
+
+        private EvaluatorException error(String message) {
+            return new EvaluatorException(message, fileName, lx.tokenLine);
+        }
+
+        private EvaluatorException unexpected() {
+            return error("意外的" + describe());
+        }
+
+        private String describe() {
+            return lx.type == Lexer.EOF ? "文件结尾" : "'" + source.substring(lx.start, lx.end) + "'";
+        }
+
+        private <T extends AstNode> T finish(T node, int start) {
+            node.setLength(prevEnd - start);
+            return node;
+        }
+
+        private boolean insideFunction() {
+            return context.outer != null;
+        }
+
+        /**
+         * 当前记号是async且其后同一行紧跟function时返回true
+         */
+        private boolean asyncFunctionFollows() {
+            if (!atName("async")) {
+                return false;
+            }
+            Lexer ahead = new Lexer(lx);
+            ahead.next();
+            return ahead.type == Lexer.NAME && ahead.text.equals("function") && !ahead.newlineBefore;
+        }
+
+        /**
+         * let后面是标识符或解构模式时作为声明
+         */
+        private boolean letDeclarationFollows() {
+            char c = lx.peekChar();
+            return c == '[' || c == '{' || Lexer.isIdentifierStart(c);
+        }
+
+        /**
+         * 对象和类成员中的get、set、static、async后面直接是这些字符时，它本身就是成员名
+         */
+        private boolean memberNameEnds() {
+            char c = lx.peekChar();
+            return c == ',' || c == ':' || c == '(' || c == '}' || c == '=' || c == ';' || c == 0;
+        }
+
+        // ---------------------------------------------------------------- 语句
+
+        private void add(AstNode container, AstNode statement) {
+            if (container instanceof SwitchCase) {
+                ((SwitchCase) container).addStatement(statement);
+            } else {
+                container.addChild(statement);
+            }
+        }
+
+        /**
+         * 解析一条语句或声明，降级产生的多条语句依次加入容器
+         */
+        private void parseStatementListItem(AstNode container) {
+            if (lx.type == Lexer.NAME) {
+                switch (lx.text) {
+                    case "function":
+                        add(container, parseFunction(FunctionNode.FUNCTION_STATEMENT, lx.start, lx.tokenLine));
+                        return;
+                    case "async":
+                        if (asyncFunctionFollows()) {
+                            throw error("暂不支持async函数");
+                        }
+                        break;
+                    case "class":
+                        parseClassDeclaration(container);
+                        return;
+                    case "let":
+                        if (!letDeclarationFollows()) {
+                            break;
+                        }
+                        // fall through
+                    case "const":
+                        add(container, parseVariableStatement());
+                        return;
+                    case "import":
+                        char c = lx.peekChar();
+                        if (c != '(' && c != '.') {
+                            skipImport();
+                            return;
+                        }
+                        break;
+                    case "export":
+                        parseExport(container);
+                        return;
+                    default:
+                        break;
+                }
+            }
+            add(container, parseStatement());
+        }
+
+        private AstNode parseStatement() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            if (at("{")) {
+                return parseBlock();
+            }
+            if (at(";")) {
+                next();
+                EmptyStatement empty = new EmptyStatement(start, 1);
+                empty.setLineno(line);
+                return empty;
+            }
+            if (lx.type == Lexer.NAME) {
+                switch (lx.text) {
+                    case "var":
+                        return parseVariableStatement();
+                    case "if":
+                        return parseIf();
+                    case "for":
+                        return parseFor();
+                    case "while":
+                        return parseWhile();
+                    case "do":
+                        return parseDo();
+                    case "return":
+                        return parseReturn();
+                    case "break":
+                    case "continue":
+                        return parseJump();
+                    case "throw":
+                        return parseThrow();
+                    case "try":
+                        return parseTry();
+                    case "switch":
+                        return parseSwitch();
+                    case "with":
+                        return parseWith();
+                    case "debugger":
+                        next();
+                        consumeSemicolon();
+                        EmptyStatement empty = new EmptyStatement(start, prevEnd - start);
+                        empty.setLineno(line);
+                        return empty;
+                    case "function":
+                        return parseFunction(FunctionNode.FUNCTION_STATEMENT, start, line);
+                    case "class":
+                    case "const":
+                        // 只能出现单条语句的位置上的声明放入块中
+                        Scope scope = new Scope(start);
+                        scope.setLineno(line);
+                        parseStatementListItem(scope);
+                        return finish(scope, start);
+                    default:
+                        break;
+                }
+            }
+            return parseExpressionStatement();
+        }
+
+        private Scope parseBlock() {
+            int start = lx.start;
+            Scope block = new Scope(start);
+            block.setLineno(lx.tokenLine);
+            expect("{");
+            while (!at("}")) {
+                if (lx.type == Lexer.EOF) {
+                    throw error("代码块没有结束");
+                }
+                parseStatementListItem(block);
+            }
+            next();
+            return finish(block, start);
+        }
+
+        private AstNode parseExpressionStatement() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            AstNode expr = parseExpression(false);
+
+            if (expr instanceof Name && at(":")) {
+                next();
+                LabeledStatement labeled = new LabeledStatement(start);
+                labeled.setLineno(line);
+                Name name = (Name) expr;
+                Label label = new Label(start, name.length(), name.getIdentifier());
+                label.setLineno(line);
+                labeled.addLabel(label);
+                labeled.setStatement(parseStatement());
+                return finish(labeled, start);
+            }
+
+            consumeSemicolon();
+            ExpressionStatement statement = new ExpressionStatement(expr, !insideFunction());
+            statement.setLineno(line);
+            return finish(statement, start);
+        }
+
+        private VariableDeclaration parseVariableStatement() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            // let和const都按var处理
+            next();
+            VariableDeclaration declaration = newDeclaration(start, line);
+            do {
+                parseDeclarator(declaration, false);
+            } while (eat(","));
+            consumeSemicolon();
+            declaration.setIsStatement(true);
+            return finish(declaration, start);
+        }
+
+        private VariableDeclaration newDeclaration(int start, int line) {
+            VariableDeclaration declaration = new VariableDeclaration(start);
+            declaration.setType(Token.VAR);
+            declaration.setLineno(line);
+            return declaration;
+        }
+
+        private void parseDeclarator(VariableDeclaration declaration, boolean noIn) {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            if (at("[") || at("{")) {
+                Pattern pattern = parseBindingTarget();
+                expect("=");
+                addPatternVariables(declaration, pattern, parseAssignment(noIn), start, line);
+                return;
+            }
+            Name name = parseBindingIdentifier();
+            AstNode initializer = eat("=") ? parseAssignment(noIn) : null;
+            declaration.addVariable(newInitializer(name, initializer, start, line));
+        }
+
+        private VariableInitializer newInitializer(AstNode target, AstNode initializer, int start, int line) {
+            VariableInitializer variable = new VariableInitializer(start);
+            variable.setLineno(line);
+            variable.setTarget(target);
+            if (initializer != null) {
+                variable.setInitializer(initializer);
+            }
+            return finish(variable, start);
+        }
+
+        private IfStatement parseIf() {
+            int start = lx.start;
+            IfStatement statement = new IfStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            expect("(");
+            statement.setCondition(parseExpression(false));
+            expect(")");
+            statement.setThenPart(parseStatement());
+            if (atName("else")) {
+                next();
+                statement.setElsePart(parseStatement());
+            }
+            return finish(statement, start);
+        }
+
+        private WhileLoop parseWhile() {
+            int start = lx.start;
+            WhileLoop loop = new WhileLoop(start);
+            loop.setLineno(lx.tokenLine);
+            next();
+            expect("(");
+            loop.setCondition(parseExpression(false));
+            expect(")");
+            loop.setBody(parseStatement());
+            return finish(loop, start);
+        }
+
+        private DoLoop parseDo() {
+            int start = lx.start;
+            DoLoop loop = new DoLoop(start);
+            loop.setLineno(lx.tokenLine);
+            next();
+            loop.setBody(parseStatement());
+            expectName("while");
+            expect("(");
+            loop.setCondition(parseExpression(false));
+            expect(")");
+            eat(";");
+            return finish(loop, start);
+        }
+
+        private AstNode parseFor() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            if (atName("await")) {
+                throw error("暂不支持for await");
+            }
+            expect("(");
+
+            AstNode init = null;
+            if (at(";")) {
+                // 没有初始化部分
+            } else if (atName("var") || atName("const") || atName("let") && letDeclarationFollows()) {
+                int declStart = lx.start;
+                int declLine = lx.tokenLine;
+                next();
+                if (at("[") || at("{")) {
+                    Pattern pattern = parseBindingTarget();
+                    if (!atName("of")) {
+                        throw error("暂不支持for...in中的解构");
+                    }
+                    return parseForOf(start, line, pattern, true);
+                }
+
+                Name first = parseBindingIdentifier();
+                if (atName("of")) {
+                    return parseForOf(start, line, Pattern.of(first), true);
+                }
+                VariableDeclaration declaration = newDeclaration(declStart, declLine);
+                if (atName("in")) {
+                    declaration.addVariable(newInitializer(first, null, first.getPosition(), declLine));
+                    return parseForIn(start, line, finish(declaration, declStart));
+                }
+                AstNode firstInit = eat("=") ? parseAssignment(true) : null;
+                declaration.addVariable(newInitializer(first, firstInit, first.getPosition(), declLine));
+                while (eat(",")) {
+                    parseDeclarator(declaration, true);
+                }
+                init = finish(declaration, declStart);
+            } else {
+                AstNode expr = parseExpression(true);
+                if (atName("of")) {
+                    return parseForOf(start, line, toPattern(expr), false);
+                }
+                if (atName("in")) {
+                    return parseForIn(start, line, expr);
+                }
+                init = expr;
+            }
+
+            expect(";");
+            AstNode condition = at(";") ? empty(lx.start, lx.tokenLine) : parseExpression(false);
+            expect(";");
+            AstNode increment = at(")") ? empty(lx.start, lx.tokenLine) : parseExpression(false);
+            expect(")");
+
+            ForLoop loop = new ForLoop(start);
+            loop.setLineno(line);
+            loop.setInitializer(init != null ? init : empty(start, line));
+            loop.setCondition(condition);
+            loop.setIncrement(increment);
+            loop.setBody(parseStatement());
+            return finish(loop, start);
+        }
+
+        private ForInLoop parseForIn(int start, int line, AstNode iterator) {
+            next();
+            AstNode object = parseExpression(false);
+            expect(")");
+            ForInLoop loop = new ForInLoop(start);
+            loop.setLineno(line);
+            loop.setIterator(iterator);
+            loop.setIteratedObject(object);
+            loop.setBody(parseStatement());
+            return finish(loop, start);
+        }
+
+        /**
+         * for (x of items) 降级为
+         * for (var x_index = 0; x_index < items.length; x_index++) { var x = items[x_index]; ... }
+         */
+        private ForLoop parseForOf(int start, int line, Pattern pattern, boolean declared) {
+            next();
+            AstNode iterable = parseAssignment(false);
+            expect(")");
+
+            String baseName = pattern.target instanceof Name ? ((Name) pattern.target).getIdentifier() : newTemp();
+            String index = baseName + "_index";
+            VariableDeclaration init = newDeclaration(start, line);
+            init.addVariable(newInitializer(name(index, start, line), number(0, start, line), start, line));
+
+            AstNode items = iterable;
+            AstNode itemsAgain = copy(iterable);
+            if (itemsAgain == null) {
+                String temp = newTemp();
+                init.addVariable(newInitializer(name(temp, start, line), iterable, start, line));
+                items = name(temp, start, line);
+                itemsAgain = name(temp, start, line);
+            }
+
+            ForLoop loop = new ForLoop(start);
+            loop.setLineno(line);
+            loop.setInitializer(init);
+            loop.setCondition(infix(Token.LT, name(index, start, line), propertyGet(items, "length")));
+            Name counter = name(index, start, line);
+            UpdateExpression increment = new UpdateExpression(Token.INC, start + index.length(), counter, true);
+            increment.setLineno(line);
+            loop.setIncrement(increment);
+
+            AstNode element = elementGet(itemsAgain, name(index, start, line));
+            AstNode binding;
+            if (declared) {
+                VariableDeclaration declaration = newDeclaration(start, line);
+                addPatternVariables(declaration, pattern, element, start, line);
+                declaration.setIsStatement(true);
+                binding = declaration;
+            } else {
+                binding = statement(assignPattern(pattern, element));
+            }
+
+            AstNode body = parseStatement();
+            Scope block;
+            if (body instanceof Scope) {
+                block = (Scope) body;
+            } else {
+                block = new Scope(body.getPosition());
+                block.setLineno(body.getLineno());
+                block.addChild(body);
+            }
+            block.addChildToFront(binding);
+            binding.setParent(block);
+            loop.setBody(block);
+            return finish(loop, start);
+        }
+
+        private ReturnStatement parseReturn() {
+            int start = lx.start;
+            ReturnStatement statement = new ReturnStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            if (!at(";") && !at("}") && lx.type != Lexer.EOF && !lx.newlineBefore) {
+                statement.setReturnValue(parseExpression(false));
+            }
+            consumeSemicolon();
+            return finish(statement, start);
+        }
+
+        private AstNode parseJump() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            boolean isBreak = atName("break");
+            next();
+            Name label = null;
+            if (lx.type == Lexer.NAME && !lx.newlineBefore && !RESERVED.contains(lx.text)) {
+                label = parseBindingIdentifier();
+            }
+            consumeSemicolon();
+            if (isBreak) {
+                BreakStatement statement = new BreakStatement(start);
+                statement.setLineno(line);
+                statement.setBreakLabel(label);
+                return finish(statement, start);
+            }
+            ContinueStatement statement = new ContinueStatement(start);
+            statement.setLineno(line);
+            statement.setLabel(label);
+            return finish(statement, start);
+        }
+
+        private ThrowStatement parseThrow() {
+            int start = lx.start;
+            ThrowStatement statement = new ThrowStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            if (lx.newlineBefore) {
+                throw error("throw后面不能换行");
+            }
+            statement.setExpression(parseExpression(false));
+            consumeSemicolon();
+            return finish(statement, start);
+        }
+
+        private TryStatement parseTry() {
+            int start = lx.start;
+            TryStatement statement = new TryStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            statement.setTryBlock(parseBlock());
+
+            boolean handled = false;
+            if (atName("catch")) {
+                int catchStart = lx.start;
+                int catchLine = lx.tokenLine;
+                next();
+                CatchClause clause = new CatchClause(catchStart);
+                clause.setLineno(catchLine);
+
+                // 省略的catch参数和解构参数都使用临时变量
+                Pattern param = null;
+                if (eat("(")) {
+                    param = parseBindingTarget();
+                    expect(")");
+                }
+                Name varName = param != null && param.target instanceof Name
+                    ? (Name) param.target : name(newTemp(), catchStart, catchLine);
+                clause.setVarName(varName);
+
+                int bodyStart = lx.start;
+                Block body = new Block(bodyStart);
+                body.setLineno(lx.tokenLine);
+                expect("{");
+                if (param != null && param.target == null) {
+                    VariableDeclaration declaration = newDeclaration(bodyStart, catchLine);
+                    addPatternVariables(declaration, param, name(varName.getIdentifier(), bodyStart, catchLine),
+                                        bodyStart, catchLine);
+                    declaration.setIsStatement(true);
+                    body.addChild(declaration);
+                }
+                while (!at("}")) {
+                    if (lx.type == Lexer.EOF) {
+                        throw error("代码块没有结束");
+                    }
+                    parseStatementListItem(body);
+                }
+                next();
+                clause.setBody(finish(body, bodyStart));
+                statement.addCatchClause(finish(clause, catchStart));
+                handled = true;
+            }
+            if (atName("finally")) {
+                next();
+                statement.setFinallyBlock(parseBlock());
+                handled = true;
+            }
+            if (!handled) {
+                throw error("try语句缺少catch或finally");
+            }
+            return finish(statement, start);
+        }
+
+        private SwitchStatement parseSwitch() {
+            int start = lx.start;
+            SwitchStatement statement = new SwitchStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            expect("(");
+            statement.setExpression(parseExpression(false));
+            expect(")");
+            expect("{");
+            while (!at("}")) {
+                int caseStart = lx.start;
+                SwitchCase switchCase = new SwitchCase(caseStart);
+                switchCase.setLineno(lx.tokenLine);
+                if (atName("case")) {
+                    next();
+                    switchCase.setExpression(parseExpression(false));
+                } else if (atName("default")) {
+                    next();
+                } else {
+                    throw unexpected();
+                }
+                expect(":");
+                while (!at("}") && !atName("case") && !atName("default")) {
+                    if (lx.type == Lexer.EOF) {
+                        throw error("switch语句没有结束");
+                    }
+                    parseStatementListItem(switchCase);
+                }
+                statement.addCase(finish(switchCase, caseStart));
+            }
+            next();
+            return finish(statement, start);
+        }
+
+        private WithStatement parseWith() {
+            int start = lx.start;
+            WithStatement statement = new WithStatement(start);
+            statement.setLineno(lx.tokenLine);
+            next();
+            expect("(");
+            statement.setExpression(parseExpression(false));
+            expect(")");
+            statement.setStatement(parseStatement());
+            return finish(statement, start);
+        }
+
+        /**
+         * import声明在转换时不需要，整条跳过
+         */
+        private void skipImport() {
+            next();
+            if (lx.type != Lexer.STRING) {
+                while (!atName("from")) {
+                    if (lx.type == Lexer.EOF) {
+                        throw error("import语句没有结束");
+                    }
+                    next();
+                }
+                next();
+            }
+            if (lx.type != Lexer.STRING) {
+                throw unexpected();
+            }
+            next();
+            consumeSemicolon();
+        }
+
+        /**
+         * export只保留被导出的声明，重新导出和导出列表整条跳过
+         */
+        private void parseExport(AstNode container) {
+            int line = lx.tokenLine;
+            next();
+            if (atName("default")) {
+                next();
+                if (atName("function") || atName("class") || asyncFunctionFollows()) {
+                    parseStatementListItem(container);
+                    return;
+                }
+                AstNode expr = parseAssignment(false);
+                consumeSemicolon();
+                if (!(expr instanceof Name)) {
+                    ExpressionStatement statement = new ExpressionStatement(expr, !insideFunction());
+                    statement.setLineno(line);
+                    add(container, statement);
+                }
+                return;
+            }
+            if (at("*") || at("{")) {
+                if (eat("*")) {
+                    if (atName("as")) {
+                        next();
+                        next();
+                    }
+                } else {
+                    while (!at("}")) {
+                        if (lx.type == Lexer.EOF) {
+                            throw error("export语句没有结束");
+                        }
+                        next();
+                    }
+                    next();
+                }
+                if (atName("from")) {
+                    next();
+                    if (lx.type != Lexer.STRING) {
+                        throw unexpected();
+                    }
+                    next();
+                }
+                consumeSemicolon();
+                return;
+            }
+            parseStatementListItem(container);
+        }
+
+        // ---------------------------------------------------------------- 函数
+
+        private FunctionNode parseFunction(int functionType, int start, int line) {
+            expectName("function");
+            boolean generator = eat("*");
+            FunctionNode function = new FunctionNode(start);
+            function.setLineno(line);
+            if (lx.type == Lexer.NAME) {
+                function.setFunctionName(parseBindingIdentifier());
+            }
+            function.setFunctionType(functionType);
+            if (generator) {
+                function.setIsGenerator();
+                function.setIsES6Generator();
+            }
+            parseFunctionRest(function, generator);
+            return finish(function, start);
+        }
+
+        /**
+         * 解析对象字面量和类中的方法，当前记号是参数列表的左括号
+         */
+        private FunctionNode parseMethod(int line, boolean generator) {
+            int start = lx.start;
+            FunctionNode function = new FunctionNode(start);
+            function.setLineno(line);
+            function.setFunctionType(FunctionNode.FUNCTION_EXPRESSION);
+            parseFunctionRest(function, generator);
+            return finish(function, start);
+        }
+
+        private void parseFunctionRest(FunctionNode function, boolean generator) {
+            expect("(");
+            List<Pattern> params = new ArrayList<>();
+            Pattern rest = null;
+            while (!at(")")) {
+                if (eat("...")) {
+                    rest = parseBindingTarget();
+                    break;
+                }
+                params.add(parseBindingElement());
+                if (!at(")")) {
+                    expect(",");
+                }
+            }
+            expect(")");
+            if (!at("{")) {
+                throw error("缺少函数体");
+            }
+            parseFunctionBody(function, params, rest, generator);
+        }
+
+        /**
+         * 箭头函数降级为函数表达式，表达式函数体改为return语句
+         */
+        private FunctionNode parseArrowFunction(int start, int line, List<Pattern> params, Pattern rest) {
+            FunctionNode function = new FunctionNode(start);
+            function.setLineno(line);
+            function.setFunctionType(FunctionNode.FUNCTION_EXPRESSION);
+            parseFunctionBody(function, params, rest, false);
+            return finish(function, start);
+        }
+
+        private void parseFunctionBody(FunctionNode function, List<Pattern> params, Pattern rest,
+                                       boolean generator) {
+            FunctionContext outer = context;
+            context = new FunctionContext(outer, generator);
+
+            int bodyStart = lx.start;
+            int bodyLine = lx.tokenLine;
+            Block body = new Block(bodyStart);
+            body.setLineno(bodyLine);
+            addParams(function, params, rest, body, bodyStart, bodyLine);
+
+            if (eat("{")) {
+                while (!at("}")) {
+                    if (lx.type == Lexer.EOF) {
+                        throw error("函数体没有结束");
+                    }
+                    parseStatementListItem(body);
+                }
+                next();
+            } else {
+                AstNode value = parseAssignment(false);
+                ReturnStatement statement = new ReturnStatement(value.getPosition());
+                statement.setLineno(value.getLineno());
+                statement.setReturnValue(value);
+                body.addChild(finish(statement, value.getPosition()));
+            }
+
+            declareTemps(body, context);
+            context = outer;
+            function.setBody(finish(body, bodyStart));
+        }
+
+        /**
+         * 普通参数直接加入参数列表；默认值、解构和剩余参数改写为函数开头的语句
+         */
+        private void addParams(FunctionNode function, List<Pattern> params, Pattern rest,
+                               Block body, int pos, int line) {
+            for (Pattern param : params) {
+                if (param.target instanceof Name) {
+                    Name name = (Name) param.target;
+                    function.addParam(name);
+                    if (param.defaultValue != null) {
+                        // if (x === undefined) x = 默认值;
+                        IfStatement statement = new IfStatement(pos);
+                        statement.setLineno(line);
+                        statement.setCondition(infix(Token.SHEQ, name(name.getIdentifier(), pos, line),
+                                                     name("undefined", pos, line)));
+                        statement.setThenPart(statement(assign(name(name.getIdentifier(), pos, line), param.defaultValue)));
+                        body.addChild(statement);
+                    }
+                } else {
+                    String temp = newTemp();
+                    function.addParam(name(temp, pos, line));
+                    VariableDeclaration declaration = newDeclaration(pos, line);
+                    addPatternVariables(declaration, param, name(temp, pos, line), pos, line);
+                    declaration.setIsStatement(true);
+                    body.addChild(declaration);
+                }
+            }
+            if (rest != null) {
+                // var rest = Array.prototype.slice.call(arguments, n);
+                AstNode slice = propertyGet(propertyGet(propertyGet(name("Array", pos, line), "prototype"), "slice"), "call");
+                AstNode value = call(slice, name("arguments", pos, line), number(params.size(), pos, line));
+                VariableDeclaration declaration = newDeclaration(pos, line);
+                addPatternVariables(declaration, rest, value, pos, line);
+                declaration.setIsStatement(true);
+                body.addChild(declaration);
+            }
+        }
+
+        /**
+         * 在函数体或脚本开头声明降级时使用的临时变量
+         */
+        private void declareTemps(AstNode body, FunctionContext function) {
+            if (function.temps == null) {
+                return;
+            }
+            int pos = body.getPosition();
+            int line = body.getLineno();
+            VariableDeclaration declaration = newDeclaration(pos, line);
+            for (String temp : function.temps) {
+                declaration.addVariable(newInitializer(name(temp, pos, line), null, pos, line));
+            }
+            declaration.setIsStatement(true);
+            body.addChildToFront(declaration);
+            declaration.setParent(body);
+        }
+
+        // ---------------------------------------------------------------- 类
+
+        /**
+         * class降级为构造函数和原型方法：
+         * function X(a) {...}  X.prototype.m = function(...) {...};  X.s = function(...) {...};
+         */
+        private void parseClassDeclaration(AstNode container) {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            Name className = parseBindingIdentifier();
+            String classId = className.getIdentifier();
+
+            AstNode parent = null;
+            if (atName("extends")) {
+                next();
+                parent = parseLeftHandSide();
+                if (copy(parent) == null) {
+                    throw error("暂不支持复杂的父类表达式");
+                }
+            }
+            expect("{");
+
+            AstNode savedSuper = superClass;
+            boolean savedStatic = inStaticMember;
+            superClass = parent;
+
+            FunctionNode constructor = null;
+            List<AstNode> members = new ArrayList<>();
+            List<AstNode> instanceFields = new ArrayList<>();
+            Map<String, ObjectLiteral> accessors = new LinkedHashMap<>();
+
+            while (!at("}")) {
+                if (eat(";")) {
+                    continue;
+                }
+                if (lx.type == Lexer.EOF) {
+                    throw error("类定义没有结束");
+                }
+                int memberLine = lx.tokenLine;
+                boolean isStatic = false;
+                if (atName("static") && !memberNameEnds()) {
+                    next();
+                    isStatic = true;
+                }
+                inStaticMember = isStatic;
+
+                String kind = null;
+                if ((atName("get") || atName("set")) && !memberNameEnds()) {
+                    kind = lx.text;
+                    next();
+                }
+                if (atName("async") && !memberNameEnds()) {
+                    throw error("暂不支持async方法");
+                }
+                boolean generator = eat("*");
+                int keyPos = lx.start;
+                AstNode key = parsePropertyName();
+                String keyName = propertyKeyName(key);
+                AstNode owner = isStatic ? name(classId, keyPos, memberLine)
+                                         : propertyGet(name(classId, keyPos, memberLine), "prototype");
+
+                if (at("(")) {
+                    FunctionNode method = parseMethod(memberLine, generator);
+                    if (kind != null) {
+                        String descriptorKey = (isStatic ? "static " : "") + keyName;
+                        ObjectLiteral descriptor = accessors.get(descriptorKey);
+                        if (descriptor == null) {
+                            descriptor = new ObjectLiteral(keyPos);
+                            descriptor.setLineno(memberLine);
+                            accessors.put(descriptorKey, descriptor);
+                            members.add(defineProperty(owner, keyName, descriptor));
+                        }
+                        descriptor.addElement(property(name(kind, keyPos, memberLine), method));
+                    } else if (!isStatic && "constructor".equals(keyName)) {
+                        constructor = method;
+                    } else {
+                        members.add(statement(assign(memberGet(owner, key, keyName), method)));
+                    }
+                } else {
+                    // 类字段：静态字段赋给类本身，实例字段在构造函数开头赋值
+                    AstNode value = eat("=") ? parseAssignment(false) : name("undefined", keyPos, memberLine);
+                    consumeSemicolon();
+                    if (isStatic) {
+                        members.add(statement(assign(memberGet(owner, key, keyName), value)));
+                    } else {
+                        AstNode target = memberGet(keyword(Token.THIS, keyPos, memberLine), key, keyName);
+                        instanceFields.add(statement(assign(target, value), true));
+                    }
+                }
+            }
+            next();
+            superClass = savedSuper;
+            inStaticMember = savedStatic;
+
+            if (constructor == null) {
+                constructor = new FunctionNode(start);
+                constructor.setLineno(line);
+                Block body = new Block(start);
+                body.setLineno(line);
+                if (parent != null) {
+                    // 默认构造函数把参数原样传给父类
+                    AstNode apply = propertyGet(copy(parent), "apply");
+                    body.addChild(statement(call(apply, keyword(Token.THIS, start, line), name("arguments", start, line)), true));
+                }
+                constructor.setBody(body);
+            }
+            constructor.setFunctionName(className);
+            constructor.setFunctionType(FunctionNode.FUNCTION_STATEMENT);
+
+            AstNode body = constructor.getBody();
+            AstNode anchor = parent != null ? (AstNode) body.getFirstChild() : null;
+            for (int i = instanceFields.size() - 1; i >= 0; i--) {
+                AstNode field = instanceFields.get(i);
+                if (anchor != null) {
+                    body.addChildAfter(field, anchor);
+                } else {
+                    body.addChildToFront(field);
+                }
+                field.setParent(body);
+            }
+            add(container, constructor);
+
+            if (parent != null) {
+                // X.prototype = Object.create(Base.prototype); X.prototype.constructor = X;
+                AstNode prototype = propertyGet(name(classId, start, line), "prototype");
+                AstNode create = call(propertyGet(name("Object", start, line), "create"), propertyGet(copy(parent), "prototype"));
+                add(container, statement(assign(prototype, create)));
+                AstNode constructorRef = propertyGet(propertyGet(name(classId, start, line), "prototype"), "constructor");
+                add(container, statement(assign(constructorRef, name(classId, start, line))));
+            }
+            for (AstNode member : members) {
+                add(container, member);
+            }
+            for (ObjectLiteral descriptor : accessors.values()) {
+                descriptor.addElement(property(name("configurable", descriptor.getPosition(), descriptor.getLineno()),
+                                               keyword(Token.TRUE, descriptor.getPosition(), descriptor.getLineno())));
+            }
+        }
+
+        /**
+         * Object.defineProperty(owner, "name", descriptor);
+         */
+        private AstNode defineProperty(AstNode owner, String keyName, ObjectLiteral descriptor) {
+            AstNode define = propertyGet(name("Object", owner.getPosition(), owner.getLineno()), "defineProperty");
+            return statement(call(define, owner, string(keyName, owner.getPosition(), owner.getLineno()), descriptor));
+        }
+
+        private String propertyKeyName(AstNode key) {
+            if (key instanceof Name) {
+                return ((Name) key).getIdentifier();
+            }
+            if (key instanceof StringLiteral) {
+                return ((StringLiteral) key).getValue();
+            }
+            return ((NumberLiteral) key).getValue();
+        }
+
+        /**
+         * 成员名是标识符时生成owner.name，否则生成owner["name"]
+         */
+        private AstNode memberGet(AstNode owner, AstNode key, String keyName) {
+            if (key instanceof Name || isIdentifier(keyName)) {
+                return propertyGet(owner, keyName);
+            }
+            return elementGet(owner, key);
+        }
+
+        private static boolean isIdentifier(String text) {
+            if (text.isEmpty() || !Lexer.isIdentifierStart(text.charAt(0)) || RESERVED.contains(text)) {
+                return false;
+            }
+            for (int i = 1; i < text.length(); i++) {
+                if (!Lexer.isIdentifierPart(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // ---------------------------------------------------------------- 解构
+
+        private Pattern parseBindingElement() {
+            Pattern pattern = parseBindingTarget();
+            if (eat("=")) {
+                pattern.defaultValue = parseAssignment(false);
+            }
+            return pattern;
+        }
+
+        private Pattern parseBindingTarget() {
+            if (eat("[")) {
+                Pattern pattern = new Pattern();
+                pattern.elements = new ArrayList<>();
+                while (!at("]")) {
+                    if (eat(",")) {
+                        pattern.elements.add(null);
+                        continue;
+                    }
+                    if (eat("...")) {
+                        pattern.rest = parseBindingTarget();
+                        break;
+                    }
+                    pattern.elements.add(parseBindingElement());
+                    if (!at("]")) {
+                        expect(",");
+                    }
+                }
+                expect("]");
+                return pattern;
+            }
+            if (eat("{")) {
+                Pattern pattern = new Pattern();
+                pattern.elements = new ArrayList<>();
+                pattern.keys = new ArrayList<>();
+                while (!at("}")) {
+                    if (at("...")) {
+                        throw error("暂不支持对象解构中的剩余属性");
+                    }
+                    AstNode key = parsePropertyName();
+                    Pattern value;
+                    if (eat(":")) {
+                        value = parseBindingElement();
+                    } else {
+                        if (!(key instanceof Name)) {
+                            throw unexpected();
+                        }
+                        value = Pattern.of(name(((Name) key).getIdentifier(), key.getPosition(), key.getLineno()));
+                        if (eat("=")) {
+                            value.defaultValue = parseAssignment(false);
+                        }
+                    }
+                    pattern.keys.add(key);
+                    pattern.elements.add(value);
+                    if (!at("}")) {
+                        expect(",");
+                    }
+                }
+                expect("}");
+                return pattern;
+            }
+            return Pattern.of(parseBindingIdentifier());
+        }
+
+        /**
+         * 将箭头函数参数或解构赋值左侧的表达式转换为解构模式
+         */
+        private Pattern toPattern(AstNode node) {
+            if (node instanceof Name || node instanceof PropertyGet || node instanceof ElementGet) {
+                return Pattern.of(node);
+            }
+            if (node instanceof Assignment && node.getType() == Token.ASSIGN) {
+                Pattern pattern = toPattern(((Assignment) node).getLeft());
+                pattern.defaultValue = ((Assignment) node).getRight();
+                return pattern;
+            }
+            if (node instanceof ArrayLiteral) {
+                Pattern pattern = new Pattern();
+                pattern.elements = new ArrayList<>();
+                for (AstNode element : ((ArrayLiteral) node).getElements()) {
+                    pattern.elements.add(element instanceof EmptyExpression ? null : toPattern(element));
+                }
+                return pattern;
+            }
+            if (node instanceof ObjectLiteral) {
+                Pattern pattern = new Pattern();
+                pattern.elements = new ArrayList<>();
+                pattern.keys = new ArrayList<>();
+                for (ObjectProperty property : ((ObjectLiteral) node).getElements()) {
+                    if (property.isMethod()) {
+                        throw error("无效的解构目标");
+                    }
+                    pattern.keys.add(property.getLeft());
+                    pattern.elements.add(toPattern(property.getRight()));
+                }
+                return pattern;
+            }
+            throw error("无效的解构目标");
+        }
+
+        private void addPatternVariables(VariableDeclaration declaration, Pattern pattern, AstNode value, int pos, int line) {
+            List<AstNode[]> bindings = new ArrayList<>();
+            expandPattern(pattern, value, bindings, false);
+            for (AstNode[] binding : bindings) {
+                declaration.addVariable(newInitializer(binding[0], binding[1], pos, line));
+            }
+        }
+
+        /**
+         * 解构赋值降级为逗号分隔的赋值序列，临时变量在函数开头声明
+         */
+        private AstNode assignPattern(Pattern pattern, AstNode value) {
+            List<AstNode[]> bindings = new ArrayList<>();
+            expandPattern(pattern, value, bindings, true);
+            AstNode result = null;
+            for (AstNode[] binding : bindings) {
+                AstNode assignment = assign(binding[0], binding[1]);
+                result = result == null ? assignment : infix(Token.COMMA, result, assignment);
+            }
+            return result;
+        }
+
+        /**
+         * 将解构模式展开为(目标, 值)对，嵌套模式的值先保存到临时变量
+         */
+        private void expandPattern(Pattern pattern, AstNode value, List<AstNode[]> out, boolean hoistTemps) {
+            int pos = value.getPosition();
+            int line = value.getLineno();
+            if (pattern.defaultValue != null) {
+                // 值为undefined时使用默认值
+                AstNode again = copy(value);
+                if (again == null) {
+                    String temp = hoistTemps ? declareTemp() : newTemp();
+                    out.add(new AstNode[] {name(temp, pos, line), value});
+                    value = name(temp, pos, line);
+                    again = name(temp, pos, line);
+                }
+                AstNode test = infix(Token.SHEQ, value, name("undefined", pos, line));
+                value = conditional(test, pattern.defaultValue, again);
+            }
+            if (pattern.target != null) {
+                out.add(new AstNode[] {pattern.target, value});
+                return;
+            }
+
+            String base;
+            if (value instanceof Name) {
+                base = ((Name) value).getIdentifier();
+            } else {
+                base = hoistTemps ? declareTemp() : newTemp();
+                out.add(new AstNode[] {name(base, pos, line), value});
+            }
+
+            for (int i = 0; i < pattern.elements.size(); i++) {
+                Pattern element = pattern.elements.get(i);
+                if (element == null) {
+                    continue;
+                }
+                AstNode access;
+                if (pattern.isObject()) {
+                    AstNode key = pattern.keys.get(i);
+                    access = memberGet(name(base, pos, line), key, propertyKeyName(key));
+                } else {
+                    access = elementGet(name(base, pos, line), number(i, pos, line));
+                }
+                expandPattern(element, access, out, hoistTemps);
+            }
+            if (pattern.rest != null) {
+                AstNode slice = propertyGet(name(base, pos, line), "slice");
+                expandPattern(pattern.rest, call(slice, number(pattern.elements.size(), pos, line)), out, hoistTemps);
+            }
+        }
+
+        private String newTemp() {
+            return "_ref" + tempCounter++;
+        }
+
+        private String declareTemp() {
+            String temp = newTemp();
+            if (context.temps == null) {
+                context.temps = new ArrayList<>();
+            }
+            context.temps.add(temp);
+            return temp;
+        }
+
+        // ---------------------------------------------------------------- 表达式
+
+        private AstNode parseExpression(boolean noIn) {
+            AstNode expr = parseAssignment(noIn);
+            while (at(",")) {
+                int opPos = lx.start;
+                next();
+                AstNode right = parseAssignment(noIn);
+                InfixExpression comma = new InfixExpression(Token.COMMA, expr, right, opPos);
+                comma.setLineno(expr.getLineno());
+                expr = comma;
+            }
+            return expr;
+        }
+
+        private AstNode parseAssignment(boolean noIn) {
+            boolean cover = coverItem;
+            coverItem = false;
+            if (lx.type == Lexer.NAME) {
+                if (context.generator && atName("yield")) {
+                    return parseYield(noIn);
+                }
+                if (atName("async") && !lx.arrowFollows()) {
+                    rejectAsyncArrow();
+                }
+                if (!RESERVED.contains(lx.text) && lx.arrowFollows()) {
+                    // 单个参数的箭头函数
+                    int start = lx.start;
+                    int line = lx.tokenLine;
+                    Name param = parseBindingIdentifier();
+                    expect("=>");
+                    return parseArrowFunction(start, line, Arrays.asList(Pattern.of(param)), null);
+                }
+            }
+
+            AstNode left = parseConditional(noIn);
+            if (lx.type != Lexer.PUNCT) {
+                return left;
+            }
+            Integer operator = ASSIGN_OPERATORS.get(lx.text);
+            if (operator == null) {
+                return left;
+            }
+            int opPos = lx.start;
+            next();
+            AstNode right = parseAssignment(noIn);
+
+            if (operator == Token.ASSIGN && (left instanceof ArrayLiteral || left instanceof ObjectLiteral) && !cover) {
+                return paren(assignPattern(toPattern(left), right));
+            }
+            if (operator < 0) {
+                // a **= b 等降级为 a = a ** b 的形式
+                AstNode again = copy(left);
+                if (again == null) {
+                    throw error("暂不支持该复合赋值的目标");
+                }
+                AstNode value;
+                switch (operator) {
+                    case ASSIGN_EXP:
+                        value = mathPow(again, right);
+                        break;
+                    case ASSIGN_AND:
+                        value = infix(Token.AND, again, operand(right));
+                        break;
+                    case ASSIGN_OR:
+                        value = infix(Token.OR, again, operand(right));
+                        break;
+                    default:
+                        value = nullish(again, right);
+                        break;
+                }
+                return assign(left, value);
+            }
+            Assignment assignment = new Assignment(operator, left, right, opPos);
+            assignment.setLineno(left.getLineno());
+            return assignment;
+        }
+
+        /**
+         * async x => ...和async (...) => ...报错，不消耗记号。
+         * async (...)后面不是箭头时按对名为async的函数的调用解析
+         */
+        private void rejectAsyncArrow() {
+            Lexer ahead = new Lexer(lx);
+            ahead.next();
+            if (ahead.newlineBefore) {
+                return;
+            }
+            if (ahead.type == Lexer.NAME && ahead.arrowFollows()) {
+                throw error("暂不支持async箭头函数");
+            }
+            if (ahead.type == Lexer.PUNCT && ahead.text.equals("(")) {
+                int depth = 0;
+                do {
+                    if (ahead.type == Lexer.PUNCT && ahead.text.equals("(")) {
+                        depth++;
+                    } else if (ahead.type == Lexer.PUNCT && ahead.text.equals(")")) {
+                        depth--;
+                    }
+                    ahead.next();
+                } while (depth > 0 && ahead.type != Lexer.EOF);
+                if (ahead.type == Lexer.PUNCT && ahead.text.equals("=>") && !ahead.newlineBefore) {
+                    throw error("暂不支持async箭头函数");
+                }
+            }
+        }
+
+        private AstNode parseYield(boolean noIn) {
+            int start = lx.start;
+            Yield yield = new Yield(start);
+            yield.setLineno(lx.tokenLine);
+            next();
+            eat("*");
+            if (!lx.newlineBefore && lx.type != Lexer.EOF
+                && !(lx.type == Lexer.PUNCT && (at(")") || at("]") || at("}") || at(",") || at(";") || at(":")))) {
+                yield.setValue(parseAssignment(noIn));
+            }
+            return finish(yield, start);
+        }
+
+        private AstNode parseConditional(boolean noIn) {
+            AstNode test = parseBinary(0, noIn);
+            if (!at("?")) {
+                return test;
+            }
+            next();
+            AstNode whenTrue = parseAssignment(false);
+            expect(":");
+            AstNode whenFalse = parseAssignment(noIn);
+            return conditional(test, whenTrue, whenFalse);
+        }
+
+        private int binaryPrecedence(boolean noIn) {
+            if (lx.type == Lexer.NAME) {
+                if (lx.text.equals("instanceof")) {
+                    return 8;
+                }
+                return lx.text.equals("in") && !noIn ? 8 : 0;
+            }
+            if (lx.type != Lexer.PUNCT) {
+                return 0;
+            }
+            switch (lx.text) {
+                case "??": return 1;
+                case "||": return 2;
+                case "&&": return 3;
+                case "|": return 4;
+                case "^": return 5;
+                case "&": return 6;
+                case "==": case "!=": case "===": case "!==": return 7;
+                case "<": case ">": case "<=": case ">=": return 8;
+                case "<<": case ">>": case ">>>": return 9;
+                case "+": case "-": return 10;
+                case "*": case "/": case "%": return 11;
+                case "**": return 12;
+                default: return 0;
+            }
+        }
+
+        private AstNode parseBinary(int minPrecedence, boolean noIn) {
+            AstNode left = parseUnary();
+            while (true) {
+                int precedence = binaryPrecedence(noIn);
+                if (precedence <= minPrecedence) {
+                    return left;
+                }
+                String operator = lx.text;
+                int opPos = lx.start;
+                next();
+                // **是右结合的
+                AstNode right = parseBinary("**".equals(operator) ? precedence - 1 : precedence, noIn);
+                if ("??".equals(operator)) {
+                    left = nullish(left, right);
+                } else if ("**".equals(operator)) {
+                    left = mathPow(left, right);
+                } else {
+                    InfixExpression infix = new InfixExpression(BINARY_OPERATORS.get(operator), left, right, opPos);
+                    infix.setLineno(left.getLineno());
+                    left = infix;
+                }
+            }
+        }
+
+        private AstNode parseUnary() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            int operator = -1;
+            if (lx.type == Lexer.PUNCT) {
+                switch (lx.text) {
+                    case "!": operator = Token.NOT; break;
+                    case "~": operator = Token.BITNOT; break;
+                    case "+": operator = Token.POS; break;
+                    case "-": operator = Token.NEG; break;
+                    case "++":
+                    case "--":
+                        int type = lx.text.equals("++") ? Token.INC : Token.DEC;
+                        next();
+                        UpdateExpression update = new UpdateExpression(type, start, parseUnary());
+                        update.setLineno(line);
+                        return update;
+                    default:
+                        break;
+                }
+            } else if (lx.type == Lexer.NAME) {
+                switch (lx.text) {
+                    case "typeof": operator = Token.TYPEOF; break;
+                    case "void": operator = Token.VOID; break;
+                    case "delete": operator = Token.DELPROP; break;
+                    case "await":
+                        if (!insideFunction()) {
+                            // 不支持async函数，函数外的await只能是顶层await
+                            throw error("暂不支持await");
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (operator >= 0) {
+                next();
+                UnaryExpression unary = new UnaryExpression(operator, start, parseUnary());
+                unary.setLineno(line);
+                return unary;
+            }
+
+            AstNode expr = parseLeftHandSide();
+            if ((at("++") || at("--")) && !lx.newlineBefore) {
+                int type = at("++") ? Token.INC : Token.DEC;
+                int opPos = lx.start;
+                next();
+                UpdateExpression update = new UpdateExpression(type, opPos, expr, true);
+                update.setLineno(line);
+                return update;
+            }
+            return expr;
+        }
+
+        private AstNode parseLeftHandSide() {
+            AstNode expr;
+            if (atName("new")) {
+                expr = parseNew();
+            } else if (atName("super")) {
+                expr = parseSuper();
+            } else {
+                expr = parsePrimary();
+            }
+            return parseCallTail(expr, true);
+        }
+
+        private AstNode parseCallTail(AstNode expr, boolean allowCalls) {
+            while (true) {
+                if (lx.type == Lexer.TEMPLATE && allowCalls) {
+                    throw error("暂不支持带标签的模板字符串");
+                }
+                if (lx.type != Lexer.PUNCT) {
+                    return expr;
+                }
+                switch (lx.text) {
+                    case ".": {
+                        int dot = lx.start;
+                        next();
+                        Name property = parseIdentifierName();
+                        PropertyGet get = new PropertyGet(expr.getPosition(), prevEnd - expr.getPosition(), expr, property);
+                        get.setLineno(expr.getLineno());
+                        expr = get;
+                        break;
+                    }
+                    case "[": {
+                        next();
+                        AstNode element = parseExpression(false);
+                        expect("]");
+                        int pos = expr.getPosition();
+                        expr = finish(elementGet(expr, element), pos);
+                        break;
+                    }
+                    case "(":
+                        if (!allowCalls) {
+                            return expr;
+                        }
+                        expr = parseCall(expr);
+                        break;
+                    case "?.":
+                        if (!allowCalls) {
+                            return expr;
+                        }
+                        return parseOptionalChain(expr);
+                    default:
+                        return expr;
+                }
+            }
+        }
+
+        private AstNode parseCall(AstNode target) {
+            int pos = target.getPosition();
+            List<AstNode> args = new ArrayList<>();
+            List<Boolean> spread = new ArrayList<>();
+            if (parseArguments(args, spread)) {
+                return spreadCall(target, spreadToArray(args, spread, pos, target.getLineno()));
+            }
+            FunctionCall call = new FunctionCall(pos);
+            call.setLineno(target.getLineno());
+            call.setTarget(target);
+            for (AstNode arg : args) {
+                call.addArgument(arg);
+            }
+            return finish(call, pos);
+        }
+
+        /**
+         * 解析参数列表，包含展开参数时返回true
+         */
+        private boolean parseArguments(List<AstNode> args, List<Boolean> spread) {
+            expect("(");
+            boolean hasSpread = false;
+            while (!at(")")) {
+                boolean isSpread = eat("...");
+                hasSpread |= isSpread;
+                args.add(parseAssignment(false));
+                spread.add(isSpread);
+                if (!at(")")) {
+                    expect(",");
+                }
+            }
+            expect(")");
+            return hasSpread;
+        }
+
+        /**
+         * f(...args) 降级为 f.apply(null, args)，obj.m(...args) 降级为 obj.m.apply(obj, args)
+         */
+        private AstNode spreadCall(AstNode target, AstNode argsArray) {
+            int pos = target.getPosition();
+            int line = target.getLineno();
+            AstNode thisArg;
+            if (target instanceof PropertyGet) {
+                PropertyGet get = (PropertyGet) target;
+                AstNode[] object = reuse(get.getTarget());
+                target = propertyGet(object[0], get.getProperty().getIdentifier());
+                thisArg = object[1];
+            } else {
+                thisArg = keyword(Token.NULL, pos, line);
+            }
+            return call(propertyGet(target, "apply"), thisArg, argsArray);
+        }
+
+        /**
+         * [a, ...b, c] 降级为 [a].concat(b, [c])
+         */
+        private AstNode spreadToArray(List<AstNode> values, List<Boolean> spread, int pos, int line) {
+            List<AstNode> parts = new ArrayList<>();
+            ArrayLiteral pending = null;
+            for (int i = 0; i < values.size(); i++) {
+                if (spread.get(i)) {
+                    if (pending != null) {
+                        parts.add(pending);
+                        pending = null;
+                    }
+                    parts.add(values.get(i));
+                } else {
+                    if (pending == null) {
+                        pending = new ArrayLiteral(values.get(i).getPosition());
+                        pending.setLineno(line);
+                    }
+                    pending.addElement(values.get(i));
+                }
+            }
+            if (pending != null) {
+                parts.add(pending);
+            }
+
+            AstNode base;
+            if (parts.get(0) instanceof ArrayLiteral && !spread.get(0)) {
+                base = parts.remove(0);
+            } else {
+                base = new ArrayLiteral(pos);
+                base.setLineno(line);
+            }
+            return call(propertyGet(base, "concat"), parts.toArray(new AstNode[0]));
+        }
+
+        /**
+         * a?.b.c 降级为 (a == null ? undefined : a.b.c)
+         */
+        private AstNode parseOptionalChain(AstNode object) {
+            AstNode[] parts = reuse(object);
+            int pos = object.getPosition();
+            int line = object.getLineno();
+            next();
+            AstNode access;
+            if (at("(")) {
+                access = parseCall(parts[1]);
+            } else if (eat("[")) {
+                AstNode element = parseExpression(false);
+                expect("]");
+                access = elementGet(parts[1], element);
+            } else {
+                access = propertyGet(parts[1], parseIdentifierName().getIdentifier());
+            }
+            AstNode rest = parseCallTail(access, true);
+            AstNode test = infix(Token.EQ, parts[0], keyword(Token.NULL, pos, line));
+            return paren(conditional(test, name("undefined", pos, line), rest));
+        }
+
+        private AstNode parseNew() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            if (at(".")) {
+                throw error("暂不支持new.target");
+            }
+            AstNode target = atName("new") ? parseNew() : parsePrimary();
+            target = parseCallTail(target, false);
+
+            NewExpression expr = new NewExpression(start);
+            expr.setLineno(line);
+            expr.setTarget(target);
+            if (at("(")) {
+                List<AstNode> args = new ArrayList<>();
+                List<Boolean> spread = new ArrayList<>();
+                if (parseArguments(args, spread)) {
+                    throw error("暂不支持new表达式中的展开参数");
+                }
+                for (AstNode arg : args) {
+                    expr.addArgument(arg);
+                }
+            }
+            return finish(expr, start);
+        }
+
+        /**
+         * super(...) 降级为 Base.call(this, ...)，super.m(...) 降级为 Base.prototype.m.call(this, ...)
+         */
+        private AstNode parseSuper() {
+            if (superClass == null) {
+                throw error("super只能在派生类中使用");
+            }
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            AstNode member;
+            if (at("(")) {
+                member = copy(superClass);
+            } else if (eat(".")) {
+                AstNode owner = inStaticMember ? copy(superClass) : propertyGet(copy(superClass), "prototype");
+                member = propertyGet(owner, parseIdentifierName().getIdentifier());
+                if (!at("(")) {
+                    return member;
+                }
+            } else {
+                throw unexpected();
+            }
+
+            List<AstNode> args = new ArrayList<>();
+            List<Boolean> spread = new ArrayList<>();
+            if (parseArguments(args, spread)) {
+                return call(propertyGet(member, "apply"), keyword(Token.THIS, start, line),
+                            spreadToArray(args, spread, start, line));
+            }
+            args.add(0, keyword(Token.THIS, start, line));
+            return call(propertyGet(member, "call"), args.toArray(new AstNode[0]));
+        }
+
+        private AstNode parsePrimary() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            switch (lx.type) {
+                case Lexer.NAME:
+                    switch (lx.text) {
+                        case "function":
+                            return parseFunction(FunctionNode.FUNCTION_EXPRESSION, start, line);
+                        case "async":
+                            if (asyncFunctionFollows()) {
+                                throw error("暂不支持async函数");
+                            }
+                            break;
+                        case "class":
+                            throw error("暂不支持class表达式");
+                        case "this":
+                            next();
+                            return keyword(Token.THIS, start, line);
+                        case "null":
+                            next();
+                            return keyword(Token.NULL, start, line);
+                        case "true":
+                            next();
+                            return keyword(Token.TRUE, start, line);
+                        case "false":
+                            next();
+                            return keyword(Token.FALSE, start, line);
+                        default:
+                            break;
+                    }
+                    if (RESERVED.contains(lx.text)) {
+                        throw unexpected();
+                    }
+                    Name name = name(lx.text, start, line);
+                    next();
+                    return name;
+                case Lexer.NUMBER: {
+                    NumberLiteral number = new NumberLiteral(start, lx.text, lx.number);
+                    number.setLineno(line);
+                    next();
+                    return finish(number, start);
+                }
+                case Lexer.STRING: {
+                    StringLiteral string = new StringLiteral(start, lx.end - start);
+                    string.setLineno(line);
+                    string.setValue(lx.text);
+                    string.setQuoteCharacter(lx.quote);
+                    next();
+                    return string;
+                }
+                case Lexer.TEMPLATE:
+                    return parseTemplate();
+                case Lexer.PUNCT:
+                    switch (lx.text) {
+                        case "(":
+                            return parseParenthesized(start, line);
+                        case "[":
+                            return parseArrayLiteral();
+                        case "{":
+                            return parseObjectLiteral();
+                        case "/":
+                        case "/=": {
+                            lx.rescanRegex();
+                            RegExpLiteral regex = new RegExpLiteral(start, lx.end - start);
+                            regex.setLineno(line);
+                            regex.setValue(lx.text);
+                            regex.setFlags(lx.regexFlags);
+                            next();
+                            return regex;
+                        }
+                        default:
+                            break;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            throw unexpected();
+        }
+
+        /**
+         * 解析括号表达式或箭头函数的参数列表
+         */
+        private AstNode parseParenthesized(int start, int line) {
+            expect("(");
+            List<AstNode> items = new ArrayList<>();
+            Pattern rest = null;
+            boolean trailingComma = false;
+            while (!at(")")) {
+                if (eat("...")) {
+                    rest = parseBindingTarget();
+                    break;
+                }
+                coverItem = true;
+                items.add(parseAssignment(false));
+                if (!at(")")) {
+                    expect(",");
+                    trailingComma = at(")");
+                }
+            }
+            expect(")");
+
+            if (at("=>") && !lx.newlineBefore) {
+                next();
+                List<Pattern> params = new ArrayList<>();
+                for (AstNode item : items) {
+                    params.add(toPattern(item));
+                }
+                return parseArrowFunction(start, line, params, rest);
+            }
+
+            // 不是箭头函数，括号中的解构赋值按普通表达式降级
+            for (int i = 0; i < items.size(); i++) {
+                AstNode item = items.get(i);
+                if (item instanceof Assignment && item.getType() == Token.ASSIGN
+                    && (((Assignment) item).getLeft() instanceof ArrayLiteral || ((Assignment) item).getLeft() instanceof ObjectLiteral)) {
+                    items.set(i, paren(assignPattern(toPattern(((Assignment) item).getLeft()), ((Assignment) item).getRight())));
+                }
+            }
+            if (items.isEmpty() || rest != null || trailingComma) {
+                throw unexpected();
+            }
+            AstNode expr = items.get(0);
+            for (int i = 1; i < items.size(); i++) {
+                expr = infix(Token.COMMA, expr, items.get(i));
+            }
+            ParenthesizedExpression parenthesized = new ParenthesizedExpression(start, prevEnd - start, expr);
+            parenthesized.setLineno(line);
+            return parenthesized;
+        }
+
+        private AstNode parseArrayLiteral() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            List<AstNode> elements = new ArrayList<>();
+            List<Boolean> spread = new ArrayList<>();
+            boolean hasSpread = false;
+            while (!at("]")) {
+                if (at(",")) {
+                    EmptyExpression hole = empty(lx.start, lx.tokenLine);
+                    next();
+                    elements.add(hole);
+                    spread.add(false);
+                    continue;
+                }
+                boolean isSpread = eat("...");
+                hasSpread |= isSpread;
+                elements.add(parseAssignment(false));
+                spread.add(isSpread);
+                if (!at("]")) {
+                    expect(",");
+                }
+            }
+            expect("]");
+            if (hasSpread) {
+                return spreadToArray(elements, spread, start, line);
+            }
+            ArrayLiteral array = new ArrayLiteral(start);
+            array.setLineno(line);
+            for (AstNode element : elements) {
+                array.addElement(element);
+            }
+            return finish(array, start);
+        }
+
+        /**
+         * 对象字面量，包含展开时降级为 Object.assign({...}, spread, {...})
+         */
+        private AstNode parseObjectLiteral() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            next();
+            ObjectLiteral object = new ObjectLiteral(start);
+            object.setLineno(line);
+            List<AstNode> parts = null;
+            while (!at("}")) {
+                if (eat("...")) {
+                    if (parts == null) {
+                        parts = new ArrayList<>();
+                    }
+                    if (parts.isEmpty() || !object.getElements().isEmpty()) {
+                        parts.add(object);
+                    }
+                    parts.add(parseAssignment(false));
+                    object = new ObjectLiteral(lx.start);
+                    object.setLineno(lx.tokenLine);
+                } else {
+                    object.addElement(parseObjectProperty());
+                }
+                if (!at("}")) {
+                    expect(",");
+                }
+            }
+            next();
+            finish(object, start);
+            if (parts == null) {
+                return object;
+            }
+            if (!object.getElements().isEmpty()) {
+                parts.add(object);
+            }
+            AstNode assign = propertyGet(name("Object", start, line), "assign");
+            return call(assign, parts.toArray(new AstNode[0]));
+        }
+
+        private ObjectProperty parseObjectProperty() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            ObjectProperty property = new ObjectProperty(start);
+            property.setLineno(line);
+
+            if ((atName("get") || atName("set")) && !memberNameEnds()) {
+                boolean getter = atName("get");
+                next();
+                AstNode key = parsePropertyName();
+                FunctionNode function = parseMethod(line, false);
+                if (getter) {
+                    property.setIsGetterMethod();
+                    function.setFunctionIsGetterMethod();
+                } else {
+                    property.setIsSetterMethod();
+                    function.setFunctionIsSetterMethod();
+                }
+                property.setLeft(key);
+                property.setRight(function);
+                return finish(property, start);
+            }
+
+            if (atName("async") && !memberNameEnds()) {
+                throw error("暂不支持async方法");
+            }
+            boolean generator = eat("*");
+            AstNode key = parsePropertyName();
+            if (at("(")) {
+                FunctionNode function = parseMethod(line, generator);
+                property.setIsNormalMethod();
+                function.setFunctionIsNormalMethod();
+                property.setLeft(key);
+                property.setRight(function);
+                return finish(property, start);
+            }
+            if (eat(":")) {
+                property.setLeftAndRight(key, parseAssignment(false));
+                return finish(property, start);
+            }
+
+            // 简写属性 {a} 等同于 {a: a}，{a = 1} 只在解构中出现
+            if (!(key instanceof Name)) {
+                throw unexpected();
+            }
+            AstNode value = name(((Name) key).getIdentifier(), key.getPosition(), line);
+            if (at("=")) {
+                int opPos = lx.start;
+                next();
+                value = new Assignment(Token.ASSIGN, value, parseAssignment(false), opPos);
+                value.setLineno(line);
+            }
+            property.setLeftAndRight(key, value);
+            return finish(property, start);
+        }
+
+        private AstNode parsePropertyName() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            switch (lx.type) {
+                case Lexer.NAME: {
+                    Name name = name(lx.text, start, line);
+                    next();
+                    return name;
+                }
+                case Lexer.STRING: {
+                    StringLiteral string = new StringLiteral(start, lx.end - start);
+                    string.setLineno(line);
+                    string.setValue(lx.text);
+                    string.setQuoteCharacter(lx.quote);
+                    next();
+                    return string;
+                }
+                case Lexer.NUMBER: {
+                    NumberLiteral number = new NumberLiteral(start, lx.text, lx.number);
+                    number.setLineno(line);
+                    next();
+                    return finish(number, start);
+                }
+                default:
+                    if (at("[")) {
+                        throw error("暂不支持计算属性名");
+                    }
+                    throw unexpected();
+            }
+        }
+
+        /**
+         * 模板字符串降级为字符串拼接："a" + x + "b"
+         */
+        private AstNode parseTemplate() {
+            int start = lx.start;
+            int line = lx.tokenLine;
+            AstNode result = string(lx.text, start, line);
+            boolean tail = lx.templateTail;
+            next();
+            if (tail) {
+                return result;
+            }
+            while (!tail) {
+                AstNode expr = parseExpression(false);
+                if (!at("}")) {
+                    throw unexpected();
+                }
+                lx.continueTemplate();
+                result = infix(Token.ADD, result, operand(expr));
+                if (!lx.text.isEmpty()) {
+                    result = infix(Token.ADD, result, string(lx.text, lx.start, lx.tokenLine));
+                }
+                tail = lx.templateTail;
+                next();
+            }
+            // 与预处理结果一致不加括号，只有后面紧跟成员访问或更高优先级的运算符时才需要
+            if (binaryPrecedence(false) > 10 || at(".") || at("[") || at("(") || at("?.")) {
+                return paren(result);
+            }
+            return result;
+        }
+
+        private Name parseIdentifierName() {
+            if (lx.type != Lexer.NAME) {
+                throw unexpected();
+            }
+            Name name = name(lx.text, lx.start, lx.tokenLine);
+            next();
+            return name;
+        }
+
+        private Name parseBindingIdentifier() {
+            if (lx.type != Lexer.NAME || RESERVED.contains(lx.text)) {
+                throw unexpected();
+            }
+            return parseIdentifierName();
+        }
+
+        // ---------------------------------------------------------------- 降级辅助
+
+        /**
+         * 复制没有副作用的简单表达式，其他表达式返回null
+         */
+        private AstNode copy(AstNode node) {
+            int pos = node.getPosition();
+            int line = node.getLineno();
+            if (node instanceof Name) {
+                return name(((Name) node).getIdentifier(), pos, line);
+            }
+            if (node instanceof KeywordLiteral) {
+                return keyword(node.getType(), pos, line);
+            }
+            if (node instanceof NumberLiteral) {
+                NumberLiteral number = new NumberLiteral(pos, ((NumberLiteral) node).getValue(), ((NumberLiteral) node).getNumber());
+                number.setLineno(line);
+                return number;
+            }
+            if (node instanceof StringLiteral) {
+                return string(((StringLiteral) node).getValue(), pos, line);
+            }
+            if (node instanceof PropertyGet) {
+                AstNode target = copy(((PropertyGet) node).getTarget());
+                return target == null ? null : propertyGet(target, ((PropertyGet) node).getProperty().getIdentifier());
+            }
+            if (node instanceof ElementGet) {
+                AstNode target = copy(((ElementGet) node).getTarget());
+                AstNode element = copy(((ElementGet) node).getElement());
+                return target == null || element == null ? null : elementGet(target, element);
+            }
+            return null;
+        }
+
+        /**
+         * 需要使用两次的表达式：简单表达式直接复制，其他表达式先赋值给临时变量
+         *
+         * @return 第一次使用的表达式和之后使用的表达式
+         */
+        private AstNode[] reuse(AstNode expr) {
+            AstNode again = copy(expr);
+            if (again != null) {
+                return new AstNode[] {expr, again};
+            }
+            int pos = expr.getPosition();
+            int line = expr.getLineno();
+            String temp = declareTemp();
+            return new AstNode[] {paren(assign(name(temp, pos, line), expr)), name(temp, pos, line)};
+        }
+
+        /**
+         * a ?? b 降级为 (a != null ? a : b)
+         */
+        private AstNode nullish(AstNode left, AstNode right) {
+            AstNode[] parts = reuse(left);
+            AstNode test = infix(Token.NE, operand(parts[0]), keyword(Token.NULL, left.getPosition(), left.getLineno()));
+            return paren(conditional(test, parts[1], right));
+        }
+
+        /**
+         * a ** b 降级为 Math.pow(a, b)
+         */
+        private AstNode mathPow(AstNode base, AstNode exponent) {
+            AstNode pow = propertyGet(name("Math", base.getPosition(), base.getLineno()), "pow");
+            return call(pow, base, exponent);
+        }
+
+        /**
+         * 作为运算数时需要加括号的表达式
+         */
+        private AstNode operand(AstNode expr) {
+            if (expr instanceof InfixExpression && !(expr instanceof PropertyGet) || expr instanceof ConditionalExpression
+                || expr instanceof FunctionNode || expr instanceof Yield) {
+                return paren(expr);
+            }
+            return expr;
+        }
+
+        private Name name(String identifier, int pos, int line) {
+            Name name = new Name(pos, identifier);
+            name.setLineno(line);
+            return name;
+        }
+
+        private NumberLiteral number(int value, int pos, int line) {
+            NumberLiteral number = new NumberLiteral(pos, String.valueOf(value), value);
+            number.setLineno(line);
+            return number;
+        }
+
+        private StringLiteral string(String value, int pos, int line) {
+            StringLiteral string = new StringLiteral(pos, 0);
+            string.setLineno(line);
+            string.setValue(value);
+            string.setQuoteCharacter('"');
+            return string;
+        }
+
+        private KeywordLiteral keyword(int type, int pos, int line) {
+            KeywordLiteral keyword = new KeywordLiteral(pos, 0, type);
+            keyword.setLineno(line);
+            return keyword;
+        }
+
+        private EmptyExpression empty(int pos, int line) {
+            EmptyExpression empty = new EmptyExpression(pos, 0);
+            empty.setLineno(line);
+            return empty;
+        }
+
+        private PropertyGet propertyGet(AstNode target, String property) {
+            PropertyGet get = new PropertyGet(target.getPosition(), 0, target, name(property, target.getPosition(), target.getLineno()));
+            get.setLineno(target.getLineno());
+            return get;
+        }
+
+        private ElementGet elementGet(AstNode target, AstNode element) {
+            ElementGet get = new ElementGet(target.getPosition());
+            get.setLineno(target.getLineno());
+            get.setTarget(target);
+            get.setElement(element);
+            return get;
+        }
+
+        private FunctionCall call(AstNode target, AstNode... args) {
+            FunctionCall call = new FunctionCall(target.getPosition());
+            call.setLineno(target.getLineno());
+            call.setTarget(target);
+            for (AstNode arg : args) {
+                call.addArgument(arg);
+            }
+            return call;
+        }
+
+        private InfixExpression infix(int type, AstNode left, AstNode right) {
+            InfixExpression infix = new InfixExpression(type, left, right, right.getPosition());
+            infix.setLineno(left.getLineno());
+            return infix;
+        }
+
+        private Assignment assign(AstNode target, AstNode value) {
+            Assignment assignment = new Assignment(Token.ASSIGN, target, value, value.getPosition());
+            assignment.setLineno(target.getLineno());
+            return assignment;
+        }
+
+        private ConditionalExpression conditional(AstNode test, AstNode whenTrue, AstNode whenFalse) {
+            int pos = test.getPosition();
+            ConditionalExpression conditional = new ConditionalExpression(pos);
+            conditional.setLineno(test.getLineno());
+            conditional.setTestExpression(test);
+            conditional.setTrueExpression(whenTrue);
+            conditional.setFalseExpression(whenFalse);
+            return finish(conditional, pos);
+        }
+
+        private ParenthesizedExpression paren(AstNode expr) {
+            ParenthesizedExpression parenthesized = new ParenthesizedExpression(expr.getPosition(), expr.getLength(), expr);
+            parenthesized.setLineno(expr.getLineno());
+            return parenthesized;
+        }
+
+        private ObjectProperty property(AstNode key, AstNode value) {
+            ObjectProperty property = new ObjectProperty(key.getPosition());
+            property.setLineno(key.getLineno());
+            property.setLeftAndRight(key, value);
+            return property;
+        }
+
+        private ExpressionStatement statement(AstNode expr) {
+            return statement(expr, insideFunction());
+        }
+
+        private ExpressionStatement statement(AstNode expr, boolean inFunction) {
+            ExpressionStatement statement = new ExpressionStatement(expr, !inFunction);
+            statement.setLineno(expr.getLineno());
+            return statement;
+        }
+    }
+}
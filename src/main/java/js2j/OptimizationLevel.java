@@ -0,0 +1,40 @@
+package js2j;
+
+/**
+ * 优化级别，在转换速度和生成代码的质量之间取舍
+ */
+public enum OptimizationLevel {
+
+    /**
+     * 最快的转换：跳过生成代码的格式修整，输出可以编译但缩进和空行不做整理
+     */
+    O0,
+
+    /**
+     * 默认级别：按名称和初始值推断类型，并整理生成代码的格式
+     */
+    O1,
+
+    /**
+     * 最慢的转换：额外执行常量折叠、死代码删除和基于数据流的类型推断，
+     * 尽量使用int、double等基本类型代替Object，只赋值一次的字面量声明为final，
+     * 生成的代码运行更快
+     */
+    O2;
+
+    /**
+     * 解析命令行上的优化级别，如 -O2
+     *
+     * @param option 命令行选项
+     * @return 优化级别
+     * @throws IllegalArgumentException 如果级别未知
+     */
+    public static OptimizationLevel fromOption(String option) {
+        for (OptimizationLevel level : values()) {
+            if (option.equals("-" + level.name())) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("未知的优化级别: " + option + "（可选 -O0、-O1 或 -O2）");
+    }
+}
@@ -0,0 +1,276 @@
+package js2j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 转换结束后在进程内编译生成的Java源码并打包为jar
+ * 转换时收集各文件生成的编译单元，源码不再从磁盘读回；编译时按源码大小把文件均分为若干批，
+ * 每批在各自的线程上用一个javac任务编译，省去单独的Maven构建和第二次JVM启动。
+ * 同一个JavaScript文件生成的编译单元总在同一批中，编译错误按类名映射回对应的JavaScript文件
+ *
+ * 生成的代码只依赖JDK，编译时不使用类路径；不同文件生成的类之间不能互相引用，
+ * 只有通过addCommon添加的公共单元（如函数去重的共享类）与每一批一起编译。
+ * 带有行映射的编译单元，映射以SMAP写入类文件的SourceDebugExtension属性
+ */
+public class ParallelJarCompiler {
+
+    /** JavaScript文件到其生成的编译单元，线程安全，多个转换线程可以同时添加 */
+    private final Map<Path, List<GeneratedUnit>> unitsByFile = new ConcurrentHashMap<>();
+    /** 每一批都可以引用的公共单元 */
+    private final List<GeneratedUnit> commonUnits = new ArrayList<>();
+    private final int threads;
+
+    /**
+     * 构造函数，使用与处理器核数相同的编译线程
+     */
+    public ParallelJarCompiler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param threads 编译线程数，也是批数
+     */
+    public ParallelJarCompiler(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("编译线程数必须为正数: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * 记录一个JavaScript文件生成的编译单元，同一文件再次添加时替换以前的单元
+     *
+     * @param jsFile JavaScript文件
+     * @param units 生成的编译单元
+     */
+    public void add(Path jsFile, List<GeneratedUnit> units) {
+        unitsByFile.put(jsFile, new ArrayList<>(units));
+    }
+
+    /**
+     * 添加一个公共编译单元，各批都把它与自己的文件一起编译，生成相同的类文件
+     * 在compileToJar之前调用
+     *
+     * @param unit 不属于某个JavaScript文件的编译单元
+     */
+    public synchronized void addCommon(GeneratedUnit unit) {
+        commonUnits.add(unit);
+    }
+
+    /**
+     * 已收集的JavaScript文件数
+     */
+    public int getFileCount() {
+        return unitsByFile.size();
+    }
+
+    /**
+     * 并行编译所有收集到的编译单元并写入jar
+     * 编译失败的文件的错误记入JSLogger的文件错误（阶段为javac），其余文件照常打包
+     *
+     * @param jarFile 输出的jar文件
+     * @return 编译结果
+     * @throws IOException 如果写入jar出错
+     */
+    public Result compileToJar(File jarFile) throws IOException {
+        long start = System.nanoTime();
+        List<List<Path>> batches = partition();
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        AtomicInteger failedFiles = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, batches.size()), runnable -> {
+            Thread thread = new Thread(runnable, "js2j-javac");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Map<String, byte[]>>> futures = new ArrayList<>();
+            for (List<Path> batch : batches) {
+                futures.add(executor.submit(() -> compileBatch(batch, failedFiles)));
+            }
+            for (Future<Map<String, byte[]>> future : futures) {
+                classes.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("编译被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("编译时发生错误: " + e.getCause(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!classes.isEmpty()) {
+            JSBytecodeCompiler.writeJar(classes, null, jarFile);
+        }
+        return new Result(classes.size(), unitsByFile.size() - failedFiles.get(), failedFiles.get(),
+                          batches.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 按源码大小把文件分为至多threads批，每次把最大的文件放入当前最小的一批
+     */
+    List<List<Path>> partition() {
+        List<Path> files = new ArrayList<>(unitsByFile.keySet());
+        Map<Path, Long> sizes = new HashMap<>();
+        for (Path file : files) {
+            long size = 0;
+            for (GeneratedUnit unit : unitsByFile.get(file)) {
+                size += unit.getCode().length();
+            }
+            sizes.put(file, size);
+        }
+        files.sort(Comparator.comparing((Path file) -> sizes.get(file)).reversed().thenComparing(Path::toString));
+
+        int count = Math.min(threads, files.size());
+        List<List<Path>> batches = new ArrayList<>();
+        long[] batchSizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (Path file : files) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (batchSizes[i] < batchSizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            batches.get(smallest).add(file);
+            batchSizes[smallest] += sizes.get(file);
+        }
+        return batches;
+    }
+
+    /**
+     * 编译一批文件。javac遇到错误时不输出任何类文件，因此报告出错的文件后去掉它们再编译一次
+     */
+    private Map<String, byte[]> compileBatch(List<Path> batch, AtomicInteger failedFiles) {
+        InMemoryJavaCompiler compiler = new InMemoryJavaCompiler("");
+        List<Path> remaining = new ArrayList<>(batch);
+        for (int attempt = 0; attempt < 2 && !remaining.isEmpty(); attempt++) {
+            Map<String, String> sources = new LinkedHashMap<>();
+            Map<String, Path> owners = new HashMap<>();
+            synchronized (this) {
+                for (GeneratedUnit unit : commonUnits) {
+                    sources.put(unit.getQualifiedName(), unit.getCode());
+                }
+            }
+            for (Path file : remaining) {
+                for (GeneratedUnit unit : unitsByFile.get(file)) {
+                    sources.put(unit.getQualifiedName(), unit.getCode());
+                    owners.put(unit.getQualifiedName(), file);
+                }
+            }
+            try {
+                Map<String, byte[]> classes = compiler.compile(sources);
+                installSourceMaps(remaining, classes);
+                return classes;
+            } catch (InMemoryJavaCompiler.CompilationException e) {
+                List<Path> failed = new ArrayList<>();
+                for (Map.Entry<String, List<String>> entry : e.getErrorsByClass().entrySet()) {
+                    Path owner = owners.get(entry.getKey());
+                    String simpleName = entry.getKey().substring(entry.getKey().lastIndexOf('.') + 1);
+                    for (String error : entry.getValue()) {
+                        JSLogger.fileError(owner != null ? owner.toString() : entry.getKey(), "javac", 0,
+                                           simpleName + ".java:" + error);
+                    }
+                    if (owner != null && !failed.contains(owner)) {
+                        failed.add(owner);
+                    }
+                }
+                if (failed.isEmpty() || attempt == 1) {
+                    // 错误无法归到某个文件，或去掉出错的文件后仍然失败，整批都算失败
+                    failed = remaining;
+                }
+                failedFiles.addAndGet(failed.size());
+                remaining.removeAll(failed);
+            }
+        }
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * 把编译单元的行映射写入对应的类文件
+     */
+    private void installSourceMaps(List<Path> files, Map<String, byte[]> classes) {
+        for (Path file : files) {
+            for (GeneratedUnit unit : unitsByFile.get(file)) {
+                byte[] classFile = classes.get(unit.getQualifiedName());
+                if (unit.getSourceMap() != null && classFile != null) {
+                    classes.put(unit.getQualifiedName(), SourceMap.install(classFile, unit.getSourceMap().toSmap()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 编译结果
+     */
+    public static class Result {
+
+        private final int classCount;
+        private final int compiledFiles;
+        private final int failedFiles;
+        private final int batches;
+        private final long millis;
+
+        Result(int classCount, int compiledFiles, int failedFiles, int batches, long millis) {
+            this.classCount = classCount;
+            this.compiledFiles = compiledFiles;
+            this.failedFiles = failedFiles;
+            this.batches = batches;
+            this.millis = millis;
+        }
+
+        /**
+         * 写入jar的类文件数，不包括运行时类
+         */
+        public int getClassCount() {
+            return classCount;
+        }
+
+        /**
+         * 编译成功的JavaScript文件数
+         */
+        public int getCompiledFiles() {
+            return compiledFiles;
+        }
+
+        /**
+         * 生成的代码无法编译的JavaScript文件数
+         */
+        public int getFailedFiles() {
+            return failedFiles;
+        }
+
+        /**
+         * 并行编译的批数
+         */
+        public int getBatches() {
+            return batches;
+        }
+
+        /**
+         * 编译和打包的总耗时（毫秒）
+         */
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package js2j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 多台机器共享的远程转换缓存
+ * 以整个文件为单位缓存生成的编译单元，键是转换器版本、解析器前端、优化级别、包名、文件名和源码的SHA-256。
+ * 协议只有两个请求：GET {基地址}/{键} 命中时返回200和内容，未命中返回404；PUT {基地址}/{键} 上传内容。
+ * 内容是gzip压缩的编译单元列表。
+ *
+ * 上传在后台线程进行，不阻塞转换；缓存服务不可用时给出一次警告，之后本次运行不再访问远程缓存
+ */
+public class RemoteCache implements Closeable {
+
+    /** 内容格式的魔数，格式变化时修改 */
+    private static final int FORMAT_MAGIC = 0x4A324A31;
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+    /** 关闭时等待未完成上传的最长秒数 */
+    private static final long UPLOAD_DRAIN_SECONDS = 30;
+
+    /** 决定生成代码的类：转换器本身和解析、生成代码用到的Rhino与JavaParser */
+    private static final Class<?>[] VERSIONED_CLASSES = {
+        RemoteCache.class, org.mozilla.javascript.Parser.class, com.github.javaparser.JavaParser.class
+    };
+
+    private static volatile String defaultVersion;
+
+    private final String baseUrl;
+    private final String converterVersion;
+    private final AtomicBoolean disabled = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong uploads = new AtomicLong();
+    private final ExecutorService uploader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "js2j-remote-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 构造函数，转换器版本取自当前运行的jar
+     *
+     * @param baseUrl 缓存服务的基地址，如 http://cache.example.com:8080/js2j
+     */
+    public RemoteCache(String baseUrl) {
+        this(baseUrl, defaultConverterVersion());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param baseUrl 缓存服务的基地址
+     * @param converterVersion 转换器版本，生成的代码可能不同的两个转换器必须使用不同的版本
+     */
+    public RemoteCache(String baseUrl, String converterVersion) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.converterVersion = converterVersion;
+    }
+
+    /**
+     * 转换器版本：转换器、Rhino和JavaParser所在的jar或类目录内容的SHA-256，
+     * 同一版本号的快照构建之间、开发时重新编译前后以及依赖升级前后都能区分。
+     * 无法确定时每个进程使用不同的随机版本，宁可不命中也不使用可能过期的条目
+     */
+    static String defaultConverterVersion() {
+        String version = defaultVersion;
+        if (version == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                Set<Path> seen = new HashSet<>();
+                for (Class<?> type : VERSIONED_CLASSES) {
+                    CodeSource source = type.getProtectionDomain().getCodeSource();
+                    if (source == null || source.getLocation() == null) {
+                        throw new IOException("无法确定 " + type.getName() + " 的位置");
+                    }
+                    Path location = Paths.get(source.getLocation().toURI());
+                    if (seen.add(location)) {
+                        digestLocation(digest, location);
+                    }
+                }
+                version = hex(digest.digest());
+            } catch (Exception e) {
+                version = "unversioned-" + UUID.randomUUID();
+                JSLogger.warn("无法确定转换器版本，本次运行不与其他进程共享缓存: " + e.getMessage());
+            }
+            defaultVersion = version;
+        }
+        return version;
+    }
+
+    /**
+     * 将jar的内容或类目录中每个文件的相对路径和内容计入摘要
+     */
+    private static void digestLocation(MessageDigest digest, Path location) throws IOException {
+        if (Files.isRegularFile(location)) {
+            digest.update(Files.readAllBytes(location));
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(location)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            digest.update(location.relativize(file).toString().replace(File.separatorChar, '/')
+                                  .getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Files.readAllBytes(file));
+        }
+    }
+
+    /**
+     * 计算缓存键
+     *
+     * @param options 影响转换结果的选项，如解析器前端和优化级别
+     * @param packageName 生成的类所在的包
+     * @param fileName 源文件名，决定模块类名
+     * @param source JavaScript源码
+     * @return 64位十六进制的键
+     */
+    public String key(String options, String packageName, String fileName, String source) {
+        String header = converterVersion + "\0" + options + "\0" + packageName + "\0" + fileName + "\0";
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(header.getBytes(StandardCharsets.UTF_8));
+            return hex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 查找缓存的转换结果
+     *
+     * @param key 缓存键
+     * @return 缓存的编译单元，未命中或缓存服务不可用时返回null
+     */
+    public List<GeneratedUnit> get(String key) {
+        if (disabled.get()) {
+            return null;
+        }
+        try {
+            HttpURLConnection connection = open(key, "GET");
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                drain(connection.getErrorStream());
+                misses.incrementAndGet();
+                return null;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                drain(connection.getErrorStream());
+                throw new IOException("GET 返回 " + status);
+            }
+            byte[] content;
+            try (InputStream in = connection.getInputStream()) {
+                content = readAll(in);
+            }
+            try {
+                List<GeneratedUnit> units = decode(content);
+                hits.incrementAndGet();
+                return units;
+            } catch (IOException e) {
+                // 损坏的条目按未命中处理，转换后会被重新上传覆盖
+                JSLogger.warn("远程缓存条目 " + key + " 无法解码: " + e.getMessage());
+                misses.incrementAndGet();
+                return null;
+            }
+        } catch (IOException e) {
+            fail(e);
+            return null;
+        }
+    }
+
+    /**
+     * 在后台上传转换结果
+     *
+     * @param key 缓存键
+     * @param units 生成的编译单元
+     */
+    public void put(String key, List<GeneratedUnit> units) {
+        if (disabled.get()) {
+            return;
+        }
+        byte[] body = encode(units);
+        uploader.execute(() -> {
+            if (disabled.get()) {
+                return;
+            }
+            try {
+                HttpURLConnection connection = open(key, "PUT");
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(body.length);
+                connection.setRequestProperty("Content-Type", "application/octet-stream");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+                int status = connection.getResponseCode();
+                if (status / 100 != 2) {
+                    drain(connection.getErrorStream());
+                    throw new IOException("PUT 返回 " + status);
+                }
+                drain(connection.getInputStream());
+                uploads.incrementAndGet();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    private HttpURLConnection open(String key, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/" + key).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+    /**
+     * 读完并关闭响应正文，连接可以被后续请求复用
+     */
+    private static void drain(InputStream in) throws IOException {
+        if (in != null) {
+            try (InputStream body = in) {
+                readAll(body);
+            }
+        }
+    }
+
+    private void fail(IOException e) {
+        if (disabled.compareAndSet(false, true)) {
+            JSLogger.warn("远程缓存 " + baseUrl + " 不可用，本次运行不再使用: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将编译单元列表编码为缓存内容
+     */
+    static byte[] encode(List<GeneratedUnit> units) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(FORMAT_MAGIC);
+            out.writeInt(units.size());
+            for (GeneratedUnit unit : units) {
+                writeString(out, unit.getPackageName());
+                writeString(out, unit.getClassName());
+                writeString(out, unit.getCode());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("编码缓存内容失败", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码缓存内容
+     *
+     * @throws IOException 如果内容格式不正确
+     */
+    static List<GeneratedUnit> decode(byte[] content) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(content)))) {
+            if (in.readInt() != FORMAT_MAGIC) {
+                throw new IOException("缓存内容格式不正确");
+            }
+            int count = in.readInt();
+            List<GeneratedUnit> units = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                units.add(new GeneratedUnit(readString(in), readString(in), readString(in)));
+            }
+            return units;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF限制在64KB以内，生成的代码可能更长
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    static String hex(byte[] hash) {
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public String getConverterVersion() {
+        return converterVersion;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getUploadCount() {
+        return uploads.get();
+    }
+
+    /**
+     * 等待未完成的上传结束
+     */
+    @Override
+    public void close() {
+        uploader.shutdown();
+        try {
+            if (!uploader.awaitTermination(UPLOAD_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                JSLogger.warn("远程缓存上传未在 " + UPLOAD_DRAIN_SECONDS + " 秒内完成");
+                uploader.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            uploader.shutdownNow();
+        }
+    }
+}
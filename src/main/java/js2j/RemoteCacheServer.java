@@ -0,0 +1,231 @@
+package js2j;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * 用于测试和小型部署的远程缓存服务，实现RemoteCache的GET/PUT协议
+ * 内容保存在内存中，或者指定目录时每个键一个文件。服务不校验内容，也不淘汰旧条目。
+ * 服务没有认证，默认只监听本机回环地址；供其他机器使用时显式指定监听地址，并放在可信网络或带认证的反向代理之后
+ *
+ * <pre>
+ * java -cp js2j.jar js2j.RemoteCacheServer 8080 /var/cache/js2j 0.0.0.0
+ * java -jar js2j.jar --remote-cache=http://cache-host:8080/cache src/js out
+ * </pre>
+ */
+public class RemoteCacheServer {
+
+    /** 缓存内容的路径前缀 */
+    public static final String CONTEXT = "/cache";
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    /** 单个条目的大小上限 */
+    private static final int MAX_ENTRY_BYTES = 64 * 1024 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path directory;
+    private final Map<String, byte[]> memory = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数，只监听本机回环地址，服务在调用start后开始接受请求
+     *
+     * @param port 端口，0表示任选一个空闲端口
+     * @param directory 保存内容的目录，为null时保存在内存中
+     * @throws IOException 如果端口无法绑定或目录无法创建
+     */
+    public RemoteCacheServer(int port, Path directory) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), directory);
+    }
+
+    /**
+     * 构造函数，服务在调用start后开始接受请求
+     *
+     * @param address 监听的地址和端口，服务没有认证，监听非回环地址时由调用方负责网络访问控制
+     * @param directory 保存内容的目录，为null时保存在内存中
+     * @throws IOException 如果端口无法绑定或目录无法创建
+     */
+    public RemoteCacheServer(InetSocketAddress address, Path directory) throws IOException {
+        this.directory = directory;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * 客户端使用的基地址，监听所有地址时为localhost
+     */
+    public String getBaseUrl() {
+        InetAddress address = server.getAddress().getAddress();
+        String host = address.isAnyLocalAddress() ? "localhost" : address.getHostAddress();
+        if (host.indexOf(':') >= 0) {
+            host = "[" + host + "]";
+        }
+        return "http://" + host + ":" + getPort() + CONTEXT;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String key = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            if (key.startsWith("/")) {
+                key = key.substring(1);
+            }
+            if (!KEY.matcher(key).matches()) {
+                respond(exchange, 400, "bad key");
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    byte[] content = load(key);
+                    if (content == null) {
+                        respond(exchange, 404, "not found");
+                        return;
+                    }
+                    exchange.sendResponseHeaders(200, content.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(content);
+                    }
+                    return;
+                case "PUT":
+                    // 先按Content-Length拒绝过大的内容，没有声明长度（分块传输）时最多读取上限加一个字节
+                    String length = exchange.getRequestHeaders().getFirst("Content-Length");
+                    if (length != null && !length.trim().matches("\\d{1,10}")) {
+                        respond(exchange, 400, "bad length");
+                        return;
+                    }
+                    if (length != null && Long.parseLong(length.trim()) > MAX_ENTRY_BYTES) {
+                        respond(exchange, 413, "too large");
+                        return;
+                    }
+                    byte[] body;
+                    try (InputStream in = exchange.getRequestBody()) {
+                        body = readLimited(in, MAX_ENTRY_BYTES);
+                    }
+                    if (body == null) {
+                        respond(exchange, 413, "too large");
+                        return;
+                    }
+                    store(key, body);
+                    respond(exchange, 201, "stored");
+                    return;
+                default:
+                    respond(exchange, 405, "method not allowed");
+            }
+        } catch (IOException | RuntimeException e) {
+            String request = exchange.getRequestMethod() + " " + exchange.getRequestURI();
+            if (exchange.getResponseCode() != -1) {
+                // 响应头已经发出，通常是客户端提前断开（如拒绝过大的上传后不再读取），只关闭连接
+                JSLogger.debug("远程缓存服务响应 " + request + " 时连接已断开: " + e);
+                return;
+            }
+            JSLogger.error("远程缓存服务处理 " + request + " 失败: " + e);
+            respond(exchange, 500, "error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 发送带有简短正文的响应
+     * HttpServer在没有正文（长度-1）的响应之后会关闭连接，而HttpURLConnection仍会复用该连接，
+     * 复用连接发出的PUT失败后不会被重试，因此所有响应都带有定长的正文
+     */
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 读取最多limit个字节，超过时返回null
+     */
+    private static byte[] readLimited(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            if (buffer.size() + n > limit) {
+                return null;
+            }
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    private byte[] load(String key) throws IOException {
+        if (directory == null) {
+            return memory.get(key);
+        }
+        Path file = directory.resolve(key);
+        return Files.exists(file) ? Files.readAllBytes(file) : null;
+    }
+
+    private void store(String key, byte[] content) throws IOException {
+        if (directory == null) {
+            memory.put(key, content);
+            return;
+        }
+        // 先写临时文件再改名，并发的GET不会读到一半的内容
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 启动缓存服务
+     *
+     * @param args 端口（默认8080）、保存内容的目录（默认保存在内存中，"-"也表示内存）和监听地址（默认只监听回环地址）
+     * @throws IOException 如果服务无法启动
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        Path directory = args.length > 1 && !"-".equals(args[1]) ? Paths.get(args[1]) : null;
+        InetAddress host = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        if (!host.isLoopbackAddress()) {
+            System.out.println("警告: 缓存服务没有认证，监听 " + host.getHostAddress() + " 时请限制网络访问");
+        }
+        RemoteCacheServer server = new RemoteCacheServer(new InetSocketAddress(host, port), directory);
+        server.start();
+        System.out.println("远程缓存服务已启动: " + server.getBaseUrl()
+                           + (directory != null ? "，内容保存在 " + directory.toAbsolutePath() : "，内容保存在内存中"));
+    }
+}
@@ -0,0 +1,394 @@
+package js2j;
+
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.BreakStatement;
+import org.mozilla.javascript.ast.CatchClause;
+import org.mozilla.javascript.ast.Comment;
+import org.mozilla.javascript.ast.ContinueStatement;
+import org.mozilla.javascript.ast.ForInLoop;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.Name;
+import org.mozilla.javascript.ast.NumberLiteral;
+import org.mozilla.javascript.ast.ObjectProperty;
+import org.mozilla.javascript.ast.PropertyGet;
+import org.mozilla.javascript.ast.RegExpLiteral;
+import org.mozilla.javascript.ast.StringLiteral;
+import org.mozilla.javascript.ast.UpdateExpression;
+import org.mozilla.javascript.ast.VariableInitializer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 跨文件的函数去重
+ * 第一遍扫描记录每个模块级函数的规范化AST哈希（忽略位置、注释和函数自身的名字），转换时哈希出现过两次以上的函数
+ * 只在共享类中生成一份方法体，原位置生成调用共享方法的委托方法
+ *
+ * 只对自包含的函数去重：参数都是简单名称，除自身的参数和局部变量外只引用标准全局对象，也不按名字递归调用自己，
+ * 这样生成的方法体与所在的文件无关。共享方法名只由去掉函数名的生成代码的哈希决定，名字不同而结构相同的函数共用一个方法；
+ * 生成代码不同的副本（如-O2推断出不同的类型）得到不同的共享方法，不会互相替换
+ */
+public class SharedFunctions {
+
+    /** 默认的共享类名 */
+    public static final String DEFAULT_CLASS_NAME = "Js2jShared";
+
+    /** 自包含的函数可以引用的全局名字 */
+    private static final Set<String> GLOBALS = new HashSet<>(Arrays.asList(
+        "Math", "JSON", "console", "Object", "Array", "String", "Number", "Boolean", "Date", "RegExp",
+        "Error", "TypeError", "RangeError", "parseInt", "parseFloat", "isNaN", "isFinite",
+        "undefined", "NaN", "Infinity", "arguments"));
+
+    private final String packageName;
+    private final String className;
+    /** 扫描时每个规范化AST哈希出现的次数 */
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    /** 共享方法名到共享方法 */
+    private final Map<String, Method> methods = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数，共享类位于默认包中
+     */
+    public SharedFunctions() {
+        this(JavaScriptToJavaConverter.DEFAULT_PACKAGE, DEFAULT_CLASS_NAME);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param packageName 共享类所在的包，各模块类通过全限定名调用，不能是默认包
+     * @param className 共享类名
+     */
+    public SharedFunctions(String packageName, String className) {
+        if (packageName.isEmpty()) {
+            throw new IllegalArgumentException("共享类不能位于默认包中");
+        }
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * 计算函数的规范化AST哈希
+     * 按先序记录每个节点的深度、种类、记号类型和名字或字面量，忽略位置、格式和注释，函数自身的名字记为占位符
+     *
+     * @param function 模块级函数声明
+     * @return 64位十六进制的哈希，函数不是自包含的时返回null
+     */
+    public static String hash(FunctionNode function) {
+        if (!isSelfContained(function)) {
+            return null;
+        }
+        StringBuilder shape = new StringBuilder();
+        Map<AstNode, Integer> depths = new IdentityHashMap<>();
+        depths.put(function, 0);
+        function.visit(node -> {
+            if (node instanceof Comment) {
+                return false;
+            }
+            Integer parentDepth = node == function ? null : depths.get(node.getParent());
+            int depth = parentDepth == null ? 0 : parentDepth + 1;
+            depths.put(node, depth);
+            shape.append(depth).append(' ').append(node.getClass().getSimpleName()).append(' ').append(node.getType());
+            if (node == function.getFunctionName()) {
+                shape.append(" #self");
+            } else if (node instanceof Name) {
+                shape.append(' ').append(((Name) node).getIdentifier());
+            } else if (node instanceof StringLiteral) {
+                shape.append(' ').append(((StringLiteral) node).getValue());
+            } else if (node instanceof NumberLiteral) {
+                shape.append(' ').append(((NumberLiteral) node).getValue());
+            } else if (node instanceof RegExpLiteral) {
+                shape.append(' ').append(((RegExpLiteral) node).getValue()).append('/').append(((RegExpLiteral) node).getFlags());
+            } else if (node instanceof UpdateExpression) {
+                shape.append(((UpdateExpression) node).isPostfix() ? " post" : " pre");
+            } else if (node instanceof ForInLoop) {
+                shape.append(((ForInLoop) node).isForEach() ? " each" : "").append(((ForInLoop) node).isForOf() ? " of" : "");
+            } else if (node instanceof FunctionNode) {
+                shape.append(' ').append(((FunctionNode) node).getFunctionType());
+            }
+            shape.append('\n');
+            return true;
+        });
+        return sha256(shape.toString());
+    }
+
+    /**
+     * 参数都是简单名称，且函数体中自由的名字都是标准全局对象
+     */
+    static boolean isSelfContained(FunctionNode function) {
+        Set<String> declared = new HashSet<>();
+        List<Name> references = new ArrayList<>();
+        boolean[] simple = {true};
+        function.visit(node -> {
+            if (node instanceof Comment) {
+                return false;
+            }
+            if (node instanceof FunctionNode) {
+                FunctionNode nested = (FunctionNode) node;
+                if (nested != function && nested.getFunctionName() != null) {
+                    declared.add(nested.getName());
+                }
+                for (AstNode param : nested.getParams()) {
+                    if (param instanceof Name) {
+                        declared.add(((Name) param).getIdentifier());
+                    } else {
+                        simple[0] = false;
+                    }
+                }
+            } else if (node instanceof VariableInitializer) {
+                AstNode target = ((VariableInitializer) node).getTarget();
+                if (target instanceof Name) {
+                    declared.add(((Name) target).getIdentifier());
+                } else {
+                    simple[0] = false;
+                }
+            } else if (node instanceof CatchClause && ((CatchClause) node).getVarName() != null) {
+                declared.add(((CatchClause) node).getVarName().getIdentifier());
+            } else if (node instanceof Name && isReference((Name) node)) {
+                references.add((Name) node);
+            }
+            return simple[0];
+        });
+        if (!simple[0]) {
+            return false;
+        }
+        for (Name name : references) {
+            String identifier = name.getIdentifier();
+            // 函数自身的名字不是声明的局部名字，递归调用因此不算自包含
+            if (!declared.contains(identifier) && !GLOBALS.contains(identifier)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 名字是否引用了一个变量，而不是属性名、对象字面量的键、标签或函数名
+     */
+    private static boolean isReference(Name name) {
+        AstNode parent = name.getParent();
+        if (parent instanceof PropertyGet) {
+            return ((PropertyGet) parent).getProperty() != name;
+        }
+        if (parent instanceof ObjectProperty) {
+            ObjectProperty property = (ObjectProperty) parent;
+            return property.getLeft() != name || property.getRight() == name;
+        }
+        if (parent instanceof FunctionNode) {
+            return ((FunctionNode) parent).getFunctionName() != name;
+        }
+        return !(parent instanceof BreakStatement || parent instanceof ContinueStatement);
+    }
+
+    /**
+     * 第一遍扫描时记录一个函数
+     *
+     * @param hash 规范化AST哈希
+     */
+    public void record(String hash) {
+        occurrences.computeIfAbsent(hash, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * 扫描时是否见过两个以上相同的函数
+     */
+    public boolean isDuplicated(String hash) {
+        AtomicInteger count = occurrences.get(hash);
+        return count != null && count.get() > 1;
+    }
+
+    /**
+     * 为一份生成的方法生成原位置的委托方法
+     * 按扫描时的副本数估算，共享后生成的代码不会变小时（很短的函数）不共享。
+     * 共享方法在副本所在的模块确实输出时才由addCopy加入共享类，转换失败后重试时丢弃的结果不计入
+     *
+     * @param hash 规范化AST哈希
+     * @param name 函数名
+     * @param returnType 返回类型
+     * @param parameterNames 参数名
+     * @param code 生成的方法，不含修饰符，以"返回类型 函数名("开头
+     * @return 共享的副本，不共享时返回null，此时调用方原样输出方法
+     */
+    public Copy share(String hash, String name, String returnType, List<String> parameterNames, String code) {
+        String prefix = returnType + " " + name + "(";
+        int bodyStart = code.indexOf(") {\n");
+        if (!code.startsWith(prefix) || bodyStart < 0) {
+            return null;
+        }
+        String rest = code.substring(prefix.length());
+        String sharedName = "f" + sha256(returnType + "\0" + rest).substring(0, 12);
+
+        StringBuilder delegate = new StringBuilder(code.substring(0, bodyStart)).append(") {\n    ");
+        if (!returnType.equals("void")) {
+            delegate.append("return ");
+        }
+        delegate.append(packageName).append('.').append(className).append('.').append(sharedName)
+                .append('(').append(String.join(", ", parameterNames)).append(");\n}\n");
+        AtomicInteger count = occurrences.get(hash);
+        int copies = count == null ? 0 : count.get();
+        if ((long) copies * (code.length() - delegate.length()) <= code.length()) {
+            return null;
+        }
+        return new Copy(name, sharedName, returnType + " " + sharedName + "(" + rest, delegate.toString(),
+                        code.length() - delegate.length());
+    }
+
+    /**
+     * 记录一份已输出的副本，第一次出现的共享方法加入共享类
+     */
+    public void addCopy(Copy copy) {
+        methods.computeIfAbsent(copy.sharedName, key -> new Method(copy.methodCode)).addCopy(copy.name, copy.savedBytes);
+    }
+
+    /**
+     * 共享类的成员：按名字排序的公共静态方法，每个方法前有一行注释列出原函数名
+     */
+    public List<String> getMethods() {
+        List<String> code = new ArrayList<>();
+        for (Method method : new TreeMap<>(methods).values()) {
+            code.add("// " + String.join(", ", method.names()) + "\npublic static " + method.code);
+        }
+        return code;
+    }
+
+    /**
+     * 共享方法数
+     */
+    public int getSharedCount() {
+        return methods.size();
+    }
+
+    /**
+     * 改为委托共享方法的副本数
+     */
+    public int getCopyCount() {
+        int copies = 0;
+        for (Method method : methods.values()) {
+            copies += method.copies.get();
+        }
+        return copies;
+    }
+
+    /**
+     * 节省的方法体数：副本数减去共享方法数
+     */
+    public int getSavedMethods() {
+        return getCopyCount() - getSharedCount();
+    }
+
+    /**
+     * 节省的生成代码字节数（格式化之前）：副本比委托方法多出的部分减去共享方法本身
+     */
+    public long getSavedBytes() {
+        long saved = 0;
+        for (Method method : methods.values()) {
+            saved += method.savedBytes.get() - method.code.length();
+        }
+        return saved;
+    }
+
+    /**
+     * 去重报告：一行汇总，之后按节省字节从多到少列出共享方法
+     *
+     * @param limit 最多列出的方法数
+     */
+    public List<String> report(int limit) {
+        List<String> lines = new ArrayList<>();
+        lines.add("函数去重: " + getSharedCount() + " 个共享方法代替 " + getCopyCount() + " 份副本，减少 "
+                  + getSavedMethods() + " 个方法体，节省 " + getSavedBytes() + " 字节");
+        List<Map.Entry<String, Method>> entries = new ArrayList<>(new TreeMap<>(methods).entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().saved(), a.getValue().saved()));
+        for (Map.Entry<String, Method> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            lines.add("  " + entry.getKey() + " (" + String.join(", ", entry.getValue().names()) + "): "
+                      + entry.getValue().copies.get() + " 份副本，节省 " + entry.getValue().saved() + " 字节");
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    private static String sha256(String text) {
+        try {
+            return RemoteCache.hex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 一份改为委托共享方法的副本
+     */
+    public static final class Copy {
+
+        private final String name;
+        private final String sharedName;
+        private final String methodCode;
+        private final String delegate;
+        private final long savedBytes;
+
+        Copy(String name, String sharedName, String methodCode, String delegate, long savedBytes) {
+            this.name = name;
+            this.sharedName = sharedName;
+            this.methodCode = methodCode;
+            this.delegate = delegate;
+            this.savedBytes = savedBytes;
+        }
+
+        /**
+         * 原位置的委托方法，不含修饰符
+         */
+        public String getDelegate() {
+            return delegate;
+        }
+    }
+
+    /**
+     * 一个共享方法和委托它的副本
+     */
+    private static final class Method {
+
+        final String code;
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        final AtomicInteger copies = new AtomicInteger();
+        /** 各副本比委托方法多出的字节数之和 */
+        final AtomicLong savedBytes = new AtomicLong();
+
+        Method(String code) {
+            this.code = code;
+        }
+
+        void addCopy(String name, long bytes) {
+            names.add(name);
+            copies.incrementAndGet();
+            savedBytes.addAndGet(bytes);
+        }
+
+        List<String> names() {
+            return new ArrayList<>(new TreeSet<>(names));
+        }
+
+        long saved() {
+            return savedBytes.get() - code.length();
+        }
+    }
+}
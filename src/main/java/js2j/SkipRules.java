@@ -0,0 +1,239 @@
+package js2j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 转换前跳过不需要转换的文件
+ * 一是输入根目录下.js2jignore中的glob规则（加上node_modules等默认规则），二是只读取文件头尾的内容嗅探，
+ * 识别压缩后的bundle、带sourceMappingURL的构建产物和编码后的载荷。两者都在解析之前完成，开销只有一次stat和几十KB的读取
+ *
+ * .js2jignore每行一条规则，语法是.gitignore的子集：#开头为注释，!开头为例外，以/结尾只匹配目录（及其下所有文件），
+ * 不含/的规则匹配任意一级的名称，含/的规则从根目录开始匹配整个相对路径，*不跨目录，**可以跨目录，后面的规则优先
+ */
+public class SkipRules {
+
+    /** 输入根目录下的规则文件名 */
+    public static final String IGNORE_FILE = ".js2jignore";
+
+    /** 默认规则，可以在.js2jignore中用!取消 */
+    static final List<String> DEFAULT_PATTERNS = Collections.unmodifiableList(Arrays.asList(
+        "node_modules/", "bower_components/", "*.min.js"));
+
+    /** 内容嗅探读取文件开头的字节数 */
+    private static final int HEAD_BYTES = 64 * 1024;
+    /** 内容嗅探读取文件末尾的字节数，sourceMappingURL注释总在文件末尾 */
+    private static final int TAIL_BYTES = 512;
+    /** 平均行长超过此值且有超长行时视为压缩文件 */
+    private static final int MINIFIED_AVERAGE_LINE = 200;
+    private static final int MINIFIED_LONGEST_LINE = 1000;
+    /** 每字节熵超过此值时视为base64等编码后的载荷，普通源码和压缩代码都在5.3以下 */
+    private static final double ENCODED_ENTROPY_BITS = 5.8;
+    /** 样本太小时熵不可靠 */
+    private static final int ENTROPY_MIN_SAMPLE = 4096;
+
+    /**
+     * 跳过模式
+     */
+    public enum Mode {
+        /** 跳过忽略规则匹配的文件和嗅探出的生成文件（默认） */
+        AUTO,
+        /** 跳过忽略规则匹配的文件，嗅探出的生成文件推迟到最后转换 */
+        DEFER,
+        /** 转换所有文件 */
+        OFF
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    private SkipRules(List<String> patterns) {
+        for (String pattern : patterns) {
+            Rule rule = Rule.parse(pattern);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+    }
+
+    /**
+     * 由规则文本创建，默认规则在前
+     *
+     * @param lines 规则，每项一行
+     * @return 规则集
+     */
+    public static SkipRules of(List<String> lines) {
+        List<String> patterns = new ArrayList<>(DEFAULT_PATTERNS);
+        patterns.addAll(lines);
+        return new SkipRules(patterns);
+    }
+
+    /**
+     * 读取输入根目录下的.js2jignore，不存在时只使用默认规则
+     *
+     * @param root 输入根目录
+     * @return 规则集
+     * @throws IOException 如果规则文件读取失败
+     */
+    public static SkipRules load(Path root) throws IOException {
+        Path ignoreFile = root.resolve(IGNORE_FILE);
+        if (!Files.isRegularFile(ignoreFile)) {
+            return of(Collections.emptyList());
+        }
+        return of(Files.readAllLines(ignoreFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 检查文件是否被忽略规则排除
+     *
+     * @param relativePath 相对于输入根目录的路径
+     * @return 匹配的规则，未被排除时为null
+     */
+    public String ignoredBy(Path relativePath) {
+        String matched = null;
+        for (Rule rule : rules) {
+            if (rule.matches(relativePath)) {
+                matched = rule.negated ? null : rule.text;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 只读取文件头尾判断是否为压缩或生成的文件
+     *
+     * @param file 文件
+     * @return 判断的原因，看起来是手写源码时为null
+     * @throws IOException 如果文件读取失败
+     */
+    public static String sniff(Path file) throws IOException {
+        byte[] head;
+        byte[] tail;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            head = read(channel, 0, (int) Math.min(size, HEAD_BYTES));
+            tail = size <= HEAD_BYTES ? head : read(channel, size - TAIL_BYTES, TAIL_BYTES);
+        }
+
+        String tailText = new String(tail, StandardCharsets.ISO_8859_1);
+        if (tailText.contains("sourceMappingURL=")) {
+            return "带有sourceMappingURL";
+        }
+        String headText = new String(head, 0, Math.min(head.length, 1024), StandardCharsets.ISO_8859_1);
+        if (headText.contains("@generated")) {
+            return "标记为@generated";
+        }
+
+        int lines = 1;
+        int longest = 0;
+        int current = 0;
+        int[] counts = new int[256];
+        for (byte b : head) {
+            counts[b & 0xff]++;
+            if (b == '\n') {
+                lines++;
+                current = 0;
+            } else if (++current > longest) {
+                longest = current;
+            }
+        }
+        if (longest >= MINIFIED_LONGEST_LINE && head.length / lines >= MINIFIED_AVERAGE_LINE) {
+            return "压缩代码（最长行 " + longest + " 字符）";
+        }
+        if (head.length >= ENTROPY_MIN_SAMPLE) {
+            double entropy = entropy(counts, head.length);
+            if (entropy >= ENCODED_ENTROPY_BITS) {
+                return String.format("编码后的载荷（熵 %.2f 位/字节）", entropy);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    static double entropy(int[] counts, int total) {
+        double entropy = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = (double) count / total;
+                entropy -= p * Math.log(p) / Math.log(2);
+            }
+        }
+        return entropy;
+    }
+
+    /**
+     * 一条忽略规则
+     */
+    private static final class Rule {
+        final String text;
+        final boolean negated;
+        final boolean directoryOnly;
+        final boolean anchored;
+        final PathMatcher matcher;
+
+        private Rule(String text, boolean negated, boolean directoryOnly, boolean anchored, String glob) {
+            this.text = text;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+            this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        }
+
+        static Rule parse(String line) {
+            String text = line.trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            String glob = text;
+            boolean negated = glob.startsWith("!");
+            if (negated) {
+                glob = glob.substring(1);
+            }
+            boolean directoryOnly = glob.endsWith("/");
+            if (directoryOnly) {
+                glob = glob.substring(0, glob.length() - 1);
+            }
+            boolean anchored = glob.contains("/");
+            if (glob.startsWith("/")) {
+                glob = glob.substring(1);
+            }
+            if (glob.isEmpty()) {
+                return null;
+            }
+            return new Rule(text, negated, directoryOnly, anchored, glob);
+        }
+
+        /**
+         * 规则匹配文件本身或它所在的任意一级目录时，文件被匹配
+         */
+        boolean matches(Path relativePath) {
+            int count = relativePath.getNameCount();
+            for (int i = directoryOnly ? count - 1 : count; i > 0; i--) {
+                Path candidate = anchored ? relativePath.subpath(0, i) : relativePath.getName(i - 1);
+                if (matcher.matches(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
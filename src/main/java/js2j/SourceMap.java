@@ -0,0 +1,260 @@
+package js2j;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成的Java源文件到原始JavaScript文件的行映射
+ * 按JSR-45 SMAP格式输出，JavaScript行号所在的层名为JS。编译为jar时写入类文件的
+ * SourceDebugExtension属性，支持JSR-45的调试器可以直接按JavaScript行显示，
+ * 性能分析器报告的Java行号也可以按映射换算
+ *
+ * 预处理和格式化步骤都是文本替换，不保留位置，转换前后的行按内容对齐（见alignLines），
+ * 生成代码与AST之间的行号在输出时记录，精确到函数体中的顶层语句
+ */
+public class SourceMap {
+
+    /** SMAP中JavaScript行号所在的层 */
+    public static final String STRATUM = "JS";
+
+    /** 没有锚点的一段不超过这么多对行时求最长公共子序列，否则直接按位置比例对应 */
+    private static final long MAX_LCS_CELLS = 1 << 18;
+
+    private final String javaFileName;
+    private final String sourceFileName;
+    /** 每个Java行对应的JavaScript行号，0表示没有对应的行 */
+    private final int[] lines;
+
+    /**
+     * @param javaFileName 生成的Java文件名
+     * @param sourceFileName JavaScript文件名
+     * @param lines 每个Java行对应的JavaScript行号，从第1行开始，0表示没有对应的行
+     */
+    public SourceMap(String javaFileName, String sourceFileName, int[] lines) {
+        this.javaFileName = javaFileName;
+        this.sourceFileName = sourceFileName;
+        this.lines = lines.clone();
+    }
+
+    public String getJavaFileName() {
+        return javaFileName;
+    }
+
+    public String getSourceFileName() {
+        return sourceFileName;
+    }
+
+    /**
+     * 获取Java行对应的JavaScript行号，没有对应的行时返回0
+     */
+    public int getSourceLine(int javaLine) {
+        return javaLine >= 1 && javaLine <= lines.length ? lines[javaLine - 1] : 0;
+    }
+
+    /**
+     * 输出SMAP，连续的、对应同一JavaScript行的Java行合为一条
+     */
+    public String toSmap() {
+        StringBuilder smap = new StringBuilder();
+        smap.append("SMAP\n").append(javaFileName).append('\n').append(STRATUM).append('\n');
+        smap.append("*S ").append(STRATUM).append('\n');
+        smap.append("*F\n1 ").append(sourceFileName).append('\n');
+        smap.append("*L\n");
+        boolean first = true;
+        for (int start = 0; start < lines.length; ) {
+            int end = start + 1;
+            while (end < lines.length && lines[end] == lines[start]) {
+                end++;
+            }
+            if (lines[start] > 0) {
+                // 输入行#文件号:输出起始行,输出行数
+                smap.append(lines[start]).append(first ? "#1" : "").append(':').append(start + 1);
+                if (end - start > 1) {
+                    smap.append(',').append(end - start);
+                }
+                smap.append('\n');
+                first = false;
+            }
+            start = end;
+        }
+        return smap.append("*E\n").toString();
+    }
+
+    /**
+     * 将SMAP写入类文件的SourceDebugExtension属性，类文件没有SourceFile属性时原样返回
+     */
+    static byte[] install(byte[] classFile, String smap) {
+        ClassReader reader = new ClassReader(classFile);
+        ClassWriter writer = new ClassWriter(0);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public void visitSource(String source, String debug) {
+                super.visitSource(source, smap);
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * 按内容对齐文本改写前后的行
+     * 忽略行首尾的空白，先匹配公共的首尾行，再以两边都只出现一次的相同行为锚点（取其中按顺序的最长序列）
+     * 分段对齐；没有这样的锚点时，较短的一段以最长公共子序列中的行为锚点。
+     * 仍然没有锚点的一段按位置比例对应，改写插入的行对应前一行
+     *
+     * @return to中每一行对应的from中的行号，从1开始，0表示没有对应的行
+     */
+    static int[] alignLines(CharSequence from, CharSequence to) {
+        String[] a = trimmedLines(from);
+        String[] b = trimmedLines(to);
+        int[] result = new int[b.length];
+        // 待对齐的区间 aStart, aEnd, bStart, bEnd，用显式栈避免很多锚点时递归过深
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, a.length, 0, b.length});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int aStart = range[0];
+            int aEnd = range[1];
+            int bStart = range[2];
+            int bEnd = range[3];
+            while (aStart < aEnd && bStart < bEnd && a[aStart].equals(b[bStart])) {
+                result[bStart++] = ++aStart;
+            }
+            while (aStart < aEnd && bStart < bEnd && a[aEnd - 1].equals(b[bEnd - 1])) {
+                result[--bEnd] = aEnd--;
+            }
+            if (bStart == bEnd) {
+                continue;
+            }
+            if (aStart == aEnd) {
+                // 插入的行，如for...of展开出的变量声明
+                Arrays.fill(result, bStart, bEnd, Math.min(Math.max(aStart, 1), a.length));
+                continue;
+            }
+            List<int[]> anchors = uniqueAnchors(a, aStart, aEnd, b, bStart, bEnd);
+            if (anchors.isEmpty() && (long) (aEnd - aStart) * (bEnd - bStart) <= MAX_LCS_CELLS) {
+                anchors = commonLines(a, aStart, aEnd, b, bStart, bEnd);
+            }
+            if (anchors.isEmpty()) {
+                for (int i = bStart; i < bEnd; i++) {
+                    result[i] = aStart + 1 + (int) ((long) (i - bStart) * (aEnd - aStart) / (bEnd - bStart));
+                }
+                continue;
+            }
+            int aFrom = aStart;
+            int bFrom = bStart;
+            for (int[] anchor : anchors) {
+                ranges.push(new int[] {aFrom, anchor[0], bFrom, anchor[1]});
+                result[anchor[1]] = anchor[0] + 1;
+                aFrom = anchor[0] + 1;
+                bFrom = anchor[1] + 1;
+            }
+            ranges.push(new int[] {aFrom, aEnd, bFrom, bEnd});
+        }
+        return result;
+    }
+
+    /**
+     * 两个区间中都只出现一次的相同行里，按两边顺序一致的最长序列，元素为 {a中的下标, b中的下标}
+     */
+    private static List<int[]> uniqueAnchors(String[] a, int aStart, int aEnd, String[] b, int bStart, int bEnd) {
+        // 行内容到下标，出现多次时为-1
+        Map<String, Integer> inA = new HashMap<>();
+        for (int i = aStart; i < aEnd; i++) {
+            inA.merge(a[i], i, (x, y) -> -1);
+        }
+        Map<String, Integer> inB = new HashMap<>();
+        for (int i = bStart; i < bEnd; i++) {
+            inB.merge(b[i], i, (x, y) -> -1);
+        }
+        List<int[]> candidates = new ArrayList<>();
+        for (int i = bStart; i < bEnd; i++) {
+            Integer aIndex = inA.get(b[i]);
+            if (aIndex != null && aIndex >= 0 && inB.get(b[i]) >= 0) {
+                candidates.add(new int[] {aIndex, i});
+            }
+        }
+        // 耐心排序求a下标的最长递增子序列
+        int[] tails = new int[candidates.size()];
+        int[] previous = new int[candidates.size()];
+        int length = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int aIndex = candidates.get(i)[0];
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (candidates.get(tails[mid])[0] < aIndex) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            length = Math.max(length, low + 1);
+        }
+        int[][] anchors = new int[length][];
+        for (int i = length - 1, k = length > 0 ? tails[length - 1] : -1; i >= 0; i--, k = previous[k]) {
+            anchors[i] = candidates.get(k);
+        }
+        return Arrays.asList(anchors);
+    }
+
+    /**
+     * 两个区间的最长公共子序列，元素为 {a中的下标, b中的下标}
+     */
+    private static List<int[]> commonLines(String[] a, int aStart, int aEnd, String[] b, int bStart, int bEnd) {
+        int rows = aEnd - aStart;
+        int columns = bEnd - bStart;
+        // lengths[i * (columns + 1) + j] 是a从i、b从j开始的后缀的最长公共子序列长度
+        int[] lengths = new int[(rows + 1) * (columns + 1)];
+        for (int i = rows - 1; i >= 0; i--) {
+            for (int j = columns - 1; j >= 0; j--) {
+                lengths[i * (columns + 1) + j] = a[aStart + i].equals(b[bStart + j])
+                    ? lengths[(i + 1) * (columns + 1) + j + 1] + 1
+                    : Math.max(lengths[(i + 1) * (columns + 1) + j], lengths[i * (columns + 1) + j + 1]);
+            }
+        }
+        List<int[]> common = new ArrayList<>();
+        for (int i = 0, j = 0; i < rows && j < columns; ) {
+            if (a[aStart + i].equals(b[bStart + j])) {
+                common.add(new int[] {aStart + i++, bStart + j++});
+            } else if (lengths[(i + 1) * (columns + 1) + j] >= lengths[i * (columns + 1) + j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static String[] trimmedLines(CharSequence text) {
+        String[] lines = text.toString().split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = lines[i].trim();
+        }
+        return lines;
+    }
+
+    /**
+     * 经过对齐换算行号：alignment是改写后每一行对应的改写前行号，lines是改写前每一行对应的行号
+     */
+    static int[] compose(int[] alignment, int[] lines) {
+        int[] result = new int[alignment.length];
+        for (int i = 0; i < alignment.length; i++) {
+            int line = alignment[i];
+            result[i] = line > 0 && line <= lines.length ? lines[line - 1] : 0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package js2j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 顶层语句的转换结果缓存
+ * 键是语句规范化源码（AST重新输出的源码，与空白和注释无关）连同转换选项的SHA-256，
+ * 值是该语句生成的模块成员代码和main方法代码。同一个文件修改一处后重新转换时，
+ * 未改动的函数和声明直接使用缓存的Java代码。按最近使用淘汰，可以被多个转换器共享
+ */
+public class StatementCache {
+
+    /** 默认最多缓存的语句数 */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 构造函数，最多缓存DEFAULT_CAPACITY条语句
+     */
+    public StatementCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 最多缓存的语句数
+     */
+    public StatementCache(final int capacity) {
+        // 匿名子类中的Entry解析为继承的Map.Entry，需要写出StatementCache.Entry
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StatementCache.Entry> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * 计算缓存键
+     *
+     * @param options 影响转换结果的选项
+     * @param statementSource 语句的规范化源码
+     */
+    public static String key(String options, String statementSource) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(options.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(statementSource.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 查找缓存的转换结果
+     *
+     * @return 缓存的结果，没有时返回null
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * 保存一条语句的转换结果
+     */
+    public void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 清空缓存和命中统计
+     */
+    public void clear() {
+        entries.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * 一条顶层语句的转换结果
+     */
+    public static class Entry {
+        private final String membersCode;
+        private final String mainBodyCode;
+
+        /**
+         * @param membersCode 生成的模块成员代码，没有时为null
+         * @param mainBodyCode 生成的main方法代码，没有时为null
+         */
+        public Entry(String membersCode, String mainBodyCode) {
+            this.membersCode = membersCode;
+            this.mainBodyCode = mainBodyCode;
+        }
+
+        public String getMembersCode() {
+            return membersCode;
+        }
+
+        public String getMainBodyCode() {
+            return mainBodyCode;
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package js2j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 已转换模块的顶层声明索引，保存在磁盘上并以内存映射方式访问
+ * 记录模块函数和变量、由构造函数得到的类及其原型方法的签名和字段，
+ * 解析其他文件中的调用时可以直接查到签名，不需要重新解析声明所在的文件。
+ *
+ * 文件格式：32字节文件头，其后是开放寻址的散列槽（每槽16字节：名称的64位散列、记录偏移、记录长度），
+ * 最后是追加写入的记录区。按限定名查找只读取一个槽链和一条记录，不会把整个索引读入堆中。
+ * 模块重新转换时原地更新：新记录追加到记录区，旧记录的槽改为墓碑，
+ * 槽或废弃记录过多时重建文件
+ */
+public class SymbolIndex implements Closeable {
+
+    private static final int MAGIC = 0x4A324A53;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int INITIAL_SLOTS = 1024;
+    /** 墓碑槽的记录长度 */
+    private static final int DELETED = -1;
+
+    // 文件头中各字段的位置
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int LIVE_COUNT_OFFSET = 12;
+    private static final int USED_SLOTS_OFFSET = 16;
+    private static final int GARBAGE_OFFSET = 20;
+    private static final int DATA_END_OFFSET = 24;
+
+    /**
+     * 符号种类
+     */
+    public enum Kind {
+        /** 模块类，成员为该模块的全部符号名 */
+        MODULE,
+        /** 模块级函数 */
+        FUNCTION,
+        /** 模块级变量 */
+        VARIABLE,
+        /** 由构造函数得到的类，成员为字段声明，参数为构造函数参数 */
+        CLASS,
+        /** 类的原型方法 */
+        METHOD
+    }
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int slotCount;
+
+    private SymbolIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开索引文件，不存在时创建空索引，版本不同时重建
+     *
+     * @param file 索引文件
+     * @return 索引
+     * @throws IOException 如果文件读写出错或不是符号索引文件
+     */
+    public static SymbolIndex open(Path file) throws IOException {
+        SymbolIndex index = new SymbolIndex(file);
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            create(file, INITIAL_SLOTS);
+        } else {
+            try (FileChannel probe = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                probe.read(header, 0);
+                header.flip();
+                if (header.remaining() < 8 || header.getInt() != MAGIC) {
+                    throw new IOException(file + " 不是符号索引文件");
+                }
+                if (header.getInt() != VERSION) {
+                    JSLogger.warn("符号索引 " + file + " 的版本不同，重新建立");
+                    create(file, INITIAL_SLOTS);
+                }
+            }
+        }
+        index.map();
+        return index;
+    }
+
+    /**
+     * 按限定名查找符号，如 js2j.generated.Utils.add 或 js2j.generated.Point
+     *
+     * @return 符号，没有时返回null
+     */
+    public synchronized Symbol lookup(String qualifiedName) {
+        int slot = findSlot(qualifiedName);
+        return slot < 0 ? null : readRecord(slot);
+    }
+
+    /**
+     * 模块的全部符号
+     *
+     * @param moduleName 模块类的限定名
+     * @return 符号列表，模块不在索引中时为空
+     */
+    public synchronized List<Symbol> moduleSymbols(String moduleName) {
+        Symbol module = lookup(moduleName);
+        if (module == null || module.getKind() != Kind.MODULE) {
+            return Collections.emptyList();
+        }
+        List<Symbol> symbols = new ArrayList<>();
+        for (String name : module.getMembers()) {
+            Symbol symbol = lookup(name);
+            if (symbol != null) {
+                symbols.add(symbol);
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * 用模块本次转换得到的符号替换索引中该模块以前的符号
+     *
+     * @param moduleName 模块类的限定名
+     * @param sourceFile 模块的源文件名
+     * @param symbols 模块的顶层声明
+     * @throws IOException 如果文件读写出错
+     */
+    public synchronized void updateModule(String moduleName, String sourceFile, List<Symbol> symbols) throws IOException {
+        Symbol previous = lookup(moduleName);
+        if (previous != null && previous.getKind() == Kind.MODULE) {
+            for (String name : previous.getMembers()) {
+                remove(name);
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (Symbol symbol : symbols) {
+            put(symbol);
+            names.add(symbol.getName());
+        }
+        put(new Symbol(Kind.MODULE, moduleName, sourceFile, null,
+                       Collections.<String>emptyList(), Collections.<String>emptyList(), names));
+    }
+
+    /**
+     * 索引中的符号数（包括模块）
+     */
+    public synchronized int size() {
+        return buffer.getInt(LIVE_COUNT_OFFSET);
+    }
+
+    /**
+     * 将修改写回磁盘
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 写入或替换一条记录
+     */
+    private void put(Symbol symbol) throws IOException {
+        byte[] record = symbol.encode();
+        if ((buffer.getInt(USED_SLOTS_OFFSET) + 1) * 10L > slotCount * 7L) {
+            rebuild(slotCount * 2);
+        }
+        long dataEnd = buffer.getLong(DATA_END_OFFSET);
+        if (dataEnd + record.length > Integer.MAX_VALUE) {
+            // 记录偏移用int保存，空间不够时先丢弃废弃的记录
+            rebuild(slotCount);
+            dataEnd = buffer.getLong(DATA_END_OFFSET);
+            if (dataEnd + record.length > Integer.MAX_VALUE) {
+                throw new IOException("符号索引 " + file + " 超过2GB");
+            }
+        }
+        ensureCapacity(dataEnd + record.length);
+        buffer.position((int) dataEnd);
+        buffer.put(record);
+
+        long hash = hash(symbol.getName());
+        int existing = findSlot(symbol.getName());
+        int slot = existing;
+        if (slot < 0) {
+            slot = freeSlot(hash);
+            if (buffer.getLong(slotOffset(slot)) == 0) {
+                buffer.putInt(USED_SLOTS_OFFSET, buffer.getInt(USED_SLOTS_OFFSET) + 1);
+            }
+            buffer.putInt(LIVE_COUNT_OFFSET, buffer.getInt(LIVE_COUNT_OFFSET) + 1);
+        } else {
+            buffer.putInt(GARBAGE_OFFSET, buffer.getInt(GARBAGE_OFFSET) + buffer.getInt(slotOffset(slot) + 12));
+        }
+        int offset = slotOffset(slot);
+        buffer.putLong(offset, hash);
+        buffer.putInt(offset + 8, (int) dataEnd);
+        buffer.putInt(offset + 12, record.length);
+        buffer.putLong(DATA_END_OFFSET, dataEnd + record.length);
+
+        // 废弃的记录超过记录区的一半时重建
+        long garbage = buffer.getInt(GARBAGE_OFFSET) & 0xFFFFFFFFL;
+        if (garbage > (1 << 20) && garbage * 2 > dataEnd - dataStart()) {
+            rebuild(slotCount);
+        }
+    }
+
+    /**
+     * 删除一条记录，槽改为墓碑以免打断其他名称的探查链
+     */
+    private void remove(String name) {
+        int slot = findSlot(name);
+        if (slot < 0) {
+            return;
+        }
+        int offset = slotOffset(slot);
+        buffer.putInt(GARBAGE_OFFSET, buffer.getInt(GARBAGE_OFFSET) + buffer.getInt(offset + 12));
+        buffer.putInt(offset + 12, DELETED);
+        buffer.putInt(LIVE_COUNT_OFFSET, buffer.getInt(LIVE_COUNT_OFFSET) - 1);
+    }
+
+    /**
+     * 查找名称所在的槽
+     *
+     * @return 槽号，没有时为-1
+     */
+    private int findSlot(String name) {
+        long hash = hash(name);
+        int mask = slotCount - 1;
+        for (int i = (int) hash & mask, probes = 0; probes < slotCount; i = (i + 1) & mask, probes++) {
+            int offset = slotOffset(i);
+            long slotHash = buffer.getLong(offset);
+            if (slotHash == 0) {
+                return -1;
+            }
+            if (slotHash == hash && buffer.getInt(offset + 12) != DELETED && name.equals(readName(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 新名称可以使用的第一个空槽或墓碑槽
+     */
+    private int freeSlot(long hash) {
+        int mask = slotCount - 1;
+        int i = (int) hash & mask;
+        while (buffer.getLong(slotOffset(i)) != 0 && buffer.getInt(slotOffset(i) + 12) != DELETED) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private String readName(int slot) {
+        int offset = buffer.getInt(slotOffset(slot) + 8);
+        // 记录以种类和名称开头，名称前是两字节长度
+        int length = buffer.getShort(offset + 1) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 3);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Symbol readRecord(int slot) {
+        int offset = buffer.getInt(slotOffset(slot) + 8);
+        byte[] record = new byte[buffer.getInt(slotOffset(slot) + 12)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(record);
+        return Symbol.decode(record);
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private long dataStart() {
+        return HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+    }
+
+    /**
+     * 记录区不够时扩大映射，每次至少翻倍
+     */
+    private void ensureCapacity(long size) throws IOException {
+        if (size <= buffer.capacity()) {
+            return;
+        }
+        long newSize = Math.min(Integer.MAX_VALUE, Math.max(size, buffer.capacity() * 2L));
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+    }
+
+    /**
+     * 将有效记录复制到有newSlotCount个槽的新文件，再替换原文件
+     */
+    private void rebuild(int newSlotCount) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        create(temp, newSlotCount);
+        SymbolIndex target = new SymbolIndex(temp);
+        target.map();
+        try {
+            for (int i = 0; i < slotCount; i++) {
+                int offset = slotOffset(i);
+                if (buffer.getLong(offset) != 0 && buffer.getInt(offset + 12) != DELETED) {
+                    target.copyRecord(buffer.getLong(offset), buffer, buffer.getInt(offset + 8), buffer.getInt(offset + 12));
+                }
+            }
+        } finally {
+            target.close();
+        }
+        close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+    }
+
+    /**
+     * 重建时复制一条记录，名称已知不重复
+     */
+    private void copyRecord(long hash, ByteBuffer source, int offset, int length) throws IOException {
+        long dataEnd = buffer.getLong(DATA_END_OFFSET);
+        ensureCapacity(dataEnd + length);
+        ByteBuffer record = source.duplicate();
+        record.limit(offset + length).position(offset);
+        buffer.position((int) dataEnd);
+        buffer.put(record);
+
+        int slot = freeSlot(hash);
+        buffer.putLong(slotOffset(slot), hash);
+        buffer.putInt(slotOffset(slot) + 8, (int) dataEnd);
+        buffer.putInt(slotOffset(slot) + 12, length);
+        buffer.putInt(USED_SLOTS_OFFSET, buffer.getInt(USED_SLOTS_OFFSET) + 1);
+        buffer.putInt(LIVE_COUNT_OFFSET, buffer.getInt(LIVE_COUNT_OFFSET) + 1);
+        buffer.putLong(DATA_END_OFFSET, dataEnd + length);
+    }
+
+    /**
+     * 创建只有文件头和空槽的索引文件
+     */
+    private static void create(Path file, int slotCount) throws IOException {
+        long dataStart = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(0).putInt(0).putInt(0).putLong(dataStart);
+        header.flip();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(header, 0);
+            // 预留与槽区同样大的记录区
+            out.write(ByteBuffer.allocate(1), dataStart * 2 - 1);
+        }
+    }
+
+    /**
+     * 名称的64位FNV-1a散列，0表示空槽，不会返回0
+     */
+    static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * 一个顶层声明
+     */
+    public static class Symbol {
+        private final Kind kind;
+        private final String name;
+        private final String sourceFile;
+        private final String type;
+        private final List<String> parameterNames;
+        private final List<String> parameterTypes;
+        private final List<String> members;
+
+        /**
+         * @param kind 种类
+         * @param name 限定名
+         * @param sourceFile 声明所在的源文件名
+         * @param type 函数和方法的返回类型或变量类型，其他为null
+         * @param parameterNames 参数名
+         * @param parameterTypes 参数类型，与参数名一一对应
+         * @param members 类的字段声明（如 int x）或模块的符号名，其他为空
+         */
+        public Symbol(Kind kind, String name, String sourceFile, String type,
+                      List<String> parameterNames, List<String> parameterTypes, List<String> members) {
+            this.kind = kind;
+            this.name = name;
+            this.sourceFile = sourceFile;
+            this.type = type;
+            this.parameterNames = parameterNames;
+            this.parameterTypes = parameterTypes;
+            this.members = members;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSourceFile() {
+            return sourceFile;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getParameterCount() {
+            return parameterNames.size();
+        }
+
+        public List<String> getParameterNames() {
+            return parameterNames;
+        }
+
+        public List<String> getParameterTypes() {
+            return parameterTypes;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        /**
+         * 函数和方法的Java签名，如 int add(int a, Object b)
+         */
+        public String signature() {
+            StringBuilder signature = new StringBuilder();
+            if (type != null) {
+                signature.append(type).append(' ');
+            }
+            signature.append(name.substring(name.lastIndexOf('.') + 1)).append('(');
+            for (int i = 0; i < parameterNames.size(); i++) {
+                if (i > 0) {
+                    signature.append(", ");
+                }
+                signature.append(parameterTypes.get(i)).append(' ').append(parameterNames.get(i));
+            }
+            return signature.append(')').toString();
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + (kind == Kind.FUNCTION || kind == Kind.METHOD ? signature() : name);
+        }
+
+        byte[] encode() {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(kind.ordinal());
+                out.writeUTF(name);
+                out.writeUTF(sourceFile == null ? "" : sourceFile);
+                out.writeBoolean(type != null);
+                if (type != null) {
+                    out.writeUTF(type);
+                }
+                out.writeShort(parameterNames.size());
+                for (int i = 0; i < parameterNames.size(); i++) {
+                    out.writeUTF(parameterNames.get(i));
+                    out.writeUTF(parameterTypes.get(i));
+                }
+                out.writeInt(members.size());
+                for (String member : members) {
+                    out.writeUTF(member);
+                }
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static Symbol decode(byte[] record) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+                Kind kind = Kind.values()[in.readByte()];
+                String name = in.readUTF();
+                String sourceFile = in.readUTF();
+                String type = in.readBoolean() ? in.readUTF() : null;
+                int parameterCount = in.readShort();
+                List<String> parameterNames = new ArrayList<>(parameterCount);
+                List<String> parameterTypes = new ArrayList<>(parameterCount);
+                for (int i = 0; i < parameterCount; i++) {
+                    parameterNames.add(in.readUTF());
+                    parameterTypes.add(in.readUTF());
+                }
+                int memberCount = in.readInt();
+                List<String> members = new ArrayList<>(memberCount);
+                for (int i = 0; i < memberCount; i++) {
+                    members.add(in.readUTF());
+                }
+                return new Symbol(kind, name, sourceFile.isEmpty() ? null : sourceFile, type,
+                                  parameterNames, parameterTypes, members);
+            } catch (IOException e) {
+                throw new IllegalStateException("符号索引记录已损坏", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package js2j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定向转换的文件列表
+ * 文件来自NUL或换行分隔的列表（标准输入或文件），或者本地git中相对某个提交发生变化的路径，
+ * 按所在的输入根目录分组，转换时保持与processDirectory相同的目录结构
+ */
+public final class TargetFiles {
+
+    /** 等待git命令结束的最长秒数 */
+    private static final long GIT_TIMEOUT_SECONDS = 60;
+
+    private TargetFiles() {
+    }
+
+    /**
+     * 读取文件列表，包含NUL字符时按NUL分隔（find -print0、git -z的输出），否则按行分隔
+     * 空项被忽略，行尾的\r被去掉
+     *
+     * @param in 输入流，不会被关闭
+     * @return 列表中的路径，保持原有顺序
+     * @throws IOException 如果读取失败
+     */
+    public static List<String> readList(InputStream in) throws IOException {
+        return splitList(new String(readAll(in), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 读取列表文件，"-"表示标准输入
+     *
+     * @param listFile 列表文件路径
+     * @return 列表中的路径
+     * @throws IOException 如果读取失败
+     */
+    public static List<String> readList(String listFile) throws IOException {
+        if ("-".equals(listFile)) {
+            return readList(System.in);
+        }
+        return splitList(new String(Files.readAllBytes(Paths.get(listFile)), StandardCharsets.UTF_8));
+    }
+
+    static List<String> splitList(String content) {
+        boolean nulSeparated = content.indexOf('\0') >= 0;
+        List<String> entries = new ArrayList<>();
+        for (String entry : content.split(nulSeparated ? "\0" : "\n")) {
+            if (!nulSeparated && entry.endsWith("\r")) {
+                entry = entry.substring(0, entry.length() - 1);
+            }
+            if (!entry.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 询问本地git在根目录下相对ref发生变化的文件，包括工作区中尚未提交的修改和未跟踪的新文件，
+     * 已删除的文件不包含在内
+     *
+     * @param root 根目录，必须位于git工作区中
+     * @param ref 比较的提交，如 origin/main 或 HEAD~1
+     * @return 变化文件的绝对路径
+     * @throws IOException 如果git命令失败
+     */
+    public static List<Path> gitChanged(Path root, String ref) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        // --relative 使输出路径相对于根目录，并只包含根目录下的文件
+        names.addAll(splitList(git(root, "diff", "--name-only", "-z", "--relative", "--diff-filter=d", ref, "--")));
+        names.addAll(splitList(git(root, "ls-files", "-z", "--others", "--exclude-standard")));
+
+        Path absoluteRoot = root.toAbsolutePath().normalize();
+        List<Path> files = new ArrayList<>();
+        for (String name : names) {
+            files.add(absoluteRoot.resolve(name).normalize());
+        }
+        return files;
+    }
+
+    private static String git(Path dir, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.add("-C");
+        command.add(dir.toString());
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(false).start();
+        process.getOutputStream().close();
+        // 先读完输出，避免管道写满时git阻塞
+        byte[] output = readAll(process.getInputStream());
+        byte[] error = readAll(process.getErrorStream());
+        try {
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("git " + args[0] + " 超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IOException("等待git时被中断", e);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " 失败: "
+                + new String(error, StandardCharsets.UTF_8).trim());
+        }
+        return new String(output, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 将文件按所在的根目录分组，根目录互相嵌套时归入最深的一个
+     * 只保留存在的.js文件，不在任何根目录下的文件给出警告后跳过，重复的文件只保留一次
+     *
+     * @param roots 根目录
+     * @param files 文件，相对路径相对于当前工作目录
+     * @return 根目录（绝对路径）到其下文件（绝对路径）的映射，顺序与roots一致
+     */
+    public static Map<Path, List<Path>> groupByRoot(List<Path> roots, List<Path> files) {
+        Map<Path, List<Path>> grouped = new LinkedHashMap<>();
+        for (Path root : roots) {
+            grouped.putIfAbsent(root.toAbsolutePath().normalize(), new ArrayList<>());
+        }
+        List<Path> deepestFirst = new ArrayList<>(grouped.keySet());
+        deepestFirst.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+
+        Set<Path> seen = new LinkedHashSet<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            if (!absolute.toString().endsWith(".js")) {
+                continue;
+            }
+            if (!Files.isRegularFile(absolute)) {
+                // 列表中可能包含已删除的文件
+                JSLogger.debug("跳过不存在的文件 - " + file);
+                continue;
+            }
+            if (!seen.add(absolute)) {
+                continue;
+            }
+            Path owner = null;
+            for (Path root : deepestFirst) {
+                if (absolute.startsWith(root)) {
+                    owner = root;
+                    break;
+                }
+            }
+            if (owner == null) {
+                JSLogger.warn("警告: 文件不在任何输入目录下，已跳过 - " + file);
+                continue;
+            }
+            grouped.get(owner).add(absolute);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,72 @@
+// 类数据共享训练样例：覆盖转换器中常用的语法结构，使训练运行加载尽可能多的类
+
+var greeting = "Hello, World!";
+var count = 10;
+var ratio = 0.75;
+var isActive = true;
+var numbers = [1, 2, 3, 4, 5];
+var settings = { name: "demo", retries: 3, verbose: false };
+
+function sayHello(name) {
+    return greeting + " My name is " + name + ".";
+}
+
+function calculateSum(values) {
+    var sum = 0;
+    for (var i = 0; i < values.length; i++) {
+        sum += values[i];
+    }
+    return sum;
+}
+
+function classify(value) {
+    switch (value) {
+        case 1:
+            return "one";
+        case 2:
+            return "two";
+        default:
+            return "many";
+    }
+}
+
+function countdown(n) {
+    while (n > 0) {
+        n--;
+    }
+    return n;
+}
+
+function Point(x, y) {
+    this.x = x;
+    this.y = y;
+}
+
+Point.prototype.length = function() {
+    return Math.sqrt(this.x * this.x + this.y * this.y);
+};
+
+class Shape {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+    }
+    area() {
+        return this.width * this.height;
+    }
+}
+
+var arrow = (a, b) => a + b;
+var label = `count: ${count}`;
+
+if (count > 5) {
+    console.log("Count is greater than 5");
+} else if (count > 2) {
+    console.log("Count is greater than 2");
+} else {
+    console.log("Count is small");
+}
+
+console.log(sayHello("Alice"));
+console.log("Sum: " + calculateSum(numbers));
+console.log(classify(2) + " " + countdown(3) + " " + label);
@@ -0,0 +1,208 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.Comment;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AST快照测试
+ * 还原的AST在结构、位置、行号和toSource()上都应与解析器生成的相同，转换结果也相同
+ */
+public class AstSnapshotTest {
+
+    private static final String[] CORPUS = {
+        "small-script.js", "deep-nesting.js", "huge-object-literal.js", "minified-bundle.js", "es6-classes.js"
+    };
+
+    /** 覆盖两个前端生成的其余节点种类 */
+    private static final String STATEMENTS =
+        "/** 文档注释 */\n" +
+        "function parse(text, re) {\n" +
+        "    // 行注释\n" +
+        "    var out = [], i, m = /a+(b)?/gi;\n" +
+        "    outer: for (i = 0; i < text.length; i++) {\n" +
+        "        for (var key in re) { if (!re.hasOwnProperty(key)) continue outer; }\n" +
+        "        do { i += 2; } while (i % 3 != 0);\n" +
+        "        switch (typeof text[i]) {\n" +
+        "            case 'string': out.push(text[i] ? -text.length : void 0); break;\n" +
+        "            default: ;\n" +
+        "        }\n" +
+        "    }\n" +
+        "    try { throw new Error(\"bad\" + 0x1F + 1e3); } catch (e) { out.push(e.message); } finally { out.length--; }\n" +
+        "    with (Math) { out.push(max(1, 2)); }\n" +
+        "    return !out ? null : (out, { get size() { return out.length; }, 'k': [, 1, , ] });\n" +
+        "}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotsRestoreTheParsedTree() throws IOException {
+        JSSourcePreprocessor preprocessor = new JSSourcePreprocessor();
+        List<String> sources = new ArrayList<>();
+        for (String name : CORPUS) {
+            sources.add(readCorpus(name));
+        }
+        sources.add(STATEMENTS);
+
+        for (JSParserFrontend parser : Arrays.asList(new JSParser(), new ModernJSParser())) {
+            for (String source : sources) {
+                String text = parser.needsPreprocessing() ? preprocessor.preProcessSource(source) : source;
+                AstRoot parsed;
+                try {
+                    parsed = parser.parse(text, "input.js");
+                } catch (RuntimeException e) {
+                    // 预处理不完整的文件由转换器分块处理，不经过快照
+                    continue;
+                }
+                byte[] snapshot = AstSnapshot.encode(parsed);
+                assertNotNull(snapshot, parser.getName() + " 不支持的节点");
+                AstRoot restored = AstSnapshot.decode(ByteBuffer.wrap(snapshot), "input.js");
+
+                assertEquals(parsed.toSource(), restored.toSource());
+                assertEquals(describe(parsed), describe(restored));
+                assertEquals("input.js", restored.getSourceName());
+                assertEquals(parsed.getComments() == null ? 0 : parsed.getComments().size(),
+                             restored.getComments() == null ? 0 : restored.getComments().size());
+            }
+        }
+    }
+
+    @Test
+    void secondRunSkipsParsingAndProducesSameCode() throws IOException {
+        AstSnapshotCache cache = new AstSnapshotCache(tempDir.resolve("ast"), "test");
+        for (String name : CORPUS) {
+            String source = readCorpus(name);
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CountingParser plainParser = new CountingParser();
+                JavaScriptToJavaConverter plain = new JavaScriptToJavaConverter(plainParser);
+                plain.setOptimizationLevel(level);
+                List<GeneratedUnit> expected = plain.convert(source, name, "demo");
+
+                CountingParser cachedParser = new CountingParser();
+                JavaScriptToJavaConverter cached = new JavaScriptToJavaConverter(cachedParser);
+                cached.setOptimizationLevel(level);
+                cached.setAstCache(cache);
+                long hits = cache.getHitCount();
+                List<GeneratedUnit> actual = cached.convert(source, name, "demo");
+                // 命中时不解析整个文件，分块处理的文件没有快照
+                assertEquals(plainParser.parses.get() - (cache.getHitCount() - hits), cachedParser.parses.get(), name);
+
+                assertEquals(expected.size(), actual.size(), name);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getCode(), actual.get(i).getCode(), name + " " + level);
+                }
+            }
+        }
+        assertEquals(0, cache.getUnsupportedCount());
+        // 能整体解析的ES5文件在第一个优化级别之后都命中
+        assertTrue(cache.getHitCount() >= 4 * (OptimizationLevel.values().length - 1), "命中 " + cache.getHitCount());
+    }
+
+    @Test
+    void corruptOrOutdatedSnapshotsAreMisses() throws IOException {
+        AstSnapshotCache cache = new AstSnapshotCache(tempDir, "test");
+        String key = cache.key(JSParser.NAME, STATEMENTS);
+        assertNotEquals(key, cache.key(ModernJSParser.NAME, STATEMENTS));
+        assertNotEquals(key, new AstSnapshotCache(tempDir, "other").key(JSParser.NAME, STATEMENTS));
+        assertNull(cache.load(key, "a.js"));
+
+        cache.store(key, new JSParser().parse(STATEMENTS, "a.js"));
+        assertEquals(1, cache.getStoreCount());
+        assertNotNull(cache.load(key, "a.js"));
+        Path file = tempDir.resolve(key + AstSnapshotCache.SUFFIX);
+        byte[] snapshot = Files.readAllBytes(file);
+
+        byte[] outdated = snapshot.clone();
+        ByteBuffer.wrap(outdated).putInt(4, AstSnapshot.FORMAT_VERSION + 1);
+        Files.write(file, outdated);
+        assertNull(cache.load(key, "a.js"));
+
+        Files.write(file, Arrays.copyOf(snapshot, snapshot.length / 2));
+        assertNull(cache.load(key, "a.js"));
+        assertThrows(IOException.class, () -> AstSnapshot.decode(ByteBuffer.wrap(Arrays.copyOf(snapshot, 40)), null));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    /**
+     * 每个节点一行：缩进、类名、相对位置、绝对位置、长度、行号、记号类型和父节点类型
+     */
+    private static String describe(AstRoot root) {
+        StringBuilder out = new StringBuilder();
+        root.visitAll(node -> {
+            out.append(node.depth()).append(' ').append(node.getClass().getSimpleName())
+               .append(' ').append(node.getPosition()).append(' ').append(node.getAbsolutePosition())
+               .append(' ').append(node.getLength()).append(' ').append(node.getLineno())
+               .append(' ').append(node.getType())
+               .append(' ').append(node.getParent() == null ? "-" : node.getParent().getClass().getSimpleName());
+            AstNode inline = node.getInlineComment();
+            if (inline != null) {
+                out.append(" inline ").append(inline.getAbsolutePosition());
+            }
+            Comment doc = node.getJsDocNode();
+            if (doc != null) {
+                out.append(" doc ").append(doc.getAbsolutePosition());
+            }
+            out.append('\n');
+            return true;
+        });
+        return out.toString();
+    }
+
+    private static String readCorpus(String name) throws IOException {
+        try {
+            URL url = AstSnapshotTest.class.getResource("/corpus/" + name);
+            return new String(Files.readAllBytes(Paths.get(url.toURI())), StandardCharsets.UTF_8);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 记录解析次数的前端
+     */
+    private static class CountingParser implements JSParserFrontend {
+        private final JSParser delegate = new JSParser();
+        final AtomicInteger parses = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public boolean needsPreprocessing() {
+            return delegate.needsPreprocessing();
+        }
+
+        @Override
+        public AstRoot parse(String jsCode, String sourceFileName) {
+            parses.incrementAndGet();
+            return delegate.parse(jsCode, sourceFileName);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package js2j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 字节码后端测试
+ * 验证直接生成的类文件可以运行并得到与JavaScript一致的结果，
+ * 并提供与源码路径（生成Java源码后调用javac）的构建耗时对比
+ */
+public class BytecodeBackendTest {
+
+    private static final String PROGRAM =
+        "var total = 0;\n" +
+        "var names = [\"a\", \"b\", \"c\"];\n" +
+        "function square(x) { return x * x; }\n" +
+        "function fib(n) { if (n < 2) { return n; } return fib(n - 1) + fib(n - 2); }\n" +
+        "function describe(kind) {\n" +
+        "    switch (kind) { case 1: return \"one\"; case 2: return \"two\"; default: return \"many\"; }\n" +
+        "}\n" +
+        "for (var i = 0; i < 10; i++) {\n" +
+        "    if (i % 2 === 0) { continue; }\n" +
+        "    total += square(i);\n" +
+        "}\n" +
+        "console.log(\"total:\", total);\n" +
+        "console.log(fib(15), describe(1), describe(2), describe(9));\n" +
+        "console.log(names.join(\"-\"), names.length, 7 / 2, total > 100 ? \"big\" : \"small\");\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compiledModuleRunsLikeJavaScript() throws Exception {
+        Map<String, byte[]> classes = new JSBytecodeCompiler().compile(PROGRAM, "program.js", "js2j.generated");
+        assertEquals(1, classes.size());
+
+        String output = runMain(classes, "js2j.generated.Program");
+        assertEquals("total: 165\n610 one two many\na-b-c 3 3.5 big\n", output.replace("\r\n", "\n"));
+    }
+
+    /**
+     * 构建耗时对比：字节码后端直接产出jar，源码路径需要生成、格式化Java源码再调用javac
+     * 使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void bytecodeBackendBuildsFasterThanSourcePath() throws Exception {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(javac, "需要在JDK上运行以调用javac");
+
+        String source = generateProgram(400);
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        JSBytecodeCompiler compiler = new JSBytecodeCompiler();
+
+        // 预热
+        buildWithSourcePath(converter, javac, source);
+        buildWithBytecode(compiler, source);
+
+        long sourceMillis = Long.MAX_VALUE;
+        long bytecodeMillis = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            buildWithSourcePath(converter, javac, source);
+            sourceMillis = Math.min(sourceMillis, (System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            buildWithBytecode(compiler, source);
+            bytecodeMillis = Math.min(bytecodeMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        System.out.printf("构建耗时: 源码路径(生成+格式化+javac) %d ms, 字节码后端(编译+打包jar) %d ms%n",
+            sourceMillis, bytecodeMillis);
+        assertTrue(bytecodeMillis < sourceMillis, "字节码后端应当比源码路径更快");
+    }
+
+    private void buildWithSourcePath(JavaScriptToJavaConverter converter, JavaCompiler javac, String source) throws IOException {
+        File sourceDir = tempDir.resolve("src").toFile();
+        File classesDir = tempDir.resolve("classes").toFile();
+        sourceDir.mkdirs();
+        classesDir.mkdirs();
+
+        List<String> javacArgs = new ArrayList<>();
+        javacArgs.add("-d");
+        javacArgs.add(classesDir.getPath());
+        javacArgs.add("-nowarn");
+        for (GeneratedUnit unit : converter.convert(source, "bench.js", JavaScriptToJavaConverter.DEFAULT_PACKAGE)) {
+            File file = new File(sourceDir, unit.getFileName());
+            try (FileWriter writer = new FileWriter(file)) {
+                writer.write(unit.getCode());
+            }
+            javacArgs.add(file.getPath());
+        }
+        // 生成的源码不保证能通过编译，这里只统计javac的耗时
+        javac.run(null, new ByteArrayOutputStream(), new ByteArrayOutputStream(), javacArgs.toArray(new String[0]));
+    }
+
+    private void buildWithBytecode(JSBytecodeCompiler compiler, String source) throws IOException {
+        Map<String, byte[]> classes = compiler.compile(source, "bench.js", JavaScriptToJavaConverter.DEFAULT_PACKAGE);
+        JSBytecodeCompiler.writeJar(classes, "js2j.generated.Bench", tempDir.resolve("bench.jar").toFile());
+    }
+
+    private static String generateProgram(int functions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("var results = [];\n");
+        for (int i = 0; i < functions; i++) {
+            sb.append("function compute").append(i).append("(a, b) {\n")
+              .append("    var sum = 0;\n")
+              .append("    for (var i = 0; i < a; i++) {\n")
+              .append("        if (i % 3 === 0) { sum += i * b; } else { sum -= ").append(i).append("; }\n")
+              .append("    }\n")
+              .append("    return sum;\n")
+              .append("}\n");
+        }
+        for (int i = 0; i < functions; i++) {
+            sb.append("results.push(compute").append(i).append("(10, 2));\n");
+        }
+        sb.append("console.log(results.length);\n");
+        return sb.toString();
+    }
+
+    /**
+     * 在独立的类加载器中运行生成类的main方法，返回标准输出内容
+     */
+    private static String runMain(Map<String, byte[]> classes, String mainClass) throws Exception {
+        ClassLoader loader = new ClassLoader(BytecodeBackendTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        Method main = loader.loadClass(mainClass).getMethod("main", String[].class);
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, "UTF-8"));
+        try {
+            main.invoke(null, (Object) new String[0]);
+        } finally {
+            System.setOut(originalOut);
+        }
+        return captured.toString("UTF-8");
+    }
+}
@@ -0,0 +1,159 @@
+package js2j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多个线程共享一个转换器时的转换测试
+ */
+public class ConcurrentConversionTest {
+
+    private static final String[] CORPUS = {
+        "small-script.js", "deep-nesting.js", "huge-object-literal.js", "minified-bundle.js", "es6-classes.js"
+    };
+
+    private static final String PROGRAM =
+        "var LIMIT = 10;\n" +
+        "function half(x) { return x / 2; }\n" +
+        "function Point(x, y) { this.x = x; this.y = y; }\n" +
+        "Point.prototype.norm = function () { return Math.sqrt(this.x * this.x + this.y * this.y); };\n" +
+        "console.log(half(LIMIT));\n";
+
+    @Test
+    void sharedConverterMatchesSequentialResults() throws Exception {
+        Map<String, String> sources = corpus();
+        for (OptimizationLevel level : OptimizationLevel.values()) {
+            JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+            converter.setOptimizationLevel(level);
+            converter.setStatementCache(new StatementCache());
+
+            Map<String, String> expected = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : sources.entrySet()) {
+                expected.put(entry.getKey(), join(converter.convert(entry.getValue(), entry.getKey(), "demo")));
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                List<String> names = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    for (Map.Entry<String, String> entry : sources.entrySet()) {
+                        names.add(entry.getKey());
+                        results.add(pool.submit(() -> join(converter.convert(entry.getValue(), entry.getKey(), "demo"))));
+                    }
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals(expected.get(names.get(i)), results.get(i).get(), level + " " + names.get(i));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void readerAndStreamingEntryPoints() throws IOException {
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        List<GeneratedUnit> units = converter.convert(PROGRAM, "geometry.js", "demo");
+        assertEquals(2, units.size());
+        assertEquals("demo.Geometry", units.get(0).getQualifiedName());
+        assertEquals("demo.Point", units.get(1).getQualifiedName());
+
+        assertEquals(join(units), join(converter.convert(new StringReader(PROGRAM), "geometry.js", "demo")));
+
+        List<String> streamed = new ArrayList<>();
+        converter.convert(new StringBuilder(PROGRAM), "geometry.js", "demo", unit -> streamed.add(unit.getCode()));
+        assertEquals(2, streamed.size());
+        assertEquals(units.get(0).getCode(), streamed.get(0));
+        assertEquals(units.get(1).getCode(), streamed.get(1));
+    }
+
+    /**
+     * 1、2、4、8个线程共享一个转换器时的吞吐量
+     * 使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void throughputScalesWithThreads() throws Exception {
+        Map<String, String> sources = corpus();
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        StringBuilder report = new StringBuilder("转换吞吐量（文件/秒）:");
+        double single = 0;
+        // 只测量转换本身，不输出日志
+        JSLogger.setLevel(JSLogger.Level.OFF);
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            // 第一轮预热
+            throughput(converter, sources, threads);
+            double filesPerSecond = throughput(converter, sources, threads);
+            if (threads == 1) {
+                single = filesPerSecond;
+            }
+            report.append(String.format(" %d线程 %.0f", threads, filesPerSecond));
+        }
+        JSLogger.setLevel(JSLogger.Level.INFO);
+        report.append("，CPU ").append(Runtime.getRuntime().availableProcessors());
+        System.out.println(report);
+        assertTrue(single > 0);
+    }
+
+    private static double throughput(JavaScriptToJavaConverter converter, Map<String, String> sources, int threads)
+            throws InterruptedException {
+        int perThread = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    for (Map.Entry<String, String> entry : sources.entrySet()) {
+                        converter.convert(entry.getValue(), entry.getKey(), "demo");
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return threads * perThread * sources.size() / seconds;
+    }
+
+    private static String join(List<GeneratedUnit> units) {
+        StringBuilder all = new StringBuilder();
+        for (GeneratedUnit unit : units) {
+            all.append("// ").append(unit.getQualifiedName()).append('\n').append(unit.getCode());
+        }
+        return all.toString();
+    }
+
+    private static Map<String, String> corpus() throws IOException {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (String name : CORPUS) {
+            try {
+                URL url = ConcurrentConversionTest.class.getResource("/corpus/" + name);
+                sources.put(name, new String(Files.readAllBytes(Paths.get(url.toURI())), StandardCharsets.UTF_8));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        sources.put("geometry.js", PROGRAM);
+        return sources;
+    }
+}
@@ -0,0 +1,76 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 目录转换进度测试
+ */
+public class ConversionProgressTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void directoryRunIsVisibleThroughJmx() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Files.createDirectories(input.resolve("lib"));
+        long bytes = 0;
+        for (String name : new String[] {"a.js", "b.js", "lib/c.js"}) {
+            byte[] source = "function add(a, b) { return a + b; }\n".getBytes(StandardCharsets.UTF_8);
+            Files.write(input.resolve(name), source);
+            bytes += source.length;
+        }
+
+        ConversionProgress progress = new ConversionProgress();
+        progress.register();
+        try {
+            Main.processDirectory(input.toFile(), tempDir.resolve("out").toFile(), new JavaScriptToJavaConverter(),
+                                  progress, false);
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(ConversionProgress.OBJECT_NAME);
+            assertEquals(3, server.getAttribute(name, "FilesTotal"));
+            assertEquals(3, server.getAttribute(name, "FilesDone"));
+            assertEquals(0, server.getAttribute(name, "FilesRemaining"));
+            assertEquals(0, server.getAttribute(name, "ErrorCount"));
+            assertEquals(bytes, server.getAttribute(name, "BytesDone"));
+            assertEquals("", server.getAttribute(name, "SlowestInFlightFile"));
+            assertTrue((Long) server.getAttribute(name, "HeapUsedBytes") > 0);
+        } finally {
+            progress.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ConversionProgress.OBJECT_NAME)));
+    }
+
+    @Test
+    void tracksErrorsAndSlowestInFlightFile() throws Exception {
+        ConversionProgress progress = new ConversionProgress();
+        progress.start(3, 300);
+        Path slow = Paths.get("slow.js");
+        progress.fileStarted(slow);
+        Thread.sleep(20);
+        progress.fileStarted(Paths.get("fast.js"));
+        progress.fileFinished(Paths.get("fast.js"), 100, false);
+
+        assertEquals(1, progress.getFilesDone());
+        assertEquals(2, progress.getFilesRemaining());
+        assertEquals(1, progress.getErrorCount());
+        assertEquals("slow.js", progress.getSlowestInFlightFile());
+        assertTrue(progress.getSlowestInFlightMillis() >= 20);
+        assertTrue(progress.statusLine().startsWith("[进度] 1/3 文件"), progress.statusLine());
+        assertTrue(progress.statusLine().contains("最慢 slow.js"), progress.statusLine());
+    }
+}
@@ -0,0 +1,107 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按成本调度的测试
+ */
+public class ConversionSchedulerTest {
+
+    /** 每个时间单位的毫秒数，足够大使线程调度的抖动可以忽略 */
+    private static final long UNIT = 40;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void estimatesFromHistoryAndAverageSpeed() throws Exception {
+        Path history = tempDir.resolve(ConversionScheduler.DEFAULT_HISTORY_FILE);
+        Files.write(history, "800\t1000\tslow.js\n200\t1000\tlib/fast.js\nbroken line\n".getBytes(StandardCharsets.UTF_8));
+        ConversionScheduler scheduler = new ConversionScheduler(2, history);
+
+        assertEquals(800, scheduler.estimateMillis("slow.js", 1000), 0.001);
+        assertEquals(1600, scheduler.estimateMillis("slow.js", 2000), 0.001);
+        // 没有记录的文件按历史平均速度 (800 + 200) / 2000 毫秒/字节估算
+        assertEquals(250, scheduler.estimateMillis("new.js", 500), 0.001);
+
+        List<ConversionScheduler.Job> ordered = scheduler.longestFirst(Arrays.asList(
+            job("lib/fast.js", 3000, 0), job("slow.js", 1000, 0), job("new.js", 100, 0)));
+        assertEquals("slow.js", ordered.get(0).getKey());
+        assertEquals("lib/fast.js", ordered.get(1).getKey());
+        assertEquals("new.js", ordered.get(2).getKey());
+    }
+
+    @Test
+    void longestFirstShortensMakespanAndRecordsTimings() throws Exception {
+        Path history = tempDir.resolve("timings");
+        // 遍历顺序中大文件在最后：按遍历顺序耗时为 2 + 4 = 6 个单位，最长优先时为 4 个单位
+        List<ConversionScheduler.Job> walkOrder = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            walkOrder.add(job("small" + i + ".js", 100, UNIT));
+        }
+        walkOrder.add(job("bundle.js", 100, 4 * UNIT));
+
+        ConversionScheduler first = new ConversionScheduler(2, history);
+        ConversionScheduler.Report unordered = first.run(walkOrder);
+        assertTrue(unordered.getMakespanMillis() >= 6 * UNIT, unordered.statusLine());
+        assertEquals("bundle.js", unordered.getCriticalFile());
+        assertEquals(5, Files.readAllLines(history).size());
+
+        // 第二次运行时大小相同，只有历史耗时能区分出大bundle
+        ConversionScheduler second = new ConversionScheduler(2, history);
+        List<ConversionScheduler.Job> ordered = second.longestFirst(walkOrder);
+        assertEquals("bundle.js", ordered.get(0).getKey());
+        ConversionScheduler.Report report = second.run(ordered);
+        assertTrue(report.getMakespanMillis() < 5 * UNIT, report.statusLine());
+        assertTrue(report.getIdealMillis() >= report.getCriticalMillis() && report.getIdealMillis() <= report.getMakespanMillis(),
+                   report.statusLine());
+        assertTrue(report.statusLine().contains("关键路径 bundle.js"), report.statusLine());
+        assertEquals(report, second.getLastReport());
+    }
+
+    @Test
+    void keysHistoryByRootAndRelativePath() throws Exception {
+        Path web = Files.createDirectories(tempDir.resolve("web"));
+        Path server = Files.createDirectories(tempDir.resolve("server"));
+        Path relative = Paths.get("index.js");
+        assertNotEquals(ConversionScheduler.key(web, relative), ConversionScheduler.key(server, relative));
+        assertEquals(ConversionScheduler.key(web, relative), ConversionScheduler.key(web.resolve("../web"), relative));
+
+        // 两次运行分别转换两个根目录下的index.js，各自的耗时都保留在历史中
+        Path history = tempDir.resolve("timings");
+        for (Path root : Arrays.asList(web, server)) {
+            Path file = Files.write(root.resolve("index.js"), "var x = 1;\n".getBytes(StandardCharsets.UTF_8));
+            Main.processFiles(Collections.singletonMap(root, Collections.singletonList(file)),
+                              tempDir.resolve("out-" + root.getFileName()).toFile(), new JavaScriptToJavaConverter(),
+                              new ConversionProgress(), false, SkipRules.Mode.OFF, new ConversionScheduler(1, history));
+        }
+        List<String> lines = Files.readAllLines(history);
+        assertEquals(2, lines.size(), lines.toString());
+        assertTrue(lines.get(0).endsWith("\t" + ConversionScheduler.key(web, relative))
+                   || lines.get(1).endsWith("\t" + ConversionScheduler.key(web, relative)), lines.toString());
+    }
+
+    private static ConversionScheduler.Job job(String key, long bytes, long sleepMillis) {
+        return new ConversionScheduler.Job(key, bytes, () -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package js2j;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 黄金语料性能回归测试
+ * 转换src/test/resources/corpus下的代表性JavaScript输入，
+ * 并对每个文件的转换耗时和每KB输入的分配字节数设置上限。
+ * 每个文件都必须整体转换成功，否则测量的是退回逐块处理的出错路径
+ */
+public class CorpusPerformanceTest {
+
+    private static final int MEASURED_RUNS = 3;
+
+    private static File[] corpusFiles;
+    private static Properties budgets;
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @TempDir
+    static Path outputDir;
+
+    @BeforeAll
+    static void loadCorpus() throws IOException, URISyntaxException {
+        URL corpusUrl = CorpusPerformanceTest.class.getResource("/corpus");
+        assertNotNull(corpusUrl, "找不到语料目录");
+        corpusFiles = new File(corpusUrl.toURI()).listFiles((dir, name) -> name.endsWith(".js"));
+        assertNotNull(corpusFiles);
+        Arrays.sort(corpusFiles);
+
+        budgets = new Properties();
+        try (InputStream in = CorpusPerformanceTest.class.getResourceAsStream("/corpus/budgets.properties")) {
+            assertNotNull(in, "找不到预算文件 budgets.properties");
+            budgets.load(in);
+        }
+
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threadBean.isThreadAllocatedMemorySupported(), "当前JVM不支持线程分配统计");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        // 预热一轮，排除类加载和JIT编译对测量的影响，同时检查每个文件都能整体转换
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        for (File file : corpusFiles) {
+            assertConverts(converter, file);
+        }
+    }
+
+    private static void assertConverts(JavaScriptToJavaConverter converter, File file) throws IOException {
+        String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        List<JSLogger.FileError> errors = new ArrayList<>();
+        List<GeneratedUnit> units = new ArrayList<>();
+        JSLogger.collectFileErrors(errors::add, () -> units.addAll(converter.convert(source, file.getName(), "")));
+        assertTrue(errors.isEmpty(), file.getName() + " 没有整体转换: " + errors);
+        assertFalse(units.isEmpty(), file.getName() + " 没有生成代码");
+        for (GeneratedUnit unit : units) {
+            assertFalse(unit.getCode().trim().isEmpty(), unit.getQualifiedName() + " 是空的");
+        }
+    }
+
+    @TestFactory
+    List<DynamicTest> corpusStaysWithinBudgets() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (File file : corpusFiles) {
+            tests.add(DynamicTest.dynamicTest(file.getName(), () -> checkBudget(file)));
+        }
+        return tests;
+    }
+
+    /**
+     * 多次转换同一文件，取耗时中位数和最小分配量与预算比较
+     */
+    private void checkBudget(File file) throws IOException {
+        long maxMillis = budget(file, "maxMillis");
+        long maxBytesPerKb = budget(file, "maxBytesPerKb");
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        long[] millis = new long[MEASURED_RUNS];
+        long minAllocated = Long.MAX_VALUE;
+
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long bytesBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            assertTrue(converter.convertFile(file, outputDir.toFile()), file.getName() + " 转换失败");
+            millis[run] = (System.nanoTime() - start) / 1_000_000;
+            minAllocated = Math.min(minAllocated, threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - bytesBefore);
+        }
+
+        Arrays.sort(millis);
+        long medianMillis = millis[MEASURED_RUNS / 2];
+        double inputKb = Math.max(1.0, file.length() / 1024.0);
+        long bytesPerKb = (long) (minAllocated / inputKb);
+
+        System.out.printf("语料 %-24s 耗时 %6d ms (上限 %d)  分配 %9d B/KB (上限 %d)%n",
+            file.getName(), medianMillis, maxMillis, bytesPerKb, maxBytesPerKb);
+
+        assertTrue(medianMillis <= maxMillis,
+            file.getName() + " 转换耗时 " + medianMillis + " ms 超出预算 " + maxMillis + " ms");
+        assertTrue(bytesPerKb <= maxBytesPerKb,
+            file.getName() + " 每KB输入分配 " + bytesPerKb + " 字节，超出预算 " + maxBytesPerKb);
+    }
+
+    private long budget(File file, String key) {
+        String value = budgets.getProperty(file.getName() + "." + key);
+        assertNotNull(value, "语料文件 " + file.getName() + " 缺少预算项 " + key);
+        return Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,165 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 超长表达式和深层嵌套的转换测试，两种解析器都不应栈溢出，也不应退回按块处理
+ */
+public class DeepNestingTest {
+
+    private static final String[] PARSERS = {JSParser.NAME, ModernJSParser.NAME};
+
+    @BeforeEach
+    void quiet() {
+        JSLogger.flush();
+        JSLogger.setLevel(JSLogger.Level.OFF);
+        JSLogger.clearFileErrors();
+    }
+
+    @AfterEach
+    void restore() {
+        JSLogger.setLevel(JSLogger.Level.INFO);
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void longStringConcatenation() {
+        StringBuilder source = new StringBuilder("var s = \"x\"");
+        for (int i = 0; i < 100_000; i++) {
+            source.append(" + \"t").append(i % 10).append('"');
+        }
+        source.append(";\n");
+
+        for (String parser : PARSERS) {
+            String code = convert(source.toString(), parser);
+            assertTrue(code.contains("public static Object s = \"x\" + \"t0\" + \"t1\""), parser);
+            assertTrue(code.contains("+ \"t8\" + \"t9\";"), parser);
+        }
+    }
+
+    @Test
+    void deeplyNestedParentheses() {
+        int depth = 100_000;
+        StringBuilder source = new StringBuilder("var p = ");
+        appendRepeated(source, "(", depth);
+        source.append('1');
+        appendRepeated(source, ")", depth);
+        source.append(";\n");
+
+        StringBuilder expected = new StringBuilder("p = ");
+        appendRepeated(expected, "(", depth);
+        expected.append('1');
+        appendRepeated(expected, ")", depth);
+        for (String parser : PARSERS) {
+            assertTrue(convert(source.toString(), parser).contains(expected), parser);
+        }
+    }
+
+    @Test
+    void nestedBlocks() {
+        checkNestedBlocks(10_000);
+    }
+
+    @Test
+    void nestedCallbacks() {
+        checkNestedCallbacks(10_000);
+    }
+
+    /**
+     * 10万层语句嵌套，每种解析器需要十几秒，使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void hundredThousandNestedStatements() {
+        checkNestedBlocks(100_000);
+        checkNestedCallbacks(100_000);
+    }
+
+    @Test
+    void deeplyNestedSyntaxErrorFallsBackToBlocks() {
+        // 在大栈线程上重试后仍然失败，才退回按块处理
+        StringBuilder source = new StringBuilder("var ok = 1;\nvar x = ");
+        appendRepeated(source, "(", 10_000);
+        source.append("1 +");
+        appendRepeated(source, ")", 10_000);
+        source.append(";\n");
+
+        List<GeneratedUnit> units = new JavaScriptToJavaConverter().convert(source.toString(), "deep.js", "demo");
+        assertEquals(1, units.size());
+        assertTrue(units.get(0).getCode().contains("ok = 1"), units.get(0).getCode());
+        List<JSLogger.FileError> errors = JSLogger.getFileErrors();
+        assertEquals("convert", errors.get(0).getStage(), errors.toString());
+    }
+
+    @Test
+    void stackSizeProperty() {
+        String previous = System.getProperty(DeepStack.STACK_SIZE_PROPERTY);
+        try {
+            System.setProperty(DeepStack.STACK_SIZE_PROPERTY, "512m");
+            assertEquals(512L << 20, DeepStack.stackSize());
+            System.setProperty(DeepStack.STACK_SIZE_PROPERTY, "4G");
+            assertEquals(4L << 30, DeepStack.stackSize());
+            assertEquals("ok", DeepStack.call("test", () -> "ok"));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(DeepStack.STACK_SIZE_PROPERTY);
+            } else {
+                System.setProperty(DeepStack.STACK_SIZE_PROPERTY, previous);
+            }
+        }
+    }
+
+    private static void checkNestedBlocks(int depth) {
+        StringBuilder source = new StringBuilder("var x = 1;\n");
+        appendRepeated(source, "if (x) {\n", depth);
+        source.append("x = 2;\n");
+        appendRepeated(source, "}\n", depth);
+
+        for (String parser : PARSERS) {
+            String code = convert(source.toString(), parser);
+            assertEquals(depth, count(code, "if (x) {"), parser);
+            assertTrue(code.contains("x = 2;"), parser);
+        }
+    }
+
+    private static void checkNestedCallbacks(int depth) {
+        StringBuilder source = new StringBuilder();
+        appendRepeated(source, "f(function () {\n", depth);
+        source.append("g();\n");
+        appendRepeated(source, "});\n", depth);
+
+        for (String parser : PARSERS) {
+            assertTrue(convert(source.toString(), parser).contains("f("), parser);
+        }
+    }
+
+    private static String convert(String source, String parser) {
+        List<GeneratedUnit> units = new JavaScriptToJavaConverter(JSParserFrontend.forName(parser))
+            .convert(source, "deep.js", "demo");
+        assertTrue(JSLogger.getFileErrors().isEmpty(), parser + ": " + JSLogger.getFileErrors());
+        assertEquals(1, units.size(), parser);
+        return units.get(0).getCode();
+    }
+
+    private static void appendRepeated(StringBuilder sb, String text, int times) {
+        for (int i = 0; i < times; i++) {
+            sb.append(text);
+        }
+    }
+
+    private static int count(String text, String fragment) {
+        int count = 0;
+        for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + fragment.length())) {
+            count++;
+        }
+        return count;
+    }
+}
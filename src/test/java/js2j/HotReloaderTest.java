@@ -0,0 +1,93 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热加载测试
+ */
+public class HotReloaderTest {
+
+    private static final long MAX_RELOAD_MILLIS = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reloadSwapsModuleAndKeepsOldVersionOnFailure() throws Exception {
+        File jsFile = tempDir.resolve("greet.js").toFile();
+        HotReloader reloader = new HotReloader();
+
+        write(jsFile, "var greeting = \"Hello\";\nfunction greet(name) {\n    return greeting + \", \" + name;\n}\n");
+        HotReloader.LoadedModule first = reloader.load(jsFile);
+        assertEquals("Hello, World", callGreet(first));
+
+        write(jsFile, "var greeting = \"Hi\";\nfunction greet(name) {\n    return greeting + \", \" + name;\n}\n");
+        HotReloader.LoadedModule second = reloader.load(jsFile);
+        assertEquals("Hi, World", callGreet(second));
+        assertEquals(2, second.getVersion());
+        assertSame(second, reloader.get(jsFile));
+        assertNotSame(first.getModuleClass(), second.getModuleClass());
+        // 旧版本的类仍然可以使用，直到调用方不再引用
+        assertEquals("Hello, World", callGreet(first));
+        assertTrue(second.getLoadMillis() < MAX_RELOAD_MILLIS,
+            "热加载耗时 " + second.getLoadMillis() + " ms 超出 " + MAX_RELOAD_MILLIS + " ms");
+
+        // 生成的代码无法编译时保持当前版本
+        write(jsFile, "console.log(missingFunction(1));\n");
+        assertThrows(InMemoryJavaCompiler.CompilationException.class, () -> reloader.load(jsFile));
+        assertSame(second, reloader.get(jsFile));
+    }
+
+    @Test
+    void concurrentLoadsOfOneFileGetDistinctVersions() throws Exception {
+        File jsFile = tempDir.resolve("count.js").toFile();
+        write(jsFile, "function count() { return 1; }\n");
+        HotReloader reloader = new HotReloader();
+
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<HotReloader.LoadedModule>> loads = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                loads.add(pool.submit(() -> reloader.load(jsFile)));
+            }
+            Set<Long> versions = new HashSet<>();
+            for (Future<HotReloader.LoadedModule> load : loads) {
+                versions.add(load.get().getVersion());
+            }
+            assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L)), versions);
+            assertEquals(4, reloader.get(jsFile).getVersion());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String callGreet(HotReloader.LoadedModule module) throws Exception {
+        return (String) module.getModuleClass().getMethod("greet", String.class).invoke(null, "World");
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
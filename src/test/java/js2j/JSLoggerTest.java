@@ -0,0 +1,215 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步日志测试
+ */
+public class JSLoggerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    void captureStreams() throws Exception {
+        JSLogger.flush();
+        originalOut = System.out;
+        originalErr = System.err;
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, "UTF-8"));
+        System.setErr(new PrintStream(err, true, "UTF-8"));
+        JSLogger.clearFileErrors();
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        JSLogger.flush();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        JSLogger.setLevel(JSLogger.Level.INFO);
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void levelsFilterAndRouteMessages() throws Exception {
+        JSLogger.setLevel(JSLogger.Level.INFO);
+        JSLogger.debug("d");
+        JSLogger.info("i1");
+        JSLogger.warn("w");
+        JSLogger.info("i2");
+        JSLogger.setLevel(JSLogger.Level.WARN);
+        JSLogger.info("hidden");
+        JSLogger.error("e");
+        JSLogger.flush();
+
+        String nl = System.lineSeparator();
+        assertEquals("i1" + nl + "i2" + nl, out.toString("UTF-8"));
+        assertEquals("w" + nl + "e" + nl, err.toString("UTF-8"));
+    }
+
+    @Test
+    void fileErrorsAreStructured() throws Exception {
+        JSLogger.fileError("src/a.js", "parse", 12, "missing ; \"here\"");
+        JSLogger.flush();
+
+        assertTrue(err.toString("UTF-8").contains("错误 [parse] src/a.js:12: missing ; \"here\""));
+        List<JSLogger.FileError> errors = JSLogger.getFileErrors();
+        assertEquals(1, errors.size());
+        assertEquals(12, errors.get(0).getLine());
+
+        Path log = tempDir.resolve("errors.jsonl");
+        JSLogger.writeFileErrors(log);
+        assertEquals("{\"file\":\"src/a.js\",\"stage\":\"parse\",\"line\":12,\"message\":\"missing ; \\\"here\\\"\"}\n",
+                     new String(Files.readAllBytes(log), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void converterRecordsBlockFailures() throws Exception {
+        JSLogger.setLevel(JSLogger.Level.OFF);
+        new JavaScriptToJavaConverter().convert("function ok() { return 1; }\nvar x = ;\n", "broken.js", "demo");
+
+        // 整个文件转换失败和退回逐块处理后失败的块各记录一次
+        List<JSLogger.FileError> errors = JSLogger.getFileErrors();
+        assertEquals(2, errors.size(), errors.toString());
+        assertEquals("broken.js", errors.get(0).getFile());
+        assertEquals("convert", errors.get(0).getStage());
+        assertEquals(2, errors.get(0).getLine());
+        assertEquals("block", errors.get(1).getStage());
+    }
+
+    @Test
+    void fileErrorsAreCappedAndCollectedPerRun() throws Exception {
+        JSLogger.setLevel(JSLogger.Level.OFF);
+        for (int i = 0; i < JSLogger.MAX_FILE_ERRORS + 5; i++) {
+            JSLogger.fileError("f" + i + ".js", "parse", 0, "x");
+        }
+        assertEquals(JSLogger.MAX_FILE_ERRORS, JSLogger.getFileErrors().size());
+        assertEquals(5, JSLogger.getDroppedFileErrors());
+        JSLogger.clearFileErrors();
+        assertEquals(0, JSLogger.getDroppedFileErrors());
+
+        // 并发记录时上限也是精确的
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < JSLogger.MAX_FILE_ERRORS / 2; i++) {
+                    JSLogger.fileError("g" + i + ".js", "parse", 0, "x");
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(JSLogger.MAX_FILE_ERRORS, JSLogger.getFileErrors().size());
+        assertEquals(JSLogger.MAX_FILE_ERRORS, JSLogger.getDroppedFileErrors());
+        JSLogger.clearFileErrors();
+
+        // 两次同时进行的运行各自只收集自己线程上的错误
+        ConversionProgress first = new ConversionProgress();
+        ConversionProgress second = new ConversionProgress();
+        Thread other = new Thread(() -> JSLogger.collectFileErrors(second::fileError,
+            () -> JSLogger.fileError("b.js", "parse", 0, "y")));
+        JSLogger.collectFileErrors(first::fileError, () -> {
+            JSLogger.fileError("a.js", "parse", 0, "x");
+            JSLogger.collectFileErrors(second::fileError, () -> JSLogger.fileError("c.js", "parse", 0, "z"));
+            JSLogger.fileError("d.js", "parse", 0, "w");
+        });
+        other.start();
+        other.join();
+        JSLogger.fileError("outside.js", "parse", 0, "v");
+
+        assertEquals(Arrays.asList("a.js", "d.js"), files(first.getFileErrors()));
+        assertEquals(Arrays.asList("b.js", "c.js"), sorted(files(second.getFileErrors())));
+        assertEquals(5, JSLogger.getFileErrors().size());
+    }
+
+    private static List<String> files(List<JSLogger.FileError> errors) {
+        List<String> files = new ArrayList<>();
+        for (JSLogger.FileError error : errors) {
+            files.add(error.getFile());
+        }
+        return files;
+    }
+
+    private static List<String> sorted(List<String> list) {
+        Collections.sort(list);
+        return list;
+    }
+
+    /**
+     * 模拟4个线程转换40000个文件时每个文件输出3条信息的日志开销，与直接调用System.out.println对比
+     * 使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void loggingCostIsNegligible() throws Exception {
+        PrintStream sink = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        System.setOut(sink);
+        JSLogger.setLevel(JSLogger.Level.INFO);
+
+        for (int i = 0; i < 3; i++) {
+            runThreads(() -> JSLogger.info("生成Java文件: /out/js2j/generated/Module.java"));
+            runThreads(() -> sink.println("生成Java文件: /out/js2j/generated/Module.java"));
+        }
+        long asyncMillis = runThreads(() -> JSLogger.info("生成Java文件: /out/js2j/generated/Module.java"));
+        JSLogger.flush();
+        long syncMillis = runThreads(() -> sink.println("生成Java文件: /out/js2j/generated/Module.java"));
+        JSLogger.setLevel(JSLogger.Level.WARN);
+        long quietMillis = runThreads(() -> JSLogger.info("生成Java文件: /out/js2j/generated/Module.java"));
+
+        System.setOut(originalOut);
+        System.out.println("日志耗时（120000条）: 异步 " + asyncMillis + " ms, System.out " + syncMillis
+                           + " ms, 静默 " + quietMillis + " ms");
+        assertTrue(quietMillis < 100, "静默模式下的日志调用应当可以忽略");
+    }
+
+    private static long runThreads(Runnable log) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 30000; i++) {
+                    log.run();
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
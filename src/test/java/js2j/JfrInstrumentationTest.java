@@ -0,0 +1,141 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 生成代码中的JFR插桩测试
+ * 源码级别为Java 8，jdk.jfr不在其中，记录和读取事件通过反射调用
+ */
+public class JfrInstrumentationTest {
+
+    private static final String GREET =
+        "import { x } from './x';\n" +
+        "const greeting = `Hello`;\n" +
+        "\n" +
+        "function greet(name) {\n" +
+        "    return greeting + \", \" + name;\n" +
+        "}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetLogger() {
+        JSLogger.flush();
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void wrapsFunctionAndMethodBodies() {
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setJfrInstrumentation(new JfrInstrumentation());
+        String source = GREET + "\nclass Shape {\n  constructor(w) { this.w = w; }\n  area() { return this.w * 2; }\n}\n";
+        List<GeneratedUnit> units = converter.convert(source, "greet.js", "");
+        assertEquals(2, units.size());
+
+        // 行号是预处理前的原始行号
+        String module = units.get(0).getCode();
+        assertTrue(module.contains("        try (js2j.generated.Js2jProfile.Call js2jCall = "
+                                   + "js2j.generated.Js2jProfile.begin(\"greet\", \"greet.js:4\")) {\n"
+                                   + "            return greeting + \", \" + name;\n        }\n"), module);
+        String shape = units.get(1).getCode();
+        assertTrue(shape.contains("begin(\"Shape.area\", \"greet.js:10\")"), shape);
+        assertFalse(shape.contains("begin(\"Shape.constructor\""), shape);
+
+        // 默认不插桩
+        String plain = new JavaScriptToJavaConverter().convert(source, "greet.js", "").get(0).getCode();
+        assertFalse(plain.contains("Js2jProfile"), plain);
+        assertThrows(IllegalArgumentException.class, () -> new JfrInstrumentation(0));
+    }
+
+    @Test
+    void sampledCallsCommitEventsWhileRecording() throws Exception {
+        assumeTrue(jfrAvailable(), "运行的JDK没有jdk.jfr");
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Files.write(input.resolve("greet.js"), GREET.getBytes(StandardCharsets.UTF_8));
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        JfrInstrumentation instrumentation = new JfrInstrumentation(1);
+        converter.setJfrInstrumentation(instrumentation);
+        ParallelJarCompiler compiler = new ParallelJarCompiler(1);
+        converter.setJarCompiler(compiler);
+        Main.processDirectory(input.toFile(), tempDir.resolve("out").toFile(), converter, new ConversionProgress(), false);
+
+        GeneratedUnit unit = instrumentation.createUnit();
+        assertEquals("js2j.generated.Js2jProfile", unit.getQualifiedName());
+        compiler.addCommon(unit);
+        File jarFile = tempDir.resolve("app.jar").toFile();
+        ParallelJarCompiler.Result result = compiler.compileToJar(jarFile);
+        assertEquals(0, result.getFailedFiles(), JSLogger.getFileErrors().toString());
+
+        Path dump = tempDir.resolve("calls.jfr");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {jarFile.toURI().toURL()}, null)) {
+            Method greet = loader.loadClass("js2j.generated.Greet").getMethod("greet", String.class);
+            // 没有在记录时不提交事件
+            assertEquals("Hello, World", greet.invoke(null, "World"));
+            Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+            try (AutoCloseable recording = (AutoCloseable) recordingClass.getConstructor().newInstance()) {
+                recordingClass.getMethod("enable", String.class).invoke(recording, JfrInstrumentation.EVENT_NAME);
+                recordingClass.getMethod("start").invoke(recording);
+                for (int i = 0; i < 3; i++) {
+                    greet.invoke(null, "JFR");
+                }
+                recordingClass.getMethod("stop").invoke(recording);
+                recordingClass.getMethod("dump", Path.class).invoke(recording, dump);
+            }
+        }
+
+        List<Object> events = readEvents(dump, JfrInstrumentation.EVENT_NAME);
+        assertEquals(3, events.size());
+        Object event = events.get(0);
+        assertEquals("greet", field(event, "function"));
+        assertEquals("greet.js:4", field(event, "source"));
+        assertEquals(1, field(event, "sampleInterval"));
+        assertTrue((Long) field(event, "allocated") >= 0);
+    }
+
+    private static boolean jfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Recording");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static List<Object> readEvents(Path dump, String name) throws Exception {
+        Method readAll = Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", Path.class);
+        Class<?> eventClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+        Method getEventType = eventClass.getMethod("getEventType");
+        Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+        List<Object> events = new ArrayList<>();
+        for (Object event : (List<?>) readAll.invoke(null, dump)) {
+            if (name.equals(getName.invoke(getEventType.invoke(event)))) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private static Object field(Object event, String name) throws Exception {
+        return Class.forName("jdk.jfr.consumer.RecordedObject").getMethod("getValue", String.class).invoke(event, name);
+    }
+}
@@ -0,0 +1,199 @@
+package js2j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 优化级别测试
+ */
+public class OptimizationLevelTest {
+
+    private static final String[] CORPUS = {
+        "small-script.js", "deep-nesting.js", "huge-object-literal.js", "minified-bundle.js", "es6-classes.js"
+    };
+
+    private static final String PROGRAM =
+        "var LIMIT = 10;\n" +
+        "var ratio = 7 / 2;\n" +
+        "var greeting = \"a\" + \"b\" + 1;\n" +
+        "function half(x) { return x / 2; }\n" +
+        "function sumTo(n) {\n" +
+        "    var total = 0;\n" +
+        "    for (var i = 0; i < n; i = i + 1) {\n" +
+        "        total = total + i;\n" +
+        "    }\n" +
+        "    if (false) { total = 99; }\n" +
+        "    return total;\n" +
+        "    total = 5;\n" +
+        "}\n" +
+        "function label(name) { return \"n:\" + name; }\n" +
+        "label(greeting + sumTo(LIMIT) + half(LIMIT) + ratio);\n";
+
+    /** JavaScript的数值运算不会在int范围溢出 */
+    private static final String OVERFLOW =
+        "var big = 2147483647 + 1;\n" +
+        "function fact(n) {\n" +
+        "    var r = 1;\n" +
+        "    var i = 1;\n" +
+        "    while (i <= n) {\n" +
+        "        r = r * i;\n" +
+        "        i = i + 1;\n" +
+        "    }\n" +
+        "    return r;\n" +
+        "}\n" +
+        "function negate(x) { return -x; }\n" +
+        "console.log(fact(20) + big + negate(3));\n";
+
+    /**
+     * 很长的赋值依赖链，类型要沿整条链传播到返回值
+     */
+    private static String chain(int length) {
+        StringBuilder source = new StringBuilder("function f(x) {\n    var v0 = 1;\n");
+        for (int i = 1; i < length; i++) {
+            source.append("    var v").append(i).append(" = v").append(i - 1).append(";\n");
+        }
+        source.append("    v0 = \"str\";\n    return v").append(length - 1).append(";\n}\nf(1);\n");
+        return source.toString();
+    }
+
+    @Test
+    void o0SkipsFormatting() {
+        String o0 = convert(PROGRAM, OptimizationLevel.O0);
+        String o1 = convert(PROGRAM, OptimizationLevel.O1);
+        assertNotEquals(o1, o0);
+        assertTrue(o0.contains("\n\n\n"), o0);
+        assertFalse(o1.contains("\n\n\n"), o1);
+    }
+
+    @Test
+    void o2InfersTypesAndFoldsConstants() {
+        String code = convert(PROGRAM, OptimizationLevel.O2);
+        assertTrue(code.contains("public static final int LIMIT = 10;"), code);
+        assertTrue(code.contains("public static final double ratio = 3.5;"), code);
+        assertTrue(code.contains("public static final String greeting = \"ab1\";"), code);
+        assertTrue(code.contains("public static double half(int x)"), code);
+        assertTrue(code.contains("return x / 2.0;"), code);
+        // int相加可能溢出，结果推断为double
+        assertTrue(code.contains("public static double sumTo(int n)"), code);
+        assertFalse(code.contains("99"), code);
+        assertFalse(code.contains("total = 5"), code);
+    }
+
+    @Test
+    void o2OutputCompilesAndKeepsSemantics() throws Exception {
+        Class<?> module = compile(PROGRAM);
+        Method sumTo = module.getMethod("sumTo", int.class);
+        Method half = module.getMethod("half", int.class);
+        assertEquals(45.0, sumTo.invoke(null, 10));
+        assertEquals(3.5, half.invoke(null, 7));
+    }
+
+    @Test
+    void o2ArithmeticDoesNotWrapAroundInt() throws Exception {
+        String code = convert(OVERFLOW, OptimizationLevel.O2);
+        assertTrue(code.contains("public static double fact(int n)"), code);
+        assertTrue(code.contains("public static final double big = 2.147483648E9;"), code);
+
+        Class<?> module = compile(OVERFLOW);
+        assertEquals(2432902008176640000.0, module.getMethod("fact", int.class).invoke(null, 20));
+        assertEquals(2147483648.0, module.getField("big").get(null));
+        assertEquals(-3.0, module.getMethod("negate", int.class).invoke(null, 3));
+    }
+
+    @Test
+    void o2TypesConvergeOnLongDependencyChains() throws Exception {
+        for (int length : new int[] {8, 40, 200}) {
+            String code = convert(chain(length), OptimizationLevel.O2);
+            assertTrue(code.contains("public static Object f(int x)"), code);
+            assertTrue(code.contains("Object v" + (length - 1) + " = "), code);
+            assertEquals(1, compile(chain(length)).getMethod("f", int.class).invoke(null, 1));
+        }
+    }
+
+    /**
+     * 各优化级别转换语料的耗时，各级别交替运行以排除预热顺序的影响
+     * 使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void o2AnalysesStayLinear() throws IOException {
+        List<String> sources = new ArrayList<>();
+        for (String name : CORPUS) {
+            sources.add(readCorpus(name));
+        }
+
+        OptimizationLevel[] levels = OptimizationLevel.values();
+        long[] best = new long[levels.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int run = 0; run < 8; run++) {
+            for (OptimizationLevel level : levels) {
+                long start = System.nanoTime();
+                sources.forEach(source -> units(source, level));
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                // 前三轮用于预热
+                if (run >= 3) {
+                    best[level.ordinal()] = Math.min(best[level.ordinal()], millis);
+                }
+            }
+        }
+
+        System.out.println("转换耗时: -O0 " + best[0] + " ms, -O1 " + best[1] + " ms, -O2 " + best[2] + " ms");
+        assertTrue(best[2] < best[1] * 2, "-O2 的分析不应使转换耗时翻倍");
+    }
+
+    private static Class<?> compile(String source) throws Exception {
+        Map<String, String> sources = new HashMap<>();
+        for (GeneratedUnit unit : units(source, OptimizationLevel.O2)) {
+            sources.put(unit.getQualifiedName(), unit.getCode());
+        }
+        Map<String, byte[]> classes = new InMemoryJavaCompiler().compile(sources);
+        ClassLoader loader = new ClassLoader(OptimizationLevelTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        return loader.loadClass("demo.Program");
+    }
+
+    private static String convert(String source, OptimizationLevel level) {
+        return units(source, level).get(0).getCode();
+    }
+
+    private static List<GeneratedUnit> units(String source, OptimizationLevel level) {
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setOptimizationLevel(level);
+        return converter.convert(source, "program.js", "demo");
+    }
+
+    private static String readCorpus(String name) throws IOException {
+        try {
+            URL url = OptimizationLevelTest.class.getResource("/corpus/" + name);
+            return new String(Files.readAllBytes(Paths.get(url.toURI())), StandardCharsets.UTF_8);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+}
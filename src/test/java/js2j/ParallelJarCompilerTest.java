@@ -0,0 +1,112 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 进程内并行编译阶段测试
+ */
+public class ParallelJarCompilerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void clearErrors() {
+        JSLogger.clearFileErrors();
+    }
+
+    @AfterEach
+    void resetLogger() {
+        JSLogger.flush();
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void compilesDirectoryRunIntoOneJarAndMapsErrorsToJsFiles() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        for (int i = 0; i < 6; i++) {
+            write(input.resolve("lib/greet" + i + ".js"),
+                  "var greeting = \"Hello\";\nfunction greet(name) {\n    return greeting + \", \" + name;\n}\n");
+        }
+        Path broken = write(input.resolve("broken.js"), "console.log(missingFunction(1));\n");
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        ParallelJarCompiler compiler = new ParallelJarCompiler(3);
+        converter.setJarCompiler(compiler);
+        Main.processDirectory(input.toFile(), tempDir.resolve("out").toFile(), converter, new ConversionProgress(), false);
+
+        assertEquals(3, compiler.partition().size());
+        File jarFile = tempDir.resolve("app.jar").toFile();
+        ParallelJarCompiler.Result result = compiler.compileToJar(jarFile);
+        assertEquals(6, result.getCompiledFiles());
+        assertEquals(1, result.getFailedFiles());
+        assertEquals(6, result.getClassCount());
+
+        List<JSLogger.FileError> javacErrors = new ArrayList<>();
+        for (JSLogger.FileError error : JSLogger.getFileErrors()) {
+            if ("javac".equals(error.getStage())) {
+                javacErrors.add(error);
+            }
+        }
+        assertEquals(1, javacErrors.size(), javacErrors.toString());
+        assertEquals(broken.toString(), javacErrors.get(0).getFile());
+        assertTrue(javacErrors.get(0).getMessage().startsWith("Broken.java:"), javacErrors.get(0).getMessage());
+
+        try (JarFile jar = new JarFile(jarFile)) {
+            assertNotNull(jar.getEntry("js2j/generated/lib/Greet3.class"));
+            assertNull(jar.getEntry("js2j/generated/Broken.class"));
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {jarFile.toURI().toURL()}, null)) {
+            Class<?> greet = loader.loadClass("js2j.generated.lib.Greet0");
+            assertEquals("Hello, World", greet.getMethod("greet", String.class).invoke(null, "World"));
+        }
+    }
+
+    @Test
+    void partitionsFilesBySourceSize() {
+        ParallelJarCompiler compiler = new ParallelJarCompiler(2);
+        compiler.add(tempDir.resolve("big.js"), units("Big", 300));
+        compiler.add(tempDir.resolve("a.js"), units("A", 100));
+        compiler.add(tempDir.resolve("b.js"), units("B", 100));
+        compiler.add(tempDir.resolve("c.js"), units("C", 100));
+
+        List<List<Path>> batches = compiler.partition();
+        assertEquals(2, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(3, batches.get(1).size());
+    }
+
+    private static List<GeneratedUnit> units(String className, int length) {
+        StringBuilder code = new StringBuilder();
+        while (code.length() < length) {
+            code.append(' ');
+        }
+        List<GeneratedUnit> units = new ArrayList<>();
+        units.add(new GeneratedUnit("p", className, code.toString()));
+        return units;
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,202 @@
+package js2j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.Scriptable;
+import org.openjdk.nashorn.api.tree.Parser;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 解析器前端测试
+ * ES5代码在两个前端上应得到相同的AST；ES2020代码经现代解析器降级后的语义应保持不变
+ */
+public class ParserFrontendTest {
+
+    private static final String[] ES5_CORPUS = {
+        "small-script.js", "deep-nesting.js", "huge-object-literal.js", "minified-bundle.js"
+    };
+
+    private static final String MODERN_PROGRAM =
+        "class Shape {\n" +
+        "    sides = 0;\n" +
+        "    constructor(name) { this.name = name; }\n" +
+        "    get label() { return `${this.name}/${this.sides}`; }\n" +
+        "    describe(prefix = \"shape\") { return prefix + \":\" + this.label; }\n" +
+        "    static create(name) { return new Shape(name); }\n" +
+        "}\n" +
+        "class Square extends Shape {\n" +
+        "    sides = 4;\n" +
+        "    constructor(size) { super(\"square\"); this.size = size; }\n" +
+        "    describe(prefix) { return super.describe(prefix) + \"@\" + this.size ** 2; }\n" +
+        "}\n" +
+        "const sum = (...values) => values.reduce((a, b) => a + b, 0);\n" +
+        "const { first, rest: [second, ...others] = [] } = { first: 1, rest: [2, 3, 4] };\n" +
+        "let config = { nested: { value: 0 } };\n" +
+        "let out = [];\n" +
+        "for (const [key, value] of [[\"a\", 1], [\"b\", 2]]) { out.push(key + value); }\n" +
+        "out.push(Shape.create(\"blob\").describe());\n" +
+        "out.push(new Square(3).describe(\"sq\"));\n" +
+        "out.push(sum(...[1, 2], 3, ...others));\n" +
+        "out.push(first + second);\n" +
+        "out.push(config?.nested?.value ?? \"none\", config.missing?.value ?? \"none\");\n" +
+        "out.push({ ...config.nested, extra: 1 }.extra);\n" +
+        "out.join(\",\");\n";
+
+    private static final String MODERN_RESULT = "a1,b2,shape:blob/0,sq:square/4@9,13,3,0,none,1";
+
+    @Test
+    void es5CorpusParsesToSameTree() throws IOException {
+        JSParserFrontend rhino = JSParserFrontend.forName(JSParser.NAME);
+        JSParserFrontend modern = JSParserFrontend.forName(ModernJSParser.NAME);
+        for (String name : ES5_CORPUS) {
+            String source = readCorpus(name);
+            // 现代解析器不保留注释
+            String expected = rhino.parse(source, name).toSource().replaceAll("(?m)^\\s*//.*\\n", "");
+            assertEquals(expected, modern.parse(source, name).toSource(), name);
+        }
+    }
+
+    @Test
+    void loweredModernSyntaxKeepsSemantics() {
+        String lowered = new ModernJSParser().parse(MODERN_PROGRAM, "modern.js").toSource();
+
+        Context cx = Context.enter();
+        try {
+            cx.setLanguageVersion(Context.VERSION_ES6);
+            Scriptable scope = cx.initStandardObjects();
+            Object result = cx.evaluateString(scope, lowered, "modern.js", 1, null);
+            assertEquals(MODERN_RESULT, Context.toString(result), lowered);
+        } finally {
+            Context.exit();
+        }
+    }
+
+    @Test
+    void converterAcceptsModernSyntaxWithoutPreprocessing() throws IOException {
+        String source = readCorpus("es6-classes.js");
+        List<GeneratedUnit> preprocessed = new JavaScriptToJavaConverter().convert(source, "es6-classes.js", "demo");
+        List<GeneratedUnit> direct = new JavaScriptToJavaConverter(new ModernJSParser())
+            .convert(source, "es6-classes.js", "demo");
+
+        assertEquals(preprocessed.size(), direct.size());
+        for (int i = 0; i < direct.size(); i++) {
+            assertEquals(preprocessed.get(i).getQualifiedName(), direct.get(i).getQualifiedName());
+        }
+        assertTrue(direct.get(1).getCode().contains("prefix + \" 0: \" + this.name"), direct.get(1).getCode());
+    }
+
+    @Test
+    void syntaxErrorsReportFileAndLine() {
+        EvaluatorException e = assertThrows(EvaluatorException.class,
+            () -> new ModernJSParser().parse("var a = 1;\nvar b = ;\n", "broken.js"));
+        assertEquals("broken.js", e.sourceName());
+        assertEquals(2, e.lineNumber());
+    }
+
+    @Test
+    void unsupportedSyntaxIsRejectedInsteadOfChangingSemantics() {
+        String[][] cases = {
+            {"var big = 10n;\n", "暂不支持BigInt字面量"},
+            {"var mask = 0xffn;\n", "暂不支持BigInt字面量"},
+            {"async function load() { return 1; }\n", "暂不支持async函数"},
+            {"var load = async function () {};\n", "暂不支持async函数"},
+            {"var load = async x => x;\n", "暂不支持async箭头函数"},
+            {"var load = async (x, y) => x + y;\n", "暂不支持async箭头函数"},
+            {"class Api { async load() {} }\n", "暂不支持async方法"},
+            {"var api = { async load() {} };\n", "暂不支持async方法"},
+            {"var data = await fetch();\n", "暂不支持await"},
+            {"function f(items) { for await (const x of items) {} }\n", "暂不支持for await"},
+            {"var { a, ...others } = { a: 1, b: 2 };\n", "暂不支持对象解构中的剩余属性"},
+        };
+        for (String[] c : cases) {
+            EvaluatorException e = assertThrows(EvaluatorException.class,
+                () -> new ModernJSParser().parse(c[0], "unsupported.js"), c[0]);
+            assertTrue(e.details().contains(c[1]), c[0] + " -> " + e.details());
+        }
+        // async仍然可以作为普通标识符
+        String source = "function async(x) { return x; }\nvar sum = async(1) + async\n(2);\n";
+        assertEquals(new JSParser().parse(source, "names.js").toSource(),
+                     new ModernJSParser().parse(source, "names.js").toSource());
+    }
+
+    /**
+     * 解析耗时对比：Rhino（含ES6预处理）、Nashorn的ES6解析器和现代解析器
+     * 使用 mvn test -Pbenchmark 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void modernParserIsFasterThanPreprocessingPipeline() throws IOException {
+        List<String> sources = new ArrayList<>();
+        for (String name : ES5_CORPUS) {
+            sources.add(readCorpus(name));
+        }
+        sources.add(readCorpus("es6-classes.js"));
+
+        JSSourcePreprocessor preprocessor = new JSSourcePreprocessor();
+        JSParser rhino = new JSParser();
+        ModernJSParser modern = new ModernJSParser();
+        // Nashorn的语法树API在转换块级声明时会触发内部断言，在加载其实现类之前关闭
+        ParserFrontendTest.class.getClassLoader().setPackageAssertionStatus("org.openjdk.nashorn", false);
+        Parser nashorn = Parser.create("--language=es6");
+
+        long rhinoMillis = time(sources, source -> {
+            try {
+                rhino.parse(preprocessor.preProcessSource(source), "corpus.js");
+            } catch (EvaluatorException e) {
+                // 预处理不完整时Rhino无法解析整个文件，转换器此时会退回逐块解析，这里只计入失败前的耗时
+            }
+        });
+        // Nashorn不支持import和export，去掉后按脚本解析
+        List<String> scripts = new ArrayList<>();
+        for (String source : sources) {
+            scripts.add(source.replaceAll("(?m)^import .*$", "").replaceAll("(?m)^export (default )?", ""));
+        }
+        long nashornMillis = time(scripts, source -> nashorn.parse("corpus.js", source, null));
+        long modernMillis = time(sources, source -> modern.parse(source, "corpus.js"));
+
+        System.out.println("解析耗时: rhino+预处理 " + rhinoMillis + " ms, nashorn " + nashornMillis
+                           + " ms, modern " + modernMillis + " ms");
+        assertTrue(modernMillis < rhinoMillis,
+            "现代解析器 " + modernMillis + " ms 不快于Rhino+预处理 " + rhinoMillis + " ms");
+    }
+
+    /**
+     * 预热后取多轮中最快的一轮
+     */
+    private static long time(List<String> sources, Consumer<String> parse) {
+        for (int i = 0; i < 3; i++) {
+            sources.forEach(parse);
+        }
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            sources.forEach(parse);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    private static String readCorpus(String name) throws IOException {
+        try {
+            URL url = ParserFrontendTest.class.getResource("/corpus/" + name);
+            return new String(Files.readAllBytes(Paths.get(url.toURI())), StandardCharsets.UTF_8);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+}
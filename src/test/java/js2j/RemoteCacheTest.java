@@ -0,0 +1,194 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mozilla.javascript.ast.AstRoot;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 远程转换缓存测试
+ */
+public class RemoteCacheTest {
+
+    private static final String SOURCE = "var greeting = \"Hello\";\nfunction greet(name) {\n    return greeting + \", \" + name;\n}\n";
+
+    @TempDir
+    Path tempDir;
+
+    private RemoteCacheServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new RemoteCacheServer(0, tempDir.resolve("store"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void secondAgentReusesFirstAgentsConversion() throws Exception {
+        Path jsFile = tempDir.resolve("greet.js");
+        Files.write(jsFile, SOURCE.getBytes(StandardCharsets.UTF_8));
+
+        CountingParser firstParser = new CountingParser();
+        JavaScriptToJavaConverter first = new JavaScriptToJavaConverter(firstParser);
+        RemoteCache firstCache = new RemoteCache(server.getBaseUrl(), "test");
+        try (RemoteCache cache = firstCache) {
+            first.setRemoteCache(cache);
+            assertTrue(first.convertFile(jsFile.toFile(), tempDir.resolve("agent1").toFile()));
+        }
+        // 关闭时等待后台上传完成
+        assertEquals(1, firstCache.getMissCount());
+        assertEquals(1, firstCache.getUploadCount());
+        assertEquals(1, firstParser.parses.get());
+
+        CountingParser secondParser = new CountingParser();
+        JavaScriptToJavaConverter second = new JavaScriptToJavaConverter(secondParser);
+        try (RemoteCache cache = new RemoteCache(server.getBaseUrl(), "test")) {
+            second.setRemoteCache(cache);
+            assertTrue(second.convertFile(jsFile.toFile(), tempDir.resolve("agent2").toFile()));
+            assertEquals(1, cache.getHitCount());
+        }
+        assertEquals(0, secondParser.parses.get());
+        assertEquals(new String(Files.readAllBytes(tempDir.resolve("agent1/Greet.java")), StandardCharsets.UTF_8),
+                     new String(Files.readAllBytes(tempDir.resolve("agent2/Greet.java")), StandardCharsets.UTF_8));
+
+        // 转换器版本或选项不同时不共享结果
+        try (RemoteCache cache = new RemoteCache(server.getBaseUrl(), "other")) {
+            assertNull(cache.get(cache.key(JSParser.NAME + " " + OptimizationLevel.O1,
+                                           JavaScriptToJavaConverter.DEFAULT_PACKAGE, "greet.js", SOURCE)));
+        }
+    }
+
+    @Test
+    void keyCoversVersionOptionsAndSource() {
+        RemoteCache cache = new RemoteCache(server.getBaseUrl(), "v1");
+        String key = cache.key("rhino O1", "p", "a.js", SOURCE);
+        assertEquals(key, cache.key("rhino O1", "p", "a.js", SOURCE));
+        assertNotEquals(key, cache.key("rhino O2", "p", "a.js", SOURCE));
+        assertNotEquals(key, cache.key("rhino O1", "q", "a.js", SOURCE));
+        assertNotEquals(key, cache.key("rhino O1", "p", "b.js", SOURCE));
+        assertNotEquals(key, cache.key("rhino O1", "p", "a.js", SOURCE + " "));
+        assertNotEquals(key, new RemoteCache(server.getBaseUrl(), "v2").key("rhino O1", "p", "a.js", SOURCE));
+        cache.close();
+    }
+
+    @Test
+    void defaultVersionHashesConverterAndDependencies() {
+        // 从target/classes运行时也按内容计算，不会退回固定的值
+        String version = RemoteCache.defaultConverterVersion();
+        assertTrue(version.matches("[0-9a-f]{64}"), version);
+        assertEquals(version, RemoteCache.defaultConverterVersion());
+    }
+
+    @Test
+    void serverListensOnLoopbackAndRejectsOversizedBodiesUpFront() throws Exception {
+        assertTrue(server.getBaseUrl().startsWith("http://127.0.0.1:"), server.getBaseUrl());
+
+        // 声明的长度超过上限时不等正文到达就拒绝
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("PUT " + RemoteCacheServer.CONTEXT + "/" + repeat('a', 64) + " HTTP/1.1\r\n"
+                       + "Host: localhost\r\nContent-Length: 1000000000\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                .readLine();
+            assertEquals("HTTP/1.1 413 Request Entity Too Large", status);
+        }
+    }
+
+    @Test
+    void degradedConversionsAreNotUploaded() {
+        String broken = SOURCE + "var x = ;\n";
+        JSLogger.Level level = JSLogger.getLevel();
+        JSLogger.setLevel(JSLogger.Level.OFF);
+        try {
+            for (int agent = 0; agent < 2; agent++) {
+                List<JSLogger.FileError> errors = new ArrayList<>();
+                RemoteCache cache = new RemoteCache(server.getBaseUrl(), "test");
+                JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+                converter.setRemoteCache(cache);
+                JSLogger.collectFileErrors(errors::add, () -> converter.convert(broken, "broken.js", "p"));
+                cache.close();
+
+                // 退回逐块处理的结果不上传，每个代理都自己转换并报告错误
+                assertEquals(0, cache.getHitCount());
+                assertEquals(0, cache.getUploadCount());
+                assertEquals("convert", errors.get(0).getStage(), errors.toString());
+            }
+        } finally {
+            JSLogger.setLevel(level);
+            JSLogger.clearFileErrors();
+        }
+    }
+
+    @Test
+    void unreachableServerFallsBackToLocalConversion() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        try (RemoteCache cache = new RemoteCache("http://localhost:" + port + "/cache", "test")) {
+            converter.setRemoteCache(cache);
+            List<GeneratedUnit> units = converter.convert(SOURCE, "greet.js", "p");
+            assertEquals("Greet", units.get(0).getClassName());
+            assertEquals(1, converter.convert(SOURCE, "again.js", "p").size());
+            assertEquals(0, cache.getHitCount() + cache.getMissCount());
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * 记录解析次数的前端
+     */
+    private static class CountingParser implements JSParserFrontend {
+        private final JSParser delegate = new JSParser();
+        final AtomicInteger parses = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public boolean needsPreprocessing() {
+            return delegate.needsPreprocessing();
+        }
+
+        @Override
+        public AstRoot parse(String jsCode, String sourceFileName) {
+            parses.incrementAndGet();
+            return delegate.parse(jsCode, sourceFileName);
+        }
+    }
+}
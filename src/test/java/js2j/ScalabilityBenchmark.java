@@ -0,0 +1,568 @@
+package js2j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * 端到端的扩展性基准
+ * 生成指定文件数的合成语料，对每个语料和每个线程数在独立的JVM中以 --jobs=N 运行完整的命令行转换（Main），
+ * 记录吞吐量、每个文件耗时的p50/p99（来自 --timings 历史）、GC耗时、峰值RSS和相对最少线程的加速比，
+ * 结果追加到一个制表符分隔的结果文件，用 --report 可以把不同转换器版本的结果并排比较
+ *
+ * 和其他基准一样只在测试源码中，通过ScalabilityBenchmarkTest以 -Pbenchmark 运行，参数放在系统属性 js2j.scalability.args 中:
+ *   mvn test -Pbenchmark -Dtest=ScalabilityBenchmarkTest -Djs2j.scalability.args="[--sizes=100,1000,10000,100000]
+ *        [--threads=1,2,4,8] [--label=版本] [--results=文件] [--work=目录] [--seed=N] [--jvm-opts=参数]"
+ *   mvn test -Pbenchmark -Dtest=ScalabilityBenchmarkTest -Djs2j.scalability.args="--report [--results=文件]"
+ */
+public class ScalabilityBenchmark {
+
+    /** 默认的结果文件 */
+    public static final String DEFAULT_RESULTS_FILE = "js2j-scalability.tsv";
+
+    static final String HEADER = "label\tfiles\tbytes\tthreads\tconvertMillis\twallMillis\tfilesPerSecond"
+                                 + "\tp50Millis\tp99Millis\tgcMillis\tpeakRssKb\tfailures\tspeedup";
+
+    /** 语料目录中记录文件数和种子的标记文件，相同时重用已生成的语料 */
+    private static final String CORPUS_MARKER = ".corpus";
+
+    /** 每个子目录中的文件数 */
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    private static final String[] SNIPPETS = {
+        "function add%1$d(a, b) {\n    return a + b * %1$d;\n}\n",
+        "var config%1$d = {\n    name: 'module%1$d',\n    size: %1$d,\n    enabled: true,\n    tags: ['a', 'b', 'c']\n};\n",
+        "function sum%1$d(items) {\n    var total = 0;\n    for (var i = 0; i < items.length; i += 1) {\n"
+            + "        if (items[i] > %1$d) {\n            total += items[i];\n        } else {\n"
+            + "            total -= 1;\n        }\n    }\n    return total;\n}\n",
+        "function Point%1$d(x, y) {\n    this.x = x;\n    this.y = y;\n}\n"
+            + "Point%1$d.prototype.length = function() {\n    return Math.sqrt(this.x * this.x + this.y * this.y);\n};\n",
+        "function kind%1$d(value) {\n    switch (typeof value) {\n        case 'string':\n            return 's' + value;\n"
+            + "        case 'number':\n            return value * %1$d;\n        default:\n            return null;\n    }\n}\n",
+        "var label%1$d = 'item-' + %1$d;\nconsole.log(label%1$d);\n",
+        "function find%1$d(list, key) {\n    var i = 0;\n    while (i < list.length) {\n"
+            + "        if (list[i].key === key) {\n            return list[i];\n        }\n        i += 1;\n    }\n"
+            + "    return undefined;\n}\n",
+    };
+
+    private final List<Integer> sizes;
+    private final List<Integer> threads;
+    private final String label;
+    private final Path results;
+    private final Path workDir;
+    private final long seed;
+    private final List<String> jvmOptions;
+
+    /**
+     * 构造函数
+     *
+     * @param sizes 语料文件数
+     * @param threads 转换线程数
+     * @param label 结果的版本标签
+     * @param results 结果文件，追加写入
+     * @param workDir 存放语料和每次运行输出的目录
+     * @param seed 生成语料的随机种子
+     * @param jvmOptions 子JVM的参数
+     */
+    public ScalabilityBenchmark(List<Integer> sizes, List<Integer> threads, String label, Path results,
+                                Path workDir, long seed, List<String> jvmOptions) {
+        this.sizes = new ArrayList<>(new TreeSet<>(sizes));
+        this.threads = new ArrayList<>(new TreeSet<>(threads));
+        this.label = label;
+        this.results = results;
+        this.workDir = workDir;
+        this.seed = seed;
+        this.jvmOptions = jvmOptions;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--child")) {
+            child(args);
+            return;
+        }
+        List<Integer> sizes = Arrays.asList(100, 1000, 10000, 100000);
+        List<Integer> threads = defaultThreads(Runtime.getRuntime().availableProcessors());
+        String label = null;
+        Path results = Paths.get(DEFAULT_RESULTS_FILE);
+        Path workDir = null;
+        long seed = 42;
+        List<String> jvmOptions = new ArrayList<>();
+        boolean report = false;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? null : arg.substring(eq + 1);
+            switch (name) {
+                case "--sizes":
+                    sizes = parseInts(name, value);
+                    break;
+                case "--threads":
+                    threads = parseInts(name, value);
+                    break;
+                case "--label":
+                    label = value;
+                    break;
+                case "--results":
+                    results = Paths.get(value);
+                    break;
+                case "--work":
+                    workDir = Paths.get(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--jvm-opts":
+                    jvmOptions = Arrays.asList(value.trim().split("\\s+"));
+                    break;
+                case "--report":
+                    report = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知选项: " + arg);
+            }
+        }
+        if (report) {
+            report(results, System.out);
+            return;
+        }
+        if (label == null) {
+            String version = RemoteCache.defaultConverterVersion();
+            label = version.length() > 12 ? version.substring(0, 12) : version;
+        }
+        if (workDir == null) {
+            workDir = Paths.get(System.getProperty("java.io.tmpdir"), "js2j-scalability");
+        }
+        new ScalabilityBenchmark(sizes, threads, label, results, workDir, seed, jvmOptions).run(System.out);
+        report(results, System.out);
+    }
+
+    /**
+     * 默认的线程数：1、2、4……直到处理器核数，核数不是2的幂时最后加上核数
+     */
+    static List<Integer> defaultThreads(int cores) {
+        List<Integer> threads = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            threads.add(n);
+        }
+        threads.add(cores);
+        return threads;
+    }
+
+    private static List<Integer> parseInts(String name, String value) {
+        List<Integer> values = new ArrayList<>();
+        try {
+            for (String part : (value == null ? "" : value).split(",")) {
+                int n = Integer.parseInt(part.trim());
+                if (n <= 0) {
+                    throw new NumberFormatException();
+                }
+                values.add(n);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 需要以逗号分隔的正整数: " + value);
+        }
+        return values;
+    }
+
+    /**
+     * 依次运行每个语料大小和线程数的组合，每次运行后追加一行结果
+     *
+     * @param out 打印进度的流
+     * @return 本次运行的结果
+     * @throws IOException 如果语料或结果文件读写出错，或子JVM运行失败
+     */
+    public List<Result> run(PrintStream out) throws IOException, InterruptedException {
+        List<Result> all = new ArrayList<>();
+        for (int files : sizes) {
+            Path corpus = generateCorpus(workDir.resolve("corpus-" + files), files, seed);
+            long bytes = directoryBytes(corpus);
+            Result baseline = null;
+            for (int n : threads) {
+                Result result = runOnce(corpus, files, bytes, n);
+                if (baseline == null) {
+                    baseline = result;
+                }
+                // 以最少线程的运行为基准，最少线程不是1时按线性扩展折算
+                result.speedup = result.convertMillis > 0
+                    ? (double) baseline.convertMillis * baseline.threads / result.convertMillis : 0;
+                append(result);
+                out.println(String.format("[扩展性] %d 文件 %d 线程: %d ms，%.0f 文件/秒，p99 %d ms，GC %d ms，峰值RSS %d MB，加速比 %.2f",
+                                          files, n, result.convertMillis, result.filesPerSecond(), result.p99Millis,
+                                          result.gcMillis, result.peakRssKb / 1024, result.speedup));
+                all.add(result);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * 在子JVM中运行一次完整的命令行转换
+     */
+    private Result runOnce(Path corpus, int files, long bytes, int n) throws IOException, InterruptedException {
+        Path runDir = workDir.resolve("run-" + files + "-" + n);
+        deleteTree(runDir);
+        Files.createDirectories(runDir);
+        Path output = runDir.resolve("out");
+        Path timings = runDir.resolve("timings");
+        Path errors = runDir.resolve("errors.jsonl");
+        Path metrics = runDir.resolve("metrics");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ScalabilityBenchmark.class.getName());
+        command.add("--child");
+        command.add(metrics.toString());
+        command.addAll(Arrays.asList("--quiet", "--skip=off", "--jobs=" + n, "--timings=" + timings,
+                                     "--error-log=" + errors, corpus.toString(), output.toString()));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(runDir.resolve("log").toFile())
+            .start();
+        int exit = process.waitFor();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        if (exit != 0 || !Files.isRegularFile(metrics)) {
+            throw new IOException("子JVM运行失败（退出码 " + exit + "），见 " + runDir.resolve("log"));
+        }
+
+        String[] fields = new String(Files.readAllBytes(metrics), StandardCharsets.UTF_8).trim().split("\t");
+        Result result = new Result(label, files, bytes, n);
+        result.wallMillis = wallMillis;
+        result.convertMillis = Long.parseLong(fields[0]);
+        result.gcMillis = Long.parseLong(fields[1]);
+        result.peakRssKb = Long.parseLong(fields[2]);
+
+        List<Long> latencies = new ArrayList<>();
+        for (String line : Files.readAllLines(timings, StandardCharsets.UTF_8)) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                latencies.add(Long.parseLong(line.substring(0, tab)));
+            }
+        }
+        result.p50Millis = percentile(latencies, 50);
+        result.p99Millis = percentile(latencies, 99);
+        result.failures = Files.isRegularFile(errors) ? Files.readAllLines(errors, StandardCharsets.UTF_8).size() : 0;
+        // 大语料的输出有几十万个文件，每次运行后删除
+        deleteTree(output);
+        return result;
+    }
+
+    /**
+     * 子JVM的入口：运行Main后写出转换耗时、GC耗时和峰值RSS
+     */
+    private static void child(String[] args) throws IOException {
+        Path metrics = Paths.get(args[1]);
+        long start = System.nanoTime();
+        Main.main(Arrays.copyOfRange(args, 2, args.length));
+        long convertMillis = (System.nanoTime() - start) / 1_000_000;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        Files.write(metrics, (convertMillis + "\t" + gcMillis + "\t" + peakRssKb() + "\n").getBytes(StandardCharsets.UTF_8));
+        System.exit(0);
+    }
+
+    /**
+     * 当前进程的峰值RSS（KB），从/proc/self/status的VmHWM读取，不是Linux时为-1
+     */
+    static long peakRssKb() {
+        Path status = Paths.get("/proc/self/status");
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            JSLogger.debug("无法读取峰值RSS: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * 最近秩法的百分位数，没有数据时为0
+     */
+    static long percentile(List<Long> values, double percent) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * 生成合成语料：文件大小呈长尾分布（大多是小模块，少数是大文件），每个子目录100个文件
+     * 目录中已有相同文件数和种子的语料时直接重用
+     *
+     * @param dir 语料目录
+     * @param files 文件数
+     * @param seed 随机种子，相同的种子生成相同的语料
+     * @return 语料目录
+     * @throws IOException 如果写文件出错
+     */
+    static Path generateCorpus(Path dir, int files, long seed) throws IOException {
+        String marker = files + "\t" + seed;
+        Path markerFile = dir.resolve(CORPUS_MARKER);
+        if (Files.isRegularFile(markerFile)
+            && new String(Files.readAllBytes(markerFile), StandardCharsets.UTF_8).equals(marker)) {
+            return dir;
+        }
+        deleteTree(dir);
+        Random random = new Random(seed);
+        for (int i = 0; i < files; i++) {
+            Path file = dir.resolve(String.format("dir%04d/module%06d.js", i / FILES_PER_DIRECTORY, i));
+            Files.createDirectories(file.getParent());
+            // 帕累托分布的片段数：中位数约3个，约1%的文件超过60个
+            int snippets = Math.min(400, (int) (2 / Math.pow(1 - random.nextDouble(), 1 / 1.3)));
+            StringBuilder source = new StringBuilder("// module ").append(i).append('\n');
+            for (int s = 0; s < snippets; s++) {
+                source.append(String.format(SNIPPETS[random.nextInt(SNIPPETS.length)], s)).append('\n');
+            }
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(markerFile, marker.getBytes(StandardCharsets.UTF_8));
+        return dir;
+    }
+
+    private static long directoryBytes(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(p -> p.toString().endsWith(".js")).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private void append(Result result) throws IOException {
+        Path parent = results.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        StringBuilder content = new StringBuilder();
+        if (!Files.isRegularFile(results) || Files.size(results) == 0) {
+            content.append(HEADER).append('\n');
+        }
+        content.append(result.toTsv()).append('\n');
+        Files.write(results, content.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * 读取结果文件
+     * 同一标签、文件数和线程数的多条记录只保留最后一条
+     *
+     * @param results 结果文件
+     * @return 按读取顺序排列的结果
+     * @throws IOException 如果读文件出错
+     */
+    static List<Result> readResults(Path results) throws IOException {
+        Map<String, Result> latest = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(results, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("label\t")) {
+                continue;
+            }
+            Result result = Result.parse(line);
+            if (result != null) {
+                String key = result.label + "\t" + result.files + "\t" + result.threads;
+                latest.remove(key);
+                latest.put(key, result);
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * 打印加速比曲线：每个语料大小一张表，每行一个线程数，每个版本标签一组吞吐量、加速比和p99列
+     *
+     * @param results 结果文件
+     * @param out 输出流
+     * @throws IOException 如果读文件出错
+     */
+    static void report(Path results, PrintStream out) throws IOException {
+        if (!Files.isRegularFile(results)) {
+            out.println("没有结果文件: " + results);
+            return;
+        }
+        List<String> labels = new ArrayList<>();
+        // 文件数 -> 线程数 -> 标签 -> 结果
+        Map<Integer, Map<Integer, Map<String, Result>>> table = new TreeMap<>();
+        for (Result result : readResults(results)) {
+            if (!labels.contains(result.label)) {
+                labels.add(result.label);
+            }
+            table.computeIfAbsent(result.files, k -> new TreeMap<>())
+                 .computeIfAbsent(result.threads, k -> new LinkedHashMap<>())
+                 .put(result.label, result);
+        }
+        for (Map.Entry<Integer, Map<Integer, Map<String, Result>>> size : table.entrySet()) {
+            out.println();
+            out.println(size.getKey() + " 文件");
+            StringBuilder header = new StringBuilder(String.format("%6s", "线程"));
+            for (String label : labels) {
+                header.append(String.format(" | %-30s", label));
+            }
+            out.println(header);
+            for (Map.Entry<Integer, Map<String, Result>> row : size.getValue().entrySet()) {
+                StringBuilder line = new StringBuilder(String.format("%6d", row.getKey()));
+                for (String label : labels) {
+                    Result result = row.getValue().get(label);
+                    line.append(result == null
+                        ? String.format(" | %-30s", "-")
+                        : String.format(" | %8.0f/s %5.2fx p99 %6d ms", result.filesPerSecond(), result.speedup,
+                                        result.p99Millis));
+                }
+                out.println(line);
+            }
+        }
+    }
+
+    /**
+     * 一次运行的结果
+     */
+    public static final class Result {
+
+        private final String label;
+        private final int files;
+        private final long bytes;
+        private final int threads;
+        private long convertMillis;
+        private long wallMillis;
+        private long p50Millis;
+        private long p99Millis;
+        private long gcMillis;
+        private long peakRssKb;
+        private int failures;
+        private double speedup;
+
+        Result(String label, int files, long bytes, int threads) {
+            this.label = label;
+            this.files = files;
+            this.bytes = bytes;
+            this.threads = threads;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Main运行的耗时，不含JVM启动
+         */
+        public long getConvertMillis() {
+            return convertMillis;
+        }
+
+        /**
+         * 子JVM从启动到退出的耗时
+         */
+        public long getWallMillis() {
+            return wallMillis;
+        }
+
+        public long getP50Millis() {
+            return p50Millis;
+        }
+
+        public long getP99Millis() {
+            return p99Millis;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        /**
+         * 子JVM的峰值RSS，无法获取时为-1
+         */
+        public long getPeakRssKb() {
+            return peakRssKb;
+        }
+
+        /**
+         * 转换失败的文件数
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * 相对同一语料最少线程运行的加速比
+         */
+        public double getSpeedup() {
+            return speedup;
+        }
+
+        public double filesPerSecond() {
+            return convertMillis > 0 ? files * 1000.0 / convertMillis : 0;
+        }
+
+        String toTsv() {
+            return label + "\t" + files + "\t" + bytes + "\t" + threads + "\t" + convertMillis + "\t" + wallMillis
+                   + "\t" + String.format(Locale.ROOT, "%.1f", filesPerSecond()) + "\t" + p50Millis + "\t" + p99Millis
+                   + "\t" + gcMillis + "\t" + peakRssKb + "\t" + failures + "\t" + String.format(Locale.ROOT, "%.3f", speedup);
+        }
+
+        /**
+         * 解析结果文件中的一行，格式不对时返回null
+         */
+        static Result parse(String line) {
+            String[] fields = line.split("\t");
+            if (fields.length < 13) {
+                return null;
+            }
+            try {
+                Result result = new Result(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                                           Integer.parseInt(fields[3]));
+                result.convertMillis = Long.parseLong(fields[4]);
+                result.wallMillis = Long.parseLong(fields[5]);
+                result.p50Millis = Long.parseLong(fields[7]);
+                result.p99Millis = Long.parseLong(fields[8]);
+                result.gcMillis = Long.parseLong(fields[9]);
+                result.peakRssKb = Long.parseLong(fields[10]);
+                result.failures = Integer.parseInt(fields[11]);
+                result.speedup = Double.parseDouble(fields[12]);
+                return result;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
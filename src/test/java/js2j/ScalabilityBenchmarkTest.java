@@ -0,0 +1,119 @@
+package js2j;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 扩展性基准的测试
+ * 在子JVM中对一个小语料运行完整的命令行转换，检查记录的结果和报告
+ */
+public class ScalabilityBenchmarkTest {
+
+    /** 基准参数的系统属性，格式与命令行参数相同 */
+    private static final String ARGS_PROPERTY = "js2j.scalability.args";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void corpusIsDeterministicAndLongTailed() throws Exception {
+        Path first = ScalabilityBenchmark.generateCorpus(tempDir.resolve("a"), 300, 7);
+        Path second = ScalabilityBenchmark.generateCorpus(tempDir.resolve("b"), 300, 7);
+        List<Long> sizes = fileSizes(first);
+        assertEquals(300, sizes.size());
+        assertEquals(sizes, fileSizes(second));
+        assertEquals(3, Files.list(first).filter(Files::isDirectory).count());
+
+        // 最大的文件比中位数大一个数量级
+        Collections.sort(sizes);
+        assertTrue(sizes.get(sizes.size() - 1) > 10 * sizes.get(sizes.size() / 2), sizes.toString());
+
+        // 相同文件数和种子时重用，不再重新生成
+        long modified = Files.getLastModifiedTime(first.resolve("dir0000/module000000.js")).toMillis();
+        Thread.sleep(20);
+        ScalabilityBenchmark.generateCorpus(first, 300, 7);
+        assertEquals(modified, Files.getLastModifiedTime(first.resolve("dir0000/module000000.js")).toMillis());
+    }
+
+    @Test
+    void percentilesAndDefaultThreads() {
+        List<Long> values = new ArrayList<>();
+        for (long i = 100; i >= 1; i--) {
+            values.add(i);
+        }
+        assertEquals(50, ScalabilityBenchmark.percentile(values, 50));
+        assertEquals(99, ScalabilityBenchmark.percentile(values, 99));
+        assertEquals(0, ScalabilityBenchmark.percentile(Collections.<Long>emptyList(), 99));
+        assertEquals(Arrays.asList(1, 2, 4, 6), ScalabilityBenchmark.defaultThreads(6));
+        assertEquals(Arrays.asList(1, 2, 4, 8), ScalabilityBenchmark.defaultThreads(8));
+        assertEquals(Collections.singletonList(1), ScalabilityBenchmark.defaultThreads(1));
+    }
+
+    @Test
+    void runsTheCommandLineInChildJvmsAndComparesVersions() throws Exception {
+        Path results = tempDir.resolve("results.tsv");
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        List<ScalabilityBenchmark.Result> run = new ScalabilityBenchmark(
+            Collections.singletonList(20), Arrays.asList(2, 1), "base", results, tempDir.resolve("work"), 1,
+            Collections.singletonList("-XX:TieredStopAtLevel=1")).run(new PrintStream(progress, true, "UTF-8"));
+
+        assertEquals(2, run.size());
+        assertEquals(1, run.get(0).getThreads());
+        assertEquals(1.0, run.get(0).getSpeedup(), 1e-9);
+        for (ScalabilityBenchmark.Result result : run) {
+            assertEquals(20, result.getFiles());
+            assertEquals(0, result.getFailures());
+            assertTrue(result.getConvertMillis() > 0 && result.getWallMillis() >= result.getConvertMillis());
+            assertTrue(result.getP99Millis() >= result.getP50Millis());
+            assertTrue(result.getGcMillis() >= 0);
+        }
+        assertTrue(progress.toString("UTF-8").contains("20 文件 2 线程"));
+
+        // 另一个版本的结果追加到同一文件，报告中并排显示
+        List<String> lines = Files.readAllLines(results, StandardCharsets.UTF_8);
+        assertEquals(ScalabilityBenchmark.HEADER, lines.get(0));
+        Files.write(results, Collections.singletonList(lines.get(1).replaceFirst("^base", "next")),
+                    StandardOpenOption.APPEND);
+        assertEquals(3, ScalabilityBenchmark.readResults(results).size());
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        ScalabilityBenchmark.report(results, new PrintStream(report, true, "UTF-8"));
+        String table = report.toString("UTF-8");
+        assertTrue(table.contains("20 文件") && table.contains("base") && table.contains("next"), table);
+    }
+
+    /**
+     * 完整的扩展性基准，参数取自系统属性 js2j.scalability.args
+     * 使用 mvn test -Pbenchmark -Dtest=ScalabilityBenchmarkTest 运行
+     */
+    @Test
+    @Tag("benchmark")
+    void scalabilitySweep() throws Exception {
+        String args = System.getProperty(ARGS_PROPERTY, "").trim();
+        ScalabilityBenchmark.main(args.isEmpty() ? new String[0] : args.split("\\s+(?=--)"));
+    }
+
+    private static List<Long> fileSizes(Path dir) throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(p -> p.toString().endsWith(".js")).sorted()
+                        .map(p -> p.toFile().length()).collect(Collectors.toList());
+        }
+    }
+}
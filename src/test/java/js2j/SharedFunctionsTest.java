@@ -0,0 +1,134 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mozilla.javascript.ast.FunctionNode;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 跨文件函数去重测试
+ */
+public class SharedFunctionsTest {
+
+    private static final String IN_RANGE =
+        "function isInRange(count, minCount, maxCount) {\n" +
+        "    if (count < minCount) {\n" +
+        "        return false;\n" +
+        "    }\n" +
+        "    if (count > maxCount) {\n" +
+        "        return false;\n" +
+        "    }\n" +
+        "    return count % 2 == 0 || count % 3 == 0 || count % 5 == 0;\n" +
+        "}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetLogger() {
+        JSLogger.flush();
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void hashIgnoresFormattingCommentsAndName() {
+        String hash = SharedFunctions.hash(function(IN_RANGE));
+        assertNotNull(hash);
+        assertEquals(hash, SharedFunctions.hash(function(
+            "/** 拷贝 */ function inRange(count,minCount,maxCount){ // 注释\n if(count<minCount){return false;}"
+            + "if(count>maxCount){return false;}return count%2==0||count%3==0||count%5==0;}")));
+        assertNotEquals(hash, SharedFunctions.hash(function(IN_RANGE.replace("% 5", "% 7"))));
+        assertNotEquals(hash, SharedFunctions.hash(function(IN_RANGE.replace("count > maxCount", "count >= maxCount"))));
+        assertNotEquals(hash, SharedFunctions.hash(function(IN_RANGE.replace("maxCount", "limit"))));
+    }
+
+    @Test
+    void onlySelfContainedFunctionsAreShared() {
+        assertNotNull(SharedFunctions.hash(function(
+            "function keys(obj) { var out = []; for (var key in obj) { out.push(key.length); } "
+            + "try { JSON.stringify(obj); } catch (e) { console.log(e.message); } return { size: out.length, list: out }; }")));
+        // 递归调用自身的名字、引用模块级变量或解构参数的函数与所在的文件有关
+        assertNull(SharedFunctions.hash(function("function fact(n) { return n <= 1 ? 1 : n * fact(n - 1); }")));
+        assertNull(SharedFunctions.hash(function("var base = 1; function addBase(x) { return x + base; }")));
+        assertNull(SharedFunctions.hash(function("function first([a, b]) { return a; }")));
+    }
+
+    @Test
+    void duplicatesAcrossFilesDelegateToOneSharedMethod() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        for (String name : new String[] {"a.js", "b.js", "lib/c.js"}) {
+            write(input.resolve(name), "// " + name + "\n" + IN_RANGE
+                                       + "function isSmall(count) { return count < 10; }\n");
+        }
+        write(input.resolve("lib/d.js"), "function isLarge(count) { if (count > 100) { return true; } return false; }\n");
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        SharedFunctions shared = new SharedFunctions();
+        converter.setSharedFunctions(shared);
+        ParallelJarCompiler compiler = new ParallelJarCompiler(2);
+        converter.setJarCompiler(compiler);
+        Path output = tempDir.resolve("out");
+        Main.processDirectory(input.toFile(), output.toFile(), converter, new ConversionProgress(), false, SkipRules.Mode.OFF);
+
+        assertEquals(1, shared.getSharedCount());
+        assertEquals(3, shared.getCopyCount());
+        assertEquals(2, shared.getSavedMethods());
+        assertTrue(shared.getSavedBytes() > 0, shared.report(10).toString());
+        List<String> report = shared.report(10);
+        assertEquals(2, report.size());
+        assertTrue(report.get(1).contains("(isInRange): 3 份副本"), report.toString());
+
+        String a = read(output.resolve("A.java"));
+        String c = read(output.resolve("lib/C.java"));
+        Matcher method = Pattern.compile("public static boolean (f\\w+)\\(").matcher(shared.getMethods().get(0));
+        assertTrue(method.find(), shared.getMethods().toString());
+        String delegate = "return js2j.generated.Js2jShared." + method.group(1) + "(count, minCount, maxCount);";
+        assertTrue(a.contains(delegate), a);
+        assertTrue(c.contains(delegate), c);
+        // 很短的函数委托后不会变小，只出现一次的函数没有副本，都原样保留
+        assertTrue(a.contains("return count < 10;"), a);
+        assertTrue(read(output.resolve("lib/D.java")).contains("return true;"));
+
+        GeneratedUnit unit = converter.assembleSharedFunctions();
+        assertNotNull(unit);
+        assertEquals("js2j.generated.Js2jShared", unit.getQualifiedName());
+        assertTrue(unit.getCode().contains("// isInRange\n"), unit.getCode());
+        assertFalse(unit.getCode().contains("isInRange("), unit.getCode());
+
+        // 共享类与每一批一起编译，委托方法在各批中都能解析
+        compiler.addCommon(unit);
+        File jar = tempDir.resolve("app.jar").toFile();
+        ParallelJarCompiler.Result result = compiler.compileToJar(jar);
+        assertEquals(0, result.getFailedFiles(), JSLogger.getFileErrors().toString());
+        assertEquals(5, result.getClassCount());
+    }
+
+    private static FunctionNode function(String source) {
+        List<org.mozilla.javascript.ast.AstNode> statements = new JSParser().parse(source, "test.js").getStatements();
+        return (FunctionNode) statements.get(statements.size() - 1);
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 忽略规则和内容嗅探测试
+ */
+public class SkipRulesTest {
+
+    private static final Path CORPUS = Paths.get("src/test/resources/corpus");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void defaultRulesSkipDependenciesAndMinifiedNames() {
+        SkipRules rules = SkipRules.of(Collections.emptyList());
+        assertEquals("node_modules/", rules.ignoredBy(Paths.get("node_modules/react/index.js")));
+        assertEquals("node_modules/", rules.ignoredBy(Paths.get("packages/ui/node_modules/x.js")));
+        assertEquals("*.min.js", rules.ignoredBy(Paths.get("lib/jquery.min.js")));
+        assertNull(rules.ignoredBy(Paths.get("src/node_modules.js")));
+        assertNull(rules.ignoredBy(Paths.get("src/app.js")));
+    }
+
+    @Test
+    void ignoreFileSupportsAnchoredGlobsAndNegation() {
+        SkipRules rules = SkipRules.of(Arrays.asList(
+            "# 构建产物",
+            "/dist/",
+            "vendor/**/*.js",
+            "*.generated.js",
+            "!keep.generated.js",
+            "!node_modules/"));
+        assertEquals("/dist/", rules.ignoredBy(Paths.get("dist/app.js")));
+        assertNull(rules.ignoredBy(Paths.get("src/dist/app.js")));
+        assertEquals("vendor/**/*.js", rules.ignoredBy(Paths.get("vendor/lib/a.js")));
+        assertEquals("*.generated.js", rules.ignoredBy(Paths.get("api/client.generated.js")));
+        assertNull(rules.ignoredBy(Paths.get("api/keep.generated.js")));
+        assertNull(rules.ignoredBy(Paths.get("node_modules/patched.js")));
+    }
+
+    @Test
+    void sniffsGeneratedContentFromHeadAndTail() throws IOException {
+        assertNotNull(SkipRules.sniff(CORPUS.resolve("minified-bundle.js")));
+        for (String name : new String[] {"small-script.js", "es6-classes.js", "huge-object-literal.js", "deep-nesting.js"}) {
+            assertNull(SkipRules.sniff(CORPUS.resolve(name)), name);
+        }
+
+        StringBuilder mapped = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            mapped.append("var v").append(i).append(" = ").append(i).append(";\n");
+        }
+        mapped.append("//# sourceMappingURL=app.js.map\n");
+        assertTrue(SkipRules.sniff(write("mapped.js", mapped.toString())).contains("sourceMappingURL"));
+
+        byte[] random = new byte[48 * 1024];
+        new Random(1).nextBytes(random);
+        String payload = "var data = \"" + Base64.getMimeEncoder().encodeToString(random) + "\";\n";
+        assertTrue(SkipRules.sniff(write("payload.js", payload)).contains("熵"));
+    }
+
+    @Test
+    void directoryRunSkipsBeforeParsingAndReportsSavings() throws IOException {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        write("in/app.js", "function add(a, b) { return a + b; }\n");
+        write("in/node_modules/dep/index.js", "module.exports = 1;\n");
+        write("in/legacy/old.js", "var old = 1;\n");
+        write("in/" + SkipRules.IGNORE_FILE, "legacy/\n");
+        Files.copy(CORPUS.resolve("minified-bundle.js"), input.resolve("bundle.js"));
+        Path out = tempDir.resolve("out");
+
+        ConversionProgress progress = new ConversionProgress();
+        Main.processDirectory(input.toFile(), out.toFile(), new JavaScriptToJavaConverter(), progress, false);
+        assertEquals(1, progress.getFilesTotal());
+        assertEquals(3, progress.getFilesSkipped());
+        assertTrue(progress.getBytesSkipped() > Files.size(input.resolve("bundle.js")));
+        assertTrue(progress.statusLine().contains("跳过 3 文件"), progress.statusLine());
+        assertTrue(Files.exists(out.resolve("App.java")));
+        assertFalse(Files.exists(out.resolve("Bundle.java")));
+
+        ConversionProgress deferred = new ConversionProgress();
+        Main.processDirectory(input.toFile(), tempDir.resolve("deferred").toFile(), new JavaScriptToJavaConverter(),
+                              deferred, false, SkipRules.Mode.DEFER);
+        assertEquals(2, deferred.getFilesTotal());
+        assertEquals(2, deferred.getFilesSkipped());
+        assertTrue(Files.exists(tempDir.resolve("deferred/Bundle.java")));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
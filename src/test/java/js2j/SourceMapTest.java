@@ -0,0 +1,179 @@
+package js2j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成代码到JavaScript源码的行映射测试
+ */
+public class SourceMapTest {
+
+    private static final String SOURCE =
+        "import { helper } from './helper';\n" +
+        "\n" +
+        "const banner = `line one\n" +
+        "line two`;\n" +
+        "\n" +
+        "export function computeTotal(items, factor) {\n" +
+        "    let total = 0;\n" +
+        "    while (total < items) {\n" +
+        "        total += factor;\n" +
+        "    }\n" +
+        "    return total * factor;\n" +
+        "}\n" +
+        "\n" +
+        "function Point(x, y) {\n" +
+        "    this.x = x;\n" +
+        "    this.y = y;\n" +
+        "}\n" +
+        "\n" +
+        "Point.prototype.norm = function() {\n" +
+        "    return Math.sqrt(this.x * this.x + this.y * this.y);\n" +
+        "};\n" +
+        "\n" +
+        "console.log(computeTotal([1, 2], 3));\n";
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetLogger() {
+        JSLogger.flush();
+        JSLogger.clearFileErrors();
+    }
+
+    @Test
+    void alignsRewrittenLinesByContent() {
+        String before = "import a;\nconst x = `a\nb`;\n\nfor (const v of list) {\n  use(v);\n}\nend();\n";
+        String after = "// import removed\nvar x = \"a\\nb\";\n\nfor (var i = 0; i < list.length; i++) {\n"
+                       + "    var v = list[i];\n  use(v);\n}\nend();\n";
+        // 合并的行对应第一行，展开出的行对应前一行，改变缩进的行仍然对应
+        assertArrayEquals(new int[] {1, 2, 4, 5, 5, 6, 7, 8, 9}, SourceMap.alignLines(before, after));
+        assertArrayEquals(new int[] {0, 3, 3}, SourceMap.compose(new int[] {0, 2, 2}, new int[] {1, 3}));
+    }
+
+    @Test
+    void mapsGeneratedLinesThroughPreprocessorAndFormatter() {
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setSourceMaps(true);
+        List<GeneratedUnit> units = converter.convert(SOURCE, "shapes.js", "");
+        assertEquals(2, units.size());
+
+        GeneratedUnit module = units.get(0);
+        assertEquals(jsLine("const banner"), javaToJs(module, "banner ="));
+        assertEquals(jsLine("export function"), javaToJs(module, "computeTotal(List"));
+        assertEquals(jsLine("let total"), javaToJs(module, "total = 0"));
+        assertEquals(jsLine("return total"), javaToJs(module, "return total"));
+        assertEquals(jsLine("console.log"), javaToJs(module, "System.out.println"));
+
+        GeneratedUnit point = units.get(1);
+        assertEquals("Point", point.getClassName());
+        assertEquals(jsLine("function Point"), javaToJs(point, "public Point("));
+        assertEquals(jsLine("this.y = y"), javaToJs(point, "this.y = y"));
+        assertEquals(jsLine("prototype.norm"), javaToJs(point, "norm()"));
+        assertEquals(jsLine("Math.sqrt"), javaToJs(point, "Math.sqrt"));
+        assertEquals(0, point.getSourceMap().getSourceLine(1));
+
+        String smap = point.getSourceMap().toSmap();
+        assertTrue(smap.startsWith("SMAP\nPoint.java\nJS\n*S JS\n*F\n1 shapes.js\n*L\n"), smap);
+        assertTrue(smap.contains("\n" + jsLine("Math.sqrt") + ":" + javaLine(point, "Math.sqrt") + ","), smap);
+        assertTrue(smap.endsWith("*E\n"), smap);
+
+        // 默认不生成
+        assertNull(new JavaScriptToJavaConverter().convert(SOURCE, "shapes.js", "").get(0).getSourceMap());
+    }
+
+    @Test
+    void blockByBlockConversionKeepsAbsoluteLines() {
+        // i++ 使整个文件的转换失败，退回逐块处理，各块中的行号从块的起始行开始计算
+        String source = "var limit = 10;\n\nfunction count() {\n    var i = 0;\n    i++;\n    return i;\n}\n\n"
+                        + "function twice(n) {\n    var doubled = n * 2;\n    return doubled;\n}\n";
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setSourceMaps(true);
+        GeneratedUnit module = converter.convert(source, "blocks.js", "").get(0);
+        assertTrue(module.getCode().contains("doubled = n * 2"), module.getCode());
+        assertEquals(10, javaToJs(module, "doubled = n * 2"));
+        assertEquals(11, javaToJs(module, "return doubled"));
+    }
+
+    @Test
+    void writesSmapFilesAndInstallsThemInCompiledClasses() throws Exception {
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Files.write(input.resolve("greet.js"), ("import { x } from './x';\nconst greeting = `Hello`;\n\n"
+                                                + "function greet(name) {\n    return greeting + \", \" + name;\n}\n")
+                                               .getBytes(StandardCharsets.UTF_8));
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setSourceMaps(true);
+        ParallelJarCompiler compiler = new ParallelJarCompiler(1);
+        converter.setJarCompiler(compiler);
+        Path output = tempDir.resolve("out");
+        Main.processDirectory(input.toFile(), output.toFile(), converter, new ConversionProgress(), false);
+
+        String smap = new String(Files.readAllBytes(output.resolve("Greet.smap")), StandardCharsets.UTF_8);
+        String code = new String(Files.readAllBytes(output.resolve("Greet.java")), StandardCharsets.UTF_8);
+        int returnLine = Arrays.asList(code.split("\n")).indexOf("        return greeting + \", \" + name;") + 1;
+        // 方法的右大括号对应函数体中的最后一条语句
+        assertTrue(smap.contains("\n5:" + returnLine + ",2\n"), smap + code);
+
+        File jarFile = tempDir.resolve("app.jar").toFile();
+        assertEquals(0, compiler.compileToJar(jarFile).getFailedFiles(), JSLogger.getFileErrors().toString());
+        try (JarFile jar = new JarFile(jarFile);
+             InputStream in = jar.getInputStream(jar.getEntry("js2j/generated/Greet.class"))) {
+            String[] debug = new String[2];
+            new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitSource(String source, String extension) {
+                    debug[0] = source;
+                    debug[1] = extension;
+                }
+            }, 0);
+            assertEquals("Greet.java", debug[0]);
+            assertNotNull(debug[1]);
+            assertEquals(smap, debug[1]);
+        }
+    }
+
+    private static int jsLine(String text) {
+        List<String> lines = Arrays.asList(SOURCE.split("\n"));
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).contains(text)) {
+                return i + 1;
+            }
+        }
+        throw new AssertionError(text);
+    }
+
+    private static int javaLine(GeneratedUnit unit, String text) {
+        String[] lines = unit.getCode().split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].contains(text)) {
+                return i + 1;
+            }
+        }
+        throw new AssertionError(text + " 不在生成的代码中:\n" + unit.getCode());
+    }
+
+    private static int javaToJs(GeneratedUnit unit, String text) {
+        return unit.getSourceMap().getSourceLine(javaLine(unit, text));
+    }
+}
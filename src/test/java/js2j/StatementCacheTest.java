@@ -0,0 +1,98 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 顶层语句缓存测试
+ */
+public class StatementCacheTest {
+
+    private static final String[] CORPUS = {
+        "small-script.js", "deep-nesting.js", "huge-object-literal.js", "minified-bundle.js", "es6-classes.js"
+    };
+
+    @Test
+    void editReconvertsOnlyChangedStatements() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            source.append("var v").append(i).append(" = ").append(i).append(";\n");
+            source.append("function f").append(i).append("(a) {\n    return a * ").append(i).append(";\n}\n");
+            source.append("console.log(f").append(i).append("(2));\n");
+        }
+        String original = source.toString();
+        String edited = original.replace("return a * 7;", "return a * 70;");
+
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        StatementCache cache = new StatementCache();
+        converter.setStatementCache(cache);
+        converter.convert(original, "app.js", "demo");
+        assertEquals(150, cache.getMissCount());
+
+        String incremental = converter.convert(edited, "app.js", "demo").get(0).getCode();
+        assertEquals(151, cache.getMissCount());
+        assertEquals(149, cache.getHitCount());
+        assertEquals(new JavaScriptToJavaConverter().convert(edited, "app.js", "demo").get(0).getCode(), incremental);
+    }
+
+    @Test
+    void cachedOutputMatchesUncached() throws IOException {
+        for (String parser : new String[] {JSParser.NAME, ModernJSParser.NAME}) {
+            JavaScriptToJavaConverter cached = new JavaScriptToJavaConverter(JSParserFrontend.forName(parser));
+            cached.setStatementCache(new StatementCache());
+            JavaScriptToJavaConverter plain = new JavaScriptToJavaConverter(JSParserFrontend.forName(parser));
+            for (int run = 0; run < 2; run++) {
+                for (String name : CORPUS) {
+                    String source = readCorpus(name);
+                    List<GeneratedUnit> expected = plain.convert(source, name, "demo");
+                    List<GeneratedUnit> actual = cached.convert(source, name, "demo");
+                    assertEquals(expected.size(), actual.size(), parser + " " + name);
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertEquals(expected.get(i).getCode(), actual.get(i).getCode(), parser + " " + name);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void o2BypassesCache() {
+        JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+        converter.setOptimizationLevel(OptimizationLevel.O2);
+        StatementCache cache = new StatementCache();
+        converter.setStatementCache(cache);
+        converter.convert("var a = 1;\nfunction f(x) { return x + a; }\n", "o2.js", "demo");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        StatementCache cache = new StatementCache(2);
+        cache.put("a", new StatementCache.Entry("int a;", null));
+        cache.put("b", new StatementCache.Entry("int b;", null));
+        cache.get("a");
+        cache.put("c", new StatementCache.Entry(null, "c();"));
+        assertEquals(2, cache.size());
+        assertEquals("int a;", cache.get("a").getMembersCode());
+        assertEquals(null, cache.get("b"));
+    }
+
+    private static String readCorpus(String name) throws IOException {
+        try {
+            URL url = StatementCacheTest.class.getResource("/corpus/" + name);
+            return new String(Files.readAllBytes(Paths.get(url.toURI())), StandardCharsets.UTF_8);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package js2j;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预处理器和格式化器的超线性耗时压力测试
+ * 每个输入族针对一类有回溯风险的正则或扫描循环，按逐渐增大的尺寸生成输入，逐个步骤测量耗时，
+ * 在对数坐标上拟合耗时随输入长度的增长指数。n log n 在测量区间内的指数约为1.1，平方级为2，
+ * 指数超过MAX_EXPONENT的步骤即判为超线性。
+ *
+ * 输入族就是对抗输入的回归用例：发现新的超线性输入时在这里加一个族，而不是只修正则。
+ * 随机族按固定种子从所有族的片段中抽取拼接，覆盖片段之间的相互作用
+ */
+public class SuperlinearStressTest {
+
+    /** 允许的最大增长指数 */
+    private static final double MAX_EXPONENT = 1.4;
+    /** 默认测量的输入长度（字符） */
+    private static final int[] SIZES = {4_000, 8_000, 16_000, 32_000};
+    /** 基准测试测量的输入长度 */
+    private static final int[] LARGE_SIZES = {16_000, 32_000, 64_000, 128_000, 256_000};
+    /** 每个尺寸至少累计测量的时间，太短的测量受计时精度和年轻代回收时机影响 */
+    private static final long MIN_SAMPLE_NANOS = 10_000_000L;
+    /** 超线性时重新测量的次数 */
+    private static final int RETRIES = 2;
+    /** 一次运行超过该时间即判为超线性，不再测量更大的输入 */
+    private static final long GIVE_UP_NANOS = 2_000_000_000L;
+
+    /** JavaScript输入族，对应JSSourcePreprocessor的各个步骤 */
+    private static final Map<String, IntFunction<String>> JS_FAMILIES = new LinkedHashMap<>();
+    /** Java输入族，对应JavaCodeFormatter的各个步骤 */
+    private static final Map<String, IntFunction<String>> JAVA_FAMILIES = new LinkedHashMap<>();
+
+    private static final String[] JS_FRAGMENTS = {
+        "g(a, b) ", "x => x;\n", "(a, b) => a + b;\n", "(a) => {\n", "}\n", "import x from 'y';\n", "`t ${a} `",
+        "${", "class A {\n", "constructor(x) { this.x = x; }\n", "for (const v of list) {\n", "let k = 1;\n",
+        "AAAAAAAAAAAAAAAA", "\"s\"", "'q'", "\n", "{", "(", ")", ";"
+    };
+    private static final String[] JAVA_FRAGMENTS = {
+        "{\n", "}\n", "if (x) {\n", "} else {\n", "a();\n", "return a;\n", ");\n", "new HashMap<String, Object>() {{\n",
+        "put(\"k\", 1);\n", "}}\n", "(Function<Object[], Object>) (args) -> {\n", "int numbers = 0;\n",
+        "for (int i = 0; i < n; i++) {\n", "\n\n\n", "Object m = new HashMap<String, Object>();\n", "(", ")", ";"
+    };
+
+    static {
+        // 一行中很多括号，只在末尾有一个箭头函数：\((.*?)\)\s*=> 从每个左括号扫到行尾
+        JS_FAMILIES.put("arrowParams", n -> repeat("var r = ", "g(a, b) ", " + (x) => x;\n", n));
+        // 很长的单词，如内联的base64数据：(\w+)\s*=> 从单词中的每个位置开始都要扫到单词末尾
+        JS_FAMILIES.put("arrowLongWord", n -> repeat("var data = \"", "AAAAAAAA", "\";\nvar f = x => x;\n", n));
+        JS_FAMILIES.put("arrowBodies", n -> repeat("", "var f = (a, b) => a + b;\nvar g = y => { return y; };\n", "", n));
+        // 一行中很多import而没有分号：import\s+.*?; 从每个import扫到行尾
+        JS_FAMILIES.put("importOneLine", n -> repeat("", "a.import (1), ", "b\n", n));
+        JS_FAMILIES.put("templateUnclosed", n -> repeat("var t = `", "${a ", "`;\n", n));
+        JS_FAMILIES.put("templates", n -> repeat("", "var t = `a ${b} c ${d}`;\n", "", n));
+        JS_FAMILIES.put("classUnclosed", n -> repeat("", "class A { m() {\n", "", n));
+        JS_FAMILIES.put("classMethods", n -> repeat("class A {\n", "m(a) { return a; }\n", "}\n", n));
+        JS_FAMILIES.put("forOf", n -> repeat("", "for (const v of list) {\n  let w = v;\n}\n", "", n));
+        JS_FAMILIES.put("randomJs", n -> random(JS_FRAGMENTS, 45, n));
+
+        // 深层嵌套的大括号：嵌套块每轮只去掉一层
+        JAVA_FAMILIES.put("deepBraces", n -> nested("{\n", "a();\n", "}\n", n));
+        // 深层嵌套的控制语句：每个控制语句的大括号都要向后扫描到最内层
+        JAVA_FAMILIES.put("deepIf", n -> nested("if (x) {\n", "a();\n", "}\n", n));
+        JAVA_FAMILIES.put("flatBlocks", n -> repeat("", "{ { a(); } }\n{\n    b();\n}\n", "", n));
+        // 没有闭合的双大括号初始化：(.*?)\}\} 从每个HashMap扫到末尾
+        JAVA_FAMILIES.put("hashMapUnclosed", n -> repeat("", "Object m = new HashMap<String, Object>() {{ put(\"k\", 1);\n", "", n));
+        JAVA_FAMILIES.put("hashMapLiterals",
+                          n -> repeat("", "Object m = new HashMap<String, Object>() {{ put(\"a\", 1); put(\"b\", f(2)); }};\n", "", n));
+        JAVA_FAMILIES.put("lambdaBodies",
+                          n -> repeat("", "Object f = (Function<Object[], Object>) (args) -> { Object r = 1; return r; });\n", "", n));
+        // 很长且没有结尾 ); 的lambda：[^{}]*(return[^;]*;)[^{}]* 对每个return回溯
+        JAVA_FAMILIES.put("lambdaLongBody", n -> repeat("Object f = (Function<Object[], Object>) (args) -> {\n", "return a;\n", "}\n", n));
+        // 没有numbers.size()的int numbers：(.*?)numbers\.size\(\) 从每个声明扫到末尾
+        JAVA_FAMILIES.put("intNumbers", n -> repeat("", "int numbers = 0;\n", "", n));
+        JAVA_FAMILIES.put("forLoops", n -> repeat("", "for (int i = 0; i < n; i++) {\n    a(i);\n}\n", "", n));
+        JAVA_FAMILIES.put("ifElse", n -> repeat("", "if (a) { b(); } else { c(); }\n", "", n));
+        JAVA_FAMILIES.put("emptyLines", n -> repeat("", "a();\n \n \n\n", "", n));
+        JAVA_FAMILIES.put("randomJava", n -> random(JAVA_FRAGMENTS, 45, n));
+    }
+
+    @TestFactory
+    List<DynamicTest> preprocessorStagesScaleLinearly() {
+        return stageTests(new JSSourcePreprocessor().stages(), JS_FAMILIES, SIZES);
+    }
+
+    @TestFactory
+    List<DynamicTest> formatterStagesScaleLinearly() {
+        return stageTests(new JavaCodeFormatter().stages(), JAVA_FAMILIES, SIZES);
+    }
+
+    /**
+     * 更大的输入和更多的随机种子，使用 mvn test -Pbenchmark 运行
+     */
+    @TestFactory
+    @Tag("benchmark")
+    List<DynamicTest> largeInputsScaleLinearly() {
+        Map<String, IntFunction<String>> jsFamilies = new LinkedHashMap<>(JS_FAMILIES);
+        Map<String, IntFunction<String>> javaFamilies = new LinkedHashMap<>(JAVA_FAMILIES);
+        for (int seed = 1; seed <= 5; seed++) {
+            int s = seed;
+            jsFamilies.put("randomJs" + seed, n -> random(JS_FRAGMENTS, s, n));
+            javaFamilies.put("randomJava" + seed, n -> random(JAVA_FRAGMENTS, s, n));
+        }
+        List<DynamicTest> tests = stageTests(new JSSourcePreprocessor().stages(), jsFamilies, LARGE_SIZES);
+        tests.addAll(stageTests(new JavaCodeFormatter().stages(), javaFamilies, LARGE_SIZES));
+        return tests;
+    }
+
+    private static List<DynamicTest> stageTests(Map<String, UnaryOperator<String>> stages,
+                                                Map<String, IntFunction<String>> families, int[] sizes) {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Map.Entry<String, IntFunction<String>> family : families.entrySet()) {
+            tests.add(DynamicTest.dynamicTest(family.getKey(), () -> {
+                String[] inputs = new String[sizes.length];
+                for (int i = 0; i < sizes.length; i++) {
+                    inputs[i] = family.getValue().apply(sizes[i]);
+                }
+                List<String> failures = new ArrayList<>();
+                System.gc();
+                for (Map.Entry<String, UnaryOperator<String>> stage : stages.entrySet()) {
+                    // 偶然的GC或JIT停顿会抬高单个点，重新测量仍超线性才算失败
+                    String failure = checkStage(stage.getValue(), inputs);
+                    for (int retry = 0; failure != null && retry < RETRIES; retry++) {
+                        failure = checkStage(stage.getValue(), inputs);
+                    }
+                    if (failure != null) {
+                        failures.add(stage.getKey() + ": " + failure);
+                    }
+                }
+                assertTrue(failures.isEmpty(), family.getKey() + " 超线性: " + failures);
+            }));
+        }
+        return tests;
+    }
+
+    /**
+     * 测量一个步骤在各个尺寸上的耗时并拟合增长指数
+     *
+     * @return 超线性时的说明，否则为null
+     */
+    private static String checkStage(UnaryOperator<String> stage, String[] inputs) {
+        // 预热，排除JIT编译对小尺寸的影响
+        for (int i = 0; i < 5; i++) {
+            stage.apply(inputs[0]);
+        }
+        double[] logSizes = new double[inputs.length];
+        double[] logNanos = new double[inputs.length];
+        StringBuilder curve = new StringBuilder();
+        for (int i = 0; i < inputs.length; i++) {
+            double nanos = measure(stage, inputs[i]);
+            curve.append(inputs[i].length()).append(" 字符 ").append(String.format("%.3f", nanos / 1e6)).append(" ms; ");
+            if (nanos > GIVE_UP_NANOS) {
+                return "一次运行超过 " + GIVE_UP_NANOS / 1_000_000 + " ms (" + curve + ")";
+            }
+            logSizes[i] = Math.log(inputs[i].length());
+            logNanos[i] = Math.log(nanos);
+        }
+        double exponent = slope(logSizes, logNanos);
+        if (exponent > MAX_EXPONENT) {
+            return String.format("增长指数 %.2f (%s)", exponent, curve);
+        }
+        return null;
+    }
+
+    /**
+     * 重复运行到累计时间足够长，取三轮中最小的平均耗时（纳秒）
+     */
+    private static double measure(UnaryOperator<String> stage, String input) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            int runs = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                stage.apply(input);
+                runs++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_SAMPLE_NANOS);
+            best = Math.min(best, (double) elapsed / runs);
+            if (best > GIVE_UP_NANOS) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 最小二乘拟合的斜率
+     */
+    private static double slope(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < x.length; i++) {
+            meanX += x[i] / x.length;
+            meanY += y[i] / y.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return covariance / variance;
+    }
+
+    /**
+     * 重复unit直到总长度达到length
+     */
+    private static String repeat(String prefix, String unit, String suffix, int length) {
+        StringBuilder sb = new StringBuilder(prefix);
+        while (sb.length() + suffix.length() < length) {
+            sb.append(unit);
+        }
+        return sb.append(suffix).toString();
+    }
+
+    /**
+     * 嵌套open和close直到总长度达到length
+     */
+    private static String nested(String open, String body, String close, int length) {
+        int depth = Math.max(1, (length - body.length()) / (open.length() + close.length()));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append(open);
+        }
+        sb.append(body);
+        for (int i = 0; i < depth; i++) {
+            sb.append(close);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按种子从片段中随机抽取拼接，较长的输入以较短的输入为前缀
+     */
+    private static String random(String[] fragments, long seed, int length) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(fragments[random.nextInt(fragments.length)]);
+        }
+        return sb.toString();
+    }
+}
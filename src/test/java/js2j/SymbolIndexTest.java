@@ -0,0 +1,121 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 符号索引测试
+ */
+public class SymbolIndexTest {
+
+    private static final String PROGRAM =
+        "var LIMIT = 10;\n" +
+        "var userName = \"x\";\n" +
+        "function add(a, b) { return a + b; }\n" +
+        "function isReady(count) { return count > 0; }\n" +
+        "function Point(x, y) { this.x = x; this.y = y; this.label = \"p\"; }\n" +
+        "Point.prototype.norm = function () { return Math.sqrt(this.x * this.x + this.y * this.y); };\n" +
+        "console.log(add(1, 2));\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsTopLevelDeclarations() throws IOException {
+        Path file = dir.resolve("symbols.idx");
+        try (SymbolIndex index = SymbolIndex.open(file)) {
+            JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+            converter.setSymbolIndex(index);
+            converter.convert(PROGRAM, "geometry.js", "demo");
+        }
+
+        // 重新打开后从磁盘读取
+        try (SymbolIndex index = SymbolIndex.open(file)) {
+            SymbolIndex.Symbol add = index.lookup("demo.Geometry.add");
+            assertEquals(SymbolIndex.Kind.FUNCTION, add.getKind());
+            assertEquals("int add(Object a, Object b)", add.signature());
+            assertEquals("geometry.js", add.getSourceFile());
+            assertEquals("boolean isReady(int count)", index.lookup("demo.Geometry.isReady").signature());
+            assertEquals("String", index.lookup("demo.Geometry.userName").getType());
+
+            SymbolIndex.Symbol point = index.lookup("demo.Point");
+            assertEquals(SymbolIndex.Kind.CLASS, point.getKind());
+            assertEquals(Arrays.asList("x", "y"), point.getParameterNames());
+            assertEquals(Arrays.asList("Object x", "Object y", "String label"), point.getMembers());
+            assertEquals(SymbolIndex.Kind.METHOD, index.lookup("demo.Point.norm").getKind());
+
+            assertEquals(6, index.moduleSymbols("demo.Geometry").size());
+            assertNull(index.lookup("demo.Geometry.missing"));
+        }
+    }
+
+    @Test
+    void reconversionReplacesModuleSymbols() throws IOException {
+        try (SymbolIndex index = SymbolIndex.open(dir.resolve("symbols.idx"))) {
+            JavaScriptToJavaConverter converter = new JavaScriptToJavaConverter();
+            converter.setSymbolIndex(index);
+            converter.convert(PROGRAM, "geometry.js", "demo");
+            int size = index.size();
+
+            String edited = PROGRAM.replace("function isReady(count) { return count > 0; }\n", "")
+                                   .replace("function add(a, b)", "function add(a, b, c)");
+            converter.convert(edited, "geometry.js", "demo");
+            assertNull(index.lookup("demo.Geometry.isReady"));
+            assertEquals(3, index.lookup("demo.Geometry.add").getParameterCount());
+            assertEquals(size - 1, index.size());
+        }
+    }
+
+    @Test
+    void growsAndCompactsInPlace() throws IOException {
+        Path file = dir.resolve("symbols.idx");
+        try (SymbolIndex index = SymbolIndex.open(file)) {
+            for (int round = 0; round < 3; round++) {
+                for (int m = 0; m < 2000; m++) {
+                    index.updateModule("demo.M" + m, "m" + m + ".js", Arrays.asList(
+                        function("demo.M" + m + ".f", round), function("demo.M" + m + ".g", round)));
+                }
+            }
+            assertEquals(6000, index.size());
+            assertEquals(2, index.lookup("demo.M1999.g").getParameterCount());
+            assertEquals(2, index.moduleSymbols("demo.M0").size());
+        }
+        long size = Files.size(file);
+        try (SymbolIndex index = SymbolIndex.open(file)) {
+            for (int m = 0; m < 2000; m++) {
+                index.updateModule("demo.M" + m, "m" + m + ".js", Collections.singletonList(function("demo.M" + m + ".f", 1)));
+            }
+            assertNull(index.lookup("demo.M7.g"));
+            assertEquals(4000, index.size());
+        }
+        // 废弃的记录被回收，文件不会随更新次数无限增长
+        assertTrue(Files.size(file) <= size * 2, Files.size(file) + " > " + size);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("notes.txt");
+        Files.write(file, "not an index".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> SymbolIndex.open(file));
+    }
+
+    private static SymbolIndex.Symbol function(String name, int round) {
+        List<String> names = Arrays.asList("a", "b");
+        List<String> types = Arrays.asList("int", round % 2 == 0 ? "Object" : "String");
+        return new SymbolIndex.Symbol(SymbolIndex.Kind.FUNCTION, name, null, "int", names, types,
+                                      Collections.<String>emptyList());
+    }
+}
@@ -0,0 +1,139 @@
+package js2j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 定向转换测试
+ */
+public class TargetFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsNulAndNewlineSeparatedLists() throws IOException {
+        assertEquals(Arrays.asList("a.js", "dir/with space.js"),
+                     TargetFiles.readList(stream("a.js\r\n\ndir/with space.js\n")));
+        assertEquals(Arrays.asList("a.js", "line\nbreak.js"),
+                     TargetFiles.readList(stream("a.js\0line\nbreak.js\0")));
+        assertTrue(TargetFiles.readList(stream("")).isEmpty());
+    }
+
+    @Test
+    void groupsFilesByDeepestRoot() throws IOException {
+        Path app = Files.createDirectories(tempDir.resolve("app"));
+        Path vendor = Files.createDirectories(app.resolve("vendor"));
+        Path a = write(app.resolve("a.js"));
+        Path b = write(vendor.resolve("b.js"));
+        Path outside = write(tempDir.resolve("outside.js"));
+        Path readme = write(app.resolve("README.md"));
+
+        Map<Path, List<Path>> grouped = TargetFiles.groupByRoot(
+            Arrays.asList(app, vendor),
+            Arrays.asList(a, b, a, outside, readme, app.resolve("deleted.js")));
+
+        assertEquals(Collections.singletonList(a.toAbsolutePath()), grouped.get(app.toAbsolutePath()));
+        assertEquals(Collections.singletonList(b.toAbsolutePath()), grouped.get(vendor.toAbsolutePath()));
+    }
+
+    @Test
+    void convertsListedFilesAcrossRootsPreservingStructure() throws IOException {
+        Path web = Files.createDirectories(tempDir.resolve("web"));
+        Path server = Files.createDirectories(tempDir.resolve("server"));
+        Path changed = write(web.resolve("ui/widgets/button.js"));
+        write(web.resolve("ui/untouched.js"));
+        Path handler = write(server.resolve("handler.js"));
+        Path out = tempDir.resolve("out");
+
+        Map<Path, List<Path>> grouped = TargetFiles.groupByRoot(Arrays.asList(web, server), Arrays.asList(changed, handler));
+        ConversionProgress progress = new ConversionProgress();
+        Main.processFiles(grouped, out.toFile(), new JavaScriptToJavaConverter(), progress, false,
+                          SkipRules.Mode.AUTO, new ConversionScheduler());
+
+        assertEquals(2, progress.getFilesDone());
+        assertEquals(0, progress.getErrorCount());
+        Path button = out.resolve("ui/widgets/Button.java");
+        assertTrue(Files.exists(button));
+        assertTrue(new String(Files.readAllBytes(button), StandardCharsets.UTF_8)
+                       .contains("package js2j.generated.ui.widgets;"));
+        assertTrue(Files.exists(out.resolve("Handler.java")));
+        assertFalse(Files.exists(out.resolve("ui/Untouched.java")));
+    }
+
+    @Test
+    void reportsFilesFromDifferentRootsWithTheSameOutput() throws IOException {
+        Path web = Files.createDirectories(tempDir.resolve("web"));
+        Path server = Files.createDirectories(tempDir.resolve("server"));
+        Path webIndex = write(web.resolve("index.js"));
+        Path serverIndex = write(server.resolve("index.js"));
+        Path out = tempDir.resolve("out");
+
+        Map<Path, List<Path>> grouped = TargetFiles.groupByRoot(Arrays.asList(web, server),
+                                                                Arrays.asList(webIndex, serverIndex));
+        ConversionProgress progress = new ConversionProgress();
+        Main.processFiles(grouped, out.toFile(), new JavaScriptToJavaConverter(), progress, false,
+                          SkipRules.Mode.AUTO, new ConversionScheduler());
+
+        // 只转换第一个根目录中的文件，另一个记为错误而不是悄悄覆盖
+        assertEquals(2, progress.getFilesDone());
+        assertEquals(1, progress.getErrorCount());
+        List<JSLogger.FileError> errors = progress.getFileErrors();
+        assertEquals(1, errors.size());
+        assertEquals(serverIndex.toString(), errors.get(0).getFile());
+        assertTrue(Files.exists(out.resolve("Index.java")));
+    }
+
+    @Test
+    void asksGitForChangedFiles() throws Exception {
+        Path repo = Files.createDirectories(tempDir.resolve("repo"));
+        Path src = Files.createDirectories(repo.resolve("src"));
+        write(src.resolve("stable.js"));
+        Path edited = write(src.resolve("edited.js"));
+        write(repo.resolve("outside-root.js"));
+        git(repo, "init", "-q");
+        git(repo, "add", ".");
+        git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "init");
+
+        Files.write(edited, "var changed = 1;\n".getBytes(StandardCharsets.UTF_8));
+        Path added = write(src.resolve("nested/added.js"));
+
+        List<Path> changed = TargetFiles.gitChanged(src, "HEAD");
+        assertEquals(2, changed.size(), changed.toString());
+        assertTrue(changed.contains(edited.toAbsolutePath().normalize()));
+        assertTrue(changed.contains(added.toAbsolutePath().normalize()));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, "function add(a, b) { return a + b; }\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void git(Path dir, String... args) throws Exception {
+        String[] command = new String[args.length + 3];
+        command[0] = "git";
+        command[1] = "-C";
+        command[2] = dir.toString();
+        System.arraycopy(args, 0, command, 3, args.length);
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        assertEquals(0, process.waitFor(), String.join(" ", command));
+    }
+}
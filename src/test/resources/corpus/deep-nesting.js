@@ -0,0 +1,102 @@
+// 深层嵌套控制流样例
+function deepNesting(value) {
+    var count = 0;
+    if (value > 0) {
+        for (var i1 = 0; i1 < 2; i1++) {
+            while (count < 2) {
+                count++;
+                if (value > 3) {
+                    for (var i4 = 0; i4 < 2; i4++) {
+                        while (count < 5) {
+                            count++;
+                            if (value > 6) {
+                                for (var i7 = 0; i7 < 2; i7++) {
+                                    while (count < 8) {
+                                        count++;
+                                        if (value > 9) {
+                                            for (var i10 = 0; i10 < 2; i10++) {
+                                                while (count < 11) {
+                                                    count++;
+                                                    if (value > 12) {
+                                                        for (var i13 = 0; i13 < 2; i13++) {
+                                                            while (count < 14) {
+                                                                count++;
+                                                                if (value > 15) {
+                                                                    for (var i16 = 0; i16 < 2; i16++) {
+                                                                        while (count < 17) {
+                                                                            count++;
+                                                                            if (value > 18) {
+                                                                                for (var i19 = 0; i19 < 2; i19++) {
+                                                                                    while (count < 20) {
+                                                                                        count++;
+                                                                                        if (value > 21) {
+                                                                                            for (var i22 = 0; i22 < 2; i22++) {
+                                                                                                while (count < 23) {
+                                                                                                    count++;
+                                                                                                    if (value > 24) {
+                                                                                                        for (var i25 = 0; i25 < 2; i25++) {
+                                                                                                            while (count < 26) {
+                                                                                                                count++;
+                                                                                                                if (value > 27) {
+                                                                                                                    for (var i28 = 0; i28 < 2; i28++) {
+                                                                                                                        while (count < 29) {
+                                                                                                                            count++;
+                                                                                                                            if (value > 30) {
+                                                                                                                                for (var i31 = 0; i31 < 2; i31++) {
+                                                                                                                                    while (count < 32) {
+                                                                                                                                        count++;
+                                                                                                                                        if (value > 33) {
+                                                                                                                                            for (var i34 = 0; i34 < 2; i34++) {
+                                                                                                                                                while (count < 35) {
+                                                                                                                                                    count++;
+                                                                                                                                                    if (value > 36) {
+                                                                                                                                                        for (var i37 = 0; i37 < 2; i37++) {
+                                                                                                                                                            while (count < 38) {
+                                                                                                                                                                count++;
+                                                                                                                                                                if (value > 39) {
+                                                                                                                                                                    count = count + value;
+                                                                                                                                                                }
+                                                                                                                                                            }
+                                                                                                                                                        }
+                                                                                                                                                    }
+                                                                                                                                                }
+                                                                                                                                            }
+                                                                                                                                        }
+                                                                                                                                    }
+                                                                                                                                }
+                                                                                                                            }
+                                                                                                                        }
+                                                                                                                    }
+                                                                                                                }
+                                                                                                            }
+                                                                                                        }
+                                                                                                    }
+                                                                                                }
+                                                                                            }
+                                                                                        }
+                                                                                    }
+                                                                                }
+                                                                            }
+                                                                        }
+                                                                    }
+                                                                }
+                                                            }
+                                                        }
+                                                    }
+                                                }
+                                            }
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+    return count;
+}
+
+var result = deepNesting(3);
+console.log(result);
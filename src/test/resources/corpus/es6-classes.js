@@ -0,0 +1,183 @@
+// ES6类与模块语法样例
+import { helper } from './helper';
+
+class Shape0 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape0";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 0: ${this.name}`;
+    }
+}
+
+class Shape1 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape1";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 1: ${this.name}`;
+    }
+}
+
+class Shape2 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape2";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 2: ${this.name}`;
+    }
+}
+
+class Shape3 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape3";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 3: ${this.name}`;
+    }
+}
+
+class Shape4 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape4";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 4: ${this.name}`;
+    }
+}
+
+class Shape5 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape5";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 5: ${this.name}`;
+    }
+}
+
+class Shape6 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape6";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 6: ${this.name}`;
+    }
+}
+
+class Shape7 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape7";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 7: ${this.name}`;
+    }
+}
+
+class Shape8 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape8";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 8: ${this.name}`;
+    }
+}
+
+class Shape9 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape9";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 9: ${this.name}`;
+    }
+}
+
+class Shape10 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape10";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 10: ${this.name}`;
+    }
+}
+
+class Shape11 {
+    constructor(width, height) {
+        this.width = width;
+        this.height = height;
+        this.name = "shape11";
+    }
+    area() {
+        return this.width * this.height;
+    }
+    describe(prefix) {
+        return `${prefix} 11: ${this.name}`;
+    }
+}
+
+export const shapes = [];
+for (let i = 0; i < 12; i++) {
+    shapes.push(i * 2);
+}
+const total = shapes.map(s => { return s * 2; });
+export function sumAreas(items) {
+    let sum = 0;
+    for (const item of items) {
+        sum += item;
+    }
+    return sum;
+}
@@ -0,0 +1,3005 @@
+// 大型对象字面量样例
+var config = {
+    num0: 0,
+    key1: "value1",
+    flag2: false,
+    num3: 3,
+    key4: "value4",
+    flag5: true,
+    num6: 6,
+    key7: "value7",
+    flag8: false,
+    num9: 9,
+    key10: "value10",
+    flag11: true,
+    num12: 12,
+    key13: "value13",
+    flag14: false,
+    num15: 15,
+    key16: "value16",
+    flag17: true,
+    num18: 18,
+    key19: "value19",
+    flag20: false,
+    num21: 21,
+    key22: "value22",
+    flag23: true,
+    num24: 24,
+    key25: "value25",
+    flag26: false,
+    num27: 27,
+    key28: "value28",
+    flag29: true,
+    num30: 30,
+    key31: "value31",
+    flag32: false,
+    num33: 33,
+    key34: "value34",
+    flag35: true,
+    num36: 36,
+    key37: "value37",
+    flag38: false,
+    num39: 39,
+    key40: "value40",
+    flag41: true,
+    num42: 42,
+    key43: "value43",
+    flag44: false,
+    num45: 45,
+    key46: "value46",
+    flag47: true,
+    num48: 48,
+    key49: "value49",
+    flag50: false,
+    num51: 51,
+    key52: "value52",
+    flag53: true,
+    num54: 54,
+    key55: "value55",
+    flag56: false,
+    num57: 57,
+    key58: "value58",
+    flag59: true,
+    num60: 60,
+    key61: "value61",
+    flag62: false,
+    num63: 63,
+    key64: "value64",
+    flag65: true,
+    num66: 66,
+    key67: "value67",
+    flag68: false,
+    num69: 69,
+    key70: "value70",
+    flag71: true,
+    num72: 72,
+    key73: "value73",
+    flag74: false,
+    num75: 75,
+    key76: "value76",
+    flag77: true,
+    num78: 78,
+    key79: "value79",
+    flag80: false,
+    num81: 81,
+    key82: "value82",
+    flag83: true,
+    num84: 84,
+    key85: "value85",
+    flag86: false,
+    num87: 87,
+    key88: "value88",
+    flag89: true,
+    num90: 90,
+    key91: "value91",
+    flag92: false,
+    num93: 93,
+    key94: "value94",
+    flag95: true,
+    num96: 96,
+    key97: "value97",
+    flag98: false,
+    num99: 99,
+    key100: "value100",
+    flag101: true,
+    num102: 102,
+    key103: "value103",
+    flag104: false,
+    num105: 105,
+    key106: "value106",
+    flag107: true,
+    num108: 108,
+    key109: "value109",
+    flag110: false,
+    num111: 111,
+    key112: "value112",
+    flag113: true,
+    num114: 114,
+    key115: "value115",
+    flag116: false,
+    num117: 117,
+    key118: "value118",
+    flag119: true,
+    num120: 120,
+    key121: "value121",
+    flag122: false,
+    num123: 123,
+    key124: "value124",
+    flag125: true,
+    num126: 126,
+    key127: "value127",
+    flag128: false,
+    num129: 129,
+    key130: "value130",
+    flag131: true,
+    num132: 132,
+    key133: "value133",
+    flag134: false,
+    num135: 135,
+    key136: "value136",
+    flag137: true,
+    num138: 138,
+    key139: "value139",
+    flag140: false,
+    num141: 141,
+    key142: "value142",
+    flag143: true,
+    num144: 144,
+    key145: "value145",
+    flag146: false,
+    num147: 147,
+    key148: "value148",
+    flag149: true,
+    num150: 150,
+    key151: "value151",
+    flag152: false,
+    num153: 153,
+    key154: "value154",
+    flag155: true,
+    num156: 156,
+    key157: "value157",
+    flag158: false,
+    num159: 159,
+    key160: "value160",
+    flag161: true,
+    num162: 162,
+    key163: "value163",
+    flag164: false,
+    num165: 165,
+    key166: "value166",
+    flag167: true,
+    num168: 168,
+    key169: "value169",
+    flag170: false,
+    num171: 171,
+    key172: "value172",
+    flag173: true,
+    num174: 174,
+    key175: "value175",
+    flag176: false,
+    num177: 177,
+    key178: "value178",
+    flag179: true,
+    num180: 180,
+    key181: "value181",
+    flag182: false,
+    num183: 183,
+    key184: "value184",
+    flag185: true,
+    num186: 186,
+    key187: "value187",
+    flag188: false,
+    num189: 189,
+    key190: "value190",
+    flag191: true,
+    num192: 192,
+    key193: "value193",
+    flag194: false,
+    num195: 195,
+    key196: "value196",
+    flag197: true,
+    num198: 198,
+    key199: "value199",
+    flag200: false,
+    num201: 201,
+    key202: "value202",
+    flag203: true,
+    num204: 204,
+    key205: "value205",
+    flag206: false,
+    num207: 207,
+    key208: "value208",
+    flag209: true,
+    num210: 210,
+    key211: "value211",
+    flag212: false,
+    num213: 213,
+    key214: "value214",
+    flag215: true,
+    num216: 216,
+    key217: "value217",
+    flag218: false,
+    num219: 219,
+    key220: "value220",
+    flag221: true,
+    num222: 222,
+    key223: "value223",
+    flag224: false,
+    num225: 225,
+    key226: "value226",
+    flag227: true,
+    num228: 228,
+    key229: "value229",
+    flag230: false,
+    num231: 231,
+    key232: "value232",
+    flag233: true,
+    num234: 234,
+    key235: "value235",
+    flag236: false,
+    num237: 237,
+    key238: "value238",
+    flag239: true,
+    num240: 240,
+    key241: "value241",
+    flag242: false,
+    num243: 243,
+    key244: "value244",
+    flag245: true,
+    num246: 246,
+    key247: "value247",
+    flag248: false,
+    num249: 249,
+    key250: "value250",
+    flag251: true,
+    num252: 252,
+    key253: "value253",
+    flag254: false,
+    num255: 255,
+    key256: "value256",
+    flag257: true,
+    num258: 258,
+    key259: "value259",
+    flag260: false,
+    num261: 261,
+    key262: "value262",
+    flag263: true,
+    num264: 264,
+    key265: "value265",
+    flag266: false,
+    num267: 267,
+    key268: "value268",
+    flag269: true,
+    num270: 270,
+    key271: "value271",
+    flag272: false,
+    num273: 273,
+    key274: "value274",
+    flag275: true,
+    num276: 276,
+    key277: "value277",
+    flag278: false,
+    num279: 279,
+    key280: "value280",
+    flag281: true,
+    num282: 282,
+    key283: "value283",
+    flag284: false,
+    num285: 285,
+    key286: "value286",
+    flag287: true,
+    num288: 288,
+    key289: "value289",
+    flag290: false,
+    num291: 291,
+    key292: "value292",
+    flag293: true,
+    num294: 294,
+    key295: "value295",
+    flag296: false,
+    num297: 297,
+    key298: "value298",
+    flag299: true,
+    num300: 300,
+    key301: "value301",
+    flag302: false,
+    num303: 303,
+    key304: "value304",
+    flag305: true,
+    num306: 306,
+    key307: "value307",
+    flag308: false,
+    num309: 309,
+    key310: "value310",
+    flag311: true,
+    num312: 312,
+    key313: "value313",
+    flag314: false,
+    num315: 315,
+    key316: "value316",
+    flag317: true,
+    num318: 318,
+    key319: "value319",
+    flag320: false,
+    num321: 321,
+    key322: "value322",
+    flag323: true,
+    num324: 324,
+    key325: "value325",
+    flag326: false,
+    num327: 327,
+    key328: "value328",
+    flag329: true,
+    num330: 330,
+    key331: "value331",
+    flag332: false,
+    num333: 333,
+    key334: "value334",
+    flag335: true,
+    num336: 336,
+    key337: "value337",
+    flag338: false,
+    num339: 339,
+    key340: "value340",
+    flag341: true,
+    num342: 342,
+    key343: "value343",
+    flag344: false,
+    num345: 345,
+    key346: "value346",
+    flag347: true,
+    num348: 348,
+    key349: "value349",
+    flag350: false,
+    num351: 351,
+    key352: "value352",
+    flag353: true,
+    num354: 354,
+    key355: "value355",
+    flag356: false,
+    num357: 357,
+    key358: "value358",
+    flag359: true,
+    num360: 360,
+    key361: "value361",
+    flag362: false,
+    num363: 363,
+    key364: "value364",
+    flag365: true,
+    num366: 366,
+    key367: "value367",
+    flag368: false,
+    num369: 369,
+    key370: "value370",
+    flag371: true,
+    num372: 372,
+    key373: "value373",
+    flag374: false,
+    num375: 375,
+    key376: "value376",
+    flag377: true,
+    num378: 378,
+    key379: "value379",
+    flag380: false,
+    num381: 381,
+    key382: "value382",
+    flag383: true,
+    num384: 384,
+    key385: "value385",
+    flag386: false,
+    num387: 387,
+    key388: "value388",
+    flag389: true,
+    num390: 390,
+    key391: "value391",
+    flag392: false,
+    num393: 393,
+    key394: "value394",
+    flag395: true,
+    num396: 396,
+    key397: "value397",
+    flag398: false,
+    num399: 399,
+    key400: "value400",
+    flag401: true,
+    num402: 402,
+    key403: "value403",
+    flag404: false,
+    num405: 405,
+    key406: "value406",
+    flag407: true,
+    num408: 408,
+    key409: "value409",
+    flag410: false,
+    num411: 411,
+    key412: "value412",
+    flag413: true,
+    num414: 414,
+    key415: "value415",
+    flag416: false,
+    num417: 417,
+    key418: "value418",
+    flag419: true,
+    num420: 420,
+    key421: "value421",
+    flag422: false,
+    num423: 423,
+    key424: "value424",
+    flag425: true,
+    num426: 426,
+    key427: "value427",
+    flag428: false,
+    num429: 429,
+    key430: "value430",
+    flag431: true,
+    num432: 432,
+    key433: "value433",
+    flag434: false,
+    num435: 435,
+    key436: "value436",
+    flag437: true,
+    num438: 438,
+    key439: "value439",
+    flag440: false,
+    num441: 441,
+    key442: "value442",
+    flag443: true,
+    num444: 444,
+    key445: "value445",
+    flag446: false,
+    num447: 447,
+    key448: "value448",
+    flag449: true,
+    num450: 450,
+    key451: "value451",
+    flag452: false,
+    num453: 453,
+    key454: "value454",
+    flag455: true,
+    num456: 456,
+    key457: "value457",
+    flag458: false,
+    num459: 459,
+    key460: "value460",
+    flag461: true,
+    num462: 462,
+    key463: "value463",
+    flag464: false,
+    num465: 465,
+    key466: "value466",
+    flag467: true,
+    num468: 468,
+    key469: "value469",
+    flag470: false,
+    num471: 471,
+    key472: "value472",
+    flag473: true,
+    num474: 474,
+    key475: "value475",
+    flag476: false,
+    num477: 477,
+    key478: "value478",
+    flag479: true,
+    num480: 480,
+    key481: "value481",
+    flag482: false,
+    num483: 483,
+    key484: "value484",
+    flag485: true,
+    num486: 486,
+    key487: "value487",
+    flag488: false,
+    num489: 489,
+    key490: "value490",
+    flag491: true,
+    num492: 492,
+    key493: "value493",
+    flag494: false,
+    num495: 495,
+    key496: "value496",
+    flag497: true,
+    num498: 498,
+    key499: "value499",
+    flag500: false,
+    num501: 501,
+    key502: "value502",
+    flag503: true,
+    num504: 504,
+    key505: "value505",
+    flag506: false,
+    num507: 507,
+    key508: "value508",
+    flag509: true,
+    num510: 510,
+    key511: "value511",
+    flag512: false,
+    num513: 513,
+    key514: "value514",
+    flag515: true,
+    num516: 516,
+    key517: "value517",
+    flag518: false,
+    num519: 519,
+    key520: "value520",
+    flag521: true,
+    num522: 522,
+    key523: "value523",
+    flag524: false,
+    num525: 525,
+    key526: "value526",
+    flag527: true,
+    num528: 528,
+    key529: "value529",
+    flag530: false,
+    num531: 531,
+    key532: "value532",
+    flag533: true,
+    num534: 534,
+    key535: "value535",
+    flag536: false,
+    num537: 537,
+    key538: "value538",
+    flag539: true,
+    num540: 540,
+    key541: "value541",
+    flag542: false,
+    num543: 543,
+    key544: "value544",
+    flag545: true,
+    num546: 546,
+    key547: "value547",
+    flag548: false,
+    num549: 549,
+    key550: "value550",
+    flag551: true,
+    num552: 552,
+    key553: "value553",
+    flag554: false,
+    num555: 555,
+    key556: "value556",
+    flag557: true,
+    num558: 558,
+    key559: "value559",
+    flag560: false,
+    num561: 561,
+    key562: "value562",
+    flag563: true,
+    num564: 564,
+    key565: "value565",
+    flag566: false,
+    num567: 567,
+    key568: "value568",
+    flag569: true,
+    num570: 570,
+    key571: "value571",
+    flag572: false,
+    num573: 573,
+    key574: "value574",
+    flag575: true,
+    num576: 576,
+    key577: "value577",
+    flag578: false,
+    num579: 579,
+    key580: "value580",
+    flag581: true,
+    num582: 582,
+    key583: "value583",
+    flag584: false,
+    num585: 585,
+    key586: "value586",
+    flag587: true,
+    num588: 588,
+    key589: "value589",
+    flag590: false,
+    num591: 591,
+    key592: "value592",
+    flag593: true,
+    num594: 594,
+    key595: "value595",
+    flag596: false,
+    num597: 597,
+    key598: "value598",
+    flag599: true,
+    num600: 600,
+    key601: "value601",
+    flag602: false,
+    num603: 603,
+    key604: "value604",
+    flag605: true,
+    num606: 606,
+    key607: "value607",
+    flag608: false,
+    num609: 609,
+    key610: "value610",
+    flag611: true,
+    num612: 612,
+    key613: "value613",
+    flag614: false,
+    num615: 615,
+    key616: "value616",
+    flag617: true,
+    num618: 618,
+    key619: "value619",
+    flag620: false,
+    num621: 621,
+    key622: "value622",
+    flag623: true,
+    num624: 624,
+    key625: "value625",
+    flag626: false,
+    num627: 627,
+    key628: "value628",
+    flag629: true,
+    num630: 630,
+    key631: "value631",
+    flag632: false,
+    num633: 633,
+    key634: "value634",
+    flag635: true,
+    num636: 636,
+    key637: "value637",
+    flag638: false,
+    num639: 639,
+    key640: "value640",
+    flag641: true,
+    num642: 642,
+    key643: "value643",
+    flag644: false,
+    num645: 645,
+    key646: "value646",
+    flag647: true,
+    num648: 648,
+    key649: "value649",
+    flag650: false,
+    num651: 651,
+    key652: "value652",
+    flag653: true,
+    num654: 654,
+    key655: "value655",
+    flag656: false,
+    num657: 657,
+    key658: "value658",
+    flag659: true,
+    num660: 660,
+    key661: "value661",
+    flag662: false,
+    num663: 663,
+    key664: "value664",
+    flag665: true,
+    num666: 666,
+    key667: "value667",
+    flag668: false,
+    num669: 669,
+    key670: "value670",
+    flag671: true,
+    num672: 672,
+    key673: "value673",
+    flag674: false,
+    num675: 675,
+    key676: "value676",
+    flag677: true,
+    num678: 678,
+    key679: "value679",
+    flag680: false,
+    num681: 681,
+    key682: "value682",
+    flag683: true,
+    num684: 684,
+    key685: "value685",
+    flag686: false,
+    num687: 687,
+    key688: "value688",
+    flag689: true,
+    num690: 690,
+    key691: "value691",
+    flag692: false,
+    num693: 693,
+    key694: "value694",
+    flag695: true,
+    num696: 696,
+    key697: "value697",
+    flag698: false,
+    num699: 699,
+    key700: "value700",
+    flag701: true,
+    num702: 702,
+    key703: "value703",
+    flag704: false,
+    num705: 705,
+    key706: "value706",
+    flag707: true,
+    num708: 708,
+    key709: "value709",
+    flag710: false,
+    num711: 711,
+    key712: "value712",
+    flag713: true,
+    num714: 714,
+    key715: "value715",
+    flag716: false,
+    num717: 717,
+    key718: "value718",
+    flag719: true,
+    num720: 720,
+    key721: "value721",
+    flag722: false,
+    num723: 723,
+    key724: "value724",
+    flag725: true,
+    num726: 726,
+    key727: "value727",
+    flag728: false,
+    num729: 729,
+    key730: "value730",
+    flag731: true,
+    num732: 732,
+    key733: "value733",
+    flag734: false,
+    num735: 735,
+    key736: "value736",
+    flag737: true,
+    num738: 738,
+    key739: "value739",
+    flag740: false,
+    num741: 741,
+    key742: "value742",
+    flag743: true,
+    num744: 744,
+    key745: "value745",
+    flag746: false,
+    num747: 747,
+    key748: "value748",
+    flag749: true,
+    num750: 750,
+    key751: "value751",
+    flag752: false,
+    num753: 753,
+    key754: "value754",
+    flag755: true,
+    num756: 756,
+    key757: "value757",
+    flag758: false,
+    num759: 759,
+    key760: "value760",
+    flag761: true,
+    num762: 762,
+    key763: "value763",
+    flag764: false,
+    num765: 765,
+    key766: "value766",
+    flag767: true,
+    num768: 768,
+    key769: "value769",
+    flag770: false,
+    num771: 771,
+    key772: "value772",
+    flag773: true,
+    num774: 774,
+    key775: "value775",
+    flag776: false,
+    num777: 777,
+    key778: "value778",
+    flag779: true,
+    num780: 780,
+    key781: "value781",
+    flag782: false,
+    num783: 783,
+    key784: "value784",
+    flag785: true,
+    num786: 786,
+    key787: "value787",
+    flag788: false,
+    num789: 789,
+    key790: "value790",
+    flag791: true,
+    num792: 792,
+    key793: "value793",
+    flag794: false,
+    num795: 795,
+    key796: "value796",
+    flag797: true,
+    num798: 798,
+    key799: "value799",
+    flag800: false,
+    num801: 801,
+    key802: "value802",
+    flag803: true,
+    num804: 804,
+    key805: "value805",
+    flag806: false,
+    num807: 807,
+    key808: "value808",
+    flag809: true,
+    num810: 810,
+    key811: "value811",
+    flag812: false,
+    num813: 813,
+    key814: "value814",
+    flag815: true,
+    num816: 816,
+    key817: "value817",
+    flag818: false,
+    num819: 819,
+    key820: "value820",
+    flag821: true,
+    num822: 822,
+    key823: "value823",
+    flag824: false,
+    num825: 825,
+    key826: "value826",
+    flag827: true,
+    num828: 828,
+    key829: "value829",
+    flag830: false,
+    num831: 831,
+    key832: "value832",
+    flag833: true,
+    num834: 834,
+    key835: "value835",
+    flag836: false,
+    num837: 837,
+    key838: "value838",
+    flag839: true,
+    num840: 840,
+    key841: "value841",
+    flag842: false,
+    num843: 843,
+    key844: "value844",
+    flag845: true,
+    num846: 846,
+    key847: "value847",
+    flag848: false,
+    num849: 849,
+    key850: "value850",
+    flag851: true,
+    num852: 852,
+    key853: "value853",
+    flag854: false,
+    num855: 855,
+    key856: "value856",
+    flag857: true,
+    num858: 858,
+    key859: "value859",
+    flag860: false,
+    num861: 861,
+    key862: "value862",
+    flag863: true,
+    num864: 864,
+    key865: "value865",
+    flag866: false,
+    num867: 867,
+    key868: "value868",
+    flag869: true,
+    num870: 870,
+    key871: "value871",
+    flag872: false,
+    num873: 873,
+    key874: "value874",
+    flag875: true,
+    num876: 876,
+    key877: "value877",
+    flag878: false,
+    num879: 879,
+    key880: "value880",
+    flag881: true,
+    num882: 882,
+    key883: "value883",
+    flag884: false,
+    num885: 885,
+    key886: "value886",
+    flag887: true,
+    num888: 888,
+    key889: "value889",
+    flag890: false,
+    num891: 891,
+    key892: "value892",
+    flag893: true,
+    num894: 894,
+    key895: "value895",
+    flag896: false,
+    num897: 897,
+    key898: "value898",
+    flag899: true,
+    num900: 900,
+    key901: "value901",
+    flag902: false,
+    num903: 903,
+    key904: "value904",
+    flag905: true,
+    num906: 906,
+    key907: "value907",
+    flag908: false,
+    num909: 909,
+    key910: "value910",
+    flag911: true,
+    num912: 912,
+    key913: "value913",
+    flag914: false,
+    num915: 915,
+    key916: "value916",
+    flag917: true,
+    num918: 918,
+    key919: "value919",
+    flag920: false,
+    num921: 921,
+    key922: "value922",
+    flag923: true,
+    num924: 924,
+    key925: "value925",
+    flag926: false,
+    num927: 927,
+    key928: "value928",
+    flag929: true,
+    num930: 930,
+    key931: "value931",
+    flag932: false,
+    num933: 933,
+    key934: "value934",
+    flag935: true,
+    num936: 936,
+    key937: "value937",
+    flag938: false,
+    num939: 939,
+    key940: "value940",
+    flag941: true,
+    num942: 942,
+    key943: "value943",
+    flag944: false,
+    num945: 945,
+    key946: "value946",
+    flag947: true,
+    num948: 948,
+    key949: "value949",
+    flag950: false,
+    num951: 951,
+    key952: "value952",
+    flag953: true,
+    num954: 954,
+    key955: "value955",
+    flag956: false,
+    num957: 957,
+    key958: "value958",
+    flag959: true,
+    num960: 960,
+    key961: "value961",
+    flag962: false,
+    num963: 963,
+    key964: "value964",
+    flag965: true,
+    num966: 966,
+    key967: "value967",
+    flag968: false,
+    num969: 969,
+    key970: "value970",
+    flag971: true,
+    num972: 972,
+    key973: "value973",
+    flag974: false,
+    num975: 975,
+    key976: "value976",
+    flag977: true,
+    num978: 978,
+    key979: "value979",
+    flag980: false,
+    num981: 981,
+    key982: "value982",
+    flag983: true,
+    num984: 984,
+    key985: "value985",
+    flag986: false,
+    num987: 987,
+    key988: "value988",
+    flag989: true,
+    num990: 990,
+    key991: "value991",
+    flag992: false,
+    num993: 993,
+    key994: "value994",
+    flag995: true,
+    num996: 996,
+    key997: "value997",
+    flag998: false,
+    num999: 999,
+    key1000: "value1000",
+    flag1001: true,
+    num1002: 1002,
+    key1003: "value1003",
+    flag1004: false,
+    num1005: 1005,
+    key1006: "value1006",
+    flag1007: true,
+    num1008: 1008,
+    key1009: "value1009",
+    flag1010: false,
+    num1011: 1011,
+    key1012: "value1012",
+    flag1013: true,
+    num1014: 1014,
+    key1015: "value1015",
+    flag1016: false,
+    num1017: 1017,
+    key1018: "value1018",
+    flag1019: true,
+    num1020: 1020,
+    key1021: "value1021",
+    flag1022: false,
+    num1023: 1023,
+    key1024: "value1024",
+    flag1025: true,
+    num1026: 1026,
+    key1027: "value1027",
+    flag1028: false,
+    num1029: 1029,
+    key1030: "value1030",
+    flag1031: true,
+    num1032: 1032,
+    key1033: "value1033",
+    flag1034: false,
+    num1035: 1035,
+    key1036: "value1036",
+    flag1037: true,
+    num1038: 1038,
+    key1039: "value1039",
+    flag1040: false,
+    num1041: 1041,
+    key1042: "value1042",
+    flag1043: true,
+    num1044: 1044,
+    key1045: "value1045",
+    flag1046: false,
+    num1047: 1047,
+    key1048: "value1048",
+    flag1049: true,
+    num1050: 1050,
+    key1051: "value1051",
+    flag1052: false,
+    num1053: 1053,
+    key1054: "value1054",
+    flag1055: true,
+    num1056: 1056,
+    key1057: "value1057",
+    flag1058: false,
+    num1059: 1059,
+    key1060: "value1060",
+    flag1061: true,
+    num1062: 1062,
+    key1063: "value1063",
+    flag1064: false,
+    num1065: 1065,
+    key1066: "value1066",
+    flag1067: true,
+    num1068: 1068,
+    key1069: "value1069",
+    flag1070: false,
+    num1071: 1071,
+    key1072: "value1072",
+    flag1073: true,
+    num1074: 1074,
+    key1075: "value1075",
+    flag1076: false,
+    num1077: 1077,
+    key1078: "value1078",
+    flag1079: true,
+    num1080: 1080,
+    key1081: "value1081",
+    flag1082: false,
+    num1083: 1083,
+    key1084: "value1084",
+    flag1085: true,
+    num1086: 1086,
+    key1087: "value1087",
+    flag1088: false,
+    num1089: 1089,
+    key1090: "value1090",
+    flag1091: true,
+    num1092: 1092,
+    key1093: "value1093",
+    flag1094: false,
+    num1095: 1095,
+    key1096: "value1096",
+    flag1097: true,
+    num1098: 1098,
+    key1099: "value1099",
+    flag1100: false,
+    num1101: 1101,
+    key1102: "value1102",
+    flag1103: true,
+    num1104: 1104,
+    key1105: "value1105",
+    flag1106: false,
+    num1107: 1107,
+    key1108: "value1108",
+    flag1109: true,
+    num1110: 1110,
+    key1111: "value1111",
+    flag1112: false,
+    num1113: 1113,
+    key1114: "value1114",
+    flag1115: true,
+    num1116: 1116,
+    key1117: "value1117",
+    flag1118: false,
+    num1119: 1119,
+    key1120: "value1120",
+    flag1121: true,
+    num1122: 1122,
+    key1123: "value1123",
+    flag1124: false,
+    num1125: 1125,
+    key1126: "value1126",
+    flag1127: true,
+    num1128: 1128,
+    key1129: "value1129",
+    flag1130: false,
+    num1131: 1131,
+    key1132: "value1132",
+    flag1133: true,
+    num1134: 1134,
+    key1135: "value1135",
+    flag1136: false,
+    num1137: 1137,
+    key1138: "value1138",
+    flag1139: true,
+    num1140: 1140,
+    key1141: "value1141",
+    flag1142: false,
+    num1143: 1143,
+    key1144: "value1144",
+    flag1145: true,
+    num1146: 1146,
+    key1147: "value1147",
+    flag1148: false,
+    num1149: 1149,
+    key1150: "value1150",
+    flag1151: true,
+    num1152: 1152,
+    key1153: "value1153",
+    flag1154: false,
+    num1155: 1155,
+    key1156: "value1156",
+    flag1157: true,
+    num1158: 1158,
+    key1159: "value1159",
+    flag1160: false,
+    num1161: 1161,
+    key1162: "value1162",
+    flag1163: true,
+    num1164: 1164,
+    key1165: "value1165",
+    flag1166: false,
+    num1167: 1167,
+    key1168: "value1168",
+    flag1169: true,
+    num1170: 1170,
+    key1171: "value1171",
+    flag1172: false,
+    num1173: 1173,
+    key1174: "value1174",
+    flag1175: true,
+    num1176: 1176,
+    key1177: "value1177",
+    flag1178: false,
+    num1179: 1179,
+    key1180: "value1180",
+    flag1181: true,
+    num1182: 1182,
+    key1183: "value1183",
+    flag1184: false,
+    num1185: 1185,
+    key1186: "value1186",
+    flag1187: true,
+    num1188: 1188,
+    key1189: "value1189",
+    flag1190: false,
+    num1191: 1191,
+    key1192: "value1192",
+    flag1193: true,
+    num1194: 1194,
+    key1195: "value1195",
+    flag1196: false,
+    num1197: 1197,
+    key1198: "value1198",
+    flag1199: true,
+    num1200: 1200,
+    key1201: "value1201",
+    flag1202: false,
+    num1203: 1203,
+    key1204: "value1204",
+    flag1205: true,
+    num1206: 1206,
+    key1207: "value1207",
+    flag1208: false,
+    num1209: 1209,
+    key1210: "value1210",
+    flag1211: true,
+    num1212: 1212,
+    key1213: "value1213",
+    flag1214: false,
+    num1215: 1215,
+    key1216: "value1216",
+    flag1217: true,
+    num1218: 1218,
+    key1219: "value1219",
+    flag1220: false,
+    num1221: 1221,
+    key1222: "value1222",
+    flag1223: true,
+    num1224: 1224,
+    key1225: "value1225",
+    flag1226: false,
+    num1227: 1227,
+    key1228: "value1228",
+    flag1229: true,
+    num1230: 1230,
+    key1231: "value1231",
+    flag1232: false,
+    num1233: 1233,
+    key1234: "value1234",
+    flag1235: true,
+    num1236: 1236,
+    key1237: "value1237",
+    flag1238: false,
+    num1239: 1239,
+    key1240: "value1240",
+    flag1241: true,
+    num1242: 1242,
+    key1243: "value1243",
+    flag1244: false,
+    num1245: 1245,
+    key1246: "value1246",
+    flag1247: true,
+    num1248: 1248,
+    key1249: "value1249",
+    flag1250: false,
+    num1251: 1251,
+    key1252: "value1252",
+    flag1253: true,
+    num1254: 1254,
+    key1255: "value1255",
+    flag1256: false,
+    num1257: 1257,
+    key1258: "value1258",
+    flag1259: true,
+    num1260: 1260,
+    key1261: "value1261",
+    flag1262: false,
+    num1263: 1263,
+    key1264: "value1264",
+    flag1265: true,
+    num1266: 1266,
+    key1267: "value1267",
+    flag1268: false,
+    num1269: 1269,
+    key1270: "value1270",
+    flag1271: true,
+    num1272: 1272,
+    key1273: "value1273",
+    flag1274: false,
+    num1275: 1275,
+    key1276: "value1276",
+    flag1277: true,
+    num1278: 1278,
+    key1279: "value1279",
+    flag1280: false,
+    num1281: 1281,
+    key1282: "value1282",
+    flag1283: true,
+    num1284: 1284,
+    key1285: "value1285",
+    flag1286: false,
+    num1287: 1287,
+    key1288: "value1288",
+    flag1289: true,
+    num1290: 1290,
+    key1291: "value1291",
+    flag1292: false,
+    num1293: 1293,
+    key1294: "value1294",
+    flag1295: true,
+    num1296: 1296,
+    key1297: "value1297",
+    flag1298: false,
+    num1299: 1299,
+    key1300: "value1300",
+    flag1301: true,
+    num1302: 1302,
+    key1303: "value1303",
+    flag1304: false,
+    num1305: 1305,
+    key1306: "value1306",
+    flag1307: true,
+    num1308: 1308,
+    key1309: "value1309",
+    flag1310: false,
+    num1311: 1311,
+    key1312: "value1312",
+    flag1313: true,
+    num1314: 1314,
+    key1315: "value1315",
+    flag1316: false,
+    num1317: 1317,
+    key1318: "value1318",
+    flag1319: true,
+    num1320: 1320,
+    key1321: "value1321",
+    flag1322: false,
+    num1323: 1323,
+    key1324: "value1324",
+    flag1325: true,
+    num1326: 1326,
+    key1327: "value1327",
+    flag1328: false,
+    num1329: 1329,
+    key1330: "value1330",
+    flag1331: true,
+    num1332: 1332,
+    key1333: "value1333",
+    flag1334: false,
+    num1335: 1335,
+    key1336: "value1336",
+    flag1337: true,
+    num1338: 1338,
+    key1339: "value1339",
+    flag1340: false,
+    num1341: 1341,
+    key1342: "value1342",
+    flag1343: true,
+    num1344: 1344,
+    key1345: "value1345",
+    flag1346: false,
+    num1347: 1347,
+    key1348: "value1348",
+    flag1349: true,
+    num1350: 1350,
+    key1351: "value1351",
+    flag1352: false,
+    num1353: 1353,
+    key1354: "value1354",
+    flag1355: true,
+    num1356: 1356,
+    key1357: "value1357",
+    flag1358: false,
+    num1359: 1359,
+    key1360: "value1360",
+    flag1361: true,
+    num1362: 1362,
+    key1363: "value1363",
+    flag1364: false,
+    num1365: 1365,
+    key1366: "value1366",
+    flag1367: true,
+    num1368: 1368,
+    key1369: "value1369",
+    flag1370: false,
+    num1371: 1371,
+    key1372: "value1372",
+    flag1373: true,
+    num1374: 1374,
+    key1375: "value1375",
+    flag1376: false,
+    num1377: 1377,
+    key1378: "value1378",
+    flag1379: true,
+    num1380: 1380,
+    key1381: "value1381",
+    flag1382: false,
+    num1383: 1383,
+    key1384: "value1384",
+    flag1385: true,
+    num1386: 1386,
+    key1387: "value1387",
+    flag1388: false,
+    num1389: 1389,
+    key1390: "value1390",
+    flag1391: true,
+    num1392: 1392,
+    key1393: "value1393",
+    flag1394: false,
+    num1395: 1395,
+    key1396: "value1396",
+    flag1397: true,
+    num1398: 1398,
+    key1399: "value1399",
+    flag1400: false,
+    num1401: 1401,
+    key1402: "value1402",
+    flag1403: true,
+    num1404: 1404,
+    key1405: "value1405",
+    flag1406: false,
+    num1407: 1407,
+    key1408: "value1408",
+    flag1409: true,
+    num1410: 1410,
+    key1411: "value1411",
+    flag1412: false,
+    num1413: 1413,
+    key1414: "value1414",
+    flag1415: true,
+    num1416: 1416,
+    key1417: "value1417",
+    flag1418: false,
+    num1419: 1419,
+    key1420: "value1420",
+    flag1421: true,
+    num1422: 1422,
+    key1423: "value1423",
+    flag1424: false,
+    num1425: 1425,
+    key1426: "value1426",
+    flag1427: true,
+    num1428: 1428,
+    key1429: "value1429",
+    flag1430: false,
+    num1431: 1431,
+    key1432: "value1432",
+    flag1433: true,
+    num1434: 1434,
+    key1435: "value1435",
+    flag1436: false,
+    num1437: 1437,
+    key1438: "value1438",
+    flag1439: true,
+    num1440: 1440,
+    key1441: "value1441",
+    flag1442: false,
+    num1443: 1443,
+    key1444: "value1444",
+    flag1445: true,
+    num1446: 1446,
+    key1447: "value1447",
+    flag1448: false,
+    num1449: 1449,
+    key1450: "value1450",
+    flag1451: true,
+    num1452: 1452,
+    key1453: "value1453",
+    flag1454: false,
+    num1455: 1455,
+    key1456: "value1456",
+    flag1457: true,
+    num1458: 1458,
+    key1459: "value1459",
+    flag1460: false,
+    num1461: 1461,
+    key1462: "value1462",
+    flag1463: true,
+    num1464: 1464,
+    key1465: "value1465",
+    flag1466: false,
+    num1467: 1467,
+    key1468: "value1468",
+    flag1469: true,
+    num1470: 1470,
+    key1471: "value1471",
+    flag1472: false,
+    num1473: 1473,
+    key1474: "value1474",
+    flag1475: true,
+    num1476: 1476,
+    key1477: "value1477",
+    flag1478: false,
+    num1479: 1479,
+    key1480: "value1480",
+    flag1481: true,
+    num1482: 1482,
+    key1483: "value1483",
+    flag1484: false,
+    num1485: 1485,
+    key1486: "value1486",
+    flag1487: true,
+    num1488: 1488,
+    key1489: "value1489",
+    flag1490: false,
+    num1491: 1491,
+    key1492: "value1492",
+    flag1493: true,
+    num1494: 1494,
+    key1495: "value1495",
+    flag1496: false,
+    num1497: 1497,
+    key1498: "value1498",
+    flag1499: true,
+    num1500: 1500,
+    key1501: "value1501",
+    flag1502: false,
+    num1503: 1503,
+    key1504: "value1504",
+    flag1505: true,
+    num1506: 1506,
+    key1507: "value1507",
+    flag1508: false,
+    num1509: 1509,
+    key1510: "value1510",
+    flag1511: true,
+    num1512: 1512,
+    key1513: "value1513",
+    flag1514: false,
+    num1515: 1515,
+    key1516: "value1516",
+    flag1517: true,
+    num1518: 1518,
+    key1519: "value1519",
+    flag1520: false,
+    num1521: 1521,
+    key1522: "value1522",
+    flag1523: true,
+    num1524: 1524,
+    key1525: "value1525",
+    flag1526: false,
+    num1527: 1527,
+    key1528: "value1528",
+    flag1529: true,
+    num1530: 1530,
+    key1531: "value1531",
+    flag1532: false,
+    num1533: 1533,
+    key1534: "value1534",
+    flag1535: true,
+    num1536: 1536,
+    key1537: "value1537",
+    flag1538: false,
+    num1539: 1539,
+    key1540: "value1540",
+    flag1541: true,
+    num1542: 1542,
+    key1543: "value1543",
+    flag1544: false,
+    num1545: 1545,
+    key1546: "value1546",
+    flag1547: true,
+    num1548: 1548,
+    key1549: "value1549",
+    flag1550: false,
+    num1551: 1551,
+    key1552: "value1552",
+    flag1553: true,
+    num1554: 1554,
+    key1555: "value1555",
+    flag1556: false,
+    num1557: 1557,
+    key1558: "value1558",
+    flag1559: true,
+    num1560: 1560,
+    key1561: "value1561",
+    flag1562: false,
+    num1563: 1563,
+    key1564: "value1564",
+    flag1565: true,
+    num1566: 1566,
+    key1567: "value1567",
+    flag1568: false,
+    num1569: 1569,
+    key1570: "value1570",
+    flag1571: true,
+    num1572: 1572,
+    key1573: "value1573",
+    flag1574: false,
+    num1575: 1575,
+    key1576: "value1576",
+    flag1577: true,
+    num1578: 1578,
+    key1579: "value1579",
+    flag1580: false,
+    num1581: 1581,
+    key1582: "value1582",
+    flag1583: true,
+    num1584: 1584,
+    key1585: "value1585",
+    flag1586: false,
+    num1587: 1587,
+    key1588: "value1588",
+    flag1589: true,
+    num1590: 1590,
+    key1591: "value1591",
+    flag1592: false,
+    num1593: 1593,
+    key1594: "value1594",
+    flag1595: true,
+    num1596: 1596,
+    key1597: "value1597",
+    flag1598: false,
+    num1599: 1599,
+    key1600: "value1600",
+    flag1601: true,
+    num1602: 1602,
+    key1603: "value1603",
+    flag1604: false,
+    num1605: 1605,
+    key1606: "value1606",
+    flag1607: true,
+    num1608: 1608,
+    key1609: "value1609",
+    flag1610: false,
+    num1611: 1611,
+    key1612: "value1612",
+    flag1613: true,
+    num1614: 1614,
+    key1615: "value1615",
+    flag1616: false,
+    num1617: 1617,
+    key1618: "value1618",
+    flag1619: true,
+    num1620: 1620,
+    key1621: "value1621",
+    flag1622: false,
+    num1623: 1623,
+    key1624: "value1624",
+    flag1625: true,
+    num1626: 1626,
+    key1627: "value1627",
+    flag1628: false,
+    num1629: 1629,
+    key1630: "value1630",
+    flag1631: true,
+    num1632: 1632,
+    key1633: "value1633",
+    flag1634: false,
+    num1635: 1635,
+    key1636: "value1636",
+    flag1637: true,
+    num1638: 1638,
+    key1639: "value1639",
+    flag1640: false,
+    num1641: 1641,
+    key1642: "value1642",
+    flag1643: true,
+    num1644: 1644,
+    key1645: "value1645",
+    flag1646: false,
+    num1647: 1647,
+    key1648: "value1648",
+    flag1649: true,
+    num1650: 1650,
+    key1651: "value1651",
+    flag1652: false,
+    num1653: 1653,
+    key1654: "value1654",
+    flag1655: true,
+    num1656: 1656,
+    key1657: "value1657",
+    flag1658: false,
+    num1659: 1659,
+    key1660: "value1660",
+    flag1661: true,
+    num1662: 1662,
+    key1663: "value1663",
+    flag1664: false,
+    num1665: 1665,
+    key1666: "value1666",
+    flag1667: true,
+    num1668: 1668,
+    key1669: "value1669",
+    flag1670: false,
+    num1671: 1671,
+    key1672: "value1672",
+    flag1673: true,
+    num1674: 1674,
+    key1675: "value1675",
+    flag1676: false,
+    num1677: 1677,
+    key1678: "value1678",
+    flag1679: true,
+    num1680: 1680,
+    key1681: "value1681",
+    flag1682: false,
+    num1683: 1683,
+    key1684: "value1684",
+    flag1685: true,
+    num1686: 1686,
+    key1687: "value1687",
+    flag1688: false,
+    num1689: 1689,
+    key1690: "value1690",
+    flag1691: true,
+    num1692: 1692,
+    key1693: "value1693",
+    flag1694: false,
+    num1695: 1695,
+    key1696: "value1696",
+    flag1697: true,
+    num1698: 1698,
+    key1699: "value1699",
+    flag1700: false,
+    num1701: 1701,
+    key1702: "value1702",
+    flag1703: true,
+    num1704: 1704,
+    key1705: "value1705",
+    flag1706: false,
+    num1707: 1707,
+    key1708: "value1708",
+    flag1709: true,
+    num1710: 1710,
+    key1711: "value1711",
+    flag1712: false,
+    num1713: 1713,
+    key1714: "value1714",
+    flag1715: true,
+    num1716: 1716,
+    key1717: "value1717",
+    flag1718: false,
+    num1719: 1719,
+    key1720: "value1720",
+    flag1721: true,
+    num1722: 1722,
+    key1723: "value1723",
+    flag1724: false,
+    num1725: 1725,
+    key1726: "value1726",
+    flag1727: true,
+    num1728: 1728,
+    key1729: "value1729",
+    flag1730: false,
+    num1731: 1731,
+    key1732: "value1732",
+    flag1733: true,
+    num1734: 1734,
+    key1735: "value1735",
+    flag1736: false,
+    num1737: 1737,
+    key1738: "value1738",
+    flag1739: true,
+    num1740: 1740,
+    key1741: "value1741",
+    flag1742: false,
+    num1743: 1743,
+    key1744: "value1744",
+    flag1745: true,
+    num1746: 1746,
+    key1747: "value1747",
+    flag1748: false,
+    num1749: 1749,
+    key1750: "value1750",
+    flag1751: true,
+    num1752: 1752,
+    key1753: "value1753",
+    flag1754: false,
+    num1755: 1755,
+    key1756: "value1756",
+    flag1757: true,
+    num1758: 1758,
+    key1759: "value1759",
+    flag1760: false,
+    num1761: 1761,
+    key1762: "value1762",
+    flag1763: true,
+    num1764: 1764,
+    key1765: "value1765",
+    flag1766: false,
+    num1767: 1767,
+    key1768: "value1768",
+    flag1769: true,
+    num1770: 1770,
+    key1771: "value1771",
+    flag1772: false,
+    num1773: 1773,
+    key1774: "value1774",
+    flag1775: true,
+    num1776: 1776,
+    key1777: "value1777",
+    flag1778: false,
+    num1779: 1779,
+    key1780: "value1780",
+    flag1781: true,
+    num1782: 1782,
+    key1783: "value1783",
+    flag1784: false,
+    num1785: 1785,
+    key1786: "value1786",
+    flag1787: true,
+    num1788: 1788,
+    key1789: "value1789",
+    flag1790: false,
+    num1791: 1791,
+    key1792: "value1792",
+    flag1793: true,
+    num1794: 1794,
+    key1795: "value1795",
+    flag1796: false,
+    num1797: 1797,
+    key1798: "value1798",
+    flag1799: true,
+    num1800: 1800,
+    key1801: "value1801",
+    flag1802: false,
+    num1803: 1803,
+    key1804: "value1804",
+    flag1805: true,
+    num1806: 1806,
+    key1807: "value1807",
+    flag1808: false,
+    num1809: 1809,
+    key1810: "value1810",
+    flag1811: true,
+    num1812: 1812,
+    key1813: "value1813",
+    flag1814: false,
+    num1815: 1815,
+    key1816: "value1816",
+    flag1817: true,
+    num1818: 1818,
+    key1819: "value1819",
+    flag1820: false,
+    num1821: 1821,
+    key1822: "value1822",
+    flag1823: true,
+    num1824: 1824,
+    key1825: "value1825",
+    flag1826: false,
+    num1827: 1827,
+    key1828: "value1828",
+    flag1829: true,
+    num1830: 1830,
+    key1831: "value1831",
+    flag1832: false,
+    num1833: 1833,
+    key1834: "value1834",
+    flag1835: true,
+    num1836: 1836,
+    key1837: "value1837",
+    flag1838: false,
+    num1839: 1839,
+    key1840: "value1840",
+    flag1841: true,
+    num1842: 1842,
+    key1843: "value1843",
+    flag1844: false,
+    num1845: 1845,
+    key1846: "value1846",
+    flag1847: true,
+    num1848: 1848,
+    key1849: "value1849",
+    flag1850: false,
+    num1851: 1851,
+    key1852: "value1852",
+    flag1853: true,
+    num1854: 1854,
+    key1855: "value1855",
+    flag1856: false,
+    num1857: 1857,
+    key1858: "value1858",
+    flag1859: true,
+    num1860: 1860,
+    key1861: "value1861",
+    flag1862: false,
+    num1863: 1863,
+    key1864: "value1864",
+    flag1865: true,
+    num1866: 1866,
+    key1867: "value1867",
+    flag1868: false,
+    num1869: 1869,
+    key1870: "value1870",
+    flag1871: true,
+    num1872: 1872,
+    key1873: "value1873",
+    flag1874: false,
+    num1875: 1875,
+    key1876: "value1876",
+    flag1877: true,
+    num1878: 1878,
+    key1879: "value1879",
+    flag1880: false,
+    num1881: 1881,
+    key1882: "value1882",
+    flag1883: true,
+    num1884: 1884,
+    key1885: "value1885",
+    flag1886: false,
+    num1887: 1887,
+    key1888: "value1888",
+    flag1889: true,
+    num1890: 1890,
+    key1891: "value1891",
+    flag1892: false,
+    num1893: 1893,
+    key1894: "value1894",
+    flag1895: true,
+    num1896: 1896,
+    key1897: "value1897",
+    flag1898: false,
+    num1899: 1899,
+    key1900: "value1900",
+    flag1901: true,
+    num1902: 1902,
+    key1903: "value1903",
+    flag1904: false,
+    num1905: 1905,
+    key1906: "value1906",
+    flag1907: true,
+    num1908: 1908,
+    key1909: "value1909",
+    flag1910: false,
+    num1911: 1911,
+    key1912: "value1912",
+    flag1913: true,
+    num1914: 1914,
+    key1915: "value1915",
+    flag1916: false,
+    num1917: 1917,
+    key1918: "value1918",
+    flag1919: true,
+    num1920: 1920,
+    key1921: "value1921",
+    flag1922: false,
+    num1923: 1923,
+    key1924: "value1924",
+    flag1925: true,
+    num1926: 1926,
+    key1927: "value1927",
+    flag1928: false,
+    num1929: 1929,
+    key1930: "value1930",
+    flag1931: true,
+    num1932: 1932,
+    key1933: "value1933",
+    flag1934: false,
+    num1935: 1935,
+    key1936: "value1936",
+    flag1937: true,
+    num1938: 1938,
+    key1939: "value1939",
+    flag1940: false,
+    num1941: 1941,
+    key1942: "value1942",
+    flag1943: true,
+    num1944: 1944,
+    key1945: "value1945",
+    flag1946: false,
+    num1947: 1947,
+    key1948: "value1948",
+    flag1949: true,
+    num1950: 1950,
+    key1951: "value1951",
+    flag1952: false,
+    num1953: 1953,
+    key1954: "value1954",
+    flag1955: true,
+    num1956: 1956,
+    key1957: "value1957",
+    flag1958: false,
+    num1959: 1959,
+    key1960: "value1960",
+    flag1961: true,
+    num1962: 1962,
+    key1963: "value1963",
+    flag1964: false,
+    num1965: 1965,
+    key1966: "value1966",
+    flag1967: true,
+    num1968: 1968,
+    key1969: "value1969",
+    flag1970: false,
+    num1971: 1971,
+    key1972: "value1972",
+    flag1973: true,
+    num1974: 1974,
+    key1975: "value1975",
+    flag1976: false,
+    num1977: 1977,
+    key1978: "value1978",
+    flag1979: true,
+    num1980: 1980,
+    key1981: "value1981",
+    flag1982: false,
+    num1983: 1983,
+    key1984: "value1984",
+    flag1985: true,
+    num1986: 1986,
+    key1987: "value1987",
+    flag1988: false,
+    num1989: 1989,
+    key1990: "value1990",
+    flag1991: true,
+    num1992: 1992,
+    key1993: "value1993",
+    flag1994: false,
+    num1995: 1995,
+    key1996: "value1996",
+    flag1997: true,
+    num1998: 1998,
+    key1999: "value1999",
+    flag2000: false,
+    num2001: 2001,
+    key2002: "value2002",
+    flag2003: true,
+    num2004: 2004,
+    key2005: "value2005",
+    flag2006: false,
+    num2007: 2007,
+    key2008: "value2008",
+    flag2009: true,
+    num2010: 2010,
+    key2011: "value2011",
+    flag2012: false,
+    num2013: 2013,
+    key2014: "value2014",
+    flag2015: true,
+    num2016: 2016,
+    key2017: "value2017",
+    flag2018: false,
+    num2019: 2019,
+    key2020: "value2020",
+    flag2021: true,
+    num2022: 2022,
+    key2023: "value2023",
+    flag2024: false,
+    num2025: 2025,
+    key2026: "value2026",
+    flag2027: true,
+    num2028: 2028,
+    key2029: "value2029",
+    flag2030: false,
+    num2031: 2031,
+    key2032: "value2032",
+    flag2033: true,
+    num2034: 2034,
+    key2035: "value2035",
+    flag2036: false,
+    num2037: 2037,
+    key2038: "value2038",
+    flag2039: true,
+    num2040: 2040,
+    key2041: "value2041",
+    flag2042: false,
+    num2043: 2043,
+    key2044: "value2044",
+    flag2045: true,
+    num2046: 2046,
+    key2047: "value2047",
+    flag2048: false,
+    num2049: 2049,
+    key2050: "value2050",
+    flag2051: true,
+    num2052: 2052,
+    key2053: "value2053",
+    flag2054: false,
+    num2055: 2055,
+    key2056: "value2056",
+    flag2057: true,
+    num2058: 2058,
+    key2059: "value2059",
+    flag2060: false,
+    num2061: 2061,
+    key2062: "value2062",
+    flag2063: true,
+    num2064: 2064,
+    key2065: "value2065",
+    flag2066: false,
+    num2067: 2067,
+    key2068: "value2068",
+    flag2069: true,
+    num2070: 2070,
+    key2071: "value2071",
+    flag2072: false,
+    num2073: 2073,
+    key2074: "value2074",
+    flag2075: true,
+    num2076: 2076,
+    key2077: "value2077",
+    flag2078: false,
+    num2079: 2079,
+    key2080: "value2080",
+    flag2081: true,
+    num2082: 2082,
+    key2083: "value2083",
+    flag2084: false,
+    num2085: 2085,
+    key2086: "value2086",
+    flag2087: true,
+    num2088: 2088,
+    key2089: "value2089",
+    flag2090: false,
+    num2091: 2091,
+    key2092: "value2092",
+    flag2093: true,
+    num2094: 2094,
+    key2095: "value2095",
+    flag2096: false,
+    num2097: 2097,
+    key2098: "value2098",
+    flag2099: true,
+    num2100: 2100,
+    key2101: "value2101",
+    flag2102: false,
+    num2103: 2103,
+    key2104: "value2104",
+    flag2105: true,
+    num2106: 2106,
+    key2107: "value2107",
+    flag2108: false,
+    num2109: 2109,
+    key2110: "value2110",
+    flag2111: true,
+    num2112: 2112,
+    key2113: "value2113",
+    flag2114: false,
+    num2115: 2115,
+    key2116: "value2116",
+    flag2117: true,
+    num2118: 2118,
+    key2119: "value2119",
+    flag2120: false,
+    num2121: 2121,
+    key2122: "value2122",
+    flag2123: true,
+    num2124: 2124,
+    key2125: "value2125",
+    flag2126: false,
+    num2127: 2127,
+    key2128: "value2128",
+    flag2129: true,
+    num2130: 2130,
+    key2131: "value2131",
+    flag2132: false,
+    num2133: 2133,
+    key2134: "value2134",
+    flag2135: true,
+    num2136: 2136,
+    key2137: "value2137",
+    flag2138: false,
+    num2139: 2139,
+    key2140: "value2140",
+    flag2141: true,
+    num2142: 2142,
+    key2143: "value2143",
+    flag2144: false,
+    num2145: 2145,
+    key2146: "value2146",
+    flag2147: true,
+    num2148: 2148,
+    key2149: "value2149",
+    flag2150: false,
+    num2151: 2151,
+    key2152: "value2152",
+    flag2153: true,
+    num2154: 2154,
+    key2155: "value2155",
+    flag2156: false,
+    num2157: 2157,
+    key2158: "value2158",
+    flag2159: true,
+    num2160: 2160,
+    key2161: "value2161",
+    flag2162: false,
+    num2163: 2163,
+    key2164: "value2164",
+    flag2165: true,
+    num2166: 2166,
+    key2167: "value2167",
+    flag2168: false,
+    num2169: 2169,
+    key2170: "value2170",
+    flag2171: true,
+    num2172: 2172,
+    key2173: "value2173",
+    flag2174: false,
+    num2175: 2175,
+    key2176: "value2176",
+    flag2177: true,
+    num2178: 2178,
+    key2179: "value2179",
+    flag2180: false,
+    num2181: 2181,
+    key2182: "value2182",
+    flag2183: true,
+    num2184: 2184,
+    key2185: "value2185",
+    flag2186: false,
+    num2187: 2187,
+    key2188: "value2188",
+    flag2189: true,
+    num2190: 2190,
+    key2191: "value2191",
+    flag2192: false,
+    num2193: 2193,
+    key2194: "value2194",
+    flag2195: true,
+    num2196: 2196,
+    key2197: "value2197",
+    flag2198: false,
+    num2199: 2199,
+    key2200: "value2200",
+    flag2201: true,
+    num2202: 2202,
+    key2203: "value2203",
+    flag2204: false,
+    num2205: 2205,
+    key2206: "value2206",
+    flag2207: true,
+    num2208: 2208,
+    key2209: "value2209",
+    flag2210: false,
+    num2211: 2211,
+    key2212: "value2212",
+    flag2213: true,
+    num2214: 2214,
+    key2215: "value2215",
+    flag2216: false,
+    num2217: 2217,
+    key2218: "value2218",
+    flag2219: true,
+    num2220: 2220,
+    key2221: "value2221",
+    flag2222: false,
+    num2223: 2223,
+    key2224: "value2224",
+    flag2225: true,
+    num2226: 2226,
+    key2227: "value2227",
+    flag2228: false,
+    num2229: 2229,
+    key2230: "value2230",
+    flag2231: true,
+    num2232: 2232,
+    key2233: "value2233",
+    flag2234: false,
+    num2235: 2235,
+    key2236: "value2236",
+    flag2237: true,
+    num2238: 2238,
+    key2239: "value2239",
+    flag2240: false,
+    num2241: 2241,
+    key2242: "value2242",
+    flag2243: true,
+    num2244: 2244,
+    key2245: "value2245",
+    flag2246: false,
+    num2247: 2247,
+    key2248: "value2248",
+    flag2249: true,
+    num2250: 2250,
+    key2251: "value2251",
+    flag2252: false,
+    num2253: 2253,
+    key2254: "value2254",
+    flag2255: true,
+    num2256: 2256,
+    key2257: "value2257",
+    flag2258: false,
+    num2259: 2259,
+    key2260: "value2260",
+    flag2261: true,
+    num2262: 2262,
+    key2263: "value2263",
+    flag2264: false,
+    num2265: 2265,
+    key2266: "value2266",
+    flag2267: true,
+    num2268: 2268,
+    key2269: "value2269",
+    flag2270: false,
+    num2271: 2271,
+    key2272: "value2272",
+    flag2273: true,
+    num2274: 2274,
+    key2275: "value2275",
+    flag2276: false,
+    num2277: 2277,
+    key2278: "value2278",
+    flag2279: true,
+    num2280: 2280,
+    key2281: "value2281",
+    flag2282: false,
+    num2283: 2283,
+    key2284: "value2284",
+    flag2285: true,
+    num2286: 2286,
+    key2287: "value2287",
+    flag2288: false,
+    num2289: 2289,
+    key2290: "value2290",
+    flag2291: true,
+    num2292: 2292,
+    key2293: "value2293",
+    flag2294: false,
+    num2295: 2295,
+    key2296: "value2296",
+    flag2297: true,
+    num2298: 2298,
+    key2299: "value2299",
+    flag2300: false,
+    num2301: 2301,
+    key2302: "value2302",
+    flag2303: true,
+    num2304: 2304,
+    key2305: "value2305",
+    flag2306: false,
+    num2307: 2307,
+    key2308: "value2308",
+    flag2309: true,
+    num2310: 2310,
+    key2311: "value2311",
+    flag2312: false,
+    num2313: 2313,
+    key2314: "value2314",
+    flag2315: true,
+    num2316: 2316,
+    key2317: "value2317",
+    flag2318: false,
+    num2319: 2319,
+    key2320: "value2320",
+    flag2321: true,
+    num2322: 2322,
+    key2323: "value2323",
+    flag2324: false,
+    num2325: 2325,
+    key2326: "value2326",
+    flag2327: true,
+    num2328: 2328,
+    key2329: "value2329",
+    flag2330: false,
+    num2331: 2331,
+    key2332: "value2332",
+    flag2333: true,
+    num2334: 2334,
+    key2335: "value2335",
+    flag2336: false,
+    num2337: 2337,
+    key2338: "value2338",
+    flag2339: true,
+    num2340: 2340,
+    key2341: "value2341",
+    flag2342: false,
+    num2343: 2343,
+    key2344: "value2344",
+    flag2345: true,
+    num2346: 2346,
+    key2347: "value2347",
+    flag2348: false,
+    num2349: 2349,
+    key2350: "value2350",
+    flag2351: true,
+    num2352: 2352,
+    key2353: "value2353",
+    flag2354: false,
+    num2355: 2355,
+    key2356: "value2356",
+    flag2357: true,
+    num2358: 2358,
+    key2359: "value2359",
+    flag2360: false,
+    num2361: 2361,
+    key2362: "value2362",
+    flag2363: true,
+    num2364: 2364,
+    key2365: "value2365",
+    flag2366: false,
+    num2367: 2367,
+    key2368: "value2368",
+    flag2369: true,
+    num2370: 2370,
+    key2371: "value2371",
+    flag2372: false,
+    num2373: 2373,
+    key2374: "value2374",
+    flag2375: true,
+    num2376: 2376,
+    key2377: "value2377",
+    flag2378: false,
+    num2379: 2379,
+    key2380: "value2380",
+    flag2381: true,
+    num2382: 2382,
+    key2383: "value2383",
+    flag2384: false,
+    num2385: 2385,
+    key2386: "value2386",
+    flag2387: true,
+    num2388: 2388,
+    key2389: "value2389",
+    flag2390: false,
+    num2391: 2391,
+    key2392: "value2392",
+    flag2393: true,
+    num2394: 2394,
+    key2395: "value2395",
+    flag2396: false,
+    num2397: 2397,
+    key2398: "value2398",
+    flag2399: true,
+    num2400: 2400,
+    key2401: "value2401",
+    flag2402: false,
+    num2403: 2403,
+    key2404: "value2404",
+    flag2405: true,
+    num2406: 2406,
+    key2407: "value2407",
+    flag2408: false,
+    num2409: 2409,
+    key2410: "value2410",
+    flag2411: true,
+    num2412: 2412,
+    key2413: "value2413",
+    flag2414: false,
+    num2415: 2415,
+    key2416: "value2416",
+    flag2417: true,
+    num2418: 2418,
+    key2419: "value2419",
+    flag2420: false,
+    num2421: 2421,
+    key2422: "value2422",
+    flag2423: true,
+    num2424: 2424,
+    key2425: "value2425",
+    flag2426: false,
+    num2427: 2427,
+    key2428: "value2428",
+    flag2429: true,
+    num2430: 2430,
+    key2431: "value2431",
+    flag2432: false,
+    num2433: 2433,
+    key2434: "value2434",
+    flag2435: true,
+    num2436: 2436,
+    key2437: "value2437",
+    flag2438: false,
+    num2439: 2439,
+    key2440: "value2440",
+    flag2441: true,
+    num2442: 2442,
+    key2443: "value2443",
+    flag2444: false,
+    num2445: 2445,
+    key2446: "value2446",
+    flag2447: true,
+    num2448: 2448,
+    key2449: "value2449",
+    flag2450: false,
+    num2451: 2451,
+    key2452: "value2452",
+    flag2453: true,
+    num2454: 2454,
+    key2455: "value2455",
+    flag2456: false,
+    num2457: 2457,
+    key2458: "value2458",
+    flag2459: true,
+    num2460: 2460,
+    key2461: "value2461",
+    flag2462: false,
+    num2463: 2463,
+    key2464: "value2464",
+    flag2465: true,
+    num2466: 2466,
+    key2467: "value2467",
+    flag2468: false,
+    num2469: 2469,
+    key2470: "value2470",
+    flag2471: true,
+    num2472: 2472,
+    key2473: "value2473",
+    flag2474: false,
+    num2475: 2475,
+    key2476: "value2476",
+    flag2477: true,
+    num2478: 2478,
+    key2479: "value2479",
+    flag2480: false,
+    num2481: 2481,
+    key2482: "value2482",
+    flag2483: true,
+    num2484: 2484,
+    key2485: "value2485",
+    flag2486: false,
+    num2487: 2487,
+    key2488: "value2488",
+    flag2489: true,
+    num2490: 2490,
+    key2491: "value2491",
+    flag2492: false,
+    num2493: 2493,
+    key2494: "value2494",
+    flag2495: true,
+    num2496: 2496,
+    key2497: "value2497",
+    flag2498: false,
+    num2499: 2499,
+    key2500: "value2500",
+    flag2501: true,
+    num2502: 2502,
+    key2503: "value2503",
+    flag2504: false,
+    num2505: 2505,
+    key2506: "value2506",
+    flag2507: true,
+    num2508: 2508,
+    key2509: "value2509",
+    flag2510: false,
+    num2511: 2511,
+    key2512: "value2512",
+    flag2513: true,
+    num2514: 2514,
+    key2515: "value2515",
+    flag2516: false,
+    num2517: 2517,
+    key2518: "value2518",
+    flag2519: true,
+    num2520: 2520,
+    key2521: "value2521",
+    flag2522: false,
+    num2523: 2523,
+    key2524: "value2524",
+    flag2525: true,
+    num2526: 2526,
+    key2527: "value2527",
+    flag2528: false,
+    num2529: 2529,
+    key2530: "value2530",
+    flag2531: true,
+    num2532: 2532,
+    key2533: "value2533",
+    flag2534: false,
+    num2535: 2535,
+    key2536: "value2536",
+    flag2537: true,
+    num2538: 2538,
+    key2539: "value2539",
+    flag2540: false,
+    num2541: 2541,
+    key2542: "value2542",
+    flag2543: true,
+    num2544: 2544,
+    key2545: "value2545",
+    flag2546: false,
+    num2547: 2547,
+    key2548: "value2548",
+    flag2549: true,
+    num2550: 2550,
+    key2551: "value2551",
+    flag2552: false,
+    num2553: 2553,
+    key2554: "value2554",
+    flag2555: true,
+    num2556: 2556,
+    key2557: "value2557",
+    flag2558: false,
+    num2559: 2559,
+    key2560: "value2560",
+    flag2561: true,
+    num2562: 2562,
+    key2563: "value2563",
+    flag2564: false,
+    num2565: 2565,
+    key2566: "value2566",
+    flag2567: true,
+    num2568: 2568,
+    key2569: "value2569",
+    flag2570: false,
+    num2571: 2571,
+    key2572: "value2572",
+    flag2573: true,
+    num2574: 2574,
+    key2575: "value2575",
+    flag2576: false,
+    num2577: 2577,
+    key2578: "value2578",
+    flag2579: true,
+    num2580: 2580,
+    key2581: "value2581",
+    flag2582: false,
+    num2583: 2583,
+    key2584: "value2584",
+    flag2585: true,
+    num2586: 2586,
+    key2587: "value2587",
+    flag2588: false,
+    num2589: 2589,
+    key2590: "value2590",
+    flag2591: true,
+    num2592: 2592,
+    key2593: "value2593",
+    flag2594: false,
+    num2595: 2595,
+    key2596: "value2596",
+    flag2597: true,
+    num2598: 2598,
+    key2599: "value2599",
+    flag2600: false,
+    num2601: 2601,
+    key2602: "value2602",
+    flag2603: true,
+    num2604: 2604,
+    key2605: "value2605",
+    flag2606: false,
+    num2607: 2607,
+    key2608: "value2608",
+    flag2609: true,
+    num2610: 2610,
+    key2611: "value2611",
+    flag2612: false,
+    num2613: 2613,
+    key2614: "value2614",
+    flag2615: true,
+    num2616: 2616,
+    key2617: "value2617",
+    flag2618: false,
+    num2619: 2619,
+    key2620: "value2620",
+    flag2621: true,
+    num2622: 2622,
+    key2623: "value2623",
+    flag2624: false,
+    num2625: 2625,
+    key2626: "value2626",
+    flag2627: true,
+    num2628: 2628,
+    key2629: "value2629",
+    flag2630: false,
+    num2631: 2631,
+    key2632: "value2632",
+    flag2633: true,
+    num2634: 2634,
+    key2635: "value2635",
+    flag2636: false,
+    num2637: 2637,
+    key2638: "value2638",
+    flag2639: true,
+    num2640: 2640,
+    key2641: "value2641",
+    flag2642: false,
+    num2643: 2643,
+    key2644: "value2644",
+    flag2645: true,
+    num2646: 2646,
+    key2647: "value2647",
+    flag2648: false,
+    num2649: 2649,
+    key2650: "value2650",
+    flag2651: true,
+    num2652: 2652,
+    key2653: "value2653",
+    flag2654: false,
+    num2655: 2655,
+    key2656: "value2656",
+    flag2657: true,
+    num2658: 2658,
+    key2659: "value2659",
+    flag2660: false,
+    num2661: 2661,
+    key2662: "value2662",
+    flag2663: true,
+    num2664: 2664,
+    key2665: "value2665",
+    flag2666: false,
+    num2667: 2667,
+    key2668: "value2668",
+    flag2669: true,
+    num2670: 2670,
+    key2671: "value2671",
+    flag2672: false,
+    num2673: 2673,
+    key2674: "value2674",
+    flag2675: true,
+    num2676: 2676,
+    key2677: "value2677",
+    flag2678: false,
+    num2679: 2679,
+    key2680: "value2680",
+    flag2681: true,
+    num2682: 2682,
+    key2683: "value2683",
+    flag2684: false,
+    num2685: 2685,
+    key2686: "value2686",
+    flag2687: true,
+    num2688: 2688,
+    key2689: "value2689",
+    flag2690: false,
+    num2691: 2691,
+    key2692: "value2692",
+    flag2693: true,
+    num2694: 2694,
+    key2695: "value2695",
+    flag2696: false,
+    num2697: 2697,
+    key2698: "value2698",
+    flag2699: true,
+    num2700: 2700,
+    key2701: "value2701",
+    flag2702: false,
+    num2703: 2703,
+    key2704: "value2704",
+    flag2705: true,
+    num2706: 2706,
+    key2707: "value2707",
+    flag2708: false,
+    num2709: 2709,
+    key2710: "value2710",
+    flag2711: true,
+    num2712: 2712,
+    key2713: "value2713",
+    flag2714: false,
+    num2715: 2715,
+    key2716: "value2716",
+    flag2717: true,
+    num2718: 2718,
+    key2719: "value2719",
+    flag2720: false,
+    num2721: 2721,
+    key2722: "value2722",
+    flag2723: true,
+    num2724: 2724,
+    key2725: "value2725",
+    flag2726: false,
+    num2727: 2727,
+    key2728: "value2728",
+    flag2729: true,
+    num2730: 2730,
+    key2731: "value2731",
+    flag2732: false,
+    num2733: 2733,
+    key2734: "value2734",
+    flag2735: true,
+    num2736: 2736,
+    key2737: "value2737",
+    flag2738: false,
+    num2739: 2739,
+    key2740: "value2740",
+    flag2741: true,
+    num2742: 2742,
+    key2743: "value2743",
+    flag2744: false,
+    num2745: 2745,
+    key2746: "value2746",
+    flag2747: true,
+    num2748: 2748,
+    key2749: "value2749",
+    flag2750: false,
+    num2751: 2751,
+    key2752: "value2752",
+    flag2753: true,
+    num2754: 2754,
+    key2755: "value2755",
+    flag2756: false,
+    num2757: 2757,
+    key2758: "value2758",
+    flag2759: true,
+    num2760: 2760,
+    key2761: "value2761",
+    flag2762: false,
+    num2763: 2763,
+    key2764: "value2764",
+    flag2765: true,
+    num2766: 2766,
+    key2767: "value2767",
+    flag2768: false,
+    num2769: 2769,
+    key2770: "value2770",
+    flag2771: true,
+    num2772: 2772,
+    key2773: "value2773",
+    flag2774: false,
+    num2775: 2775,
+    key2776: "value2776",
+    flag2777: true,
+    num2778: 2778,
+    key2779: "value2779",
+    flag2780: false,
+    num2781: 2781,
+    key2782: "value2782",
+    flag2783: true,
+    num2784: 2784,
+    key2785: "value2785",
+    flag2786: false,
+    num2787: 2787,
+    key2788: "value2788",
+    flag2789: true,
+    num2790: 2790,
+    key2791: "value2791",
+    flag2792: false,
+    num2793: 2793,
+    key2794: "value2794",
+    flag2795: true,
+    num2796: 2796,
+    key2797: "value2797",
+    flag2798: false,
+    num2799: 2799,
+    key2800: "value2800",
+    flag2801: true,
+    num2802: 2802,
+    key2803: "value2803",
+    flag2804: false,
+    num2805: 2805,
+    key2806: "value2806",
+    flag2807: true,
+    num2808: 2808,
+    key2809: "value2809",
+    flag2810: false,
+    num2811: 2811,
+    key2812: "value2812",
+    flag2813: true,
+    num2814: 2814,
+    key2815: "value2815",
+    flag2816: false,
+    num2817: 2817,
+    key2818: "value2818",
+    flag2819: true,
+    num2820: 2820,
+    key2821: "value2821",
+    flag2822: false,
+    num2823: 2823,
+    key2824: "value2824",
+    flag2825: true,
+    num2826: 2826,
+    key2827: "value2827",
+    flag2828: false,
+    num2829: 2829,
+    key2830: "value2830",
+    flag2831: true,
+    num2832: 2832,
+    key2833: "value2833",
+    flag2834: false,
+    num2835: 2835,
+    key2836: "value2836",
+    flag2837: true,
+    num2838: 2838,
+    key2839: "value2839",
+    flag2840: false,
+    num2841: 2841,
+    key2842: "value2842",
+    flag2843: true,
+    num2844: 2844,
+    key2845: "value2845",
+    flag2846: false,
+    num2847: 2847,
+    key2848: "value2848",
+    flag2849: true,
+    num2850: 2850,
+    key2851: "value2851",
+    flag2852: false,
+    num2853: 2853,
+    key2854: "value2854",
+    flag2855: true,
+    num2856: 2856,
+    key2857: "value2857",
+    flag2858: false,
+    num2859: 2859,
+    key2860: "value2860",
+    flag2861: true,
+    num2862: 2862,
+    key2863: "value2863",
+    flag2864: false,
+    num2865: 2865,
+    key2866: "value2866",
+    flag2867: true,
+    num2868: 2868,
+    key2869: "value2869",
+    flag2870: false,
+    num2871: 2871,
+    key2872: "value2872",
+    flag2873: true,
+    num2874: 2874,
+    key2875: "value2875",
+    flag2876: false,
+    num2877: 2877,
+    key2878: "value2878",
+    flag2879: true,
+    num2880: 2880,
+    key2881: "value2881",
+    flag2882: false,
+    num2883: 2883,
+    key2884: "value2884",
+    flag2885: true,
+    num2886: 2886,
+    key2887: "value2887",
+    flag2888: false,
+    num2889: 2889,
+    key2890: "value2890",
+    flag2891: true,
+    num2892: 2892,
+    key2893: "value2893",
+    flag2894: false,
+    num2895: 2895,
+    key2896: "value2896",
+    flag2897: true,
+    num2898: 2898,
+    key2899: "value2899",
+    flag2900: false,
+    num2901: 2901,
+    key2902: "value2902",
+    flag2903: true,
+    num2904: 2904,
+    key2905: "value2905",
+    flag2906: false,
+    num2907: 2907,
+    key2908: "value2908",
+    flag2909: true,
+    num2910: 2910,
+    key2911: "value2911",
+    flag2912: false,
+    num2913: 2913,
+    key2914: "value2914",
+    flag2915: true,
+    num2916: 2916,
+    key2917: "value2917",
+    flag2918: false,
+    num2919: 2919,
+    key2920: "value2920",
+    flag2921: true,
+    num2922: 2922,
+    key2923: "value2923",
+    flag2924: false,
+    num2925: 2925,
+    key2926: "value2926",
+    flag2927: true,
+    num2928: 2928,
+    key2929: "value2929",
+    flag2930: false,
+    num2931: 2931,
+    key2932: "value2932",
+    flag2933: true,
+    num2934: 2934,
+    key2935: "value2935",
+    flag2936: false,
+    num2937: 2937,
+    key2938: "value2938",
+    flag2939: true,
+    num2940: 2940,
+    key2941: "value2941",
+    flag2942: false,
+    num2943: 2943,
+    key2944: "value2944",
+    flag2945: true,
+    num2946: 2946,
+    key2947: "value2947",
+    flag2948: false,
+    num2949: 2949,
+    key2950: "value2950",
+    flag2951: true,
+    num2952: 2952,
+    key2953: "value2953",
+    flag2954: false,
+    num2955: 2955,
+    key2956: "value2956",
+    flag2957: true,
+    num2958: 2958,
+    key2959: "value2959",
+    flag2960: false,
+    num2961: 2961,
+    key2962: "value2962",
+    flag2963: true,
+    num2964: 2964,
+    key2965: "value2965",
+    flag2966: false,
+    num2967: 2967,
+    key2968: "value2968",
+    flag2969: true,
+    num2970: 2970,
+    key2971: "value2971",
+    flag2972: false,
+    num2973: 2973,
+    key2974: "value2974",
+    flag2975: true,
+    num2976: 2976,
+    key2977: "value2977",
+    flag2978: false,
+    num2979: 2979,
+    key2980: "value2980",
+    flag2981: true,
+    num2982: 2982,
+    key2983: "value2983",
+    flag2984: false,
+    num2985: 2985,
+    key2986: "value2986",
+    flag2987: true,
+    num2988: 2988,
+    key2989: "value2989",
+    flag2990: false,
+    num2991: 2991,
+    key2992: "value2992",
+    flag2993: true,
+    num2994: 2994,
+    key2995: "value2995",
+    flag2996: false,
+    num2997: 2997,
+    key2998: "value2998",
+    flag2999: true,
+    nested: { a: 1, b: [1, 2, 3], c: { d: "e" } }
+};
+console.log(config.num0);
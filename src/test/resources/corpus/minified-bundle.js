@@ -0,0 +1,2 @@
+function f0(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+0}if(r>0){r=r-0}else{r=r+1}return r}var v0=f0(0,0);console.log("m0"+v0);function f1(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+1}if(r>3){r=r-1}else{r=r+1}return r}var v1=f1(1,1);function f2(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+2}if(r>6){r=r-2}else{r=r+1}return r}var v2=f2(2,2);function f3(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+3}if(r>9){r=r-3}else{r=r+1}return r}var v3=f3(3,3);function f4(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+4}if(r>12){r=r-4}else{r=r+1}return r}var v4=f4(4,4);console.log("m4"+v4);function f5(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+5}if(r>15){r=r-5}else{r=r+1}return r}var v5=f5(5,0);function f6(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+6}if(r>18){r=r-6}else{r=r+1}return r}var v6=f6(6,1);function f7(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+7}if(r>21){r=r-7}else{r=r+1}return r}var v7=f7(0,2);function f8(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+8}if(r>24){r=r-8}else{r=r+1}return r}var v8=f8(1,3);console.log("m8"+v8);function f9(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+9}if(r>27){r=r-9}else{r=r+1}return r}var v9=f9(2,4);function f10(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+10}if(r>30){r=r-10}else{r=r+1}return r}var v10=f10(3,0);function f11(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+11}if(r>33){r=r-11}else{r=r+1}return r}var v11=f11(4,1);function f12(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+12}if(r>36){r=r-12}else{r=r+1}return r}var v12=f12(5,2);console.log("m12"+v12);function f13(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+13}if(r>39){r=r-13}else{r=r+1}return r}var v13=f13(6,3);function f14(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+14}if(r>42){r=r-14}else{r=r+1}return r}var v14=f14(0,4);function f15(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+15}if(r>45){r=r-15}else{r=r+1}return r}var v15=f15(1,0);function f16(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+16}if(r>48){r=r-16}else{r=r+1}return r}var v16=f16(2,1);console.log("m16"+v16);function f17(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+17}if(r>51){r=r-17}else{r=r+1}return r}var v17=f17(3,2);function f18(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+18}if(r>54){r=r-18}else{r=r+1}return r}var v18=f18(4,3);function f19(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+19}if(r>57){r=r-19}else{r=r+1}return r}var v19=f19(5,4);function f20(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+20}if(r>60){r=r-20}else{r=r+1}return r}var v20=f20(6,0);console.log("m20"+v20);function f21(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+21}if(r>63){r=r-21}else{r=r+1}return r}var v21=f21(0,1);function f22(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+22}if(r>66){r=r-22}else{r=r+1}return r}var v22=f22(1,2);function f23(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+23}if(r>69){r=r-23}else{r=r+1}return r}var v23=f23(2,3);function f24(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+24}if(r>72){r=r-24}else{r=r+1}return r}var v24=f24(3,4);console.log("m24"+v24);function f25(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+25}if(r>75){r=r-25}else{r=r+1}return r}var v25=f25(4,0);function f26(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+26}if(r>78){r=r-26}else{r=r+1}return r}var v26=f26(5,1);function f27(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+27}if(r>81){r=r-27}else{r=r+1}return r}var v27=f27(6,2);function f28(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+28}if(r>84){r=r-28}else{r=r+1}return r}var v28=f28(0,3);console.log("m28"+v28);function f29(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+29}if(r>87){r=r-29}else{r=r+1}return r}var v29=f29(1,4);function f30(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+30}if(r>90){r=r-30}else{r=r+1}return r}var v30=f30(2,0);function f31(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+31}if(r>93){r=r-31}else{r=r+1}return r}var v31=f31(3,1);function f32(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+32}if(r>96){r=r-32}else{r=r+1}return r}var v32=f32(4,2);console.log("m32"+v32);function f33(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+33}if(r>99){r=r-33}else{r=r+1}return r}var v33=f33(5,3);function f34(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+34}if(r>102){r=r-34}else{r=r+1}return r}var v34=f34(6,4);function f35(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+35}if(r>105){r=r-35}else{r=r+1}return r}var v35=f35(0,0);function f36(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+36}if(r>108){r=r-36}else{r=r+1}return r}var v36=f36(1,1);console.log("m36"+v36);function f37(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+37}if(r>111){r=r-37}else{r=r+1}return r}var v37=f37(2,2);function f38(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+38}if(r>114){r=r-38}else{r=r+1}return r}var v38=f38(3,3);function f39(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+39}if(r>117){r=r-39}else{r=r+1}return r}var v39=f39(4,4);function f40(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+40}if(r>120){r=r-40}else{r=r+1}return r}var v40=f40(5,0);console.log("m40"+v40);function f41(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+41}if(r>123){r=r-41}else{r=r+1}return r}var v41=f41(6,1);function f42(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+42}if(r>126){r=r-42}else{r=r+1}return r}var v42=f42(0,2);function f43(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+43}if(r>129){r=r-43}else{r=r+1}return r}var v43=f43(1,3);function f44(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+44}if(r>132){r=r-44}else{r=r+1}return r}var v44=f44(2,4);console.log("m44"+v44);function f45(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+45}if(r>135){r=r-45}else{r=r+1}return r}var v45=f45(3,0);function f46(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+46}if(r>138){r=r-46}else{r=r+1}return r}var v46=f46(4,1);function f47(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+47}if(r>141){r=r-47}else{r=r+1}return r}var v47=f47(5,2);function f48(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+48}if(r>144){r=r-48}else{r=r+1}return r}var v48=f48(6,3);console.log("m48"+v48);function f49(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+49}if(r>147){r=r-49}else{r=r+1}return r}var v49=f49(0,4);function f50(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+50}if(r>150){r=r-50}else{r=r+1}return r}var v50=f50(1,0);function f51(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+51}if(r>153){r=r-51}else{r=r+1}return r}var v51=f51(2,1);function f52(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+52}if(r>156){r=r-52}else{r=r+1}return r}var v52=f52(3,2);console.log("m52"+v52);function f53(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+53}if(r>159){r=r-53}else{r=r+1}return r}var v53=f53(4,3);function f54(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+54}if(r>162){r=r-54}else{r=r+1}return r}var v54=f54(5,4);function f55(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+55}if(r>165){r=r-55}else{r=r+1}return r}var v55=f55(6,0);function f56(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+56}if(r>168){r=r-56}else{r=r+1}return r}var v56=f56(0,1);console.log("m56"+v56);function f57(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+57}if(r>171){r=r-57}else{r=r+1}return r}var v57=f57(1,2);function f58(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+58}if(r>174){r=r-58}else{r=r+1}return r}var v58=f58(2,3);function f59(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+59}if(r>177){r=r-59}else{r=r+1}return r}var v59=f59(3,4);function f60(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+60}if(r>180){r=r-60}else{r=r+1}return r}var v60=f60(4,0);console.log("m60"+v60);function f61(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+61}if(r>183){r=r-61}else{r=r+1}return r}var v61=f61(5,1);function f62(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+62}if(r>186){r=r-62}else{r=r+1}return r}var v62=f62(6,2);function f63(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+63}if(r>189){r=r-63}else{r=r+1}return r}var v63=f63(0,3);function f64(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+64}if(r>192){r=r-64}else{r=r+1}return r}var v64=f64(1,4);console.log("m64"+v64);function f65(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+65}if(r>195){r=r-65}else{r=r+1}return r}var v65=f65(2,0);function f66(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+66}if(r>198){r=r-66}else{r=r+1}return r}var v66=f66(3,1);function f67(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+67}if(r>201){r=r-67}else{r=r+1}return r}var v67=f67(4,2);function f68(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+68}if(r>204){r=r-68}else{r=r+1}return r}var v68=f68(5,3);console.log("m68"+v68);function f69(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+69}if(r>207){r=r-69}else{r=r+1}return r}var v69=f69(6,4);function f70(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+70}if(r>210){r=r-70}else{r=r+1}return r}var v70=f70(0,0);function f71(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+71}if(r>213){r=r-71}else{r=r+1}return r}var v71=f71(1,1);function f72(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+72}if(r>216){r=r-72}else{r=r+1}return r}var v72=f72(2,2);console.log("m72"+v72);function f73(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+73}if(r>219){r=r-73}else{r=r+1}return r}var v73=f73(3,3);function f74(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+74}if(r>222){r=r-74}else{r=r+1}return r}var v74=f74(4,4);function f75(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+75}if(r>225){r=r-75}else{r=r+1}return r}var v75=f75(5,0);function f76(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+76}if(r>228){r=r-76}else{r=r+1}return r}var v76=f76(6,1);console.log("m76"+v76);function f77(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+77}if(r>231){r=r-77}else{r=r+1}return r}var v77=f77(0,2);function f78(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+78}if(r>234){r=r-78}else{r=r+1}return r}var v78=f78(1,3);function f79(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+79}if(r>237){r=r-79}else{r=r+1}return r}var v79=f79(2,4);function f80(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+80}if(r>240){r=r-80}else{r=r+1}return r}var v80=f80(3,0);console.log("m80"+v80);function f81(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+81}if(r>243){r=r-81}else{r=r+1}return r}var v81=f81(4,1);function f82(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+82}if(r>246){r=r-82}else{r=r+1}return r}var v82=f82(5,2);function f83(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+83}if(r>249){r=r-83}else{r=r+1}return r}var v83=f83(6,3);function f84(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+84}if(r>252){r=r-84}else{r=r+1}return r}var v84=f84(0,4);console.log("m84"+v84);function f85(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+85}if(r>255){r=r-85}else{r=r+1}return r}var v85=f85(1,0);function f86(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+86}if(r>258){r=r-86}else{r=r+1}return r}var v86=f86(2,1);function f87(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+87}if(r>261){r=r-87}else{r=r+1}return r}var v87=f87(3,2);function f88(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+88}if(r>264){r=r-88}else{r=r+1}return r}var v88=f88(4,3);console.log("m88"+v88);function f89(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+89}if(r>267){r=r-89}else{r=r+1}return r}var v89=f89(5,4);function f90(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+90}if(r>270){r=r-90}else{r=r+1}return r}var v90=f90(6,0);function f91(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+91}if(r>273){r=r-91}else{r=r+1}return r}var v91=f91(0,1);function f92(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+92}if(r>276){r=r-92}else{r=r+1}return r}var v92=f92(1,2);console.log("m92"+v92);function f93(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+93}if(r>279){r=r-93}else{r=r+1}return r}var v93=f93(2,3);function f94(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+94}if(r>282){r=r-94}else{r=r+1}return r}var v94=f94(3,4);function f95(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+95}if(r>285){r=r-95}else{r=r+1}return r}var v95=f95(4,0);function f96(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+96}if(r>288){r=r-96}else{r=r+1}return r}var v96=f96(5,1);console.log("m96"+v96);function f97(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+97}if(r>291){r=r-97}else{r=r+1}return r}var v97=f97(6,2);function f98(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+98}if(r>294){r=r-98}else{r=r+1}return r}var v98=f98(0,3);function f99(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+99}if(r>297){r=r-99}else{r=r+1}return r}var v99=f99(1,4);function f100(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+100}if(r>300){r=r-100}else{r=r+1}return r}var v100=f100(2,0);console.log("m100"+v100);function f101(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+101}if(r>303){r=r-101}else{r=r+1}return r}var v101=f101(3,1);function f102(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+102}if(r>306){r=r-102}else{r=r+1}return r}var v102=f102(4,2);function f103(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+103}if(r>309){r=r-103}else{r=r+1}return r}var v103=f103(5,3);function f104(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+104}if(r>312){r=r-104}else{r=r+1}return r}var v104=f104(6,4);console.log("m104"+v104);function f105(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+105}if(r>315){r=r-105}else{r=r+1}return r}var v105=f105(0,0);function f106(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+106}if(r>318){r=r-106}else{r=r+1}return r}var v106=f106(1,1);function f107(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+107}if(r>321){r=r-107}else{r=r+1}return r}var v107=f107(2,2);function f108(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+108}if(r>324){r=r-108}else{r=r+1}return r}var v108=f108(3,3);console.log("m108"+v108);function f109(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+109}if(r>327){r=r-109}else{r=r+1}return r}var v109=f109(4,4);function f110(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+110}if(r>330){r=r-110}else{r=r+1}return r}var v110=f110(5,0);function f111(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+111}if(r>333){r=r-111}else{r=r+1}return r}var v111=f111(6,1);function f112(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+112}if(r>336){r=r-112}else{r=r+1}return r}var v112=f112(0,2);console.log("m112"+v112);function f113(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+113}if(r>339){r=r-113}else{r=r+1}return r}var v113=f113(1,3);function f114(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+114}if(r>342){r=r-114}else{r=r+1}return r}var v114=f114(2,4);function f115(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+115}if(r>345){r=r-115}else{r=r+1}return r}var v115=f115(3,0);function f116(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+116}if(r>348){r=r-116}else{r=r+1}return r}var v116=f116(4,1);console.log("m116"+v116);function f117(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+117}if(r>351){r=r-117}else{r=r+1}return r}var v117=f117(5,2);function f118(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+118}if(r>354){r=r-118}else{r=r+1}return r}var v118=f118(6,3);function f119(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+119}if(r>357){r=r-119}else{r=r+1}return r}var v119=f119(0,4);function f120(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+120}if(r>360){r=r-120}else{r=r+1}return r}var v120=f120(1,0);console.log("m120"+v120);function f121(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+121}if(r>363){r=r-121}else{r=r+1}return r}var v121=f121(2,1);function f122(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+122}if(r>366){r=r-122}else{r=r+1}return r}var v122=f122(3,2);function f123(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+123}if(r>369){r=r-123}else{r=r+1}return r}var v123=f123(4,3);function f124(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+124}if(r>372){r=r-124}else{r=r+1}return r}var v124=f124(5,4);console.log("m124"+v124);function f125(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+125}if(r>375){r=r-125}else{r=r+1}return r}var v125=f125(6,0);function f126(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+126}if(r>378){r=r-126}else{r=r+1}return r}var v126=f126(0,1);function f127(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+127}if(r>381){r=r-127}else{r=r+1}return r}var v127=f127(1,2);function f128(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+128}if(r>384){r=r-128}else{r=r+1}return r}var v128=f128(2,3);console.log("m128"+v128);function f129(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+129}if(r>387){r=r-129}else{r=r+1}return r}var v129=f129(3,4);function f130(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+130}if(r>390){r=r-130}else{r=r+1}return r}var v130=f130(4,0);function f131(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+131}if(r>393){r=r-131}else{r=r+1}return r}var v131=f131(5,1);function f132(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+132}if(r>396){r=r-132}else{r=r+1}return r}var v132=f132(6,2);console.log("m132"+v132);function f133(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+133}if(r>399){r=r-133}else{r=r+1}return r}var v133=f133(0,3);function f134(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+134}if(r>402){r=r-134}else{r=r+1}return r}var v134=f134(1,4);function f135(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+135}if(r>405){r=r-135}else{r=r+1}return r}var v135=f135(2,0);function f136(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+136}if(r>408){r=r-136}else{r=r+1}return r}var v136=f136(3,1);console.log("m136"+v136);function f137(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+137}if(r>411){r=r-137}else{r=r+1}return r}var v137=f137(4,2);function f138(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+138}if(r>414){r=r-138}else{r=r+1}return r}var v138=f138(5,3);function f139(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+139}if(r>417){r=r-139}else{r=r+1}return r}var v139=f139(6,4);function f140(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+140}if(r>420){r=r-140}else{r=r+1}return r}var v140=f140(0,0);console.log("m140"+v140);function f141(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+141}if(r>423){r=r-141}else{r=r+1}return r}var v141=f141(1,1);function f142(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+142}if(r>426){r=r-142}else{r=r+1}return r}var v142=f142(2,2);function f143(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+143}if(r>429){r=r-143}else{r=r+1}return r}var v143=f143(3,3);function f144(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+144}if(r>432){r=r-144}else{r=r+1}return r}var v144=f144(4,4);console.log("m144"+v144);function f145(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+145}if(r>435){r=r-145}else{r=r+1}return r}var v145=f145(5,0);function f146(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+146}if(r>438){r=r-146}else{r=r+1}return r}var v146=f146(6,1);function f147(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+147}if(r>441){r=r-147}else{r=r+1}return r}var v147=f147(0,2);function f148(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+148}if(r>444){r=r-148}else{r=r+1}return r}var v148=f148(1,3);console.log("m148"+v148);function f149(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+149}if(r>447){r=r-149}else{r=r+1}return r}var v149=f149(2,4);function f150(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+150}if(r>450){r=r-150}else{r=r+1}return r}var v150=f150(3,0);function f151(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+151}if(r>453){r=r-151}else{r=r+1}return r}var v151=f151(4,1);function f152(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+152}if(r>456){r=r-152}else{r=r+1}return r}var v152=f152(5,2);console.log("m152"+v152);function f153(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+153}if(r>459){r=r-153}else{r=r+1}return r}var v153=f153(6,3);function f154(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+154}if(r>462){r=r-154}else{r=r+1}return r}var v154=f154(0,4);function f155(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+155}if(r>465){r=r-155}else{r=r+1}return r}var v155=f155(1,0);function f156(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+156}if(r>468){r=r-156}else{r=r+1}return r}var v156=f156(2,1);console.log("m156"+v156);function f157(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+157}if(r>471){r=r-157}else{r=r+1}return r}var v157=f157(3,2);function f158(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+158}if(r>474){r=r-158}else{r=r+1}return r}var v158=f158(4,3);function f159(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+159}if(r>477){r=r-159}else{r=r+1}return r}var v159=f159(5,4);function f160(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+160}if(r>480){r=r-160}else{r=r+1}return r}var v160=f160(6,0);console.log("m160"+v160);function f161(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+161}if(r>483){r=r-161}else{r=r+1}return r}var v161=f161(0,1);function f162(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+162}if(r>486){r=r-162}else{r=r+1}return r}var v162=f162(1,2);function f163(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+163}if(r>489){r=r-163}else{r=r+1}return r}var v163=f163(2,3);function f164(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+164}if(r>492){r=r-164}else{r=r+1}return r}var v164=f164(3,4);console.log("m164"+v164);function f165(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+165}if(r>495){r=r-165}else{r=r+1}return r}var v165=f165(4,0);function f166(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+166}if(r>498){r=r-166}else{r=r+1}return r}var v166=f166(5,1);function f167(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+167}if(r>501){r=r-167}else{r=r+1}return r}var v167=f167(6,2);function f168(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+168}if(r>504){r=r-168}else{r=r+1}return r}var v168=f168(0,3);console.log("m168"+v168);function f169(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+169}if(r>507){r=r-169}else{r=r+1}return r}var v169=f169(1,4);function f170(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+170}if(r>510){r=r-170}else{r=r+1}return r}var v170=f170(2,0);function f171(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+171}if(r>513){r=r-171}else{r=r+1}return r}var v171=f171(3,1);function f172(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+172}if(r>516){r=r-172}else{r=r+1}return r}var v172=f172(4,2);console.log("m172"+v172);function f173(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+173}if(r>519){r=r-173}else{r=r+1}return r}var v173=f173(5,3);function f174(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+174}if(r>522){r=r-174}else{r=r+1}return r}var v174=f174(6,4);function f175(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+175}if(r>525){r=r-175}else{r=r+1}return r}var v175=f175(0,0);function f176(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+176}if(r>528){r=r-176}else{r=r+1}return r}var v176=f176(1,1);console.log("m176"+v176);function f177(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+177}if(r>531){r=r-177}else{r=r+1}return r}var v177=f177(2,2);function f178(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+178}if(r>534){r=r-178}else{r=r+1}return r}var v178=f178(3,3);function f179(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+179}if(r>537){r=r-179}else{r=r+1}return r}var v179=f179(4,4);function f180(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+180}if(r>540){r=r-180}else{r=r+1}return r}var v180=f180(5,0);console.log("m180"+v180);function f181(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+181}if(r>543){r=r-181}else{r=r+1}return r}var v181=f181(6,1);function f182(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+182}if(r>546){r=r-182}else{r=r+1}return r}var v182=f182(0,2);function f183(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+183}if(r>549){r=r-183}else{r=r+1}return r}var v183=f183(1,3);function f184(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+184}if(r>552){r=r-184}else{r=r+1}return r}var v184=f184(2,4);console.log("m184"+v184);function f185(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+185}if(r>555){r=r-185}else{r=r+1}return r}var v185=f185(3,0);function f186(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+186}if(r>558){r=r-186}else{r=r+1}return r}var v186=f186(4,1);function f187(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+187}if(r>561){r=r-187}else{r=r+1}return r}var v187=f187(5,2);function f188(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+188}if(r>564){r=r-188}else{r=r+1}return r}var v188=f188(6,3);console.log("m188"+v188);function f189(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+189}if(r>567){r=r-189}else{r=r+1}return r}var v189=f189(0,4);function f190(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+190}if(r>570){r=r-190}else{r=r+1}return r}var v190=f190(1,0);function f191(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+191}if(r>573){r=r-191}else{r=r+1}return r}var v191=f191(2,1);function f192(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+192}if(r>576){r=r-192}else{r=r+1}return r}var v192=f192(3,2);console.log("m192"+v192);function f193(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+193}if(r>579){r=r-193}else{r=r+1}return r}var v193=f193(4,3);function f194(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+194}if(r>582){r=r-194}else{r=r+1}return r}var v194=f194(5,4);function f195(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+195}if(r>585){r=r-195}else{r=r+1}return r}var v195=f195(6,0);function f196(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+196}if(r>588){r=r-196}else{r=r+1}return r}var v196=f196(0,1);console.log("m196"+v196);function f197(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+197}if(r>591){r=r-197}else{r=r+1}return r}var v197=f197(1,2);function f198(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+198}if(r>594){r=r-198}else{r=r+1}return r}var v198=f198(2,3);function f199(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+199}if(r>597){r=r-199}else{r=r+1}return r}var v199=f199(3,4);function f200(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+200}if(r>600){r=r-200}else{r=r+1}return r}var v200=f200(4,0);console.log("m200"+v200);function f201(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+201}if(r>603){r=r-201}else{r=r+1}return r}var v201=f201(5,1);function f202(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+202}if(r>606){r=r-202}else{r=r+1}return r}var v202=f202(6,2);function f203(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+203}if(r>609){r=r-203}else{r=r+1}return r}var v203=f203(0,3);function f204(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+204}if(r>612){r=r-204}else{r=r+1}return r}var v204=f204(1,4);console.log("m204"+v204);function f205(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+205}if(r>615){r=r-205}else{r=r+1}return r}var v205=f205(2,0);function f206(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+206}if(r>618){r=r-206}else{r=r+1}return r}var v206=f206(3,1);function f207(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+207}if(r>621){r=r-207}else{r=r+1}return r}var v207=f207(4,2);function f208(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+208}if(r>624){r=r-208}else{r=r+1}return r}var v208=f208(5,3);console.log("m208"+v208);function f209(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+209}if(r>627){r=r-209}else{r=r+1}return r}var v209=f209(6,4);function f210(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+210}if(r>630){r=r-210}else{r=r+1}return r}var v210=f210(0,0);function f211(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+211}if(r>633){r=r-211}else{r=r+1}return r}var v211=f211(1,1);function f212(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+212}if(r>636){r=r-212}else{r=r+1}return r}var v212=f212(2,2);console.log("m212"+v212);function f213(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+213}if(r>639){r=r-213}else{r=r+1}return r}var v213=f213(3,3);function f214(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+214}if(r>642){r=r-214}else{r=r+1}return r}var v214=f214(4,4);function f215(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+215}if(r>645){r=r-215}else{r=r+1}return r}var v215=f215(5,0);function f216(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+216}if(r>648){r=r-216}else{r=r+1}return r}var v216=f216(6,1);console.log("m216"+v216);function f217(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+217}if(r>651){r=r-217}else{r=r+1}return r}var v217=f217(0,2);function f218(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+218}if(r>654){r=r-218}else{r=r+1}return r}var v218=f218(1,3);function f219(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+219}if(r>657){r=r-219}else{r=r+1}return r}var v219=f219(2,4);function f220(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+220}if(r>660){r=r-220}else{r=r+1}return r}var v220=f220(3,0);console.log("m220"+v220);function f221(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+221}if(r>663){r=r-221}else{r=r+1}return r}var v221=f221(4,1);function f222(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+222}if(r>666){r=r-222}else{r=r+1}return r}var v222=f222(5,2);function f223(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+223}if(r>669){r=r-223}else{r=r+1}return r}var v223=f223(6,3);function f224(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+224}if(r>672){r=r-224}else{r=r+1}return r}var v224=f224(0,4);console.log("m224"+v224);function f225(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+225}if(r>675){r=r-225}else{r=r+1}return r}var v225=f225(1,0);function f226(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+226}if(r>678){r=r-226}else{r=r+1}return r}var v226=f226(2,1);function f227(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+227}if(r>681){r=r-227}else{r=r+1}return r}var v227=f227(3,2);function f228(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+228}if(r>684){r=r-228}else{r=r+1}return r}var v228=f228(4,3);console.log("m228"+v228);function f229(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+229}if(r>687){r=r-229}else{r=r+1}return r}var v229=f229(5,4);function f230(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+230}if(r>690){r=r-230}else{r=r+1}return r}var v230=f230(6,0);function f231(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+231}if(r>693){r=r-231}else{r=r+1}return r}var v231=f231(0,1);function f232(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+232}if(r>696){r=r-232}else{r=r+1}return r}var v232=f232(1,2);console.log("m232"+v232);function f233(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+233}if(r>699){r=r-233}else{r=r+1}return r}var v233=f233(2,3);function f234(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+234}if(r>702){r=r-234}else{r=r+1}return r}var v234=f234(3,4);function f235(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+235}if(r>705){r=r-235}else{r=r+1}return r}var v235=f235(4,0);function f236(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+236}if(r>708){r=r-236}else{r=r+1}return r}var v236=f236(5,1);console.log("m236"+v236);function f237(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+237}if(r>711){r=r-237}else{r=r+1}return r}var v237=f237(6,2);function f238(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+238}if(r>714){r=r-238}else{r=r+1}return r}var v238=f238(0,3);function f239(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+239}if(r>717){r=r-239}else{r=r+1}return r}var v239=f239(1,4);function f240(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+240}if(r>720){r=r-240}else{r=r+1}return r}var v240=f240(2,0);console.log("m240"+v240);function f241(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+241}if(r>723){r=r-241}else{r=r+1}return r}var v241=f241(3,1);function f242(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+242}if(r>726){r=r-242}else{r=r+1}return r}var v242=f242(4,2);function f243(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+243}if(r>729){r=r-243}else{r=r+1}return r}var v243=f243(5,3);function f244(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+244}if(r>732){r=r-244}else{r=r+1}return r}var v244=f244(6,4);console.log("m244"+v244);function f245(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+245}if(r>735){r=r-245}else{r=r+1}return r}var v245=f245(0,0);function f246(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+246}if(r>738){r=r-246}else{r=r+1}return r}var v246=f246(1,1);function f247(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+247}if(r>741){r=r-247}else{r=r+1}return r}var v247=f247(2,2);function f248(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+248}if(r>744){r=r-248}else{r=r+1}return r}var v248=f248(3,3);console.log("m248"+v248);function f249(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+249}if(r>747){r=r-249}else{r=r+1}return r}var v249=f249(4,4);function f250(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+250}if(r>750){r=r-250}else{r=r+1}return r}var v250=f250(5,0);function f251(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+251}if(r>753){r=r-251}else{r=r+1}return r}var v251=f251(6,1);function f252(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+252}if(r>756){r=r-252}else{r=r+1}return r}var v252=f252(0,2);console.log("m252"+v252);function f253(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+253}if(r>759){r=r-253}else{r=r+1}return r}var v253=f253(1,3);function f254(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+254}if(r>762){r=r-254}else{r=r+1}return r}var v254=f254(2,4);function f255(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+255}if(r>765){r=r-255}else{r=r+1}return r}var v255=f255(3,0);function f256(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+256}if(r>768){r=r-256}else{r=r+1}return r}var v256=f256(4,1);console.log("m256"+v256);function f257(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+257}if(r>771){r=r-257}else{r=r+1}return r}var v257=f257(5,2);function f258(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+258}if(r>774){r=r-258}else{r=r+1}return r}var v258=f258(6,3);function f259(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+259}if(r>777){r=r-259}else{r=r+1}return r}var v259=f259(0,4);function f260(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+260}if(r>780){r=r-260}else{r=r+1}return r}var v260=f260(1,0);console.log("m260"+v260);function f261(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+261}if(r>783){r=r-261}else{r=r+1}return r}var v261=f261(2,1);function f262(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+262}if(r>786){r=r-262}else{r=r+1}return r}var v262=f262(3,2);function f263(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+263}if(r>789){r=r-263}else{r=r+1}return r}var v263=f263(4,3);function f264(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+264}if(r>792){r=r-264}else{r=r+1}return r}var v264=f264(5,4);console.log("m264"+v264);function f265(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+265}if(r>795){r=r-265}else{r=r+1}return r}var v265=f265(6,0);function f266(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+266}if(r>798){r=r-266}else{r=r+1}return r}var v266=f266(0,1);function f267(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+267}if(r>801){r=r-267}else{r=r+1}return r}var v267=f267(1,2);function f268(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+268}if(r>804){r=r-268}else{r=r+1}return r}var v268=f268(2,3);console.log("m268"+v268);function f269(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+269}if(r>807){r=r-269}else{r=r+1}return r}var v269=f269(3,4);function f270(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+270}if(r>810){r=r-270}else{r=r+1}return r}var v270=f270(4,0);function f271(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+271}if(r>813){r=r-271}else{r=r+1}return r}var v271=f271(5,1);function f272(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+272}if(r>816){r=r-272}else{r=r+1}return r}var v272=f272(6,2);console.log("m272"+v272);function f273(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+273}if(r>819){r=r-273}else{r=r+1}return r}var v273=f273(0,3);function f274(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+274}if(r>822){r=r-274}else{r=r+1}return r}var v274=f274(1,4);function f275(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+275}if(r>825){r=r-275}else{r=r+1}return r}var v275=f275(2,0);function f276(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+276}if(r>828){r=r-276}else{r=r+1}return r}var v276=f276(3,1);console.log("m276"+v276);function f277(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+277}if(r>831){r=r-277}else{r=r+1}return r}var v277=f277(4,2);function f278(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+278}if(r>834){r=r-278}else{r=r+1}return r}var v278=f278(5,3);function f279(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+279}if(r>837){r=r-279}else{r=r+1}return r}var v279=f279(6,4);function f280(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+280}if(r>840){r=r-280}else{r=r+1}return r}var v280=f280(0,0);console.log("m280"+v280);function f281(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+281}if(r>843){r=r-281}else{r=r+1}return r}var v281=f281(1,1);function f282(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+282}if(r>846){r=r-282}else{r=r+1}return r}var v282=f282(2,2);function f283(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+283}if(r>849){r=r-283}else{r=r+1}return r}var v283=f283(3,3);function f284(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+284}if(r>852){r=r-284}else{r=r+1}return r}var v284=f284(4,4);console.log("m284"+v284);function f285(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+285}if(r>855){r=r-285}else{r=r+1}return r}var v285=f285(5,0);function f286(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+286}if(r>858){r=r-286}else{r=r+1}return r}var v286=f286(6,1);function f287(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+287}if(r>861){r=r-287}else{r=r+1}return r}var v287=f287(0,2);function f288(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+288}if(r>864){r=r-288}else{r=r+1}return r}var v288=f288(1,3);console.log("m288"+v288);function f289(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+289}if(r>867){r=r-289}else{r=r+1}return r}var v289=f289(2,4);function f290(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+290}if(r>870){r=r-290}else{r=r+1}return r}var v290=f290(3,0);function f291(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+291}if(r>873){r=r-291}else{r=r+1}return r}var v291=f291(4,1);function f292(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+292}if(r>876){r=r-292}else{r=r+1}return r}var v292=f292(5,2);console.log("m292"+v292);function f293(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+293}if(r>879){r=r-293}else{r=r+1}return r}var v293=f293(6,3);function f294(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+294}if(r>882){r=r-294}else{r=r+1}return r}var v294=f294(0,4);function f295(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+295}if(r>885){r=r-295}else{r=r+1}return r}var v295=f295(1,0);function f296(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+296}if(r>888){r=r-296}else{r=r+1}return r}var v296=f296(2,1);console.log("m296"+v296);function f297(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+297}if(r>891){r=r-297}else{r=r+1}return r}var v297=f297(3,2);function f298(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+298}if(r>894){r=r-298}else{r=r+1}return r}var v298=f298(4,3);function f299(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+299}if(r>897){r=r-299}else{r=r+1}return r}var v299=f299(5,4);function f300(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+300}if(r>900){r=r-300}else{r=r+1}return r}var v300=f300(6,0);console.log("m300"+v300);function f301(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+301}if(r>903){r=r-301}else{r=r+1}return r}var v301=f301(0,1);function f302(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+302}if(r>906){r=r-302}else{r=r+1}return r}var v302=f302(1,2);function f303(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+303}if(r>909){r=r-303}else{r=r+1}return r}var v303=f303(2,3);function f304(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+304}if(r>912){r=r-304}else{r=r+1}return r}var v304=f304(3,4);console.log("m304"+v304);function f305(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+305}if(r>915){r=r-305}else{r=r+1}return r}var v305=f305(4,0);function f306(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+306}if(r>918){r=r-306}else{r=r+1}return r}var v306=f306(5,1);function f307(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+307}if(r>921){r=r-307}else{r=r+1}return r}var v307=f307(6,2);function f308(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+308}if(r>924){r=r-308}else{r=r+1}return r}var v308=f308(0,3);console.log("m308"+v308);function f309(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+309}if(r>927){r=r-309}else{r=r+1}return r}var v309=f309(1,4);function f310(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+310}if(r>930){r=r-310}else{r=r+1}return r}var v310=f310(2,0);function f311(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+311}if(r>933){r=r-311}else{r=r+1}return r}var v311=f311(3,1);function f312(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+312}if(r>936){r=r-312}else{r=r+1}return r}var v312=f312(4,2);console.log("m312"+v312);function f313(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+313}if(r>939){r=r-313}else{r=r+1}return r}var v313=f313(5,3);function f314(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+314}if(r>942){r=r-314}else{r=r+1}return r}var v314=f314(6,4);function f315(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+315}if(r>945){r=r-315}else{r=r+1}return r}var v315=f315(0,0);function f316(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+316}if(r>948){r=r-316}else{r=r+1}return r}var v316=f316(1,1);console.log("m316"+v316);function f317(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+317}if(r>951){r=r-317}else{r=r+1}return r}var v317=f317(2,2);function f318(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+318}if(r>954){r=r-318}else{r=r+1}return r}var v318=f318(3,3);function f319(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+319}if(r>957){r=r-319}else{r=r+1}return r}var v319=f319(4,4);function f320(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+320}if(r>960){r=r-320}else{r=r+1}return r}var v320=f320(5,0);console.log("m320"+v320);function f321(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+321}if(r>963){r=r-321}else{r=r+1}return r}var v321=f321(6,1);function f322(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+322}if(r>966){r=r-322}else{r=r+1}return r}var v322=f322(0,2);function f323(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+323}if(r>969){r=r-323}else{r=r+1}return r}var v323=f323(1,3);function f324(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+324}if(r>972){r=r-324}else{r=r+1}return r}var v324=f324(2,4);console.log("m324"+v324);function f325(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+325}if(r>975){r=r-325}else{r=r+1}return r}var v325=f325(3,0);function f326(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+326}if(r>978){r=r-326}else{r=r+1}return r}var v326=f326(4,1);function f327(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+327}if(r>981){r=r-327}else{r=r+1}return r}var v327=f327(5,2);function f328(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+328}if(r>984){r=r-328}else{r=r+1}return r}var v328=f328(6,3);console.log("m328"+v328);function f329(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+329}if(r>987){r=r-329}else{r=r+1}return r}var v329=f329(0,4);function f330(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+330}if(r>990){r=r-330}else{r=r+1}return r}var v330=f330(1,0);function f331(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+331}if(r>993){r=r-331}else{r=r+1}return r}var v331=f331(2,1);function f332(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+332}if(r>996){r=r-332}else{r=r+1}return r}var v332=f332(3,2);console.log("m332"+v332);function f333(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+333}if(r>999){r=r-333}else{r=r+1}return r}var v333=f333(4,3);function f334(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+334}if(r>1002){r=r-334}else{r=r+1}return r}var v334=f334(5,4);function f335(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+335}if(r>1005){r=r-335}else{r=r+1}return r}var v335=f335(6,0);function f336(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+336}if(r>1008){r=r-336}else{r=r+1}return r}var v336=f336(0,1);console.log("m336"+v336);function f337(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+337}if(r>1011){r=r-337}else{r=r+1}return r}var v337=f337(1,2);function f338(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+338}if(r>1014){r=r-338}else{r=r+1}return r}var v338=f338(2,3);function f339(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+339}if(r>1017){r=r-339}else{r=r+1}return r}var v339=f339(3,4);function f340(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+340}if(r>1020){r=r-340}else{r=r+1}return r}var v340=f340(4,0);console.log("m340"+v340);function f341(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+341}if(r>1023){r=r-341}else{r=r+1}return r}var v341=f341(5,1);function f342(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+342}if(r>1026){r=r-342}else{r=r+1}return r}var v342=f342(6,2);function f343(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+343}if(r>1029){r=r-343}else{r=r+1}return r}var v343=f343(0,3);function f344(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+344}if(r>1032){r=r-344}else{r=r+1}return r}var v344=f344(1,4);console.log("m344"+v344);function f345(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+345}if(r>1035){r=r-345}else{r=r+1}return r}var v345=f345(2,0);function f346(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+346}if(r>1038){r=r-346}else{r=r+1}return r}var v346=f346(3,1);function f347(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+347}if(r>1041){r=r-347}else{r=r+1}return r}var v347=f347(4,2);function f348(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+348}if(r>1044){r=r-348}else{r=r+1}return r}var v348=f348(5,3);console.log("m348"+v348);function f349(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+349}if(r>1047){r=r-349}else{r=r+1}return r}var v349=f349(6,4);function f350(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+350}if(r>1050){r=r-350}else{r=r+1}return r}var v350=f350(0,0);function f351(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+351}if(r>1053){r=r-351}else{r=r+1}return r}var v351=f351(1,1);function f352(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+352}if(r>1056){r=r-352}else{r=r+1}return r}var v352=f352(2,2);console.log("m352"+v352);function f353(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+353}if(r>1059){r=r-353}else{r=r+1}return r}var v353=f353(3,3);function f354(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+354}if(r>1062){r=r-354}else{r=r+1}return r}var v354=f354(4,4);function f355(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+355}if(r>1065){r=r-355}else{r=r+1}return r}var v355=f355(5,0);function f356(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+356}if(r>1068){r=r-356}else{r=r+1}return r}var v356=f356(6,1);console.log("m356"+v356);function f357(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+357}if(r>1071){r=r-357}else{r=r+1}return r}var v357=f357(0,2);function f358(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+358}if(r>1074){r=r-358}else{r=r+1}return r}var v358=f358(1,3);function f359(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+359}if(r>1077){r=r-359}else{r=r+1}return r}var v359=f359(2,4);function f360(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+360}if(r>1080){r=r-360}else{r=r+1}return r}var v360=f360(3,0);console.log("m360"+v360);function f361(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+361}if(r>1083){r=r-361}else{r=r+1}return r}var v361=f361(4,1);function f362(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+362}if(r>1086){r=r-362}else{r=r+1}return r}var v362=f362(5,2);function f363(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+363}if(r>1089){r=r-363}else{r=r+1}return r}var v363=f363(6,3);function f364(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+364}if(r>1092){r=r-364}else{r=r+1}return r}var v364=f364(0,4);console.log("m364"+v364);function f365(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+365}if(r>1095){r=r-365}else{r=r+1}return r}var v365=f365(1,0);function f366(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+366}if(r>1098){r=r-366}else{r=r+1}return r}var v366=f366(2,1);function f367(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+367}if(r>1101){r=r-367}else{r=r+1}return r}var v367=f367(3,2);function f368(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+368}if(r>1104){r=r-368}else{r=r+1}return r}var v368=f368(4,3);console.log("m368"+v368);function f369(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+369}if(r>1107){r=r-369}else{r=r+1}return r}var v369=f369(5,4);function f370(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+370}if(r>1110){r=r-370}else{r=r+1}return r}var v370=f370(6,0);function f371(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+371}if(r>1113){r=r-371}else{r=r+1}return r}var v371=f371(0,1);function f372(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+372}if(r>1116){r=r-372}else{r=r+1}return r}var v372=f372(1,2);console.log("m372"+v372);function f373(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+373}if(r>1119){r=r-373}else{r=r+1}return r}var v373=f373(2,3);function f374(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+374}if(r>1122){r=r-374}else{r=r+1}return r}var v374=f374(3,4);function f375(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+375}if(r>1125){r=r-375}else{r=r+1}return r}var v375=f375(4,0);function f376(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+376}if(r>1128){r=r-376}else{r=r+1}return r}var v376=f376(5,1);console.log("m376"+v376);function f377(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+377}if(r>1131){r=r-377}else{r=r+1}return r}var v377=f377(6,2);function f378(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+378}if(r>1134){r=r-378}else{r=r+1}return r}var v378=f378(0,3);function f379(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+379}if(r>1137){r=r-379}else{r=r+1}return r}var v379=f379(1,4);function f380(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+380}if(r>1140){r=r-380}else{r=r+1}return r}var v380=f380(2,0);console.log("m380"+v380);function f381(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+381}if(r>1143){r=r-381}else{r=r+1}return r}var v381=f381(3,1);function f382(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+382}if(r>1146){r=r-382}else{r=r+1}return r}var v382=f382(4,2);function f383(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+383}if(r>1149){r=r-383}else{r=r+1}return r}var v383=f383(5,3);function f384(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+384}if(r>1152){r=r-384}else{r=r+1}return r}var v384=f384(6,4);console.log("m384"+v384);function f385(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+385}if(r>1155){r=r-385}else{r=r+1}return r}var v385=f385(0,0);function f386(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+386}if(r>1158){r=r-386}else{r=r+1}return r}var v386=f386(1,1);function f387(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+387}if(r>1161){r=r-387}else{r=r+1}return r}var v387=f387(2,2);function f388(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+388}if(r>1164){r=r-388}else{r=r+1}return r}var v388=f388(3,3);console.log("m388"+v388);function f389(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+389}if(r>1167){r=r-389}else{r=r+1}return r}var v389=f389(4,4);function f390(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+390}if(r>1170){r=r-390}else{r=r+1}return r}var v390=f390(5,0);function f391(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+391}if(r>1173){r=r-391}else{r=r+1}return r}var v391=f391(6,1);function f392(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+392}if(r>1176){r=r-392}else{r=r+1}return r}var v392=f392(0,2);console.log("m392"+v392);function f393(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+393}if(r>1179){r=r-393}else{r=r+1}return r}var v393=f393(1,3);function f394(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+394}if(r>1182){r=r-394}else{r=r+1}return r}var v394=f394(2,4);function f395(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+395}if(r>1185){r=r-395}else{r=r+1}return r}var v395=f395(3,0);function f396(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+396}if(r>1188){r=r-396}else{r=r+1}return r}var v396=f396(4,1);console.log("m396"+v396);function f397(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+397}if(r>1191){r=r-397}else{r=r+1}return r}var v397=f397(5,2);function f398(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+398}if(r>1194){r=r-398}else{r=r+1}return r}var v398=f398(6,3);function f399(n,t){var r=0;for(var e=0;e<n;e++){r+=t*e+399}if(r>1197){r=r-399}else{r=r+1}return r}var v399=f399(0,4);
+//# sourceMappingURL=bundle.js.map